@@ -0,0 +1,145 @@
+package benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * BenchmarkImages - Locates the Sample Images and Generates
+ *                   Synthetic Larger Images for the Benchmarks
+ *
+ * Sample images are named after their file in images/ (e.g. "image1").
+ * Synthetic images are named "synthetic" followed by their edge length
+ * (e.g. "synthetic1024") and are written once per run to a temp directory.
+ * The sample directory defaults to images/ or ../images/ and may be set
+ * with -Dimages.dir=...
+ */
+public class BenchmarkImages
+{
+    // Dimensions of the Sample Images
+    public static final int SAMPLE_WIDTH = 352;
+    public static final int SAMPLE_HEIGHT = 288;
+
+    // Prefix of Synthetic Image Names
+    private static final String SYNTHETIC = "synthetic";
+
+    // Seed of the Synthetic Image Noise, fixed so Runs are Reproducible
+    private static final long SEED = 42L;
+
+    /**
+     * getWidth - Gets the Width of a Benchmark Image
+     *
+     * @param name - The Image Name
+     * @return int - The Width
+     */
+    public static int getWidth(final String name)
+    {
+        return name.startsWith(SYNTHETIC) ? Integer.parseInt(name.substring(SYNTHETIC.length())) : SAMPLE_WIDTH;
+    }
+
+    /**
+     * getHeight - Gets the Height of a Benchmark Image
+     *
+     * @param name - The Image Name
+     * @return int - The Height
+     */
+    public static int getHeight(final String name)
+    {
+        return name.startsWith(SYNTHETIC) ? Integer.parseInt(name.substring(SYNTHETIC.length())) : SAMPLE_HEIGHT;
+    }
+
+    /**
+     * getPath - Gets the Path of a Benchmark Image File
+     *
+     * @param name  - The Image Name
+     * @param isRGB - TRUE for the .rgb File, FALSE for the .raw File
+     * @return String - The Path of the File
+     * @throws IOException
+     */
+    public static String getPath(final String name, final boolean isRGB) throws IOException
+    {
+        final String fileName = name + (isRGB ? ".rgb" : ".raw");
+
+        // Check if Synthetic Image
+        if(name.startsWith(SYNTHETIC))
+        {
+            final File file = new File(System.getProperty("java.io.tmpdir"), "vq-benchmark-" + fileName);
+
+            if(!file.exists())
+            {
+                writeSyntheticImage(file, getWidth(name), getHeight(name), isRGB ? 3 : 1);
+            }
+
+            return file.getPath();
+        }
+
+        return new File(getImageDir(), fileName).getPath();
+    }
+
+    /**
+     * getImageDir - Gets the Directory of the Sample Images
+     *
+     * @return File - The Directory
+     */
+    private static File getImageDir()
+    {
+        // Check for an Explicit Directory
+        final String dir = System.getProperty("images.dir");
+        if(dir != null)
+        {
+            return new File(dir);
+        }
+
+        // Run from either the Repository or the Benchmark Module
+        final File images = new File("images");
+
+        return images.isDirectory() ? images : new File("../images");
+    }
+
+    /**
+     * writeSyntheticImage - Writes a Planar Image of Smooth Gradients,
+     *                       Ripples and Noise in the raw/rgb Layout
+     *
+     * @param file     - The File to Write
+     * @param width    - The Width of the Image
+     * @param height   - The Height of the Image
+     * @param channels - 1 for Grayscale, 3 for Red, Green and Blue Planes
+     * @throws IOException
+     */
+    private static void writeSyntheticImage(final File file, final int width, final int height, final int channels) throws IOException
+    {
+        // Initialize Planar Pixels
+        final byte[] pixels = new byte[width * height * channels];
+        final Random random = new Random(SEED);
+
+        // Iterate over Planes
+        for(int c = 0; c < channels; ++c)
+        {
+            // Iterate over Pixels
+            for(int y = 0; y < height; ++y)
+            {
+                for(int x = 0; x < width; ++x)
+                {
+                    final double gradient = 255.0 * (x + (c + 1) * y) / (width + (c + 1) * height);
+                    final double ripple = 40.0 * Math.sin((x + c * 17) / 23.0) * Math.cos(y / 31.0);
+                    final double value = gradient + ripple + random.nextGaussian() * 8.0;
+
+                    pixels[c * width * height + y * width + x] = (byte) Math.max(0, Math.min(255, (int) value));
+                }
+            }
+        }
+
+        // Write to a Temporary File then Move into Place
+        final File temp = new File(file.getPath() + ".tmp");
+        try(final OutputStream out = new FileOutputStream(temp))
+        {
+            out.write(pixels);
+        }
+        if(!temp.renameTo(file) && !file.exists())
+        {
+            throw new IOException("Unable to write " + file);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data.imageTypes.GrayscaleImage;
+import enums.EVectorMode;
+import util.ImageUtil;
+
+/**
+ * GrayscaleImageBenchmark - Measures each Phase of Grayscale
+ *                           Training, Quantization and Reconstruction
+ *
+ * The codebook is trained for a fixed number of iterations
+ * during setup, so every phase runs against a realistic codebook.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrayscaleImageBenchmark
+{
+    // Maximum Codebook Verification Rounds during Setup
+    private static final int VERIFY_ROUNDS = 100;
+
+    // Lloyd Iterations run during Setup
+    private static final int TRAIN_ITERATIONS = 5;
+
+    // Image to Compress
+    @Param({"image1", "synthetic1024"})
+    public String image;
+
+    // How Pixels are Grouped to form Vectors
+    @Param({"SIDE_BY_SIDE", "TWO_BY_TWO", "FOUR_BY_FOUR"})
+    public EVectorMode mode;
+
+    // Number of Codewords
+    @Param({"16", "64", "256"})
+    public int n;
+
+    // Loaded Image
+    private BufferedImage _image;
+
+    // Trained Image
+    private GrayscaleImage _grayImage;
+
+    // Codeword Index of each Input Vector
+    private ArrayList<Integer> _indices;
+
+    /**
+     * setup - Loads the Image and Trains its Codebook
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        // Load Image
+        final int width = BenchmarkImages.getWidth(image);
+        final int height = BenchmarkImages.getHeight(image);
+        _image = ImageUtil.convertRawImage(BenchmarkImages.getPath(image, false), width, height);
+
+        // Generate Input Vectors and Initial Codebook
+        _grayImage = new GrayscaleImage(width, height, n, mode);
+        _grayImage.generateInputVectors(_image);
+        _grayImage.generateCodebook();
+
+        // Train Codebook
+        for(int i = 0; i < VERIFY_ROUNDS && !_grayImage.verifyCodebook(); ++i)
+        {
+            // Keep Verifying
+        }
+        for(int i = 0; i < TRAIN_ITERATIONS; ++i)
+        {
+            _grayImage.updateCodebook();
+            _grayImage.generateClusterMap();
+        }
+
+        // Quantize Image
+        _indices = _grayImage.quantizeImage();
+    }
+
+    /**
+     * generateInputVectors
+     *
+     * @return GrayscaleImage
+     */
+    @Benchmark
+    public GrayscaleImage generateInputVectors()
+    {
+        final GrayscaleImage grayImage = new GrayscaleImage(_image.getWidth(), _image.getHeight(), n, mode);
+        grayImage.generateInputVectors(_image);
+
+        return grayImage;
+    }
+
+    /**
+     * generateClusterMap
+     */
+    @Benchmark
+    public void generateClusterMap()
+    {
+        _grayImage.generateClusterMap();
+    }
+
+    /**
+     * updateCodebook
+     *
+     * @return double
+     */
+    @Benchmark
+    public double updateCodebook()
+    {
+        return _grayImage.updateCodebook();
+    }
+
+    /**
+     * quantizeImage
+     *
+     * @return ArrayList<Integer>
+     */
+    @Benchmark
+    public ArrayList<Integer> quantizeImage()
+    {
+        return _grayImage.quantizeImage();
+    }
+
+    /**
+     * reconstructImage
+     *
+     * @return BufferedImage
+     */
+    @Benchmark
+    public BufferedImage reconstructImage()
+    {
+        return _grayImage.reconstructImage(_indices);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.ImageUtil;
+
+/**
+ * ImageLoadBenchmark - Measures Loading raw/rgb Files
+ *                      into Buffered Images
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageLoadBenchmark
+{
+    // Image to Load
+    @Param({"image1", "synthetic1024"})
+    public String image;
+
+    // Paths/Dimensions of the Image
+    private String _rawPath;
+    private String _rgbPath;
+    private int _width;
+    private int _height;
+
+    /**
+     * setup - Locates or Generates the Image Files
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        _rawPath = BenchmarkImages.getPath(image, false);
+        _rgbPath = BenchmarkImages.getPath(image, true);
+        _width = BenchmarkImages.getWidth(image);
+        _height = BenchmarkImages.getHeight(image);
+    }
+
+    /**
+     * convertRawImage
+     *
+     * @return BufferedImage
+     * @throws IOException if the Image cannot be Read
+     */
+    @Benchmark
+    public BufferedImage convertRawImage() throws IOException
+    {
+        return ImageUtil.convertRawImage(_rawPath, _width, _height);
+    }
+
+    /**
+     * convertRGBImage
+     *
+     * @return BufferedImage
+     * @throws IOException if the Image cannot be Read
+     */
+    @Benchmark
+    public BufferedImage convertRGBImage() throws IOException
+    {
+        return ImageUtil.convertRGBImage(_rgbPath, _width, _height);
+    }
+}
@@ -0,0 +1,168 @@
+package benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data.imageTypes.VectorQuantizer;
+import enums.EVectorMode;
+import util.ImageUtil;
+import util.PlaneUtil;
+
+/**
+ * VectorQuantizerBenchmark - Measures each Phase of Color Training,
+ *                            Quantization and Reconstruction
+ *
+ * One plane matches a single RGB or YCbCr channel, three planes
+ * match the joint RGB mode. The codebook is trained for a fixed
+ * number of iterations during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorQuantizerBenchmark
+{
+    // Maximum Codebook Verification Rounds during Setup
+    private static final int VERIFY_ROUNDS = 100;
+
+    // Lloyd Iterations run during Setup
+    private static final int TRAIN_ITERATIONS = 5;
+
+    // Image to Compress
+    @Param({"image1", "synthetic1024"})
+    public String image;
+
+    // How Pixels are Grouped to form Vectors
+    @Param({"SIDE_BY_SIDE", "TWO_BY_TWO", "FOUR_BY_FOUR"})
+    public EVectorMode mode;
+
+    // Number of Codewords
+    @Param({"16", "64", "256"})
+    public int n;
+
+    // Number of Planes in each Vector
+    @Param({"1", "3"})
+    public int planes;
+
+    // Pixel Planes of the Image
+    private int[][] _planes;
+    private int _width;
+    private int _height;
+
+    // Trained Quantizer
+    private VectorQuantizer _quantizer;
+
+    // Trained Codewords and Codeword Indices
+    private int[][] _codewords;
+    private int[] _indices;
+
+    /**
+     * setup - Loads the Image and Trains its Codebook
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        // Load Image
+        _width = BenchmarkImages.getWidth(image);
+        _height = BenchmarkImages.getHeight(image);
+        final BufferedImage bufferedImage = ImageUtil.convertRGBImage(BenchmarkImages.getPath(image, true), _width, _height);
+
+        // Use the Leading Planes
+        final int[][] rgb = PlaneUtil.getPlanes(bufferedImage, 3);
+        _planes = new int[planes][];
+        System.arraycopy(rgb, 0, _planes, 0, planes);
+
+        // Generate Input Vectors and Initial Codebook
+        _quantizer = new VectorQuantizer(_width, _height, n, mode, planes);
+        _quantizer.generateInputVectors(_planes);
+        _quantizer.generateCodebook();
+
+        // Train Codebook
+        for(int i = 0; i < VERIFY_ROUNDS && !_quantizer.verifyCodebook(); ++i)
+        {
+            // Keep Verifying
+        }
+        for(int i = 0; i < TRAIN_ITERATIONS; ++i)
+        {
+            _quantizer.updateCodebook();
+            _quantizer.generateClusterMap();
+        }
+
+        // Quantize Image
+        _codewords = _quantizer.getCodewords();
+        _indices = _quantizer.quantizeImage();
+    }
+
+    /**
+     * generateInputVectors
+     *
+     * @return VectorQuantizer
+     */
+    @Benchmark
+    public VectorQuantizer generateInputVectors()
+    {
+        final VectorQuantizer quantizer = new VectorQuantizer(_width, _height, n, mode, planes);
+        quantizer.generateInputVectors(_planes);
+
+        return quantizer;
+    }
+
+    /**
+     * generateClusterMap
+     */
+    @Benchmark
+    public void generateClusterMap()
+    {
+        _quantizer.generateClusterMap();
+    }
+
+    /**
+     * updateCodebook
+     *
+     * @return double
+     */
+    @Benchmark
+    public double updateCodebook()
+    {
+        return _quantizer.updateCodebook();
+    }
+
+    /**
+     * quantizeImage
+     *
+     * @return int[]
+     */
+    @Benchmark
+    public int[] quantizeImage()
+    {
+        return _quantizer.quantizeImage();
+    }
+
+    /**
+     * reconstructImage
+     *
+     * @return int[][]
+     */
+    @Benchmark
+    public int[][] reconstructImage()
+    {
+        return VectorQuantizer.reconstructPlanes(_codewords, _indices, planes, _width, _height, mode);
+    }
+}
@@ -0,0 +1,125 @@
+package data.imageTypes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.CompressedImageUtil;
+import util.PlaneUtil;
+
+/**
+ * LatticeQuantizerTest - Checks Snapped Blocks are Coded within the
+ *                        Codebook Size and Decode from the Compressed File
+ */
+class LatticeQuantizerTest
+{
+    // Dimensions of the Plane
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 64;
+
+    // Maximum Number of Lattice Points
+    private static final int N = 256;
+
+    // Directory for the Compressed File
+    @TempDir
+    File _directory;
+
+    /**
+     * encodeDecode - Every Block Decodes to the Lattice Point it was Snapped to,
+     *                close to the Block, after a Round Trip through the File
+     *
+     * @param fitted - TRUE for the Fitted Variant
+     * @throws IOException
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void encodeDecode(final boolean fitted) throws IOException
+    {
+        // Fill a Gradient with Noise
+        final Random random = new Random(1);
+        final int[] plane = new int[WIDTH * HEIGHT];
+        for(int i = 0; i < plane.length; ++i)
+        {
+            plane[i] = Math.min(255, (i % WIDTH) * 3 + (i / WIDTH) + random.nextInt(24));
+        }
+
+        // Snap and Quantize the Plane
+        final LatticeQuantizer lattice = new LatticeQuantizer(WIDTH, HEIGHT, N, 1);
+        lattice.setFitted(fitted);
+        lattice.generateInputVectors(new int[][] { plane });
+        lattice.generateCodebook();
+        final CompressedImage compressedImage = new CompressedImage(WIDTH, HEIGHT, EVectorMode.LATTICE, EColorMode.GRAYSCALE);
+        lattice.quantizeImage(compressedImage);
+
+        // Every Block has a Point of the Codebook, which holds at most n Points
+        final int[][] codebook = compressedImage.getCodebook(0);
+        final int[] indices = compressedImage.getIndices(0);
+        assertTrue(codebook.length <= N);
+        assertEquals(PlaneUtil.getBlockCount(WIDTH, HEIGHT, EVectorMode.LATTICE), indices.length);
+        for(final int index : indices)
+        {
+            assertTrue(index >= 0 && index < codebook.length);
+        }
+
+        // Write and Read the Compressed File
+        final File file = new File(_directory, "lattice." + CompressedImageUtil.EXTENSION);
+        CompressedImageUtil.writeCompressedImage(compressedImage, file);
+        final CompressedImage read = CompressedImageUtil.readCompressedImage(file);
+
+        // Each Block Decodes to its Lattice Point
+        final int[] decoded = read.decodeImage().getRaster().getSamples(0, 0, WIDTH, HEIGHT, 0, (int[]) null);
+        final int[] expected = VectorQuantizer.reconstructPlanes(codebook, indices, 1, WIDTH, HEIGHT, EVectorMode.LATTICE)[0];
+        assertArrayEquals(expected, decoded);
+
+        // The Points are Close to the Blocks, far Closer than the Spread of the Plane
+        assertTrue(getMeanSquaredError(plane, decoded) < getVariance(plane) / 50);
+    }
+
+    /**
+     * getMeanSquaredError
+     *
+     * @param a - The First Plane
+     * @param b - The Second Plane
+     * @return double - The Mean Squared Error per Pixel
+     */
+    private static double getMeanSquaredError(final int[] a, final int[] b)
+    {
+        double error = 0.0;
+        for(int i = 0; i < a.length; ++i)
+        {
+            error += (double) (a[i] - b[i]) * (a[i] - b[i]);
+        }
+
+        return error / a.length;
+    }
+
+    /**
+     * getVariance
+     *
+     * @param plane - The Plane
+     * @return double - The Variance of its Pixels
+     */
+    private static double getVariance(final int[] plane)
+    {
+        double sum = 0.0;
+        double squares = 0.0;
+        for(final int pixel : plane)
+        {
+            sum += pixel;
+            squares += (double) pixel * pixel;
+        }
+
+        final double mean = sum / plane.length;
+        return squares / plane.length - mean * mean;
+    }
+}
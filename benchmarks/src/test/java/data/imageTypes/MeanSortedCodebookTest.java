@@ -0,0 +1,129 @@
+package data.imageTypes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * MeanSortedCodebookTest - Checks the Equal-Average Search finds what
+ *                          a Full Search of the Codebook finds
+ */
+class MeanSortedCodebookTest
+{
+    // Vectors Searched for each Codebook
+    private static final int VECTORS = 500;
+
+    /**
+     * searchMatchesFullSearch - The Closest Codeword, its Distance and the
+     *                           Second Closest Distance equal a Full Search,
+     *                           over Codebooks with Repeated Codewords
+     */
+    @Test
+    void searchMatchesFullSearch()
+    {
+        final Random random = new Random(1);
+
+        // Iterate over Side by Side, 2x2 and 4x4 Dimensions
+        for(final int dimension : new int[] { 2, 4, 16 })
+        {
+            for(final int size : new int[] { 1, 2, 7, 64, 300 })
+            {
+                // Draw Codewords, Repeating some so Ties Occur
+                final int[][] codewords = new int[size][];
+                for(int i = 0; i < size; ++i)
+                {
+                    codewords[i] = (i > 0 && random.nextInt(4) == 0) ? codewords[random.nextInt(i)].clone()
+                                                                     : getVector(random, dimension);
+                }
+
+                final MeanSortedCodebook codebook = new MeanSortedCodebook(dimension);
+                codebook.build(codewords);
+
+                // Iterate over Vectors, some Equal to a Codeword
+                for(int v = 0; v < VECTORS; ++v)
+                {
+                    final int[] vector = (v % 5 == 0) ? codewords[random.nextInt(size)].clone() : getVector(random, dimension);
+                    final String context = "dimension " + dimension + ", size " + size + ", vector " + v;
+
+                    // Find the Closest and Second Closest by Full Search, Ties going to the Lowest Index
+                    int closest = -1;
+                    long closestDistance = Long.MAX_VALUE;
+                    long secondDistance = Long.MAX_VALUE;
+                    for(int i = 0; i < size; ++i)
+                    {
+                        final long dist = getDistance(vector, codewords[i]);
+                        if(dist < closestDistance)
+                        {
+                            secondDistance = closestDistance;
+                            closestDistance = dist;
+                            closest = i;
+                        }
+                        else if(dist < secondDistance)
+                        {
+                            secondDistance = dist;
+                        }
+                    }
+
+                    assertEquals(closest, codebook.search(vector, 0, false), context);
+                    assertEquals(closestDistance, codebook.getClosestDistance(), context);
+
+                    assertEquals(closest, codebook.search(vector, 0, true), context);
+                    assertEquals(secondDistance, codebook.getSecondDistance(), context);
+                }
+            }
+        }
+    }
+
+    /**
+     * emptyCodebookFindsNothing - A Search of no Codewords Finds None
+     */
+    @Test
+    void emptyCodebookFindsNothing()
+    {
+        final MeanSortedCodebook codebook = new MeanSortedCodebook(4);
+        codebook.build(new int[0][]);
+
+        assertEquals(-1, codebook.search(new int[] { 1, 2, 3, 4 }, 0, false));
+    }
+
+    /**
+     * getVector - Draws a Vector of Clustered Pixel Values
+     *
+     * @param random    - The Source of Values
+     * @param dimension - The Number of Pixel Values
+     * @return int[] - The Vector
+     */
+    private static int[] getVector(final Random random, final int dimension)
+    {
+        // Pixels of a Block lie near a Common Mean, as in Images
+        final int mean = random.nextInt(256);
+        final int[] vector = new int[dimension];
+        for(int d = 0; d < dimension; ++d)
+        {
+            vector[d] = Math.max(0, Math.min(255, mean + random.nextInt(41) - 20));
+        }
+
+        return vector;
+    }
+
+    /**
+     * getDistance - Gets the Squared Distance between two Vectors
+     *
+     * @param a - The First Vector
+     * @param b - The Second Vector
+     * @return long - The Squared Distance
+     */
+    private static long getDistance(final int[] a, final int[] b)
+    {
+        long dist = 0;
+        for(int d = 0; d < a.length; ++d)
+        {
+            final int diff = a[d] - b[d];
+            dist += diff * diff;
+        }
+
+        return dist;
+    }
+}
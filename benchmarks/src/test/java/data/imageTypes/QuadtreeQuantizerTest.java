@@ -0,0 +1,75 @@
+package data.imageTypes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.CompressedImageUtil;
+
+/**
+ * QuadtreeQuantizerTest - Checks the Split Flags survive the
+ *                         Compressed File and Drive the Decoder
+ */
+class QuadtreeQuantizerTest
+{
+    // Dimensions of the Plane, one Flat and one Busy Root Block
+    private static final int WIDTH = 16;
+    private static final int HEIGHT = 8;
+
+    // Value of the Flat Root Block
+    private static final int FLAT = 100;
+
+    // Directory for the Compressed File
+    @TempDir
+    File _directory;
+
+    /**
+     * splitFlagsRoundTrip - Every Block is its own Codeword, so the
+     *                       Decoded Plane only matches the Original if the
+     *                       Split Flags place every Block where it was Cut
+     *
+     * @throws IOException
+     */
+    @Test
+    void splitFlagsRoundTrip() throws IOException
+    {
+        // Fill the Left Root Block Flat and the Right one with Busy Values
+        final int[] plane = new int[WIDTH * HEIGHT];
+        for(int y = 0; y < HEIGHT; ++y)
+        {
+            for(int x = 0; x < WIDTH; ++x)
+            {
+                plane[y * WIDTH + x] = (x < WIDTH / 2) ? FLAT : (x * 73 + y * 151) % 256;
+            }
+        }
+
+        // Split and Quantize without Training, each Level Seeded with its Distinct Blocks
+        final QuadtreeQuantizer quadtree = new QuadtreeQuantizer(WIDTH, HEIGHT, 256, 1);
+        quadtree.generateInputVectors(new int[][] { plane });
+        final CompressedImage compressedImage = new CompressedImage(WIDTH, HEIGHT, EVectorMode.QUADTREE, EColorMode.GRAYSCALE);
+        quadtree.quantizeImage(compressedImage);
+
+        // The Flat Root Block is Kept Whole, the Busy one is Split
+        final boolean[] splitFlags = compressedImage.getSplitFlags(0);
+        assertFalse(splitFlags[0]);
+        assertTrue(splitFlags[1]);
+
+        // Write and Read the Compressed File
+        final File file = new File(_directory, "quadtree." + CompressedImageUtil.EXTENSION);
+        CompressedImageUtil.writeCompressedImage(compressedImage, file);
+        final CompressedImage read = CompressedImageUtil.readCompressedImage(file);
+
+        // The Flags, and with them the Decoded Plane, are Unchanged
+        assertArrayEquals(splitFlags, read.getSplitFlags(0));
+        final int[] decoded = read.decodeImage().getRaster().getSamples(0, 0, WIDTH, HEIGHT, 0, (int[]) null);
+        assertArrayEquals(plane, decoded);
+    }
+}
@@ -0,0 +1,100 @@
+package data.imageTypes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import enums.EVectorMode;
+
+/**
+ * VectorQuantizerTest - Checks Cluster Map Updates that Skip Searches
+ *                       by their Distance Bounds Map every Vector
+ *                       as a Full Search would
+ */
+class VectorQuantizerTest
+{
+    // Dimensions of the Plane
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 64;
+
+    // Number of Codewords
+    private static final int N = 32;
+
+    // Lloyd Iterations Checked
+    private static final int ITERATIONS = 12;
+
+    /**
+     * skippedSearchesMatchFullSearch - Every Cluster Map of a Training run
+     *                                  equals a Full Search of the Codebook
+     */
+    @Test
+    void skippedSearchesMatchFullSearch()
+    {
+        // Fill a Gradient with Noise, so Codewords keep Moving a little
+        final Random random = new Random(1);
+        final int[] plane = new int[WIDTH * HEIGHT];
+        for(int i = 0; i < plane.length; ++i)
+        {
+            plane[i] = Math.min(255, (i % WIDTH) * 3 + (i / WIDTH) + random.nextInt(24));
+        }
+
+        final VectorQuantizer quantizer = new VectorQuantizer(WIDTH, HEIGHT, N, EVectorMode.TWO_BY_TWO, 1);
+        quantizer.generateInputVectors(new int[][] { plane });
+        quantizer.generateCodebook();
+
+        // Iterate over Lloyd Iterations
+        int skipped = 0;
+        for(int iteration = 0; iteration < ITERATIONS; ++iteration)
+        {
+            quantizer.generateClusterMap();
+            skipped += quantizer.getSkippedSearchCount();
+
+            assertArrayEquals(getClosestCodewords(quantizer.getInputVectors(), quantizer.getCodewords()),
+                              quantizer.quantizeImage(), "iteration " + iteration);
+
+            quantizer.updateCodebook();
+        }
+
+        // The Bounds were Used, not only Full Searches
+        assertTrue(skipped > 0);
+    }
+
+    /**
+     * getClosestCodewords - Searches every Codeword for each Vector
+     *
+     * @param vectors   - The Vectors, one after another
+     * @param codewords - The Codewords in Codebook Order
+     * @return int[] - The Index of the Closest Codeword, Ties going to the Lowest
+     */
+    private static int[] getClosestCodewords(final int[] vectors, final int[][] codewords)
+    {
+        final int dimension = codewords[0].length;
+        final int[] closest = new int[vectors.length / dimension];
+
+        // Iterate over Vectors
+        for(int v = 0; v < closest.length; ++v)
+        {
+            long best = Long.MAX_VALUE;
+            for(int i = 0; i < codewords.length; ++i)
+            {
+                long dist = 0;
+                for(int d = 0; d < dimension; ++d)
+                {
+                    final int diff = codewords[i][d] - vectors[v * dimension + d];
+                    dist += diff * diff;
+                }
+
+                if(dist < best)
+                {
+                    best = dist;
+                    closest[v] = i;
+                }
+            }
+        }
+
+        return closest;
+    }
+}
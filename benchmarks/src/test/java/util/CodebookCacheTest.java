@@ -0,0 +1,146 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * CodebookCacheTest - Checks Entries are Written Whole and the
+ *                     Least Recently Used are Evicted first
+ */
+class CodebookCacheTest
+{
+    // Time between the Modifications of Entries, in Milliseconds
+    private static final long AGE = 10000;
+
+    // Directory holding the Entries
+    @TempDir
+    File _directory;
+
+    /**
+     * putWritesWholeEntries - An Entry is Read back as Written, and
+     *                         no Temporary File is Left beside it
+     *
+     * @throws IOException
+     */
+    @Test
+    void putWritesWholeEntries() throws IOException
+    {
+        final CodebookCache cache = new CodebookCache(_directory, CodebookCache.DEFAULT_MAX_BYTES);
+        final ArrayList<int[][]> codebooks = getCodebooks(7);
+        cache.put("entry", codebooks);
+
+        // Only the Entry is in the Directory
+        final String[] names = _directory.list();
+        assertArrayEquals(new String[] { "entry." + CodebookCache.EXTENSION }, names);
+
+        // The Entry holds the Codebooks
+        final ArrayList<int[][]> read = cache.get("entry");
+        assertEquals(codebooks.size(), read.size());
+        for(int c = 0; c < codebooks.size(); ++c)
+        {
+            assertArrayEquals(codebooks.get(c), read.get(c));
+        }
+        assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * getDropsUnreadableEntries - A Truncated Entry is a Miss and is Deleted
+     *
+     * @throws IOException
+     */
+    @Test
+    void getDropsUnreadableEntries() throws IOException
+    {
+        final CodebookCache cache = new CodebookCache(_directory, CodebookCache.DEFAULT_MAX_BYTES);
+        cache.put("entry", getCodebooks(7));
+
+        // Cut the Entry Short
+        final File file = getFile("entry");
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertNull(cache.get("entry"));
+        assertFalse(file.exists());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * evictsLeastRecentlyUsed - Reading an Entry keeps it, so the
+     *                           Entry Read least Recently is Evicted
+     *
+     * @param sizingDirectory - Directory for an Entry Measuring the Entry Size
+     * @throws IOException
+     */
+    @Test
+    void evictsLeastRecentlyUsed(@TempDir final File sizingDirectory) throws IOException
+    {
+        // Size the Cache for Two Entries
+        new CodebookCache(sizingDirectory, CodebookCache.DEFAULT_MAX_BYTES).put("entry", getCodebooks(7));
+        final long entryBytes = new File(sizingDirectory, "entry." + CodebookCache.EXTENSION).length();
+        final CodebookCache cache = new CodebookCache(_directory, 2 * entryBytes + entryBytes / 2);
+
+        // Write the First and Second Entries, the First Older
+        final long now = System.currentTimeMillis();
+        cache.put("first", getCodebooks(1));
+        assertTrue(getFile("first").setLastModified(now - 2 * AGE));
+        cache.put("second", getCodebooks(2));
+        assertTrue(getFile("second").setLastModified(now - AGE));
+
+        // Read the First Entry, then Write a Third
+        cache.get("first");
+        cache.put("third", getCodebooks(3));
+
+        // The Second Entry is now the Least Recently Used
+        assertTrue(getFile("first").exists());
+        assertFalse(getFile("second").exists());
+        assertTrue(getFile("third").exists());
+    }
+
+    /**
+     * getCodebooks - Gets Codebooks of a Fixed Size with Values from a Seed
+     *
+     * @param seed - The Seed of the Values
+     * @return ArrayList<int[][]> - Three Codebooks of Eight 2x2 Codewords
+     */
+    private static ArrayList<int[][]> getCodebooks(final int seed)
+    {
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>();
+        for(int c = 0; c < 3; ++c)
+        {
+            final int[][] codebook = new int[8][4];
+            for(int i = 0; i < codebook.length; ++i)
+            {
+                for(int d = 0; d < codebook[i].length; ++d)
+                {
+                    codebook[i][d] = (seed * 31 + c * 17 + i * 7 + d) % 256;
+                }
+            }
+            codebooks.add(codebook);
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * getFile - Gets the File of an Entry
+     *
+     * @param key - The Cache Key
+     * @return File - The Entry File
+     */
+    private File getFile(final String key)
+    {
+        return new File(_directory, key + "." + CodebookCache.EXTENSION);
+    }
+}
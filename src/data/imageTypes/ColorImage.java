@@ -1,48 +1,22 @@
 package data.imageTypes;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashMap;
 
-import data.vectors.Vector;
-import data.vectors.Vector2by2;
-import data.vectors.Vector4by4;
 import enums.EColor;
+import enums.EColorMode;
+import enums.ESamplingMode;
+import enums.ESearchMode;
 import enums.EVectorMode;
+import util.PlaneUtil;
 
 public class ColorImage extends AbstractImage
 {
-    // Lists of Input Vectors
-    ArrayList<Vector> _redVectorList;   // Adjacent Red Pixel Input Vectors
-    ArrayList<Vector> _greenVectorList; // Adjacent Green Pixel Input Vectors
-    ArrayList<Vector> _blueVectorList;  // Adjacent Blue Pixel Input Vectors
-    ArrayList<Vector2by2> _redVector2by2List;   // 2x2 Red Pixel Input Vectors
-    ArrayList<Vector2by2> _greenVector2by2List; // 2x2 Green Pixel Input Vectors
-    ArrayList<Vector2by2> _blueVector2by2List;  // 2x2 Blue Pixel Input Vectors
-    ArrayList<Vector4by4> _redVector4by4List;   // 4x4 Red Pixel Input Vectors
-    ArrayList<Vector4by4> _greenVector4by4List; // 4x4 Green Pixel Input Vectors
-    ArrayList<Vector4by4> _blueVector4by4List;  // 4x4 Blue Pixel Input Vectors
-
-    // The Codebook for Vector Quantization
-    ArrayList<Vector> _redCodebook;
-    ArrayList<Vector> _greenCodebook;
-    ArrayList<Vector> _blueCodebook;
-    ArrayList<Vector2by2> _red2by2Codebook;
-    ArrayList<Vector2by2> _green2by2Codebook;
-    ArrayList<Vector2by2> _blue2by2Codebook;
-    ArrayList<Vector4by4> _red4by4Codebook;
-    ArrayList<Vector4by4> _green4by4Codebook;
-    ArrayList<Vector4by4> _blue4by4Codebook;
-
-    // Cluster Maps
-    HashMap<Vector, Vector> _redClusterMap;   // Adjacent Red Cluster Map
-    HashMap<Vector, Vector> _greenClusterMap; // Adjacent Green Cluster Map
-    HashMap<Vector, Vector> _blueClusterMap;  // Adjacent Blue Cluster Map
-    HashMap<Vector2by2, Vector2by2> _red2by2ClusterMap;   // 2x2 Red Cluster Map
-    HashMap<Vector2by2, Vector2by2> _green2by2ClusterMap; // 2x2 Green Cluster Map
-    HashMap<Vector2by2, Vector2by2> _blue2by2ClusterMap;  // 2x2 Blue Cluster Map
-    HashMap<Vector4by4, Vector4by4> _red4by4ClusterMap;   // 4x4 Red Cluster Map
-    HashMap<Vector4by4, Vector4by4> _green4by4ClusterMap; // 4x4 Green Cluster Map
-    HashMap<Vector4by4, Vector4by4> _blue4by4ClusterMap;  // 4x4 Blue Cluster Map
+    // How the Channels are Quantized
+    final EColorMode _colorMode;
+
+    // Quantizer of each Channel, every Vector Mode is
+    // handled by the same planar engines for any Plane count
+    final IChannelQuantizer[] _channels;
 
     /**
      * Constructor
@@ -54,933 +28,405 @@ public class ColorImage extends AbstractImage
      */
     public ColorImage(final int width, final int height, final int n, final EVectorMode mode)
     {
-        super(width, height, n, mode);
-
-        // Initialize Codebooks
-        _redCodebook = new ArrayList<Vector>(n);
-        _greenCodebook = new ArrayList<Vector>(n);
-        _blueCodebook = new ArrayList<Vector>(n);
-        _red2by2Codebook = new ArrayList<Vector2by2>(n);
-        _green2by2Codebook = new ArrayList<Vector2by2>(n);
-        _blue2by2Codebook = new ArrayList<Vector2by2>(n);
-        _red4by4Codebook = new ArrayList<Vector4by4>(n);
-        _green4by4Codebook = new ArrayList<Vector4by4>(n);
-        _blue4by4Codebook = new ArrayList<Vector4by4>(n);
-
-        // Initialize Cluster Maps
-        _redClusterMap = new HashMap<Vector, Vector>();
-        _greenClusterMap = new HashMap<Vector, Vector>();
-        _blueClusterMap = new HashMap<Vector, Vector>();
-        _red2by2ClusterMap = new HashMap<Vector2by2, Vector2by2>();
-        _green2by2ClusterMap = new HashMap<Vector2by2, Vector2by2>();
-        _blue2by2ClusterMap = new HashMap<Vector2by2, Vector2by2>();
-        _red4by4ClusterMap = new HashMap<Vector4by4, Vector4by4>();
-        _green4by4ClusterMap = new HashMap<Vector4by4, Vector4by4>();
-        _blue4by4ClusterMap = new HashMap<Vector4by4, Vector4by4>();
+        this(width, height, n, mode, EColorMode.RGB);
     }
 
     /**
-     * generateInputVectors - Generates the Input Vectors
+     * Constructor
      *
-     * @param image - Color Image to Generate Vectors from
+     * @param width     - The Width of the Image
+     * @param height    - The Height of the Image
+     * @param n         - The Number of Vectors
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
      */
-    public void generateInputVectors(final BufferedImage image)
+    public ColorImage(final int width, final int height, final int n, final EVectorMode mode, final EColorMode colorMode)
     {
-        // Adjacent Pixel Vector Mode
-        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
-        {
-            // Initialize Pixels
-            int pixel1, pixel2;
+        super(width, height, n, mode);
 
-            // Get Size of Input Vectors
-            int width = image.getWidth();
-            int height = image.getHeight();
-            int size = (width*height)/2;
+        // Initialize Color Mode
+        _colorMode = colorMode;
 
-            // Initialize List of Input Vectors
-            _redVectorList = new ArrayList<Vector>(size);
-            _greenVectorList = new ArrayList<Vector>(size);
-            _blueVectorList = new ArrayList<Vector>(size);
+        // Get Dimensions of the Chroma Planes, Subsampled in the YCbCr Modes
+        final int chromaWidth = (width + colorMode.getChromaFactorX() - 1) / colorMode.getChromaFactorX();
+        final int chromaHeight = (height + colorMode.getChromaFactorY() - 1) / colorMode.getChromaFactorY();
 
-            // Iterate over Image Height
-            for(int y = 0; y < image.getHeight(); ++y)
-            {
-                // Iterate over Image Width
-                for(int x = 0; x < image.getWidth(); x+=2)
-                {
-                    // Get RGB Values at each Pixel 1
-                    pixel1 = image.getRGB(x,y);
-                    int red1   = (pixel1 & 0x00ff0000) >> 16;
-                    int green1 = (pixel1 & 0x0000ff00) >> 8;
-                    int blue1 =  (pixel1 & 0x000000ff);
-
-                    // Get RGB Values at each Pixel 2
-                    pixel2 = image.getRGB(x+1,y);
-                    int red2   = (pixel2 & 0x00ff0000) >> 16;
-                    int green2 = (pixel2 & 0x0000ff00) >> 8;
-                    int blue2 =  (pixel2 & 0x000000ff);
-
-                    // Create new Adjacent Pixel Vectors
-                    Vector redV = new Vector(red1, red2);
-                    Vector greenV = new Vector(green1, green2);
-                    Vector blueV = new Vector(blue1, blue2);
-   
-                    // Add Vector to List
-                    _redVectorList.add(redV);
-                    _greenVectorList.add(greenV);
-                    _blueVectorList.add(blueV);
-                }
-            }
+        // Check if Grayscale Mode
+        if(EColorMode.GRAYSCALE.equals(colorMode))
+        {
+            // Initialize Quantizer over the single Plane
+            _channels = new IChannelQuantizer[] { newQuantizer(width, height, n, mode, 1) };
         }
-        // 2x2 Pixel Vector Mode
-        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
+        // Check if Joint Color Mode
+        else if(EColorMode.JOINT_RGB.equals(colorMode))
         {
-            // Initialize 2x2 Pixels
-            int pixel1, pixel2;
-            int pixel3, pixel4;
-
-            // Get Size of Input Vectors
-            int width = image.getWidth();
-            int height = image.getHeight();
-            int size = (width*height)/4;
-
-            // Initialize List of Input Vectors
-            _redVector2by2List = new ArrayList<Vector2by2>(size);
-            _greenVector2by2List = new ArrayList<Vector2by2>(size);
-            _blueVector2by2List = new ArrayList<Vector2by2>(size);
-
-            // Iterate over Image Height
-            for(int y = 0; y < image.getHeight(); y+=2)
-            {
-                // Iterate over Image Width
-                for(int x = 0; x < image.getWidth(); x+=2)
-                {
-                    // Get RGB Values at each Pixel 1
-                    pixel1 = image.getRGB(x,y);
-                    int red1   = (pixel1 & 0x00ff0000) >> 16;
-                    int green1 = (pixel1 & 0x0000ff00) >> 8;
-                    int blue1 =  (pixel1 & 0x000000ff);
-
-                    // Get RGB Values at each Pixel 2
-                    pixel2 = image.getRGB(x+1,y);
-                    int red2   = (pixel2 & 0x00ff0000) >> 16;
-                    int green2 = (pixel2 & 0x0000ff00) >> 8;
-                    int blue2 =  (pixel2 & 0x000000ff);
-
-                    // Get RGB Values at each Pixel 3
-                    pixel3 = image.getRGB(x,y+1);
-                    int red3   = (pixel3 & 0x00ff0000) >> 16;
-                    int green3 = (pixel3 & 0x0000ff00) >> 8;
-                    int blue3 =  (pixel3 & 0x000000ff);
-
-                    // Get RGB Values at each Pixel 4
-                    pixel4 = image.getRGB(x+1,y+1);
-                    int red4   = (pixel4 & 0x00ff0000) >> 16;
-                    int green4 = (pixel4 & 0x0000ff00) >> 8;
-                    int blue4 =  (pixel4 & 0x000000ff);
-
-                    // Create new 2x2 Pixel Vectors
-                    Vector2by2 redV = new Vector2by2(red1, red2, red3, red4);
-                    Vector2by2 greenV = new Vector2by2(green1, green2, green3, green4);
-                    Vector2by2 blueV = new Vector2by2(blue1, blue2, blue3, blue4);
-   
-                    // Add Vectors to Lists
-                    _redVector2by2List.add(redV);
-                    _greenVector2by2List.add(greenV);
-                    _blueVector2by2List.add(blueV);
-                }
-            }
+            // Initialize Joint Quantizer over all three Planes
+            _channels = new IChannelQuantizer[] { newQuantizer(width, height, n, mode, EColor.values().length) };
+        }
+        else
+        {
+            // Initialize a Quantizer for each Plane
+            _channels = new IChannelQuantizer[] { newQuantizer(width, height, n, mode, 1),
+                                                  newQuantizer(chromaWidth, chromaHeight, n, mode, 1),
+                                                  newQuantizer(chromaWidth, chromaHeight, n, mode, 1) };
         }
     }
 
     /**
-     * generateCodebooks - Generates the Initial Codewords
-     *                     for the Codebooks
+     * setSplitThreshold - Sets the Pixel Variance above which a
+     *                     Block is Split in the Quadtree Mode
      *
-     * @param n - The Number of Codwords to
-     *            generate for the Codebook
+     * @param splitThreshold - The Variance
      */
-    public void generateCodebooks()
+    public void setSplitThreshold(final double splitThreshold)
     {
-        // Blocks in a particular Dimension
-        final int blockCount = PIX_DIM/_n;
-
-        // Adjacent Pixel Vector Mode
-        if(EVectorMode.SIDE_BY_SIDE == _mode)
+        // Iterate over Channels, only Quadtree Quantizers Split Blocks
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Initialize Incrementors
-            // for Codeword [x,y] Position
-            int x = 0;
-            int y = 0;
-
-            // Initialize Codeword Counter
-            int count = 0;
-
-            // Initialize the Codebooks
-            while(count < _n)
+            if(channel instanceof QuadtreeQuantizer)
             {
-                // Create new codeword
-                Vector codeword = new Vector(x, y);
-
-                // Add Codeword to Codebook
-                _redCodebook.add(codeword);
-                _greenCodebook.add(codeword);
-                _blueCodebook.add(codeword);
-
-                // Update Codeword [x,y] Position
-                x += blockCount;
-                y += blockCount;
-
-                // Increment Codeword Counter
-                count++;
-            }
-        }
-        // 2x2 Matrix Vector Mode
-        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
-        {
-            // Initialize Incrementors
-            // for Codeword Position [a,b]
-            //                       [c,d]
-            int a = 0;
-            int b = 0;
-            int c = 0;
-            int d = 0;
-
-            // Initialize Codeword Counter
-            int count = 0;
-
-            // Keep adding until there are n codewords
-            while(count < _n)
-            {
-                // Create new codeword
-                final Vector2by2 codeword = new Vector2by2(a,b,c,d);
-
-                // Add Codewords to Codebooks
-                _red2by2Codebook.add(codeword);
-                _green2by2Codebook.add(codeword);
-                _blue2by2Codebook.add(codeword);
-
-                // Update Codeword [x,y] Position
-                a += blockCount;
-                b += blockCount;
-                c += blockCount;
-                d += blockCount;
-
-                // Increment Codeword Counter
-                count++;
-            }
-        }
-        // 4x4 Matrix Vector Mode
-        else if(EVectorMode.FOUR_BY_FOUR.equals(_mode))
-        {
-
-            // Initialize Codeword Counter
-            int count = 0;
-
-            // Initialize Incrementors
-            // for Codeword Position [a,b,c,d] 
-            //                       [e,f,g,h] 
-            //                       [h,i,j,k]
-            //                       [l,m,n,o]
-            int a=0, b=0, c=0, d=0;
-            int e=0, f=0, g=0, h=0;
-            int i=0, j=0, k=0, l=0;
-            int m=0, n=0, o=0, p=0;
-
-            // Keep adding until there are n codewords
-            while(count < _n)
-            {
-                // Create new codeword
-                final Vector4by4 codeword = new Vector4by4(a,b,c,d,
-                                                           e,f,g,h,
-                                                           i,j,k,l,
-                                                           m,n,o,p);
-
-                // Add Codewords to Codebooks
-                _red4by4Codebook.add(codeword);
-                _green4by4Codebook.add(codeword);
-                _blue4by4Codebook.add(codeword);
-
-                // Update Codeword Position [a,b,c,d] 
-                //                          [e,f,g,h] 
-                //                          [i,j,k,l]
-                //                          [m,n,o,p]
-                a += blockCount;
-                b += blockCount;
-                c += blockCount;
-                d += blockCount;
-                e += blockCount;
-                f += blockCount;
-                g += blockCount;
-                h += blockCount;
-                i += blockCount;
-                j += blockCount;
-                k += blockCount;
-                l += blockCount;
-                m += blockCount;
-                n += blockCount;
-                o += blockCount;
-                p += blockCount;
-
-                // Increment Codeword Counter
-                count++;
+                ((QuadtreeQuantizer) channel).setSplitThreshold(splitThreshold);
             }
         }
     }
 
     /**
-     * verifyCodebook - Verifies the Codewords to best represent the data set
+     * setTrainingSample - Trains each Codebook on a Sample of at most
+     *                     a Number of its Input Vectors, every Vector
+     *                     is still Quantized. Set before Generating
+     *                     the Input Vectors.
      *
-     * @param n - Number of vectors to best represent Data Set
-     * @return boolean
+     * @param sampleSize - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling   - How the Sample is Drawn
      */
-    public boolean verifyCodebook(final EColor color)
+    public void setTrainingSample(final int sampleSize, final ESamplingMode sampling)
     {
-        // Indicator of Successful Codebook Generation
-        boolean isSuccessful = true;
-
-        // Check if Vector Mode is Side by Side
-        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Generate Cluster Mapping
-            // between Input Vectors and Codewords
-            generateClusterMap(color);
-
-            // If Red
-            if(EColor.RED == color)
-            {
-                isSuccessful = verifyRedCodebook();
-            }
-            else if(EColor.GREEN == color)
-            {
-                isSuccessful = verifyGreenCodebook();
-            }
-            else if(EColor.BLUE == color)
-            {
-                isSuccessful = verifyBlueCodebook();
-            }
+            channel.setTrainingSample(sampleSize, sampling);
         }
-        // Check if Vector Mode is 2x2
-        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
-        {
-            // TODO: Implement
-        }
-        // Check if Vector MOde is 4x4
-        else if(EVectorMode.FOUR_BY_FOUR.equals(_mode))
-        {
-           // TODO: Implement
-        }
-
-        return isSuccessful;
     }
 
     /**
-     * verifyRedCodebook
+     * setSearchMode - Sets how each Codebook is Searched for the Closest
+     *                 Codeword. Set before Generating the Input Vectors.
      *
-     * @return boolean
+     * @param searchMode - How the Closest Codeword is Searched for
+     * @param hashTables - Number of Hash Tables in the HASHED Mode
      */
-    private boolean verifyRedCodebook()
+    public void setSearchMode(final ESearchMode searchMode, final int hashTables)
     {
-        // Indicator of Successful Codebook Generation
-        boolean isSuccessful = true;
-
-        // Iterate over Codebook
-        for(Vector codeword : _redCodebook)
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Get Input Vectors in Cluster
-            ArrayList<Vector> inputVectorList = getCluster(_redClusterMap, codeword);
-
-            // Check if there are no Input Vectors in Cluster
-            if(inputVectorList.size() == 0)
-            {
-                // Get Index of Codebook
-                int index = _redCodebook.indexOf(codeword);
-
-                // Get Codeword[x,y]
-                int x = codeword.getPixel1();
-                int y = codeword.getPixel2();
-
-                x = updatePixelPosition(x);
-                y = updatePixelPosition(y);
-
-                // Generate New Codeword for Codebook
-                Vector newCodeword = new Vector(x,y);
-                _redCodebook.set(index, newCodeword);
-
-                // Will need to reverify codebook
-                // as Codebook has been updated
-                isSuccessful = false;
-            }
+            channel.setSearchMode(searchMode, hashTables);
         }
-
-        return isSuccessful;
     }
-    
+
     /**
-     * verifyGreenCodebook
+     * setLatticeFitted - Sets whether the Lattice Step of each Channel is
+     *                    Fitted over several Passes instead of Derived
+     *                    from the Spread of its Blocks, in the Lattice Mode
      *
-     * @return boolean
+     * @param fitted - TRUE for the Fitted Variant
      */
-    private boolean verifyGreenCodebook()
+    public void setLatticeFitted(final boolean fitted)
     {
-        // Indicator of Successful Codebook Generation
-        boolean isSuccessful = true;
-
-        // Iterate over Codebook
-        for(Vector codeword : _greenCodebook)
+        // Iterate over Channels, only Lattice Quantizers have a Step
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Get Input Vectors in Cluster
-            ArrayList<Vector> inputVectorList = getCluster(_greenClusterMap, codeword);
-
-            // Check if there are no Input Vectors in Cluster
-            if(inputVectorList.size() == 0)
+            if(channel instanceof LatticeQuantizer)
             {
-                // Get Index of Codebook
-                int index = _greenCodebook.indexOf(codeword);
-
-                // Get Codeword[x,y]
-                int x = codeword.getPixel1();
-                int y = codeword.getPixel2();
-
-                // Update Codeword Position [x,y]
-                x = updatePixelPosition(x);
-                y = updatePixelPosition(y);
-
-                // Generate New Codeword for Codebook
-                Vector newCodeword = new Vector(x,y);
-                _greenCodebook.set(index, newCodeword);
-
-                // Will need to reverify codebook
-                // as Codebook has been updated
-                isSuccessful = false;
+                ((LatticeQuantizer) channel).setFitted(fitted);
             }
         }
-
-        return isSuccessful;
     }
-    
+
     /**
-     * verifyBlueCodebook
+     * measureSearchPenalty - Measures Hashed against Exact Searches
+     *                        over the Codebook of every Channel
      *
-     * @return boolean
+     * @return VectorQuantizer.SearchPenalty - The Totals of every Channel
      */
-    private boolean verifyBlueCodebook()
+    public VectorQuantizer.SearchPenalty measureSearchPenalty()
     {
-        // Indicator of Successful Codebook Generation
-        boolean isSuccessful = true;
+        final VectorQuantizer.SearchPenalty penalty = new VectorQuantizer.SearchPenalty();
 
-        // Iterate over Codebook
-        for(Vector codeword : _blueCodebook)
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Get Input Vectors in Cluster
-            ArrayList<Vector> inputVectorList = getCluster(_blueClusterMap, codeword);
-
-            // Check if there are no Input Vectors in Cluster
-            if(inputVectorList.size() == 0)
-            {
-                // Get Index of Codebook
-                int index = _blueCodebook.indexOf(codeword);
-
-                // Get Codeword[x,y]
-                int x = codeword.getPixel1();
-                int y = codeword.getPixel2();
-
-                // Update Codeword Position [x,y]
-                x = updatePixelPosition(x);
-                y = updatePixelPosition(y);
-
-                // Generate New Codeword for Codebook
-                Vector newCodeword = new Vector(x,y);
-                _blueCodebook.set(index, newCodeword);
-
-                // Will need to reverify codebook
-                // as Codebook has been updated
-                isSuccessful = false;
-            }
+            penalty.add(channel.measureSearchPenalty());
         }
 
-        return isSuccessful;
+        return penalty;
     }
 
     /**
-     * quantizeGreenComponents
+     * generateInputVectors - Generates the Input Vectors
      *
-     * @return ArrayList<Integer>
+     * @param image - Color Image to Generate Vectors from
      */
-    public ArrayList<Integer> quantizeRedComponents()
+    public void generateInputVectors(final BufferedImage image)
     {
-        // Get the Size of the Input Vector array
-        int size = (_width*_height)/2;
+        // Check if Grayscale Mode
+        if(EColorMode.GRAYSCALE.equals(_colorMode))
+        {
+            generateInputVectors(0, PlaneUtil.getPlanes(image, 1));
+            return;
+        }
 
-        // Initialize List of redIndices
-        ArrayList<Integer> redIndices = new ArrayList<Integer>(size);
+        // Split Image into Red, Green and Blue Planes
+        int[][] planes = PlaneUtil.getPlanes(image, EColor.values().length);
 
-        // Iterate over each vector in Vector List
-        for(final Vector v: _redVectorList)
+        // Check if Joint Color Mode
+        if(EColorMode.JOINT_RGB.equals(_colorMode))
         {
-            // Get Codeword associated with that Vector
-            final Vector codeword = _redClusterMap.get(v);
-
-            // Get Index of Codeword
-            final int codewordIndex = _redCodebook.indexOf(codeword);
+            generateInputVectors(0, planes);
+            return;
+        }
 
-            // Add Index of Codeword to Indexes Array
-            redIndices.add(codewordIndex);
+        // Convert to Luma and Chroma Planes
+        if(_colorMode.isYCbCr())
+        {
+            planes = PlaneUtil.toYCbCr(planes);
         }
 
-        return redIndices;
+        // Iterate over Planes
+        for(int p = 0; p < planes.length; ++p)
+        {
+            // Subsample the Chroma Planes
+            final int[] plane = (p == 0 || !_colorMode.isYCbCr())
+                                ? planes[p]
+                                : PlaneUtil.downsample(planes[p], _width, _height,
+                                                       _colorMode.getChromaFactorX(), _colorMode.getChromaFactorY());
+
+            generateInputVectors(p, new int[][] { plane });
+        }
     }
 
     /**
-     * quantizeGreenComponents
+     * generateInputVectors - Generates the Input Vectors of a Channel
      *
-     * @return ArrayList<Integer>
+     * @param channel - The Channel Index
+     * @param planes  - The Pixel Planes of the Channel
      */
-    public ArrayList<Integer> quantizeGreenComponents()
+    private void generateInputVectors(final int channel, final int[][] planes)
     {
-        // Get the Size of the Input Vector array
-        int size = (_width*_height)/2;
-
-        // Initialize List of Green Indices
-        ArrayList<Integer> greenIndices = new ArrayList<Integer>(size);
+        _channels[channel].generateInputVectors(planes);
+    }
 
-        // Iterate over each vector in Vector List
-        for(final Vector v: _greenVectorList)
+    /**
+     * generateCodebooks - Generates the Initial Codewords
+     *                     for the Codebooks
+     */
+    public void generateCodebooks()
+    {
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Get Codeword associated with that Vector
-            final Vector codeword = _greenClusterMap.get(v);
-
-            // Get Index of Codeword
-            final int codewordIndex = _greenCodebook.indexOf(codeword);
-
-            // Add Index of Codeword to Indexes Array
-            greenIndices.add(codewordIndex);
+            channel.generateCodebooks();
         }
-
-        return greenIndices;
     }
 
     /**
-     * quantizeBlueComponents
+     * setCodebooks - Starts Training from Given Codewords
+     *                instead of Generating Initial Codebooks
      *
-     * @return ArrayList<Integer>
+     * @param codebooks - The Initial Codewords of each Channel,
+     *                    of each Level of each Channel in the Quadtree Mode
      */
-    public ArrayList<Integer> quantizeBlueComponents()
+    public void setCodebooks(final ArrayList<int[][]> codebooks)
     {
-        // Get the Size of the Input Vector array
-        int size = (_width*_height)/2;
-
-        // Initialize List of Green Indices
-        ArrayList<Integer> blueIndices = new ArrayList<Integer>(size);
-
-        // Iterate over each vector in Vector List
-        for(final Vector v: _blueVectorList)
+        // Iterate over Channels, each Taking its own Codebooks in Turn
+        int first = 0;
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Get Codeword associated with that Vector
-            final Vector codeword = _blueClusterMap.get(v);
-
-            // Get Index of Codeword
-            final int codewordIndex = _blueCodebook.indexOf(codeword);
-
-            // Add Index of Codeword to Indexes Array
-            blueIndices.add(codewordIndex);
+            final int count = channel.getCodebookCount();
+            channel.setCodebooks(new ArrayList<int[][]>(codebooks.subList(first, first + count)));
+            first += count;
         }
-
-        return blueIndices;
     }
 
     /**
-     * reconstructImage - Reconstructs a Color Image from a Vector Codebook
+     * getCodebooks - Gets the Codewords of every Channel
      *
-     * @param mode - Pixel Grouping Mode to form Vectors
-     * @return BufferedImage - Reconstructed Compressed Image
+     * @return ArrayList<int[][]> - The Codewords of each Channel,
+     *                              of each Level of each Channel in the Quadtree Mode
      */
-    public BufferedImage reconstructImage(final ArrayList<Integer> redIndices, 
-                                          final ArrayList<Integer> greenIndices,
-                                          final ArrayList<Integer> blueIndices)
+    public ArrayList<int[][]> getCodebooks()
     {
-        // Initialize Raw Image
-        BufferedImage image = new BufferedImage(_width, _height, BufferedImage.TYPE_INT_RGB);
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>();
 
-        int count = 0;
-
-        // Check if Vector Mode is Side by Side
-        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
         {
-            // Iterate over Y Values
-            for(int y = 0; y < _height; y++)
-            {
-                // Iterate over X Values
-                for(int x = 0; x < _width; x+=2)
-                {
-                    // Get the Index into the Codebook from the Indexes Array
-                    final int redIndex = redIndices.get(count);
-                    final int greenIndex = greenIndices.get(count);
-                    final int blueIndex = blueIndices.get(count);
-
-                    // Get Code Vector from Codebook
-                    final Vector redV = _redCodebook.get(redIndex);
-                    final Vector greenV = _greenCodebook.get(greenIndex);
-                    final Vector blueV = _blueCodebook.get(blueIndex);
-
-                    // Get Pixel 1
-                    final int pix1Red = redV.getPixel1();
-                    final int pix1Green = greenV.getPixel1();
-                    final int pix1Blue = blueV.getPixel1();
-                    byte r1 = (byte) pix1Red;
-                    byte g1 = (byte) pix1Green;
-                    byte b1 = (byte) pix1Blue;
-                    final int pix1 = 0xff000000 | ((r1 & 0xff) << 16) | ((g1 & 0xff) << 8) | (b1 & 0xff);
-
-                    // Get Pixel 2
-                    final int pix2Red = redV.getPixel2();
-                    final int pix2Green = greenV.getPixel2();
-                    final int pix2Blue = blueV.getPixel2();
-                    byte r2 = (byte) pix2Red;
-                    byte g2 = (byte) pix2Green;
-                    byte b2 = (byte) pix2Blue;
-                    final int pix2 = 0xff000000 | ((r2 & 0xff) << 16) | ((g2 & 0xff) << 8) | (b2 & 0xff);
-
-                    // Set Pixels
-                    image.setRGB(x,y,pix1);
-                    image.setRGB(x+1,y,pix2);
-
-                    // Increment Count
-                    count++;
-                }
-            }
+            codebooks.addAll(channel.getCodebooks());
         }
 
-        return image;
+        return codebooks;
     }
 
     /**
-     * generateClusterMap - Updates the Cluster Map of a Color
-     *                      by Mapping the Closest Codeword
-     *                      to each Input Vector
+     * getTrainables - Gets every Codebook that needs Training.
+     *                 Codebooks share no state and may be trained concurrently.
+     *
+     * @return ArrayList<ITrainable> - The Codebooks
      */
-    public void generateClusterMap(final EColor color)
+    public ArrayList<ITrainable> getTrainables()
     {
-        if(EColor.RED.equals(color))
-        {
-            generateRedClusterMap();
-        }
-        else if(EColor.GREEN.equals(color))
-        {
-            generateGreenClusterMap();
-        }
-        else if(EColor.BLUE.equals(color))
+        final ArrayList<ITrainable> trainables = new ArrayList<ITrainable>();
+
+        // Iterate over Channels, every Quadtree Level is Trained on its own
+        for(final IChannelQuantizer channel : _channels)
         {
-            generateBlueClusterMap();
+            trainables.addAll(channel.getTrainables());
         }
+
+        return trainables;
     }
 
     /**
-     * updateCodebook
+     * getInputVectors - Gets the Input Vectors of every Channel
+     *
+     * @return ArrayList<int[]> - The Input Vectors of each Channel, one after another
      */
-    public double updateCodebook(final EColor color)
+    public ArrayList<int[]> getInputVectors()
     {
-        // Update the Cluster Mapping
-        generateClusterMap(color);
-
-        // Initialize Error Accumulator
-        double error = 0.0;
-
-        switch(color)
+        // Quadtree Channels have Input Vectors per Level instead
+        if(EVectorMode.QUADTREE.equals(_mode))
         {
-            case RED:
-                error = updateRedCodebook();
-                break;
-
-            case GREEN:
-                error = updateGreenCodebook();
-                break;
+            throw new IllegalStateException("Input vectors are per level in the QUADTREE mode");
+        }
 
-            case BLUE:
-                error = updateBlueCodebook();
-                break;
+        final ArrayList<int[]> vectors = new ArrayList<int[]>(_channels.length);
 
-            default:
-                break;
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
+        {
+            vectors.add(((VectorQuantizer) channel).getInputVectors());
         }
 
-        return error;
+        return vectors;
     }
 
     /**
-     * updateRedCodebook
+     * getChannel - Gets the Trainable Codebook of a Color.
+     *              In the Joint Color Mode every Color shares one Codebook,
+     *              in the YCbCr Modes RED/GREEN/BLUE select Y/Cb/Cr.
      *
-     * @return double
+     * @param color - The Color of the Channel
+     * @return ITrainable - The Channel
      */
-    private double updateRedCodebook()
+    public ITrainable getChannel(final EColor color)
     {
-        // Initialize Error Accumulator
-        double error = 0.0;
-
-        // Initialize New Codeword List
-        final ArrayList<Vector> newCodewordList = new ArrayList<Vector>();
-
-        // Iterate over each codeword
-        for(Vector codeword : _redCodebook)
-        {
-            // Get Cluster associated with codeword
-            final ArrayList<Vector> clusterVectors = getCluster(_redClusterMap, codeword);
-
-            // Get Number of Cluster Vectors
-            final int m = clusterVectors.size();
-
-            // Ensure Cluster has Vectors
-            if(m != 0)
-            {
-                // Initialize Accumulations
-                int sumClusterX = 0;
-                int sumClusterY = 0;
-
-                // Iterate over Vectors in Cluster
-                for(Vector v : clusterVectors)
-                {
-                    sumClusterX += v.getPixel1();
-                    sumClusterY += v.getPixel2();
-                }
-
-                // Get New Codeword
-                Vector newCodeword = new Vector(sumClusterX/m, sumClusterY/m);
-                newCodewordList.add(newCodeword);
-
-                // Get Error between old Codeword and new Codeword
-                error += getError(codeword, newCodeword);
-            }
-        }
-
-        // Update Codebook with Latest Codewords
-        _redCodebook.clear();
-        _redCodebook.addAll(newCodewordList);
-
-        return error;
+        return getQuantizer(color);
     }
-    
+
     /**
-     * updateRedCodebook
+     * verifyCodebook - Verifies the Codewords to best represent the data set
      *
-     * @return double
+     * @param color - The Color of the Codebook
+     * @return boolean
      */
-    private double updateGreenCodebook()
+    public boolean verifyCodebook(final EColor color)
     {
-        // Initialize Error Accumulator
-        double error = 0.0;
-
-        // Initialize New Codeword List
-        final ArrayList<Vector> newCodewordList = new ArrayList<Vector>();
-
-        // Iterate over each codeword
-        for(Vector codeword : _greenCodebook)
-        {
-            // Get Cluster associated with codeword
-            final ArrayList<Vector> clusterVectors = getCluster(_greenClusterMap, codeword);
-
-            // Get Number of Cluster Vectors
-            final int m = clusterVectors.size();
-
-            // Ensure Cluster has Vectors
-            if(m != 0)
-            {
-                // Initialize Accumulations
-                int sumClusterX = 0;
-                int sumClusterY = 0;
-
-                // Iterate over Vectors in Cluster
-                for(Vector v : clusterVectors)
-                {
-                    sumClusterX += v.getPixel1();
-                    sumClusterY += v.getPixel2();
-                }
-
-                // Get New Codeword
-                Vector newCodeword = new Vector(sumClusterX/m, sumClusterY/m);
-                newCodewordList.add(newCodeword);
-
-                // Get Error between old Codeword and new Codeword
-                error += getError(codeword, newCodeword);
-            }
-        }
-
-        // Update Codebook with Latest Codewords
-        _greenCodebook.clear();
-        _greenCodebook.addAll(newCodewordList);
-
-        return error;
+        return getQuantizer(color).verifyCodebook();
     }
 
     /**
-     * updateBlueCodebook
+     * generateClusterMap - Updates the Cluster Map of a Color
+     *                      by Mapping the Closest Codeword
+     *                      to each Input Vector
      *
-     * @return double
+     * @param color - The Color of the Codebook
      */
-    private double updateBlueCodebook()
+    public void generateClusterMap(final EColor color)
     {
-        // Initialize Error Accumulator
-        double error = 0.0;
-
-        // Initialize New Codeword List
-        final ArrayList<Vector> newCodewordList = new ArrayList<Vector>();
-
-        // Iterate over each codeword
-        for(Vector codeword : _blueCodebook)
-        {
-            // Get Cluster associated with codeword
-            final ArrayList<Vector> clusterVectors = getCluster(_blueClusterMap, codeword);
-
-            // Get Number of Cluster Vectors
-            final int m = clusterVectors.size();
-
-            // Ensure Cluster has Vectors
-            if(m != 0)
-            {
-                // Initialize Accumulations
-                int sumClusterX = 0;
-                int sumClusterY = 0;
-
-                // Iterate over Vectors in Cluster
-                for(Vector v : clusterVectors)
-                {
-                    sumClusterX += v.getPixel1();
-                    sumClusterY += v.getPixel2();
-                }
-
-                // Get New Codeword
-                Vector newCodeword = new Vector(sumClusterX/m, sumClusterY/m);
-                newCodewordList.add(newCodeword);
-
-                // Get Error between old Codeword and new Codeword
-                error += getError(codeword, newCodeword);
-            }
-        }
-
-        // Update Codebook with Latest Codewords
-        _blueCodebook.clear();
-        _blueCodebook.addAll(newCodewordList);
-
-        return error;
+        getQuantizer(color).generateClusterMap();
     }
 
     /**
-     * generateRedClusterMap
+     * updateCodebook
+     *
+     * @param color - The Color of the Codebook
+     * @return double
      */
-    private void generateRedClusterMap()
+    public double updateCodebook(final EColor color)
     {
-        synchronized(_redClusterMap)
-        {
-            // Iterate over each Vector
-            for(final Vector v: _redVectorList)
-            {
-                // Get Closest Codeword
-                final Vector codeword = getClosestCodeword(_redCodebook, v);
-
-                // Update Cluster Mapping
-                _redClusterMap.put(v, codeword);
-            }
-        }
+        return getQuantizer(color).updateCodebook();
     }
 
     /**
-     * generateGreenClusterMap
+     * getCodewords - Gets the Pixel Values of each Codeword
+     *                in the Codebook of a Color
+     *
+     * @param color - The Color of the Codebook
+     * @return int[][] - The Codewords in Codebook Order
      */
-    private void generateGreenClusterMap()
+    public int[][] getCodewords(final EColor color)
     {
-        synchronized(_greenClusterMap)
-        {
-            // Iterate over each Vector
-            for(final Vector v: _greenVectorList)
-            {
-                // Get Closest Codeword
-                final Vector codeword = getClosestCodeword(_greenCodebook, v);
-
-                // Update Cluster Mapping
-                _greenClusterMap.put(v, codeword);
-            }
-        }
+        return getQuantizer(color).getCodewords();
     }
 
     /**
-     * generateBlueClusterMap
+     * quantizeImage - Quantizes every Channel of the Image
+     *
+     * @return CompressedImage - The Codebooks and Codeword Indices
      */
-    private void generateBlueClusterMap()
+    public CompressedImage quantizeImage()
     {
-        synchronized(_blueClusterMap)
-        {
-            // Iterate over each Vector
-            for(final Vector v: _blueVectorList)
-            {
-                // Get Closest Codeword
-                final Vector codeword = getClosestCodeword(_blueCodebook, v);
+        // Initialize Compressed Image
+        final CompressedImage compressedImage = new CompressedImage(_width, _height, _mode, _colorMode);
 
-                // Update Cluster Mapping
-                _blueClusterMap.put(v, codeword);
-            }
+        // Iterate over Channels
+        for(final IChannelQuantizer channel : _channels)
+        {
+            channel.quantizeImage(compressedImage);
         }
+
+        return compressedImage;
     }
 
     /**
-     * getClosestCodeword - Gets the Closest Codeword for an Input Vector
-     * 
-     * @param vector   - The Input Vector
-     * @param codeword - The Codebook of Codewords
+     * newQuantizer - Creates the Quantizer of a Channel, Splitting Blocks
+     *                in the Quadtree Mode and Snapping to a Lattice
+     *                in the Lattice Mode
+     *
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param n      - The Number of Vectors
+     * @param mode   - How pixels should be grouped to form vectors
+     * @param planes - The Number of Planes in each Vector
+     * @return IChannelQuantizer - The Quantizer
      */
-    private Vector getClosestCodeword(final ArrayList<Vector> codebook, final Vector vector)
+    private static IChannelQuantizer newQuantizer(final int width, final int height, final int n, final EVectorMode mode,
+                                                  final int planes)
     {
-        // Initialize the Closest Codeword
-        Vector closestCodeword = new Vector(0,0);
-
-        // Initialize the Minimum Distance
-        double minDist = Double.MAX_VALUE;
-
-        // Iterate over Codebook
-        for(final Vector codeword : codebook)
+        // Check if Quadtree Mode
+        if(EVectorMode.QUADTREE.equals(mode))
         {
-            // Get Distance between Codeword and Vector
-            final int xDiff = codeword.getPixel1()-vector.getPixel1();
-            final int yDiff = codeword.getPixel2()-vector.getPixel2();
-            final double dist = Math.sqrt(Math.pow(xDiff, 2) + Math.pow(yDiff, 2));
-
-            // Check if now Minimum Distance
-            if(dist < minDist)
-            {
-                // Update Closest Codeword
-                closestCodeword = codeword;
-
-                // Update Minimum Distance
-                minDist = dist;
-            }
+            return new QuadtreeQuantizer(width, height, n, planes);
         }
 
-        return closestCodeword;
+        return EVectorMode.LATTICE.equals(mode) ? new LatticeQuantizer(width, height, n, planes)
+                                                : new VectorQuantizer(width, height, n, mode, planes);
     }
 
     /**
-     * getCluster - Gets the Clsuter for a Specific Codeword
+     * getQuantizer - Gets the Quantizer of a Color
      *
-     * @param clusterMap - The Cluster Map
-     * @param codeword   - The Codeword
-     * @return ArrayList<Vector> - The Input Vectors associated with the Codeword
+     * @param color - The Color of the Channel
+     * @return VectorQuantizer - The Quantizer
      */
-    private ArrayList<Vector> getCluster(final HashMap<Vector, Vector> clusterMap, final Vector codeword)
+    private VectorQuantizer getQuantizer(final EColor color)
     {
-        // Create List of Vectors in Cluster
-        ArrayList<Vector> vectorsInCluster = new ArrayList<Vector>();
-
-        // Iterate over Input Vector Keys in Cluster Mapping
-        for(final Vector inputVector : clusterMap.keySet())
+        // Quadtree Channels have a Codebook per Level instead
+        if(EVectorMode.QUADTREE.equals(_mode))
         {
-            // Get Codeword Value from Map
-            final Vector cv = clusterMap.get(inputVector);
-
-            // Get Codeword Value of Input Vector Key
-            if(cv.getPixel1() == codeword.getPixel1() && cv.getPixel2() == codeword.getPixel2())
-            {
-                vectorsInCluster.add(inputVector);
-            }
+            throw new IllegalStateException("Channel codebooks are per level in the QUADTREE mode, use getTrainables");
         }
 
-        return vectorsInCluster;
+        return (VectorQuantizer) _channels[Math.min(color.ordinal(), _channels.length - 1)];
     }
 }
\ No newline at end of file
@@ -0,0 +1,412 @@
+package data.imageTypes;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.PlaneUtil;
+import util.jfr.ReconstructEvent;
+
+/**
+ * CompressedImage - The Vector Quantized form of an Image,
+ *                   holding a Codebook and the Codeword Indices
+ *                   for each of its Channels
+ *
+ * In the Quadtree Mode each Channel holds a Codebook and Indices
+ * for every Level, plus the Split Flags of its Blocks.
+ */
+public class CompressedImage
+{
+    // Image Width/Height
+    private final int _width;
+    private final int _height;
+
+    // Vector Mode
+    private final EVectorMode _mode;
+
+    // Color Mode
+    private final EColorMode _colorMode;
+
+    // Codebook of each Channel
+    private final ArrayList<int[][]> _codebooks;
+
+    // Codeword Indices of each Channel
+    private final ArrayList<int[]> _indices;
+
+    // Split Flags of each Channel in the Quadtree Mode
+    private final ArrayList<boolean[]> _splitFlags;
+
+    // Image Reconstructed from the Codebooks
+    private BufferedImage _reconstructedImage;
+
+    // Hashed against Exact Searches of the Codebooks, null if not Measured
+    private VectorQuantizer.SearchPenalty _searchPenalty;
+
+    /**
+     * Constructor
+     *
+     * @param width     - The Width of the Image
+     * @param height    - The Height of the Image
+     * @param mode      - How pixels were grouped to form vectors
+     * @param colorMode - How the channels were quantized
+     */
+    public CompressedImage(final int width, final int height, final EVectorMode mode, final EColorMode colorMode)
+    {
+        // Initialize Width/Height of Image
+        _width = width;
+        _height = height;
+
+        // Initialize Vector/Color Mode
+        _mode = mode;
+        _colorMode = colorMode;
+
+        // Initialize Channels
+        _codebooks = new ArrayList<int[][]>(3);
+        _indices = new ArrayList<int[]>(3);
+        _splitFlags = new ArrayList<boolean[]>(3);
+    }
+
+    /**
+     * addChannel - Adds a Quantized Channel to the Image
+     *
+     * @param codebook - The Codewords of the Channel
+     * @param indices  - The Codeword Index of each Input Vector
+     */
+    public void addChannel(final int[][] codebook, final ArrayList<Integer> indices)
+    {
+        // Initialize Index Array
+        final int[] indexArray = new int[indices.size()];
+
+        // Iterate over Indices
+        for(int i = 0; i < indexArray.length; ++i)
+        {
+            indexArray[i] = indices.get(i);
+        }
+
+        addChannel(codebook, indexArray);
+    }
+
+    /**
+     * addChannel - Adds a Quantized Channel to the Image
+     *
+     * @param codebook - The Codewords of the Channel
+     * @param indices  - The Codeword Index of each Input Vector
+     */
+    public void addChannel(final int[][] codebook, final int[] indices)
+    {
+        _codebooks.add(codebook);
+        _indices.add(indices);
+    }
+
+    /**
+     * addChannel - Adds a Quadtree Quantized Channel to the Image
+     *
+     * @param codebooks  - The Codewords of each Level
+     * @param indices    - The Codeword Indices of each Level
+     * @param splitFlags - The Split Flags of the Blocks, Depth First
+     */
+    public void addChannel(final ArrayList<int[][]> codebooks, final ArrayList<int[]> indices, final boolean[] splitFlags)
+    {
+        _codebooks.addAll(codebooks);
+        _indices.addAll(indices);
+        _splitFlags.add(splitFlags);
+    }
+
+    /**
+     * getWidth
+     *
+     * @return int - The Width of the Image
+     */
+    public int getWidth()
+    {
+        return _width;
+    }
+
+    /**
+     * getHeight
+     *
+     * @return int - The Height of the Image
+     */
+    public int getHeight()
+    {
+        return _height;
+    }
+
+    /**
+     * getMode
+     *
+     * @return EVectorMode - How pixels were grouped to form vectors
+     */
+    public EVectorMode getMode()
+    {
+        return _mode;
+    }
+
+    /**
+     * getColorMode
+     *
+     * @return EColorMode - How the channels were quantized
+     */
+    public EColorMode getColorMode()
+    {
+        return _colorMode;
+    }
+
+    /**
+     * getChannelPlanes - Gets the Number of Image Planes
+     *                    quantized together in each Channel
+     *
+     * @return int - The Planes per Channel
+     */
+    public int getChannelPlanes()
+    {
+        return EColorMode.JOINT_RGB.equals(_colorMode) ? 3 : 1;
+    }
+
+    /**
+     * getChannelWidth - Gets the Width of the Planes of a Channel
+     *
+     * @param channel - The Channel Index
+     * @return int - The Width, smaller than the Image for Subsampled Chroma
+     */
+    public int getChannelWidth(final int channel)
+    {
+        // Only the Chroma Channels are Subsampled
+        final int factor = (channel == 0) ? 1 : _colorMode.getChromaFactorX();
+
+        return (_width + factor - 1) / factor;
+    }
+
+    /**
+     * getChannelHeight - Gets the Height of the Planes of a Channel
+     *
+     * @param channel - The Channel Index
+     * @return int - The Height, smaller than the Image for Subsampled Chroma
+     */
+    public int getChannelHeight(final int channel)
+    {
+        // Only the Chroma Channels are Subsampled
+        final int factor = (channel == 0) ? 1 : _colorMode.getChromaFactorY();
+
+        return (_height + factor - 1) / factor;
+    }
+
+    /**
+     * getDimension - Gets the Number of Pixel Values in each Codeword
+     *
+     * @return int - The Codeword Dimension
+     */
+    public int getDimension()
+    {
+        return getDimension(0);
+    }
+
+    /**
+     * getDimension - Gets the Number of Pixel Values in each Codeword of a Level
+     *
+     * @param level - The Level, 0 unless in the Quadtree Mode
+     * @return int - The Codeword Dimension
+     */
+    public int getDimension(final int level)
+    {
+        return _mode.getLevelMode(level).getDimension() * getChannelPlanes();
+    }
+
+    /**
+     * getLevelCount
+     *
+     * @return int - The Number of Codebooks of each Channel
+     */
+    public int getLevelCount()
+    {
+        return _mode.getLevelCount();
+    }
+
+    /**
+     * getChannelCount
+     *
+     * @return int - The Number of Quantized Channels
+     */
+    public int getChannelCount()
+    {
+        return _codebooks.size() / getLevelCount();
+    }
+
+    /**
+     * getCodebook
+     *
+     * @param channel - The Channel Index
+     * @return int[][] - The Codewords of the Channel
+     */
+    public int[][] getCodebook(final int channel)
+    {
+        return getCodebook(channel, 0);
+    }
+
+    /**
+     * getCodebook
+     *
+     * @param channel - The Channel Index
+     * @param level   - The Level, 0 unless in the Quadtree Mode
+     * @return int[][] - The Codewords of the Level of the Channel
+     */
+    public int[][] getCodebook(final int channel, final int level)
+    {
+        return _codebooks.get(channel * getLevelCount() + level);
+    }
+
+    /**
+     * getIndices
+     *
+     * @param channel - The Channel Index
+     * @return int[] - The Codeword Index of each Input Vector
+     */
+    public int[] getIndices(final int channel)
+    {
+        return getIndices(channel, 0);
+    }
+
+    /**
+     * getIndices
+     *
+     * @param channel - The Channel Index
+     * @param level   - The Level, 0 unless in the Quadtree Mode
+     * @return int[] - The Codeword Index of each Block of the Level
+     */
+    public int[] getIndices(final int channel, final int level)
+    {
+        return _indices.get(channel * getLevelCount() + level);
+    }
+
+    /**
+     * getSplitFlags
+     *
+     * @param channel - The Channel Index
+     * @return boolean[] - The Split Flags of the Channel, null unless in the Quadtree Mode
+     */
+    public boolean[] getSplitFlags(final int channel)
+    {
+        return (channel < _splitFlags.size()) ? _splitFlags.get(channel) : null;
+    }
+
+    /**
+     * getReconstructedImage
+     *
+     * @return BufferedImage - The Image Reconstructed from the Codebooks
+     */
+    public BufferedImage getReconstructedImage()
+    {
+        return _reconstructedImage;
+    }
+
+    /**
+     * setReconstructedImage
+     *
+     * @param image - The Image Reconstructed from the Codebooks
+     */
+    public void setReconstructedImage(final BufferedImage image)
+    {
+        _reconstructedImage = image;
+    }
+
+    /**
+     * getSearchPenalty
+     *
+     * @return VectorQuantizer.SearchPenalty - Hashed against Exact Searches
+     *                                         of the Codebooks, null if not Measured
+     */
+    public VectorQuantizer.SearchPenalty getSearchPenalty()
+    {
+        return _searchPenalty;
+    }
+
+    /**
+     * setSearchPenalty
+     *
+     * @param searchPenalty - Hashed against Exact Searches of the Codebooks
+     */
+    public void setSearchPenalty(final VectorQuantizer.SearchPenalty searchPenalty)
+    {
+        _searchPenalty = searchPenalty;
+    }
+
+    /**
+     * decodeImage - Reconstructs the Image from the Codebooks
+     *               and Codeword Indices alone
+     *
+     * @return BufferedImage - The Decoded Image
+     */
+    public BufferedImage decodeImage()
+    {
+        // Begin Flight Recorder Event
+        final ReconstructEvent event = new ReconstructEvent();
+        event.begin();
+
+        // Initialize Planes
+        int[][] planes = new int[getChannelCount() * getChannelPlanes()][];
+        int plane = 0;
+
+        // Iterate over Channels
+        for(int c = 0; c < getChannelCount(); ++c)
+        {
+            // Get Dimensions of the Channel
+            final int width = getChannelWidth(c);
+            final int height = getChannelHeight(c);
+
+            // Reconstruct the Planes of the Channel
+            final int[][] channelPlanes;
+            if(getLevelCount() > 1)
+            {
+                final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(getLevelCount());
+                final ArrayList<int[]> indices = new ArrayList<int[]>(getLevelCount());
+                for(int l = 0; l < getLevelCount(); ++l)
+                {
+                    codebooks.add(getCodebook(c, l));
+                    indices.add(getIndices(c, l));
+                }
+                channelPlanes = QuadtreeQuantizer.reconstructPlanes(getSplitFlags(c), codebooks, indices,
+                                                                    getChannelPlanes(), width, height);
+            }
+            else
+            {
+                channelPlanes = VectorQuantizer.reconstructPlanes(getCodebook(c), getIndices(c), getChannelPlanes(),
+                                                                  width, height, _mode);
+            }
+
+            for(int[] p : channelPlanes)
+            {
+                // Upsample Subsampled Chroma Planes
+                if(width != _width || height != _height)
+                {
+                    p = PlaneUtil.upsample(p, _width, _height, _colorMode.getChromaFactorX(), _colorMode.getChromaFactorY());
+                }
+                planes[plane++] = p;
+            }
+        }
+
+        // Initialize Decoded Image
+        final BufferedImage image;
+
+        // Check if Grayscale Image
+        if(planes.length == 1)
+        {
+            image = PlaneUtil.toGrayImage(planes[0], _width, _height);
+        }
+        else
+        {
+            // Convert Luma and Chroma back to Red, Green and Blue
+            if(_colorMode.isYCbCr())
+            {
+                planes = PlaneUtil.toRGB(planes);
+            }
+
+            image = PlaneUtil.toImage(planes, _width, _height);
+        }
+
+        // Commit Flight Recorder Event
+        event.complete(_width, _height, _mode, _colorMode, (getChannelCount() == 0) ? 0 : getCodebook(0).length);
+
+        return image;
+    }
+}
@@ -0,0 +1,161 @@
+package data.imageTypes;
+
+import java.util.concurrent.TimeUnit;
+
+import enums.ETrainingPhase;
+
+/**
+ * ConvergencePolicies - Built-in Convergence Policies
+ *
+ * The wall-clock budget and the iteration limit bound both phases
+ * of training, every other policy only ends the UPDATE phase. The
+ * VERIFY phase is also capped by the compressor, so a codebook whose
+ * empty codewords never find vectors still reaches the UPDATE phase.
+ */
+public class ConvergencePolicies
+{
+    // Codeword Shift below which Training has always Stopped
+    public static final double DEFAULT_ERROR = 1.0;
+
+    /**
+     * defaultPolicy - Stops once the Codewords move less than DEFAULT_ERROR
+     *
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy defaultPolicy()
+    {
+        return codewordShift(DEFAULT_ERROR);
+    }
+
+    /**
+     * codewordShift - Stops once the Total Error between Old
+     *                 and New Codewords falls below a Limit
+     *
+     * @param minError - The Limit of the Codeword Error
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy codewordShift(final double minError)
+    {
+        return state -> isUpdate(state) && state.getError() < minError;
+    }
+
+    /**
+     * maxIterations - Stops after a Number of Lloyd Iterations,
+     *                 or of Rounds Moving Empty Codewords
+     *
+     * @param iterations - The Maximum Number of Iterations
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy maxIterations(final int iterations)
+    {
+        return state -> state.getIteration() + 1 >= iterations;
+    }
+
+    /**
+     * timeBudget - Stops once a Codebook has Trained for a Duration
+     *
+     * @param budget - The Duration
+     * @param unit   - The Unit of the Duration
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy timeBudget(final long budget, final TimeUnit unit)
+    {
+        final long budgetNanos = unit.toNanos(budget);
+
+        return state -> state.getElapsedNanos() >= budgetNanos;
+    }
+
+    /**
+     * relativeImprovement - Stops once an Iteration lowers the
+     *                       Distortion by less than a Fraction
+     *
+     * @param minImprovement - The Fraction, e.g. 0.001 for 0.1%
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy relativeImprovement(final double minImprovement)
+    {
+        return new IConvergencePolicy()
+        {
+            @Override
+            public boolean shouldStop(final ConvergenceState state)
+            {
+                // Need a Distortion to Compare against
+                final double previous = state.getPreviousDistortion();
+                if(!isUpdate(state) || Double.isNaN(previous) || previous <= 0.0)
+                {
+                    return false;
+                }
+
+                return (previous - state.getDistortion()) / previous < minImprovement;
+            }
+
+            @Override
+            public boolean usesDistortion()
+            {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * noReassignments - Stops once an Iteration changes
+     *                   no Input Vector's Codeword
+     *
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy noReassignments()
+    {
+        return state -> isUpdate(state) && state.getReassignments() == 0;
+    }
+
+    /**
+     * anyOf - Stops as soon as any of the Policies Stops
+     *
+     * @param policies - The Policies
+     * @return IConvergencePolicy - The Policy
+     */
+    public static IConvergencePolicy anyOf(final IConvergencePolicy... policies)
+    {
+        return new IConvergencePolicy()
+        {
+            @Override
+            public boolean shouldStop(final ConvergenceState state)
+            {
+                for(final IConvergencePolicy policy : policies)
+                {
+                    if(policy.shouldStop(state))
+                    {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            @Override
+            public boolean usesDistortion()
+            {
+                for(final IConvergencePolicy policy : policies)
+                {
+                    if(policy.usesDistortion())
+                    {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * isUpdate - Checks if a State follows a Lloyd Iteration
+     *
+     * @param state - The State of Training
+     * @return boolean - TRUE if in the UPDATE Phase
+     */
+    private static boolean isUpdate(final ConvergenceState state)
+    {
+        return ETrainingPhase.UPDATE.equals(state.getPhase());
+    }
+}
@@ -0,0 +1,121 @@
+package data.imageTypes;
+
+import enums.ETrainingPhase;
+
+/**
+ * ConvergenceState - The State of Codebook Training after a Step,
+ *                    as seen by a Convergence Policy
+ */
+public class ConvergenceState
+{
+    // Training Step
+    private final ETrainingPhase _phase;
+    private final int _iteration;
+
+    // Nanoseconds since Training of the Codebook Started
+    private final long _elapsedNanos;
+
+    // Total Error between Old and New Codewords
+    private final double _error;
+
+    // Mean Squared Error per Pixel after and before the Step,
+    // NaN if not Measured
+    private final double _distortion;
+    private final double _previousDistortion;
+
+    // Number of Input Vectors that changed Codeword
+    private final int _reassignments;
+
+    /**
+     * Constructor
+     *
+     * @param phase              - The Training Step
+     * @param iteration          - The Iteration of the Step, from 0
+     * @param elapsedNanos       - Nanoseconds since Training Started
+     * @param error              - The Total Error between Old and New Codewords
+     * @param distortion         - The Mean Squared Error after the Step, NaN if not Measured
+     * @param previousDistortion - The Mean Squared Error before the Step, NaN if not Measured
+     * @param reassignments      - The Number of Input Vectors that changed Codeword
+     */
+    public ConvergenceState(final ETrainingPhase phase, final int iteration, final long elapsedNanos, final double error,
+                            final double distortion, final double previousDistortion, final int reassignments)
+    {
+        _phase = phase;
+        _iteration = iteration;
+        _elapsedNanos = elapsedNanos;
+        _error = error;
+        _distortion = distortion;
+        _previousDistortion = previousDistortion;
+        _reassignments = reassignments;
+    }
+
+    /**
+     * getPhase
+     *
+     * @return ETrainingPhase - The Training Step
+     */
+    public ETrainingPhase getPhase()
+    {
+        return _phase;
+    }
+
+    /**
+     * getIteration
+     *
+     * @return int - The Iteration of the Step, from 0
+     */
+    public int getIteration()
+    {
+        return _iteration;
+    }
+
+    /**
+     * getElapsedNanos
+     *
+     * @return long - Nanoseconds since Training Started
+     */
+    public long getElapsedNanos()
+    {
+        return _elapsedNanos;
+    }
+
+    /**
+     * getError
+     *
+     * @return double - The Total Error between Old and New Codewords
+     */
+    public double getError()
+    {
+        return _error;
+    }
+
+    /**
+     * getDistortion
+     *
+     * @return double - The Mean Squared Error after the Step, NaN if not Measured
+     */
+    public double getDistortion()
+    {
+        return _distortion;
+    }
+
+    /**
+     * getPreviousDistortion
+     *
+     * @return double - The Mean Squared Error before the Step, NaN if not Measured
+     */
+    public double getPreviousDistortion()
+    {
+        return _previousDistortion;
+    }
+
+    /**
+     * getReassignments
+     *
+     * @return int - The Number of Input Vectors that changed Codeword
+     */
+    public int getReassignments()
+    {
+        return _reassignments;
+    }
+}
@@ -1,15 +1,19 @@
 package data.imageTypes;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import data.vectors.Vector;
 import data.vectors.Vector2by2;
 import data.vectors.Vector4by4;
 import enums.EVectorMode;
 
-public class GrayscaleImage extends AbstractImage
+public class GrayscaleImage extends AbstractImage implements ITrainable
 {
     // Lists of Input Vectors
     ArrayList<Vector> _vectorList;         // Adjacent Pixel Vector List
@@ -26,6 +30,20 @@ public class GrayscaleImage extends AbstractImage
     HashMap<Vector2by2, Vector2by2> _cluster2by2Map;
     HashMap<Vector4by4, Vector4by4> _cluster4by4Map;
 
+    // Codeword replacing each Moved Codeword, so that
+    // Reassigned Input Vectors can be Counted
+    final IdentityHashMap<Object, Object> _successors;
+
+    // Number of Input Vectors whose Codeword changed
+    // in the last Cluster Map Update
+    int _reassignments;
+
+    // Codebook Sorted by Codeword Mean, Searched in the 2x2 and 4x4 Modes
+    final MeanSortedCodebook _sortedCodebook;
+
+    // Pixels of the Vector being Searched, Reused by every Search
+    final int[] _searchPixels;
+
     /**
      * Constructor
      *
@@ -47,6 +65,13 @@ public class GrayscaleImage extends AbstractImage
         _clusterMap = new HashMap<Vector,Vector>();
         _cluster2by2Map = new HashMap<Vector2by2, Vector2by2>();
         _cluster4by4Map = new HashMap<Vector4by4, Vector4by4>();
+
+        // Initialize Codeword Successors
+        _successors = new IdentityHashMap<Object, Object>();
+
+        // Initialize Sorted Codebook
+        _sortedCodebook = new MeanSortedCodebook(mode.getDimension());
+        _searchPixels = new int[mode.getDimension()];
     }
 
     /**
@@ -57,12 +82,12 @@ public class GrayscaleImage extends AbstractImage
      */
     public void generateInputVectors(final BufferedImage image)
     {
+        // Read the Gray Values as Stored, getRGB would Convert them from Linear Gray
+        final int[] plane = image.getRaster().getSamples(0, 0, image.getWidth(), image.getHeight(), 0, (int[]) null);
+
         // Adjacent Pixel Vector Mode
         if(EVectorMode.SIDE_BY_SIDE == _mode)
         {
-            // Initialize Pixels
-            int pixel1, pixel2;
-
             // Get Size of Input Vectors
             int width = image.getWidth();
             int height = image.getHeight();
@@ -78,12 +103,10 @@ public class GrayscaleImage extends AbstractImage
                 for(int x = 0; x < image.getWidth(); x+=2)
                 {
                     // Get Pixel 1
-                    pixel1 = image.getRGB(x,y);
-                    int pix1 = (pixel1 & 0x0000ff00) >> 8;
+                    int pix1 = getGray(plane, width, x, y);
 
                     // Get Pixel2
-                    pixel2 = image.getRGB(x+1,y);
-                    int pix2 = (pixel2 & 0x0000ff00) >> 8;
+                    int pix2 = getGray(plane, width, x+1, y);
 
                     // Create new Adjacent Pixel Vector
                     Vector v = new Vector(pix1, pix2);
@@ -96,10 +119,6 @@ public class GrayscaleImage extends AbstractImage
         // 2x2 Pixel Vector Mode
         else if(EVectorMode.TWO_BY_TWO == _mode)
         {
-            // Initialize 2x2 Pixels
-            int pixel1, pixel2;
-            int pixel3, pixel4;
-
             // Get Size of Input Vectors
             int width = image.getWidth();
             int height = image.getHeight();
@@ -115,16 +134,12 @@ public class GrayscaleImage extends AbstractImage
                 for(int x = 0; x < image.getWidth(); x+=2)
                 {
                     // Get First Row in Matrix
-                    pixel1 = image.getRGB(x,y);
-                    int pix1 = (pixel1 & 0x0000ff00) >> 8;
-                    pixel2 = image.getRGB(x+1,y);
-                    int pix2 = (pixel2 & 0x0000ff00) >> 8;
+                    int pix1 = getGray(plane, width, x, y);
+                    int pix2 = getGray(plane, width, x+1, y);
 
                     // Get Second Row in Matrix
-                    pixel3 = image.getRGB(x,y+1);
-                    int pix3 = (pixel3 & 0x0000ff00) >> 8;
-                    pixel4 = image.getRGB(x+1, y+1);
-                    int pix4 = (pixel4 & 0x0000ff00) >> 8;
+                    int pix3 = getGray(plane, width, x, y+1);
+                    int pix4 = getGray(plane, width, x+1, y+1);
 
                     // Create new 2x2 Pixel Vector
                     Vector2by2 v = new Vector2by2(pix1, pix2, pix3, pix4);
@@ -136,12 +151,6 @@ public class GrayscaleImage extends AbstractImage
         }
         else if(EVectorMode.FOUR_BY_FOUR == _mode)
         {
-            // Initialize 4x4 Pixels
-            int pixel1, pixel2, pixel3, pixel4;
-            int pixel5, pixel6, pixel7, pixel8;
-            int pixel9, pixel10, pixel11, pixel12;
-            int pixel13, pixel14, pixel15, pixel16;
-
             // Get Size of Input Vectors
             int width = image.getWidth();
             int height = image.getHeight();
@@ -157,44 +166,28 @@ public class GrayscaleImage extends AbstractImage
                 for(int x = 0; x < image.getWidth(); x+=4)
                 {
                     // First Row of Matrix
-                    pixel1 = image.getRGB(x,y);
-                    int pix1 = (pixel1 & 0x0000ff00) >> 8;
-                    pixel2 = image.getRGB(x+1,y);
-                    int pix2 = (pixel2 & 0x0000ff00) >> 8;
-                    pixel3 = image.getRGB(x+2,y);
-                    int pix3 = (pixel3 & 0x0000ff00) >> 8;
-                    pixel4 = image.getRGB(x+3,y);
-                    int pix4 = (pixel4 & 0x0000ff00) >> 8;
+                    int pix1 = getGray(plane, width, x, y);
+                    int pix2 = getGray(plane, width, x+1, y);
+                    int pix3 = getGray(plane, width, x+2, y);
+                    int pix4 = getGray(plane, width, x+3, y);
 
                     // Second Row of Matrix
-                    pixel5 = image.getRGB(x,y+1);
-                    int pix5 = (pixel5 & 0x0000ff00) >> 8;
-                    pixel6 = image.getRGB(x+1,y+1);
-                    int pix6 = (pixel6 & 0x0000ff00) >> 8;
-                    pixel7 = image.getRGB(x+2,y+1);
-                    int pix7 = (pixel7 & 0x0000ff00) >> 8;
-                    pixel8 = image.getRGB(x+3, y+1);
-                    int pix8 = (pixel8 & 0x0000ff00) >> 8;
+                    int pix5 = getGray(plane, width, x, y+1);
+                    int pix6 = getGray(plane, width, x+1, y+1);
+                    int pix7 = getGray(plane, width, x+2, y+1);
+                    int pix8 = getGray(plane, width, x+3, y+1);
 
                     // Third Row of Matrix
-                    pixel9 = image.getRGB(x,y+1);
-                    int pix9 = (pixel9 & 0x0000ff00) >> 8;
-                    pixel10 = image.getRGB(x+1,y+1);
-                    int pix10 = (pixel10 & 0x0000ff00) >> 8;
-                    pixel11 = image.getRGB(x+2,y+1);
-                    int pix11 = (pixel11 & 0x0000ff00) >> 8;
-                    pixel12 = image.getRGB(x+3, y+1);
-                    int pix12 = (pixel12 & 0x0000ff00) >> 8;
+                    int pix9 = getGray(plane, width, x, y+2);
+                    int pix10 = getGray(plane, width, x+1, y+2);
+                    int pix11 = getGray(plane, width, x+2, y+2);
+                    int pix12 = getGray(plane, width, x+3, y+2);
 
                     // Fourth Row of Matrix
-                    pixel13 = image.getRGB(x,y+1);
-                    int pix13 = (pixel13 & 0x0000ff00) >> 8;
-                    pixel14 = image.getRGB(x+1,y+1);
-                    int pix14 = (pixel14 & 0x0000ff00) >> 8;
-                    pixel15 = image.getRGB(x+2,y+1);
-                    int pix15 = (pixel15 & 0x0000ff00) >> 8;
-                    pixel16 = image.getRGB(x+3, y+1);
-                    int pix16 = (pixel16 & 0x0000ff00) >> 8;
+                    int pix13 = getGray(plane, width, x, y+3);
+                    int pix14 = getGray(plane, width, x+1, y+3);
+                    int pix15 = getGray(plane, width, x+2, y+3);
+                    int pix16 = getGray(plane, width, x+3, y+3);
 
                     // Create new 4x4 Pixel Vector
                     Vector4by4 v = new Vector4by4(pix1,  pix2,  pix3,  pix4,
@@ -209,6 +202,20 @@ public class GrayscaleImage extends AbstractImage
         }
     }
 
+    /**
+     * getGray - Gets a Gray Value of a Plane
+     *
+     * @param plane - The Gray Plane in Row Order
+     * @param width - The Width of the Plane
+     * @param x     - The Column of the Pixel
+     * @param y     - The Row of the Pixel
+     * @return int - The Gray Value
+     */
+    private static int getGray(final int[] plane, final int width, final int x, final int y)
+    {
+        return plane[y * width + x];
+    }
+
     /**
      * generateCodebook - Generates the Initial Codewords
      *                    for the Codebook
@@ -360,6 +367,7 @@ public class GrayscaleImage extends AbstractImage
                     // Generate New Codeword for Codebook
                     Vector newCodeword = new Vector(x,y);
                     _codebook.set(index, newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Will need to reverify codebook
                     // as Codebook has been updated
@@ -399,6 +407,7 @@ public class GrayscaleImage extends AbstractImage
                     // Generate New Codeword for Codebook
                     Vector2by2 newCodeword = new Vector2by2(a,b,c,d);
                     _codebook2by2.set(index, newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Will need to reverify codebook
                     // as Codebook has been updated
@@ -475,6 +484,7 @@ public class GrayscaleImage extends AbstractImage
                                                                   m,n,o,p);
 
                     _codebook4by4.set(index, newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Will need to reverify codebook
                     // as Codebook has been updated
@@ -529,6 +539,7 @@ public class GrayscaleImage extends AbstractImage
                     // Get New Codeword
                     Vector newCodeword = new Vector(sumClusterX/m, sumClusterY/m);
                     newCodewordList.add(newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Get Error between old Codeword and new Codeword
                     error += getError(codeword, newCodeword);
@@ -575,6 +586,7 @@ public class GrayscaleImage extends AbstractImage
                     // Get New Codeword
                     Vector2by2 newCodeword = new Vector2by2(sumClusterA/m, sumClusterB/m, sumClusterC/m, sumClusterD/m);
                     newCodewordList.add(newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Get Error between old Codeword and new Codeword
                     error += getError(codeword, newCodeword);
@@ -639,6 +651,7 @@ public class GrayscaleImage extends AbstractImage
                                                             sumClusterI/m, sumClusterJ/m, sumClusterK/m, sumClusterL/m,
                                                             sumClusterM/m, sumClusterN/m, sumClusterO/m, sumClusterP/m);
                     newCodewordList.add(newCodeword);
+                    _successors.put(codeword, newCodeword);
 
                     // Get Error between old Codeword and new Codeword
                     error += getError(codeword, newCodeword);
@@ -661,6 +674,9 @@ public class GrayscaleImage extends AbstractImage
      */
     public void generateClusterMap()
     {
+        // Initialize Reassignment Count
+        _reassignments = 0;
+
         // If Mode is Adjacent Pixels
         if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
         {
@@ -673,13 +689,16 @@ public class GrayscaleImage extends AbstractImage
                     final Vector codeword = getClosestCodeword(v);
 
                     // Update Cluster Mapping
-                    _clusterMap.put(v, codeword);
+                    countReassignment(_clusterMap.put(v, codeword), codeword);
                 }
             } 
         }
         // If Mode is 2x2 Vector Matrix
         else if(EVectorMode.TWO_BY_TWO.equals(_mode))
         {
+            // Sort the Codebook for Searches
+            _sortedCodebook.build(getCodewords());
+
             synchronized(_cluster2by2Map)
             {
                 // Iterate over each Vector
@@ -689,13 +708,16 @@ public class GrayscaleImage extends AbstractImage
                     final Vector2by2 codeword = getClosestCodeword(v);
 
                     // Update Cluster Mapping
-                    _cluster2by2Map.put(v, codeword);
+                    countReassignment(_cluster2by2Map.put(v, codeword), codeword);
                 }
             }
         }
         // If Mode is 4x4 Vector Matrix
         else if(EVectorMode.FOUR_BY_FOUR.equals(_mode))
         {
+            // Sort the Codebook for Searches
+            _sortedCodebook.build(getCodewords());
+
             synchronized(_cluster4by4Map)
             {
                 // Iterate over each Vector
@@ -705,10 +727,163 @@ public class GrayscaleImage extends AbstractImage
                     final Vector4by4 codeword = getClosestCodeword(v);
  
                     // Update Cluster Mapping
-                    _cluster4by4Map.put(v, codeword);
+                    countReassignment(_cluster4by4Map.put(v, codeword), codeword);
                 }
             }
         }
+
+        // Successors have been Followed
+        _successors.clear();
+    }
+
+    /**
+     * getDistortion - Gets the Mean Squared Error between each
+     *                 Input Vector and its Mapped Codeword
+     *
+     * @return double - The Mean Squared Error per Pixel
+     */
+    @Override
+    public double getDistortion()
+    {
+        // Initialize Error Accumulator
+        long error = 0;
+        long count = 0;
+
+        // Iterate over Cluster Mapping
+        for(final Map.Entry<?, ?> entry : getModeClusterMap().entrySet())
+        {
+            final int[] vector = getPixels(entry.getKey());
+            final int[] codeword = getPixels(entry.getValue());
+
+            for(int i = 0; i < vector.length; ++i)
+            {
+                final int diff = vector[i] - codeword[i];
+                error += diff * diff;
+            }
+            count += vector.length;
+        }
+
+        return (count == 0) ? 0.0 : (double) error / count;
+    }
+
+    /**
+     * getEmptyClusterCount - Gets the Number of Codewords
+     *                        without Input Vectors in their Cluster
+     *
+     * @return int - The Number of Empty Clusters
+     */
+    @Override
+    public int getEmptyClusterCount()
+    {
+        // Get Codewords with at least one Input Vector
+        final HashSet<Object> populated = new HashSet<Object>(getModeClusterMap().values());
+
+        // Initialize Empty Cluster Count
+        int emptyClusters = 0;
+
+        // Iterate over Codebook
+        for(final Object codeword : getModeCodebook())
+        {
+            if(!populated.contains(codeword))
+            {
+                emptyClusters++;
+            }
+        }
+
+        return emptyClusters;
+    }
+
+    /**
+     * getReassignmentCount - Gets the Number of Input Vectors whose
+     *                        Codeword changed in the last Cluster Map Update
+     *
+     * @return int - The Number of Reassigned Input Vectors
+     */
+    @Override
+    public int getReassignmentCount()
+    {
+        return _reassignments;
+    }
+
+    /**
+     * countReassignment - Counts an Input Vector as Reassigned unless its
+     *                     Previous Codeword, or the Codeword that replaced it,
+     *                     is its New Codeword
+     *
+     * @param previous - The Previous Codeword, null if not yet Mapped
+     * @param codeword - The New Codeword
+     */
+    private void countReassignment(final Object previous, final Object codeword)
+    {
+        // Follow Moved Codewords to their Replacement
+        Object current = previous;
+        while(_successors.containsKey(current))
+        {
+            current = _successors.get(current);
+        }
+
+        if(current != codeword)
+        {
+            _reassignments++;
+        }
+    }
+
+    /**
+     * getModeClusterMap - Gets the Cluster Map of the current Mode
+     *
+     * @return Map<?, ?> - The Mapping of Input Vectors to Codewords
+     */
+    private Map<?, ?> getModeClusterMap()
+    {
+        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
+        {
+            return _clusterMap;
+        }
+        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
+        {
+            return _cluster2by2Map;
+        }
+
+        return _cluster4by4Map;
+    }
+
+    /**
+     * getModeCodebook - Gets the Codebook of the current Mode
+     *
+     * @return ArrayList<?> - The Codewords
+     */
+    private ArrayList<?> getModeCodebook()
+    {
+        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
+        {
+            return _codebook;
+        }
+        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
+        {
+            return _codebook2by2;
+        }
+
+        return _codebook4by4;
+    }
+
+    /**
+     * getPixels - Gets the Pixel Values of a Vector of any Mode
+     *
+     * @param vector - The Vector
+     * @return int[] - The Pixel Values in Row Order
+     */
+    private static int[] getPixels(final Object vector)
+    {
+        if(vector instanceof Vector)
+        {
+            return ((Vector) vector).getPixels();
+        }
+        else if(vector instanceof Vector2by2)
+        {
+            return ((Vector2by2) vector).getPixels();
+        }
+
+        return ((Vector4by4) vector).getPixels();
     }
 
     /**
@@ -800,8 +975,8 @@ public class GrayscaleImage extends AbstractImage
         // Initialize Raw Image
         BufferedImage image = new BufferedImage(_width, _height, BufferedImage.TYPE_BYTE_GRAY);
 
-        int pix;
-        byte gray;
+        // Write the Gray Values as Stored, without Color Conversion
+        final WritableRaster raster = image.getRaster();
         int count = 0;
 
         // Check if Adjacent Pixel Vector Mode
@@ -821,15 +996,11 @@ public class GrayscaleImage extends AbstractImage
 
                     // Get Pixel 1
                     final int pix1 = v.getPixel1();
-                    gray = (byte) pix1;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y, pix);
+                    raster.setSample(x, y, 0, pix1);
 
                     // Get Pixel 2
                     final int pix2 = v.getPixel2();
-                    gray = (byte) pix2;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y, pix);
+                    raster.setSample(x+1, y, 0, pix2);
 
                     // Increment Count
                     count++;
@@ -853,27 +1024,19 @@ public class GrayscaleImage extends AbstractImage
 
                     // Get Pixel 1
                     final int pix1 = v.getPixel1();
-                    gray = (byte) pix1;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y, pix);
+                    raster.setSample(x, y, 0, pix1);
 
                     // Get Pixel 2
                     final int pix2 = v.getPixel2();
-                    gray = (byte) pix2;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y, pix);
+                    raster.setSample(x+1, y, 0, pix2);
 
                     // Get Pixel 3
                     final int pix3 = v.getPixel3();
-                    gray = (byte) pix3;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y+1, pix);
+                    raster.setSample(x, y+1, 0, pix3);
 
                     // Get Pixel 4
                     final int pix4 = v.getPixel4();
-                    gray = (byte) pix4;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y+1, pix);
+                    raster.setSample(x+1, y+1, 0, pix4);
 
                     // Increment Count
                     count++;
@@ -896,99 +1059,67 @@ public class GrayscaleImage extends AbstractImage
 
                     // Get Pixel 1
                     final int pix1 = v.getPixel1();
-                    gray = (byte) pix1;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y, pix);
+                    raster.setSample(x, y, 0, pix1);
 
                     // Get Pixel 2
                     final int pix2 = v.getPixel2();
-                    gray = (byte) pix2;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y, pix);
+                    raster.setSample(x+1, y, 0, pix2);
 
                     // Get Pixel 3
                     final int pix3 = v.getPixel3();
-                    gray = (byte) pix3;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+2, y, pix);
+                    raster.setSample(x+2, y, 0, pix3);
 
                     // Get Pixel 4
                     final int pix4 = v.getPixel4();
-                    gray = (byte) pix4;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+3, y, pix);
+                    raster.setSample(x+3, y, 0, pix4);
 
                     // Get Pixel 5
                     final int pix5 = v.getPixel5();
-                    gray = (byte) pix5;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y+1, pix);
+                    raster.setSample(x, y+1, 0, pix5);
 
                     // Get Pixel 6
                     final int pix6 = v.getPixel6();
-                    gray = (byte) pix6;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y+1, pix);
+                    raster.setSample(x+1, y+1, 0, pix6);
 
                     // Get Pixel 7
                     final int pix7 = v.getPixel7();
-                    gray = (byte) pix7;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+2, y+1, pix);
+                    raster.setSample(x+2, y+1, 0, pix7);
 
                     // Get Pixel 8
                     final int pix8 = v.getPixel8();
-                    gray = (byte) pix8;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+3, y+1, pix);
+                    raster.setSample(x+3, y+1, 0, pix8);
 
                     // Get Pixel 9
                     final int pix9 = v.getPixel9();
-                    gray = (byte) pix9;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y+2, pix);
+                    raster.setSample(x, y+2, 0, pix9);
 
                     // Get Pixel 10
                     final int pix10 = v.getPixel10();
-                    gray = (byte) pix10;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y+2, pix);
+                    raster.setSample(x+1, y+2, 0, pix10);
 
                     // Get Pixel 11
                     final int pix11 = v.getPixel11();
-                    gray = (byte) pix11;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+2, y+2, pix);
+                    raster.setSample(x+2, y+2, 0, pix11);
 
                     // Get Pixel 12
                     final int pix12 = v.getPixel12();
-                    gray = (byte) pix12;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+3, y+2, pix);
+                    raster.setSample(x+3, y+2, 0, pix12);
 
                     // Get Pixel 13
                     final int pix13 = v.getPixel13();
-                    gray = (byte) pix13;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x, y+3, pix);
+                    raster.setSample(x, y+3, 0, pix13);
 
                     // Get Pixel 14
                     final int pix14 = v.getPixel14();
-                    gray = (byte) pix14;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+1, y+3, pix);
+                    raster.setSample(x+1, y+3, 0, pix14);
 
                     // Get Pixel 15
                     final int pix15 = v.getPixel15();
-                    gray = (byte) pix15;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+2, y+3, pix);
+                    raster.setSample(x+2, y+3, 0, pix15);
 
                     // Get Pixel 16
                     final int pix16 = v.getPixel16();
-                    gray = (byte) pix16;
-                    pix = 0xff000000 | ((gray & 0xff) << 8);
-                    image.setRGB(x+3, y+3, pix);
+                    raster.setSample(x+3, y+3, 0, pix16);
 
 
                     // Increment Count
@@ -1000,6 +1131,54 @@ public class GrayscaleImage extends AbstractImage
         return image;
     }
 
+    /**
+     * getCodewords - Gets the Pixel Values of each Codeword
+     *                in the Codebook of the current Vector Mode
+     *
+     * @return int[][] - The Codewords in Codebook Order
+     */
+    public int[][] getCodewords()
+    {
+        // Initialize Codewords
+        final int[][] codewords;
+
+        // Check if Adjacent Pixel Vector Mode
+        if(EVectorMode.SIDE_BY_SIDE.equals(_mode))
+        {
+            codewords = new int[_codebook.size()][];
+
+            // Iterate over Codebook
+            for(int i = 0; i < _codebook.size(); ++i)
+            {
+                codewords[i] = _codebook.get(i).getPixels();
+            }
+        }
+        // Check if 2x2 Pixel Vector Mode
+        else if(EVectorMode.TWO_BY_TWO.equals(_mode))
+        {
+            codewords = new int[_codebook2by2.size()][];
+
+            // Iterate over Codebook
+            for(int i = 0; i < _codebook2by2.size(); ++i)
+            {
+                codewords[i] = _codebook2by2.get(i).getPixels();
+            }
+        }
+        // If 4x4 Pixel Vector Mode
+        else
+        {
+            codewords = new int[_codebook4by4.size()][];
+
+            // Iterate over Codebook
+            for(int i = 0; i < _codebook4by4.size(); ++i)
+            {
+                codewords[i] = _codebook4by4.get(i).getPixels();
+            }
+        }
+
+        return codewords;
+    }
+
     /**
      * generateVectorSpace - Generates a Test Image of the Vector Space
      *
@@ -1107,105 +1286,36 @@ public class GrayscaleImage extends AbstractImage
     }
 
     /**
-     * getClosestCodeword
+     * getClosestCodeword - Searches the Codebook Sorted by Codeword Mean,
+     *                      Giving the same Codeword as a Search in Codebook Order
      *
-     * @param vector - 
-     * @param codeword
+     * @param vector - The Input Vector
+     * @return Vector2by2 - The Closest Codeword
      */
     private Vector2by2 getClosestCodeword(final Vector2by2 vector)
     {
-        // Initialize the Closest Codeword
-        Vector2by2 closestCodeword = new Vector2by2(0,0,0,0);
-
-        // Initialize the Minimum Distance
-        double minDist = Double.MAX_VALUE;
-
-        // Iterate over Codewords
-        for(final Vector2by2 codeword : _codebook2by2)
-        {
-            // Calculate Differences
-            int diff1 = codeword.getPixel1()-vector.getPixel1();
-            int diff2 = codeword.getPixel2()-vector.getPixel2();
-            int diff3 = codeword.getPixel3()-vector.getPixel3();
-            int diff4 = codeword.getPixel4()-vector.getPixel4();
-
-            // Get Distance between Codeword and Vector
-            final double dist = Math.sqrt(Math.pow(diff1, 2) + Math.pow(diff2, 2) +
-                                          Math.pow(diff3, 2) + Math.pow(diff4, 2));
-
-            // Check if now Minimum Distance
-            if(dist < minDist)
-            {
-                // Update Closest Codeword
-                closestCodeword = codeword;
-
-                // Update Minimum Distance
-                minDist = dist;
-            }
-        }
+        vector.getPixels(_searchPixels);
+        final int index = _sortedCodebook.search(_searchPixels, 0, false);
 
-        return closestCodeword;
+        return (index < 0) ? new Vector2by2(0,0,0,0) : _codebook2by2.get(index);
     }
 
     /**
-     * getClosestCodeword
+     * getClosestCodeword - Searches the Codebook Sorted by Codeword Mean,
+     *                      Giving the same Codeword as a Search in Codebook Order
      *
-     * @param vector - 
-     * @param codeword
+     * @param vector - The Input Vector
+     * @return Vector4by4 - The Closest Codeword
      */
     private Vector4by4 getClosestCodeword(final Vector4by4 vector)
     {
-        // Initialize the Closest Codeword
-        Vector4by4 closestCodeword = new Vector4by4(0,0,0,0,
-                                                    0,0,0,0,
-                                                    0,0,0,0,
-                                                    0,0,0,0);
-
-        // Initialize the Minimum Distance
-        double minDist = Double.MAX_VALUE;
+        vector.getPixels(_searchPixels);
+        final int index = _sortedCodebook.search(_searchPixels, 0, false);
 
-        // Iterate over Codewords
-        for(final Vector4by4 codeword : _codebook4by4)
-        {
-            // Calculate Differences
-            int diff1 = codeword.getPixel1()-vector.getPixel1();
-            int diff2 = codeword.getPixel2()-vector.getPixel2();
-            int diff3 = codeword.getPixel3()-vector.getPixel3();
-            int diff4 = codeword.getPixel4()-vector.getPixel4();
-
-            int diff5 = codeword.getPixel5()-vector.getPixel5();
-            int diff6 = codeword.getPixel6()-vector.getPixel6();
-            int diff7 = codeword.getPixel7()-vector.getPixel7();
-            int diff8 = codeword.getPixel8()-vector.getPixel8();
-
-            int diff9 = codeword.getPixel9()-vector.getPixel9();
-            int diff10 = codeword.getPixel10()-vector.getPixel10();
-            int diff11 = codeword.getPixel11()-vector.getPixel11();
-            int diff12 = codeword.getPixel12()-vector.getPixel12();
-
-            int diff13 = codeword.getPixel13()-vector.getPixel13();
-            int diff14 = codeword.getPixel14()-vector.getPixel14();
-            int diff15 = codeword.getPixel15()-vector.getPixel15();
-            int diff16 = codeword.getPixel16()-vector.getPixel16();
-
-            // Get Distance between Codeword and Vector
-            final double dist = Math.sqrt(Math.pow(diff1, 2) + Math.pow(diff2, 2) + Math.pow(diff3, 2) + Math.pow(diff4, 2) +
-                                          Math.pow(diff5, 2) + Math.pow(diff6, 2) + Math.pow(diff7, 2) + Math.pow(diff8, 2) +
-                                          Math.pow(diff9, 2) + Math.pow(diff10, 2) + Math.pow(diff11, 2) + Math.pow(diff12, 2) +
-                                          Math.pow(diff13, 2) + Math.pow(diff14, 2) + Math.pow(diff15, 2) + Math.pow(diff16, 2));
-
-            // Check if now Minimum Distance
-            if(dist < minDist)
-            {
-                // Update Closest Codeword
-                closestCodeword = codeword;
-
-                // Update Minimum Distance
-                minDist = dist;
-            }
-        }
-
-        return closestCodeword;
+        return (index < 0) ? new Vector4by4(0,0,0,0,
+                                            0,0,0,0,
+                                            0,0,0,0,
+                                            0,0,0,0) : _codebook4by4.get(index);
     }
 
     /**
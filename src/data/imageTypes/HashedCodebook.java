@@ -0,0 +1,459 @@
+package data.imageTypes;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * HashedCodebook - Finds an Approximate Closest Codeword to a Vector
+ *                  by Comparing only the Codewords Hashed to the
+ *                  same Buckets by Random Projections
+ *
+ * Pixel blocks vary mostly in their mean, so random directions
+ * would mostly measure the mean and agree with each other. Each of
+ * several tables instead hashes a vector to a band of its mean,
+ * cut at shifted quantiles of the codeword means, and to one bit
+ * per random direction orthogonal to the mean, set on the side of
+ * the codewords' median projection. Close vectors mostly share
+ * buckets, so a search compares only the codewords of the
+ * vector's bucket in each table, and of the bucket across the
+ * boundary closest to the vector. Buckets hold about BUCKET_SIZE
+ * codewords, so a search compares far fewer codewords than the
+ * codebook holds, but may miss the closest one. More tables miss
+ * less and compare more. If every bucket visited is empty, the
+ * whole codebook is searched.
+ */
+public class HashedCodebook
+{
+    // Default Number of Hash Tables
+    public static final int DEFAULT_TABLES = 8;
+
+    // Codewords per Bucket the Hash Bits are Chosen for
+    private static final int BUCKET_SIZE = 8;
+
+    // Most Hash Bits per Table
+    private static final int MAX_BITS = 20;
+
+    // Seed of the Projections, so Repeated Runs Hash alike
+    private static final long SEED = 0x4a54;
+
+    // Number of Pixel Values in each Vector
+    private final int _dimension;
+
+    // Number of Hash Tables
+    private final int _tables;
+
+    // Number of Codewords
+    private int _size;
+
+    // Codewords, one after another
+    private int[] _codewords = new int[0];
+
+    // Number of Hash Bits per Table, of which the Mean Band takes _meanBits
+    private int _bits;
+    private int _meanBits;
+
+    // Unit Random Directions Orthogonal to the Mean, Bit by Bit within each
+    // Table, and the Median Projection of the Codewords on each
+    private double[] _projections = new double[0];
+    private double[] _thresholds = new double[0];
+
+    // Pixel Sums Bounding the Mean Bands of each Table
+    private long[][] _bandLimits;
+
+    // Start of each Bucket in the Members of each Table, and the
+    // Codebook Indices of the Codewords Sorted by Bucket
+    private final int[][] _bucketStarts;
+    private final int[][] _members;
+
+    // Search Mark of each Codeword, so Codewords in Several Buckets
+    // are Compared once per Search
+    private int[] _marks = new int[0];
+    private int _mark;
+
+    // Squared Distance of the Closest Codeword found by the last Search
+    private long _closestDistance;
+
+    // Codewords Compared since the Codebook was Built
+    private long _compared;
+
+    /**
+     * Constructor
+     *
+     * @param dimension - Number of Pixel Values in each Vector
+     * @param tables    - Number of Hash Tables, more Miss the Closest
+     *                    Codeword less and Compare more Codewords
+     */
+    public HashedCodebook(final int dimension, final int tables)
+    {
+        // Ensure there is a Table to Search
+        if(tables < 1)
+        {
+            throw new IllegalArgumentException("At least one hash table is needed, not " + tables);
+        }
+
+        _dimension = dimension;
+        _tables = tables;
+        _bandLimits = new long[tables][];
+        _bucketStarts = new int[tables][];
+        _members = new int[tables][];
+    }
+
+    /**
+     * build - Hashes the Codewords of a Codebook into Buckets
+     *
+     * @param codebook - Codewords, one after another
+     * @param size     - The Number of Codewords
+     */
+    public void build(final int[] codebook, final int size)
+    {
+        // Ensure there is Room for every Codeword
+        if(_marks.length < size)
+        {
+            _codewords = new int[size * _dimension];
+            _marks = new int[size];
+        }
+        _size = size;
+        System.arraycopy(codebook, 0, _codewords, 0, size * _dimension);
+        _compared = 0;
+
+        // Choose Bits so Buckets hold about BUCKET_SIZE Codewords, about
+        // half of them Banding the Mean, which Varies the most
+        final int bits = (int) Math.round(Math.log(Math.max(2.0, (double) size / BUCKET_SIZE)) / Math.log(2.0));
+        _bits = Math.max(1, Math.min(MAX_BITS, bits));
+        _meanBits = (_dimension > 1) ? _bits / 2 : _bits;
+        final int directions = _bits - _meanBits;
+
+        // Get the Pixel Sum of each Codeword, Sorted
+        final long[] sums = new long[size];
+        for(int i = 0; i < size; ++i)
+        {
+            sums[i] = getSum(_codewords, i * _dimension);
+        }
+        final long[] sortedSums = sums.clone();
+        Arrays.sort(sortedSums);
+
+        // Draw Unit Random Directions, Orthogonal to the Mean
+        final Random random = new Random(SEED);
+        _projections = new double[_tables * directions * _dimension];
+        _thresholds = new double[_tables * directions];
+        for(int p = 0; p < _tables * directions; ++p)
+        {
+            drawDirection(random, p * _dimension);
+        }
+
+        // Iterate over Tables
+        final int bands = 1 << _meanBits;
+        final int[] keys = new int[size];
+        final double[] projected = new double[size];
+        for(int t = 0; t < _tables; ++t)
+        {
+            // Cut the Mean Bands at Quantiles Shifted by a Random Fraction of a Band
+            final double shift = random.nextDouble();
+            _bandLimits[t] = new long[bands - 1];
+            for(int b = 1; b < bands && size > 0; ++b)
+            {
+                _bandLimits[t][b - 1] = sortedSums[(int) Math.min(size - 1, (long) ((b - 0.5 + shift) * size / bands))];
+            }
+
+            // Split each Direction at the Median Projection of the Codewords
+            for(int b = 0; b < directions && size > 0; ++b)
+            {
+                final int p = t * directions + b;
+                for(int i = 0; i < size; ++i)
+                {
+                    projected[i] = project(_codewords, i * _dimension, p);
+                }
+                Arrays.sort(projected, 0, size);
+                _thresholds[p] = projected[size / 2];
+            }
+
+            // Count the Codewords of each Bucket
+            final int[] starts = new int[(1 << _bits) + 1];
+            for(int i = 0; i < size; ++i)
+            {
+                keys[i] = (int) hash(_codewords, i * _dimension, t);
+                starts[keys[i] + 1]++;
+            }
+
+            // Sort Codewords by Bucket, in Codebook Order within each
+            for(int b = 0; b < (1 << _bits); ++b)
+            {
+                starts[b + 1] += starts[b];
+            }
+            final int[] members = new int[size];
+            final int[] next = Arrays.copyOf(starts, starts.length - 1);
+            for(int i = 0; i < size; ++i)
+            {
+                members[next[keys[i]]++] = i;
+            }
+
+            _bucketStarts[t] = starts;
+            _members[t] = members;
+        }
+    }
+
+    /**
+     * search - Gets the Codebook Index of an Approximate Closest Codeword to a Vector
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @return int - The Codebook Index of the Closest Codeword Compared,
+     *               -1 if there are no Codewords
+     */
+    public int search(final int[] vectors, final int offset)
+    {
+        // Start a new Mark, Clearing Marks once they Wrap
+        if(++_mark == 0)
+        {
+            Arrays.fill(_marks, 0);
+            _mark = 1;
+        }
+
+        // Initialize Closest
+        int closest = -1;
+        _closestDistance = Long.MAX_VALUE;
+
+        // Iterate over Tables
+        for(int t = 0; t < _tables; ++t)
+        {
+            // Compare the Codewords of the Vector's Bucket, and across its Closest Boundary
+            final long hashed = hash(vectors, offset, t);
+            closest = searchBucket(vectors, offset, t, (int) hashed, closest);
+            closest = searchBucket(vectors, offset, t, (int) (hashed >>> 32), closest);
+        }
+
+        // Search every Codeword if no Bucket held any
+        if(closest < 0)
+        {
+            for(int i = 0; i < _size; ++i)
+            {
+                closest = compare(vectors, offset, i, closest);
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * getClosestDistance
+     *
+     * @return long - The Squared Distance to the Closest Codeword of the last Search
+     */
+    public long getClosestDistance()
+    {
+        return _closestDistance;
+    }
+
+    /**
+     * getComparedCount
+     *
+     * @return long - The Number of Codewords Compared since the Codebook was Built
+     */
+    public long getComparedCount()
+    {
+        return _compared;
+    }
+
+    /**
+     * getBits
+     *
+     * @return int - The Number of Hash Bits per Table
+     */
+    public int getBits()
+    {
+        return _bits;
+    }
+
+    /**
+     * searchBucket - Compares the Codewords of a Bucket not yet Compared
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @param table   - The Hash Table
+     * @param key     - The Bucket
+     * @param closest - The Closest Codeword so far, -1 if None
+     * @return int - The Closest Codeword
+     */
+    private int searchBucket(final int[] vectors, final int offset, final int table, final int key, int closest)
+    {
+        final int[] starts = _bucketStarts[table];
+        final int[] members = _members[table];
+
+        // Iterate over the Codewords of the Bucket
+        for(int m = starts[key]; m < starts[key + 1]; ++m)
+        {
+            final int i = members[m];
+            if(_marks[i] != _mark)
+            {
+                _marks[i] = _mark;
+                closest = compare(vectors, offset, i, closest);
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * compare - Compares a Codeword to the Closest so far
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @param index   - The Codebook Index of the Codeword
+     * @param closest - The Closest Codeword so far, -1 if None
+     * @return int - The Closest Codeword, Ties going to the Lowest Codebook Index
+     */
+    private int compare(final int[] vectors, final int offset, final int index, final int closest)
+    {
+        _compared++;
+
+        // Get Squared Distance, Stopping once past the Closest
+        final int base = index * _dimension;
+        long dist = 0;
+        for(int d = 0; d < _dimension && dist <= _closestDistance; ++d)
+        {
+            final int diff = _codewords[base + d] - vectors[offset + d];
+            dist += diff * diff;
+        }
+
+        // Check if now Closest
+        if(dist < _closestDistance || (dist == _closestDistance && index < closest))
+        {
+            _closestDistance = dist;
+            return index;
+        }
+
+        return closest;
+    }
+
+    /**
+     * hash - Hashes a Vector in a Table
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @param table   - The Hash Table
+     * @return long - The Bucket in the Low Word, and in the High Word the
+     *                Bucket across the Boundary Closest to the Vector
+     */
+    private long hash(final int[] vectors, final int offset, final int table)
+    {
+        // Find the Mean Band, and the Distance to its Closer Limit
+        final long sum = getSum(vectors, offset);
+        final long[] limits = _bandLimits[table];
+        int band = 0;
+        while(band < limits.length && sum >= limits[band])
+        {
+            band++;
+        }
+        final double lowMargin = (band > 0) ? (sum - limits[band - 1]) / Math.sqrt(_dimension) : Double.POSITIVE_INFINITY;
+        final double highMargin = (band < limits.length) ? (limits[band] - sum) / Math.sqrt(_dimension) : Double.POSITIVE_INFINITY;
+        final int directions = _bits - _meanBits;
+        int key = band << directions;
+        int probe = (lowMargin <= highMargin) ? key - (1 << directions) : key + (1 << directions);
+        double leastMargin = Math.min(lowMargin, highMargin);
+
+        // Iterate over the Directions of the Table
+        int leastSure = -1;
+        for(int b = 0; b < directions; ++b)
+        {
+            // Set the Bit above the Median
+            final int p = table * directions + b;
+            final double margin = project(vectors, offset, p) - _thresholds[p];
+            if(margin >= 0.0)
+            {
+                key |= 1 << b;
+            }
+
+            // Track the Bit Closest to Flipping
+            if(Math.abs(margin) < leastMargin)
+            {
+                leastMargin = Math.abs(margin);
+                leastSure = b;
+            }
+        }
+
+        // Probe across the Closest Boundary, a Bit or a Mean Band Limit
+        if(leastSure >= 0)
+        {
+            probe = key ^ (1 << leastSure);
+        }
+        else if(probe < 0 || probe >= (1 << _bits))
+        {
+            probe = key;
+        }
+        else
+        {
+            probe |= key & ((1 << directions) - 1);
+        }
+
+        return ((long) probe << 32) | key;
+    }
+
+    /**
+     * drawDirection - Draws a Unit Random Direction Orthogonal to the Mean
+     *
+     * @param random - Source of the Direction
+     * @param base   - Offset of the Direction in the Projections
+     */
+    private void drawDirection(final Random random, final int base)
+    {
+        // Draw a Gaussian Direction, then Remove its Mean
+        double mean = 0.0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            _projections[base + d] = random.nextGaussian();
+            mean += _projections[base + d] / _dimension;
+        }
+
+        double norm = 0.0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            _projections[base + d] -= mean;
+            norm += _projections[base + d] * _projections[base + d];
+        }
+
+        // Scale to Unit Length, so Projections are Distances
+        norm = Math.sqrt(norm);
+        for(int d = 0; d < _dimension; ++d)
+        {
+            _projections[base + d] /= norm;
+        }
+    }
+
+    /**
+     * project - Projects a Vector on a Direction
+     *
+     * @param vectors    - Array holding the Vector
+     * @param offset     - Offset of the Vector in the Array
+     * @param projection - The Index of the Direction
+     * @return double - The Projection
+     */
+    private double project(final int[] vectors, final int offset, final int projection)
+    {
+        final int base = projection * _dimension;
+        double result = 0.0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            result += vectors[offset + d] * _projections[base + d];
+        }
+
+        return result;
+    }
+
+    /**
+     * getSum - Gets the Pixel Sum of a Vector
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @return long - The Pixel Sum
+     */
+    private long getSum(final int[] vectors, final int offset)
+    {
+        long sum = 0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            sum += vectors[offset + d];
+        }
+
+        return sum;
+    }
+}
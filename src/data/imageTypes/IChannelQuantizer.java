@@ -0,0 +1,90 @@
+package data.imageTypes;
+
+import java.util.ArrayList;
+
+import enums.ESamplingMode;
+import enums.ESearchMode;
+
+/**
+ * IChannelQuantizer - Quantizes the Planes of one Channel of an Image
+ *                     through one Codebook, or one per Block Size
+ */
+public interface IChannelQuantizer
+{
+    /**
+     * setTrainingSample - Trains each Codebook on a Sample of at most
+     *                     a Number of its Input Vectors. Set before
+     *                     Generating the Input Vectors.
+     *
+     * @param sampleSize - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling   - How the Sample is Drawn
+     */
+    void setTrainingSample(int sampleSize, ESamplingMode sampling);
+
+    /**
+     * setSearchMode - Sets how each Codebook is Searched for the Closest
+     *                 Codeword. Set before Generating the Input Vectors.
+     *
+     * @param searchMode - How the Closest Codeword is Searched for
+     * @param hashTables - Number of Hash Tables in the HASHED Mode
+     */
+    void setSearchMode(ESearchMode searchMode, int hashTables);
+
+    /**
+     * generateInputVectors - Generates the Input Vectors of the Channel
+     *
+     * @param planes - The Pixel Planes of the Channel, each in row order
+     */
+    void generateInputVectors(int[][] planes);
+
+    /**
+     * generateCodebooks - Generates the Initial Codewords of every Codebook
+     *                     not Seeded when its Input Vectors were Generated
+     */
+    void generateCodebooks();
+
+    /**
+     * getCodebookCount
+     *
+     * @return int - The Number of Codebooks of the Channel
+     */
+    int getCodebookCount();
+
+    /**
+     * setCodebooks - Starts Training from Given Codewords
+     *                instead of Generating Initial Codebooks
+     *
+     * @param codebooks - The Initial Codewords of each Codebook
+     */
+    void setCodebooks(ArrayList<int[][]> codebooks);
+
+    /**
+     * getCodebooks - Gets the Codewords of every Codebook
+     *
+     * @return ArrayList<int[][]> - The Codewords of each Codebook
+     */
+    ArrayList<int[][]> getCodebooks();
+
+    /**
+     * getTrainables - Gets every Codebook that needs Training
+     *
+     * @return ArrayList<ITrainable> - The Codebooks
+     */
+    ArrayList<ITrainable> getTrainables();
+
+    /**
+     * measureSearchPenalty - Measures Hashed against Exact Searches
+     *                        over every Searched Codebook
+     *
+     * @return VectorQuantizer.SearchPenalty - The Totals of every Codebook
+     */
+    VectorQuantizer.SearchPenalty measureSearchPenalty();
+
+    /**
+     * quantizeImage - Adds the Codebooks and Codeword Indices
+     *                 of the Channel to an Image
+     *
+     * @param compressedImage - The Compressed Image to Add the Channel to
+     */
+    void quantizeImage(CompressedImage compressedImage);
+}
@@ -0,0 +1,30 @@
+package data.imageTypes;
+
+/**
+ * IConvergencePolicy - Decides when Codebook Training Stops
+ *
+ * The policy is asked after every training step. Policies are
+ * shared by codebooks trained concurrently, so they must keep
+ * no state of their own.
+ */
+public interface IConvergencePolicy
+{
+    /**
+     * shouldStop - Checks if Training should Stop after a Step
+     *
+     * @param state - The State of Training after the Step
+     * @return boolean - TRUE to Stop the current Phase of Training
+     */
+    boolean shouldStop(ConvergenceState state);
+
+    /**
+     * usesDistortion - Checks if the Policy reads the Distortion,
+     *                  which is only measured when needed
+     *
+     * @return boolean - TRUE if the Distortion must be Measured
+     */
+    default boolean usesDistortion()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package data.imageTypes;
+
+/**
+ * ITrainable - A Codebook that is trained against its Input Vectors
+ */
+public interface ITrainable
+{
+    /**
+     * verifyCodebook - Verifies every Codeword has at least
+     *                  one Input Vector in its Cluster
+     *
+     * @return boolean - TRUE if no Codeword had to be moved
+     */
+    boolean verifyCodebook();
+
+    /**
+     * updateCodebook - Moves each Codeword to the Centroid of its Cluster
+     *
+     * @return double - The Total Error between Old and New Codewords
+     */
+    double updateCodebook();
+
+    /**
+     * generateClusterMap - Maps the Closest Codeword to each Input Vector
+     */
+    void generateClusterMap();
+
+    /**
+     * getDistortion - Gets the Mean Squared Error between each
+     *                 Input Vector and its Mapped Codeword
+     *
+     * @return double - The Mean Squared Error per Pixel
+     */
+    double getDistortion();
+
+    /**
+     * getEmptyClusterCount - Gets the Number of Codewords
+     *                        without Input Vectors in their Cluster
+     *
+     * @return int - The Number of Empty Clusters
+     */
+    int getEmptyClusterCount();
+
+    /**
+     * getReassignmentCount - Gets the Number of Input Vectors whose
+     *                        Codeword changed in the last Cluster Map Update
+     *
+     * @return int - The Number of Reassigned Input Vectors
+     */
+    int getReassignmentCount();
+}
@@ -0,0 +1,18 @@
+package data.imageTypes;
+
+/**
+ * ITrainingListener - Receives a Training Event after every
+ *                     Step of Codebook Training
+ *
+ * Codebooks of one image may be trained concurrently,
+ * so implementations must be thread safe.
+ */
+public interface ITrainingListener
+{
+    /**
+     * onTrainingStep - Called after a Training Step
+     *
+     * @param event - The Telemetry of the Step
+     */
+    void onTrainingStep(TrainingEvent event);
+}
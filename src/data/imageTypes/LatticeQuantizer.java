@@ -0,0 +1,683 @@
+package data.imageTypes;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import enums.EVectorMode;
+import util.PlaneUtil;
+
+/**
+ * LatticeQuantizer - Quantizes 2x2 Block Vectors to the Nearest
+ *                    Point of a Scaled D_n Lattice, without Training
+ *
+ * D_n holds the integer points whose coordinates have an even sum,
+ * D4 for the 2x2 block of one plane. The nearest point is found in
+ * closed form: every coordinate is rounded, and if the sum is odd
+ * the coordinate rounded furthest is rounded the other way.
+ *
+ * Blocks are snapped in their orthonormal 2x2 Hadamard basis (mean,
+ * horizontal, vertical and diagonal detail), on a lattice centered
+ * on the mean of each coefficient. One pass gathers the spread of
+ * each coefficient, from which the step and a box of lattice points
+ * are derived, LOADING deviations wide on each axis, holding at most
+ * n points. A second pass snaps each block once to the nearest point
+ * of the box, whose index follows in closed form, so encoding takes
+ * constant time per block and never searches. The points of the box
+ * form the codebook, so the file format and the decoder are the same
+ * as for trained codebooks.
+ *
+ * The fitted variant starts from the box, then shrinks the step while
+ * the distortion falls, keeping the n most used points and mapping the
+ * blocks of the others to the closest kept one. It spends at most
+ * MAX_FIT_PASSES passes over the blocks for a lower distortion.
+ */
+public class LatticeQuantizer extends VectorQuantizer
+{
+    // Half Width of the Box of Lattice Points, in Deviations of each Coefficient
+    private static final double LOADING = 2.5;
+
+    // Bisections Solving the Step for the Box
+    private static final int STEP_BISECTIONS = 60;
+
+    // Most Passes over the Blocks of the Fitted Variant
+    public static final int MAX_FIT_PASSES = 12;
+
+    // Ratio of the Step between Refining Passes
+    private static final double REFINE_RATIO = 0.85;
+
+    // Pixels in each 2x2 Block of one Plane
+    private static final int BLOCK = 4;
+
+    // Lattice Step of the Codebook, in Pixel Values
+    double _step;
+
+    // Number of Passes over the Blocks
+    int _passes;
+
+    // Codeword Index of every Input Vector, null before Snapping
+    int[] _indices;
+
+    // Indicator of the Fitted Variant
+    boolean _fitted;
+
+    /**
+     * Constructor
+     *
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param n      - The Maximum Number of Lattice Points Used
+     * @param planes - The Number of Planes in each Vector
+     */
+    public LatticeQuantizer(final int width, final int height, final int n, final int planes)
+    {
+        super(width, height, n, EVectorMode.LATTICE, planes);
+    }
+
+    /**
+     * generateInputVectors - Uses Vectors already Grouped into Blocks
+     *
+     * @param vectors - The Block Vectors, one after another
+     */
+    @Override
+    public void generateInputVectors(final int[] vectors)
+    {
+        super.generateInputVectors(vectors);
+        _indices = null;
+    }
+
+    /**
+     * setFitted - Sets whether the Step is Fitted to the Blocks over
+     *             several Passes instead of Derived from their Spread
+     *
+     * @param fitted - TRUE for the Fitted Variant
+     */
+    public void setFitted(final boolean fitted)
+    {
+        _fitted = fitted;
+        _indices = null;
+    }
+
+    /**
+     * generateCodebook - Snaps every Input Vector to the Lattice
+     */
+    @Override
+    public void generateCodebook()
+    {
+        // Snap every Vector, not only a Training Sample
+        final int[] vectors = getInputVectors();
+        final int count = vectors.length / _dimension;
+        _passes = 0;
+
+        if(_fitted)
+        {
+            fitCodebook(vectors, count);
+        }
+        else
+        {
+            snapCodebook(vectors, count);
+        }
+    }
+
+    /**
+     * snapCodebook - Derives the Step and the Box of Lattice Points from the
+     *                Spread of each Coefficient, then Snaps each Vector once
+     *
+     * @param vectors - The Vectors, one after another
+     * @param count   - The Number of Vectors
+     */
+    private void snapCodebook(final int[] vectors, final int count)
+    {
+        // Get the Mean and Deviation of each Coefficient
+        final double[] centers = new double[_dimension];
+        final double[] deviations = new double[_dimension];
+        final double[] coefficients = new double[_dimension];
+        for(int v = 0; v < count; ++v)
+        {
+            for(int d = 0; d < _dimension; d += BLOCK)
+            {
+                transform(vectors, v * _dimension + d, coefficients, d);
+            }
+            for(int d = 0; d < _dimension; ++d)
+            {
+                centers[d] += coefficients[d];
+                deviations[d] += coefficients[d] * coefficients[d];
+            }
+        }
+        for(int d = 0; d < _dimension; ++d)
+        {
+            centers[d] /= Math.max(1, count);
+            deviations[d] = Math.sqrt(Math.max(0.0, deviations[d] / Math.max(1, count) - centers[d] * centers[d]));
+        }
+        _passes++;
+
+        // Solve for the Finest Step whose Box holds at most n Points
+        double fine = 0.0;
+        double coarse = 1.0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            coarse = Math.max(coarse, 2.0 * LOADING * deviations[d]);
+        }
+        for(int i = 0; i < STEP_BISECTIONS; ++i)
+        {
+            final double step = (fine + coarse) / 2.0;
+            if(step > 0.0 && getBoxSize(getBoxLevels(deviations, step)) <= _n)
+            {
+                coarse = step;
+            }
+            else
+            {
+                fine = step;
+            }
+        }
+        _step = coarse;
+
+        // Get the Box, whose last Axis has an Even Number of Levels, so every
+        // other Point in Mixed Radix Order is a Lattice Point
+        final int[] levels = getBoxLevels(deviations, _step);
+        final int[] axes = getBoxAxes(levels);
+        final int[] lows = new int[_dimension];
+        for(int d = 0; d < _dimension; ++d)
+        {
+            lows[d] = -(levels[d] / 2);
+        }
+        final boolean hasEvenAxis = (levels[axes[_dimension - 1]] % 2) == 0;
+
+        // Map each Lattice Point of the Box into Pixels
+        final int cells = getCellCount(levels);
+        final int[] point = new int[_dimension];
+        final double[] codeword = new double[_dimension];
+        _codebookSize = 0;
+        for(int cell = 0; cell < cells; ++cell)
+        {
+            // Get the Point of the Cell, Fastest Axis last
+            int rest = cell;
+            int sum = 0;
+            for(int a = _dimension - 1; a >= 0; --a)
+            {
+                final int d = axes[a];
+                point[d] = lows[d] + rest % levels[d];
+                rest /= levels[d];
+                sum += point[d];
+            }
+
+            // Only Points with an Even Sum are on the Lattice
+            if((sum & 1) != 0)
+            {
+                continue;
+            }
+            for(int d = 0; d < _dimension; ++d)
+            {
+                codeword[d] = centers[d] + point[d] * _step;
+            }
+            for(int d = 0; d < _dimension; d += BLOCK)
+            {
+                inverseTransform(codeword, d, _codebook, _codebookSize * _dimension + d);
+            }
+            _codebookSize++;
+        }
+
+        // Snap each Vector to the Nearest Point of the Box
+        final double[] y = new double[_dimension];
+        _indices = new int[count];
+        for(int v = 0; v < count; ++v)
+        {
+            // Round each Clamped Coordinate
+            int sum = 0;
+            for(int d = 0; d < _dimension; d += BLOCK)
+            {
+                transform(vectors, v * _dimension + d, coefficients, d);
+            }
+            for(int d = 0; d < _dimension; ++d)
+            {
+                y[d] = Math.max(lows[d], Math.min(lows[d] + levels[d] - 1, (coefficients[d] - centers[d]) / _step));
+                point[d] = (int) Math.round(y[d]);
+                sum += point[d];
+            }
+
+            // Move the Coordinate Costing least to the other Side if the Sum is Odd
+            if(hasEvenAxis && (sum & 1) != 0)
+            {
+                int best = -1;
+                int bestPoint = 0;
+                double bestCost = Double.MAX_VALUE;
+                for(int d = 0; d < _dimension; ++d)
+                {
+                    int alternative = point[d] + ((y[d] > point[d]) ? 1 : -1);
+                    if(alternative < lows[d] || alternative >= lows[d] + levels[d])
+                    {
+                        alternative = 2 * point[d] - alternative;
+                    }
+                    if(alternative < lows[d] || alternative >= lows[d] + levels[d])
+                    {
+                        continue;
+                    }
+
+                    final double cost = (y[d] - alternative) * (y[d] - alternative) - (y[d] - point[d]) * (y[d] - point[d]);
+                    if(cost < bestCost)
+                    {
+                        bestCost = cost;
+                        best = d;
+                        bestPoint = alternative;
+                    }
+                }
+                point[best] = bestPoint;
+            }
+
+            // Get the Index of the Point in Mixed Radix Order, Halved for the Lattice
+            int cell = 0;
+            for(int a = 0; a < _dimension; ++a)
+            {
+                final int d = axes[a];
+                cell = cell * levels[d] + point[d] - lows[d];
+            }
+            _indices[v] = hasEvenAxis ? cell / 2 : cell;
+        }
+        _passes++;
+    }
+
+    /**
+     * getBoxLevels - Gets the Number of Lattice Levels on each Axis of the
+     *                Box, Covering LOADING Deviations either Side of the Mean
+     *
+     * @param deviations - The Deviation of each Coefficient
+     * @param step       - The Lattice Step
+     * @return int[] - The Levels of each Axis, Odd except for the Widest
+     *                 Axis, which has one Level less to be Even
+     */
+    private int[] getBoxLevels(final double[] deviations, final double step)
+    {
+        final int[] levels = new int[_dimension];
+        int widest = 0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            levels[d] = 2 * (int) Math.min(Integer.MAX_VALUE / 4, Math.floor(LOADING * deviations[d] / step)) + 1;
+            if(levels[d] > levels[widest])
+            {
+                widest = d;
+            }
+        }
+        if(levels[widest] > 1)
+        {
+            levels[widest]--;
+        }
+
+        return levels;
+    }
+
+    /**
+     * getBoxAxes - Orders the Axes of the Box so the Even Axis is last
+     *
+     * @param levels - The Levels of each Axis
+     * @return int[] - The Axes in Mixed Radix Order
+     */
+    private int[] getBoxAxes(final int[] levels)
+    {
+        final int[] axes = new int[_dimension];
+        int a = 0;
+        int even = -1;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            if(even < 0 && (levels[d] % 2) == 0)
+            {
+                even = d;
+            }
+            else
+            {
+                axes[a++] = d;
+            }
+        }
+        axes[_dimension - 1] = (even < 0) ? axes[_dimension - 1] : even;
+
+        return axes;
+    }
+
+    /**
+     * getBoxSize - Gets the Number of Lattice Points in a Box
+     *
+     * @param levels - The Levels of each Axis
+     * @return long - Half the Cells of the Box with an Even Axis, else the single Point
+     */
+    private static long getBoxSize(final int[] levels)
+    {
+        long cells = 1;
+        boolean hasEvenAxis = false;
+        for(final int level : levels)
+        {
+            cells = Math.min(Long.MAX_VALUE / Integer.MAX_VALUE, cells * level);
+            hasEvenAxis |= (level % 2) == 0;
+        }
+
+        return hasEvenAxis ? cells / 2 : cells;
+    }
+
+    /**
+     * getCellCount - Gets the Number of Cells of a Box that Fits the Codebook
+     *
+     * @param levels - The Levels of each Axis
+     * @return int - The Number of Cells
+     */
+    private static int getCellCount(final int[] levels)
+    {
+        int cells = 1;
+        for(final int level : levels)
+        {
+            cells *= level;
+        }
+
+        return cells;
+    }
+
+    /**
+     * fitCodebook - Snaps every Input Vector to the Box of the Lattice, then
+     *               Refines the Step while the Distortion Falls, Keeping the
+     *               n most Used Points, in at most MAX_FIT_PASSES Passes
+     *
+     * @param vectors - The Vectors, one after another
+     * @param count   - The Number of Vectors
+     */
+    private void fitCodebook(final int[] vectors, final int count)
+    {
+        // Start from the Box Snapped at the Step Derived from the Spread
+        snapCodebook(vectors, count);
+
+        // Transform every Block into the Hadamard Basis
+        final double[] coefficients = new double[count * _dimension];
+        final double[] centers = new double[_dimension];
+        for(int offset = 0; offset < coefficients.length; offset += BLOCK)
+        {
+            transform(vectors, offset, coefficients, offset);
+        }
+        for(int offset = 0; offset < coefficients.length; ++offset)
+        {
+            centers[offset % _dimension] += coefficients[offset];
+        }
+        for(int d = 0; d < _dimension; ++d)
+        {
+            centers[d] /= Math.max(1, count);
+        }
+        _passes++;
+
+        // Keep the Best Codebook, so a Worse Step needs no Pass to Undo
+        long best = getDistortion(vectors);
+        double bestStep = _step;
+        int[] bestCodebook = Arrays.copyOf(_codebook, _codebookSize * _dimension);
+        int[] bestIndices = _indices;
+
+        // Refine while the Distortion Falls, Rare Points giving way to Common ones
+        for(double step = _step * REFINE_RATIO; step >= 1.0 && _passes < MAX_FIT_PASSES; step *= REFINE_RATIO)
+        {
+            snap(vectors, coefficients, count, centers, step, true);
+            final long distortion = getDistortion(vectors);
+            if(distortion >= best)
+            {
+                break;
+            }
+            best = distortion;
+            bestStep = step;
+            bestCodebook = Arrays.copyOf(_codebook, _codebookSize * _dimension);
+            bestIndices = _indices;
+        }
+
+        // Restore the Best Codebook
+        _step = bestStep;
+        _codebookSize = bestCodebook.length / _dimension;
+        System.arraycopy(bestCodebook, 0, _codebook, 0, bestCodebook.length);
+        _indices = bestIndices;
+    }
+
+    /**
+     * setCodebook - The Lattice is not Started from Given Codewords,
+     *               the Input Vectors are Snapped instead
+     *
+     * @param codewords - Ignored
+     */
+    @Override
+    public void setCodebook(final int[][] codewords)
+    {
+        generateCodebook();
+    }
+
+    /**
+     * quantizeImage - Gets the Lattice Point Index of each Input Vector
+     *
+     * @return int[] - The Codeword Indices in Block Order
+     */
+    @Override
+    public int[] quantizeImage()
+    {
+        // Ensure the Vectors are Snapped
+        if(_indices == null)
+        {
+            generateCodebook();
+        }
+
+        return _indices.clone();
+    }
+
+    /**
+     * getTrainables - The Lattice needs no Training
+     *
+     * @return ArrayList<ITrainable> - No Codebooks
+     */
+    @Override
+    public ArrayList<ITrainable> getTrainables()
+    {
+        return new ArrayList<ITrainable>(0);
+    }
+
+    /**
+     * measureSearchPenalty - The Lattice is Snapped to, not Searched
+     *
+     * @return SearchPenalty - Empty Totals
+     */
+    @Override
+    public SearchPenalty measureSearchPenalty()
+    {
+        return new SearchPenalty();
+    }
+
+    /**
+     * getStep
+     *
+     * @return double - The Lattice Step, in Pixel Values
+     */
+    public double getStep()
+    {
+        return _step;
+    }
+
+    /**
+     * getPassCount
+     *
+     * @return int - The Number of Passes over the Blocks
+     */
+    public int getPassCount()
+    {
+        return _passes;
+    }
+
+    /**
+     * snap - Snaps every Vector to the Lattice at a Step, Keeping the
+     *        most Used Points as the Codebook
+     *
+     * @param vectors      - The Vectors, one after another
+     * @param coefficients - The Vectors in the Hadamard Basis, one after another
+     * @param count        - The Number of Vectors
+     * @param centers      - The Mean of each Coefficient
+     * @param step         - The Lattice Step, in Pixel Values
+     * @param truncate     - TRUE to Keep the n most Used Points and Map the Vectors
+     *                       of the others to the Closest Kept one, FALSE to only
+     *                       Keep the Points if no more than n are Used
+     * @return int - The Number of Distinct Points Used
+     */
+    private int snap(final int[] vectors, final double[] coefficients, final int count,
+                     final double[] centers, final double step, final boolean truncate)
+    {
+        _passes++;
+
+        // Initialize Point Lookup
+        final HashMap<IntBuffer, Integer> lookup = new HashMap<IntBuffer, Integer>();
+        final ArrayList<int[]> points = new ArrayList<int[]>();
+        final int[] pointIndices = new int[count];
+        int[] uses = new int[_n];
+        final int[] point = new int[_dimension];
+        final double[] y = new double[_dimension];
+
+        // Iterate over Vectors
+        for(int v = 0; v < count; ++v)
+        {
+            // Round each Coordinate, Tracking the Sum and the Coordinate Rounded Furthest
+            int sum = 0;
+            int furthest = 0;
+            double furthestError = -1.0;
+            for(int d = 0; d < _dimension; ++d)
+            {
+                y[d] = (coefficients[v * _dimension + d] - centers[d]) / step;
+                point[d] = (int) Math.round(y[d]);
+                sum += point[d];
+
+                final double error = Math.abs(y[d] - point[d]);
+                if(error > furthestError)
+                {
+                    furthestError = error;
+                    furthest = d;
+                }
+            }
+
+            // Round the Furthest Coordinate the other way if the Sum is Odd
+            if((sum & 1) != 0)
+            {
+                point[furthest] += (y[furthest] > point[furthest]) ? 1 : -1;
+            }
+
+            // Look up the Point, Adding it if New
+            Integer index = lookup.get(IntBuffer.wrap(point));
+            if(index == null)
+            {
+                index = points.size();
+                points.add(point.clone());
+                lookup.put(IntBuffer.wrap(points.get(index)), index);
+                if(index == uses.length)
+                {
+                    uses = Arrays.copyOf(uses, 2 * uses.length);
+                }
+            }
+            pointIndices[v] = index;
+            uses[index]++;
+        }
+
+        // Ensure the Points may be Kept
+        final int used = points.size();
+        if(used > _n && !truncate)
+        {
+            return used;
+        }
+
+        // Order the Points by Use, then by First Use
+        final long[] keys = new long[used];
+        for(int i = 0; i < used; ++i)
+        {
+            keys[i] = ((long) (count - uses[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        // Keep the most Used Points, Mapped back into Pixels
+        final int[] codebookIndices = new int[used];
+        Arrays.fill(codebookIndices, -1);
+        final double[] codeword = new double[_dimension];
+        _codebookSize = Math.min(used, _n);
+        for(int c = 0; c < _codebookSize; ++c)
+        {
+            final int i = (int) keys[c];
+            codebookIndices[i] = c;
+            for(int d = 0; d < _dimension; ++d)
+            {
+                codeword[d] = centers[d] + points.get(i)[d] * step;
+            }
+            for(int d = 0; d < _dimension; d += BLOCK)
+            {
+                inverseTransform(codeword, d, _codebook, c * _dimension + d);
+            }
+        }
+
+        // Map each Vector to its Point, or to the Closest Kept one
+        if(used > _n)
+        {
+            _sortedCodebook.build(_codebook, _codebookSize);
+        }
+        _indices = new int[count];
+        for(int v = 0; v < count; ++v)
+        {
+            final int c = codebookIndices[pointIndices[v]];
+            _indices[v] = (c >= 0) ? c : _sortedCodebook.search(vectors, v * _dimension, false);
+        }
+
+        return used;
+    }
+
+    /**
+     * getDistortion - Gets the Squared Error of the Vectors against their Codewords
+     *
+     * @param vectors - The Vectors, one after another
+     * @return long - The Sum of Squared Pixel Differences
+     */
+    private long getDistortion(final int[] vectors)
+    {
+        long distortion = 0;
+        for(int v = 0; v < _indices.length; ++v)
+        {
+            for(int d = 0; d < _dimension; ++d)
+            {
+                final int diff = vectors[v * _dimension + d] - _codebook[_indices[v] * _dimension + d];
+                distortion += diff * diff;
+            }
+        }
+
+        return distortion;
+    }
+
+    /**
+     * transform - Transforms a 2x2 Block into the Orthonormal Hadamard Basis
+     *
+     * @param pixels       - Array holding the Block in Row Order
+     * @param offset       - Offset of the Block
+     * @param coefficients - Array Receiving the Mean, Horizontal,
+     *                       Vertical and Diagonal Coefficients
+     * @param target       - Offset of the Coefficients
+     */
+    private static void transform(final int[] pixels, final int offset, final double[] coefficients, final int target)
+    {
+        final int a = pixels[offset];
+        final int b = pixels[offset + 1];
+        final int c = pixels[offset + 2];
+        final int d = pixels[offset + 3];
+
+        coefficients[target] = (a + b + c + d) / 2.0;
+        coefficients[target + 1] = (a - b + c - d) / 2.0;
+        coefficients[target + 2] = (a + b - c - d) / 2.0;
+        coefficients[target + 3] = (a - b - c + d) / 2.0;
+    }
+
+    /**
+     * inverseTransform - Transforms Hadamard Coefficients back into a 2x2 Block
+     *
+     * @param coefficients - Array holding the Coefficients
+     * @param offset       - Offset of the Coefficients
+     * @param pixels       - Array Receiving the Clamped Block in Row Order
+     * @param target       - Offset of the Block
+     */
+    private static void inverseTransform(final double[] coefficients, final int offset, final int[] pixels, final int target)
+    {
+        final double s = coefficients[offset];
+        final double h = coefficients[offset + 1];
+        final double v = coefficients[offset + 2];
+        final double x = coefficients[offset + 3];
+
+        pixels[target] = PlaneUtil.clamp((int) Math.round((s + h + v + x) / 2.0));
+        pixels[target + 1] = PlaneUtil.clamp((int) Math.round((s - h + v - x) / 2.0));
+        pixels[target + 2] = PlaneUtil.clamp((int) Math.round((s + h - v - x) / 2.0));
+        pixels[target + 3] = PlaneUtil.clamp((int) Math.round((s - h - v + x) / 2.0));
+    }
+}
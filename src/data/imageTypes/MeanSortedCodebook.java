@@ -0,0 +1,245 @@
+package data.imageTypes;
+
+import java.util.Arrays;
+
+/**
+ * MeanSortedCodebook - Finds the Closest Codeword to a Vector by an
+ *                      Equal-Average Search over the Codewords
+ *                      Sorted by their Mean
+ *
+ * For vectors of k pixels with pixel sums Sx and Sc, the squared
+ * distance is at least (Sx - Sc)^2 / k, plus the squared difference
+ * of the norms of the vectors with their means removed. A search
+ * starts at the codeword whose mean is closest to the vector's and
+ * expands to both sides. A side is abandoned once its mean bound
+ * exceeds the best distance found, and a codeword is skipped when
+ * its mean and variance bound does. Both bounds hold for every
+ * codeword, so the search is exact. Ties go to the lowest codebook
+ * index, as with a search in codebook order.
+ */
+public class MeanSortedCodebook
+{
+    // Slack absorbing Rounding in the Bounds
+    private static final double BOUND_SLACK = 1e-6;
+
+    // Number of Pixel Values in each Vector
+    private final int _dimension;
+
+    // Number of Codewords
+    private int _size;
+
+    // Codewords Sorted by Mean, one after another
+    private int[] _codewords = new int[0];
+
+    // Codebook Index of each Sorted Codeword
+    private int[] _order = new int[0];
+
+    // Pixel Sum of each Sorted Codeword
+    private long[] _sums = new long[0];
+
+    // Norm of each Sorted Codeword with its Mean Removed
+    private double[] _norms = new double[0];
+
+    // Squared Distances of the Closest and Second Closest
+    // Codewords found by the last Search
+    private long _closestDistance;
+    private long _secondDistance;
+
+    /**
+     * Constructor
+     *
+     * @param dimension - Number of Pixel Values in each Vector
+     */
+    public MeanSortedCodebook(final int dimension)
+    {
+        _dimension = dimension;
+    }
+
+    /**
+     * build - Sorts the Codewords of a Codebook by their Mean
+     *
+     * @param codebook - Codewords, one after another
+     * @param size     - The Number of Codewords
+     */
+    public void build(final int[] codebook, final int size)
+    {
+        // Ensure there is Room for every Codeword
+        if(_order.length < size)
+        {
+            _codewords = new int[size * _dimension];
+            _order = new int[size];
+            _sums = new long[size];
+            _norms = new double[size];
+        }
+        _size = size;
+
+        // Sort Codewords by Pixel Sum, then by Codebook Index
+        final long[] keys = new long[size];
+        for(int i = 0; i < size; ++i)
+        {
+            long sum = 0;
+            for(int d = 0; d < _dimension; ++d)
+            {
+                sum += codebook[i * _dimension + d];
+            }
+            keys[i] = (sum << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        // Copy Codewords in Sorted Order
+        for(int s = 0; s < size; ++s)
+        {
+            final int i = (int) keys[s];
+            _order[s] = i;
+            _sums[s] = keys[s] >> 32;
+            System.arraycopy(codebook, i * _dimension, _codewords, s * _dimension, _dimension);
+            _norms[s] = getNorm(_codewords, s * _dimension, _sums[s]);
+        }
+    }
+
+    /**
+     * build - Sorts Codewords by their Mean
+     *
+     * @param codewords - The Codewords in Codebook Order
+     */
+    public void build(final int[][] codewords)
+    {
+        final int[] codebook = new int[codewords.length * _dimension];
+        for(int i = 0; i < codewords.length; ++i)
+        {
+            System.arraycopy(codewords[i], 0, codebook, i * _dimension, _dimension);
+        }
+
+        build(codebook, codewords.length);
+    }
+
+    /**
+     * search - Gets the Codebook Index of the Closest Codeword to a Vector
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @param second  - TRUE to also find the Second Closest Distance,
+     *                  which Prunes less
+     * @return int - The Codebook Index of the Closest Codeword, -1 if there are no Codewords
+     */
+    public int search(final int[] vectors, final int offset, final boolean second)
+    {
+        // Get Pixel Sum and Norm of the Vector
+        long sum = 0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            sum += vectors[offset + d];
+        }
+        final double norm = getNorm(vectors, offset, sum);
+
+        // Find the First Codeword whose Mean is not below the Vector's
+        int high = 0;
+        int low = _size;
+        while(high < low)
+        {
+            final int middle = (high + low) >>> 1;
+            if(_sums[middle] < sum)
+            {
+                high = middle + 1;
+            }
+            else
+            {
+                low = middle;
+            }
+        }
+        low = high - 1;
+
+        // Initialize Closest and Second Closest
+        int closest = -1;
+        _closestDistance = Long.MAX_VALUE;
+        _secondDistance = Long.MAX_VALUE;
+
+        // Expand to whichever Side has the Closer Mean
+        while(low >= 0 || high < _size)
+        {
+            final long lowGap = (low >= 0) ? sum - _sums[low] : Long.MAX_VALUE;
+            final long highGap = (high < _size) ? _sums[high] - sum : Long.MAX_VALUE;
+            final int s = (lowGap <= highGap) ? low-- : high++;
+            final long gap = Math.min(lowGap, highGap);
+
+            // Stop once no Codeword left has a Mean Close enough
+            final long limit = second ? _secondDistance : _closestDistance;
+            final double meanBound = (double) gap * gap / _dimension;
+            if(meanBound > limit + BOUND_SLACK)
+            {
+                break;
+            }
+
+            // Skip the Codeword if its Variance Differs too much
+            final double normGap = norm - _norms[s];
+            if(meanBound + normGap * normGap > limit + BOUND_SLACK)
+            {
+                continue;
+            }
+
+            // Get Squared Distance, Stopping once past the Limit
+            final int base = s * _dimension;
+            long dist = 0;
+            for(int d = 0; d < _dimension && dist <= limit; ++d)
+            {
+                final int diff = _codewords[base + d] - vectors[offset + d];
+                dist += diff * diff;
+            }
+
+            // Check if now Closest, Ties going to the Lowest Codebook Index
+            final int index = _order[s];
+            if(dist < _closestDistance || (dist == _closestDistance && index < closest))
+            {
+                _secondDistance = _closestDistance;
+                _closestDistance = dist;
+                closest = index;
+            }
+            else if(dist < _secondDistance)
+            {
+                _secondDistance = dist;
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * getClosestDistance
+     *
+     * @return long - The Squared Distance to the Closest Codeword of the last Search
+     */
+    public long getClosestDistance()
+    {
+        return _closestDistance;
+    }
+
+    /**
+     * getSecondDistance
+     *
+     * @return long - The Squared Distance to the Second Closest Codeword of the
+     *                last Search that looked for it, Long.MAX_VALUE if None
+     */
+    public long getSecondDistance()
+    {
+        return _secondDistance;
+    }
+
+    /**
+     * getNorm - Gets the Norm of a Vector with its Mean Removed
+     *
+     * @param vectors - Array holding the Vector
+     * @param offset  - Offset of the Vector in the Array
+     * @param sum     - The Pixel Sum of the Vector
+     * @return double - The Norm
+     */
+    private double getNorm(final int[] vectors, final int offset, final long sum)
+    {
+        long squares = 0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            squares += (long) vectors[offset + d] * vectors[offset + d];
+        }
+
+        return Math.sqrt(Math.max(0.0, squares - (double) sum * sum / _dimension));
+    }
+}
@@ -0,0 +1,593 @@
+package data.imageTypes;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.EVectorMode;
+
+/**
+ * QuadtreeQuantizer - Covers Pixel Planes with Variable Size Blocks,
+ *                     each Block Size Quantized by its own Codebook
+ *
+ * Every 8x8 block whose pixel variance exceeds the split threshold
+ * is split into four 4x4 blocks, those into 2x2 blocks and those
+ * into two side by side blocks, so flat regions are coded with few
+ * large blocks and busy regions with many small ones. With several
+ * planes, the variance of the busiest plane decides, so a flat block
+ * of a saturated color is not split. A split flag
+ * is recorded for every block larger than the smallest, in depth
+ * first order, and each block size is trained as a separate
+ * VectorQuantizer.
+ */
+public class QuadtreeQuantizer extends AbstractImage implements IChannelQuantizer
+{
+    // Default Pixel Variance above which a Block is Split
+    public static final double DEFAULT_SPLIT_THRESHOLD = 100.0;
+
+    // Number of Planes in each Vector
+    final int _planes;
+
+    // Pixel Variance above which a Block is Split
+    double _splitThreshold = DEFAULT_SPLIT_THRESHOLD;
+
+    // Maximum Vectors each Level is Trained on, 0 for every Block
+    int _sampleSize;
+
+    // How the Training Sample of each Level is Drawn
+    ESamplingMode _sampling = ESamplingMode.UNIFORM;
+
+    // How each Level Searches for the Closest Codeword
+    ESearchMode _searchMode = ESearchMode.EXACT;
+    int _hashTables = HashedCodebook.DEFAULT_TABLES;
+
+    // Split Flag of every Block larger than the Smallest, Depth First
+    boolean[] _splitFlags;
+
+    // Quantizer of each Level, null if no Block has that Size
+    VectorQuantizer[] _levels;
+
+    /**
+     * Constructor
+     *
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param n      - The Number of Vectors in each Level's Codebook
+     * @param planes - The Number of Planes in each Vector
+     */
+    public QuadtreeQuantizer(final int width, final int height, final int n, final int planes)
+    {
+        super(width, height, n, EVectorMode.QUADTREE);
+
+        // Initialize Planes
+        _planes = planes;
+        _levels = new VectorQuantizer[EVectorMode.QUADTREE.getLevelCount()];
+    }
+
+    /**
+     * setSplitThreshold - Sets the Pixel Variance above which a Block is Split
+     *
+     * @param splitThreshold - The Variance, 0 Splits every Block that is not Flat
+     */
+    public void setSplitThreshold(final double splitThreshold)
+    {
+        _splitThreshold = splitThreshold;
+    }
+
+    /**
+     * setTrainingSample - Trains each Level on a Sample of its Blocks
+     *
+     * @param sampleSize - Maximum Vectors Trained on per Level, 0 for every Block
+     * @param sampling   - How the Sample is Drawn
+     */
+    @Override
+    public void setTrainingSample(final int sampleSize, final ESamplingMode sampling)
+    {
+        _sampleSize = sampleSize;
+        _sampling = sampling;
+    }
+
+    /**
+     * setSearchMode - Sets how each Level Searches for the Closest Codeword
+     *
+     * @param searchMode - How the Closest Codeword is Searched for
+     * @param hashTables - Number of Hash Tables in the HASHED Mode
+     */
+    @Override
+    public void setSearchMode(final ESearchMode searchMode, final int hashTables)
+    {
+        _searchMode = searchMode;
+        _hashTables = hashTables;
+    }
+
+    /**
+     * generateInputVectors - Splits the Planes into Blocks and
+     *                        Generates the Input Vectors of each Level
+     *
+     * @param planes - The Pixel Planes, each width*height in row order
+     */
+    @Override
+    public void generateInputVectors(final int[][] planes)
+    {
+        // Get Root Block Size
+        final EVectorMode root = _mode.getLevelMode(0);
+
+        // Initialize Block Vectors of each Level
+        final int levelCount = _levels.length;
+        final IntList[] vectors = new IntList[levelCount];
+        for(int l = 0; l < levelCount; ++l)
+        {
+            vectors[l] = new IntList();
+        }
+        final ArrayList<Boolean> flags = new ArrayList<Boolean>();
+
+        // Iterate over Root Blocks
+        for(int y = 0; y < _height; y += root.getBlockHeight())
+        {
+            for(int x = 0; x < _width; x += root.getBlockWidth())
+            {
+                splitBlock(planes, x, y, 0, vectors, flags);
+            }
+        }
+
+        // Store Split Flags
+        _splitFlags = new boolean[flags.size()];
+        for(int i = 0; i < _splitFlags.length; ++i)
+        {
+            _splitFlags[i] = flags.get(i);
+        }
+
+        // Initialize a Quantizer for each Level holding Blocks
+        for(int l = 0; l < levelCount; ++l)
+        {
+            final EVectorMode mode = _mode.getLevelMode(l);
+            final int[] levelVectors = vectors[l].toArray();
+
+            // Seed the Codebook with Distinct Blocks of the Level, as few
+            // Blocks may fall into a Level and they are seldom Spread Evenly
+            final int[][] seeds = getDistinctVectors(levelVectors, mode.getDimension() * _planes, _n);
+            if(seeds.length == 0)
+            {
+                _levels[l] = null;
+                continue;
+            }
+
+            _levels[l] = new VectorQuantizer(_width, _height, seeds.length, mode, _planes);
+            _levels[l].setTrainingSample(_sampleSize, _sampling);
+            _levels[l].setSearchMode(_searchMode, _hashTables);
+            _levels[l].generateInputVectors(levelVectors);
+            _levels[l].setCodebook(seeds);
+        }
+    }
+
+    /**
+     * generateCodebooks - Levels are Seeded from their own Blocks
+     *                     when the Input Vectors are Generated
+     */
+    @Override
+    public void generateCodebooks()
+    {
+        // Nothing to Generate, generateInputVectors Seeds every Level
+    }
+
+    /**
+     * getCodebookCount
+     *
+     * @return int - The Number of Levels, each with its own Codebook
+     */
+    @Override
+    public int getCodebookCount()
+    {
+        return _levels.length;
+    }
+
+    /**
+     * setCodebooks - Starts Training from Given Codewords
+     *                instead of the Distinct Blocks of each Level
+     *
+     * @param codebooks - The Initial Codewords of each Level
+     */
+    @Override
+    public void setCodebooks(final ArrayList<int[][]> codebooks)
+    {
+        // Iterate over Levels holding Blocks
+        for(int l = 0; l < _levels.length; ++l)
+        {
+            if(_levels[l] != null && codebooks.get(l).length > 0)
+            {
+                _levels[l].setCodebook(codebooks.get(l));
+            }
+        }
+    }
+
+    /**
+     * getTrainables - Gets the Codebook of every Level holding Blocks
+     *
+     * @return ArrayList<ITrainable> - The Codebooks
+     */
+    @Override
+    public ArrayList<ITrainable> getTrainables()
+    {
+        final ArrayList<ITrainable> trainables = new ArrayList<ITrainable>(_levels.length);
+
+        // Iterate over Levels
+        for(final VectorQuantizer level : _levels)
+        {
+            if(level != null)
+            {
+                trainables.add(level);
+            }
+        }
+
+        return trainables;
+    }
+
+    /**
+     * getCodebooks - Gets the Codewords of every Level
+     *
+     * @return ArrayList<int[][]> - The Codewords of each Level, Empty Levels have none
+     */
+    @Override
+    public ArrayList<int[][]> getCodebooks()
+    {
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(_levels.length);
+
+        // Iterate over Levels
+        for(final VectorQuantizer level : _levels)
+        {
+            codebooks.add((level == null) ? new int[0][] : level.getCodewords());
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * measureSearchPenalty - Measures Hashed against Exact Searches over every Level
+     *
+     * @return VectorQuantizer.SearchPenalty - The Totals of every Level
+     */
+    @Override
+    public VectorQuantizer.SearchPenalty measureSearchPenalty()
+    {
+        final VectorQuantizer.SearchPenalty penalty = new VectorQuantizer.SearchPenalty();
+
+        // Iterate over Levels
+        for(final VectorQuantizer level : _levels)
+        {
+            if(level != null)
+            {
+                penalty.add(level.measureSearchPenalty());
+            }
+        }
+
+        return penalty;
+    }
+
+    /**
+     * quantizeImage - Adds the Split Flags, Codebooks and
+     *                 Codeword Indices of every Level to an Image
+     *
+     * @param compressedImage - The Compressed Image to Add the Channel to
+     */
+    @Override
+    public void quantizeImage(final CompressedImage compressedImage)
+    {
+        // Initialize Codebooks and Indices of each Level
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(_levels.length);
+        final ArrayList<int[]> indices = new ArrayList<int[]>(_levels.length);
+
+        // Iterate over Levels, Empty Levels have no Codewords
+        for(final VectorQuantizer level : _levels)
+        {
+            codebooks.add((level == null) ? new int[0][] : level.getCodewords());
+            indices.add((level == null) ? new int[0] : level.quantizeImage());
+        }
+
+        compressedImage.addChannel(codebooks, indices, _splitFlags.clone());
+    }
+
+    /**
+     * getBlockCounts - Gets the Number of Blocks of each Level
+     *
+     * @return int[] - The Block Count of each Level, Largest First
+     */
+    public int[] getBlockCounts()
+    {
+        final int[] counts = new int[_levels.length];
+
+        // Iterate over Levels
+        for(int l = 0; l < _levels.length; ++l)
+        {
+            counts[l] = (_levels[l] == null) ? 0 : _levels[l]._vectorCount;
+        }
+
+        return counts;
+    }
+
+    /**
+     * reconstructPlanes - Reconstructs Planes from Split Flags
+     *                     and the Codeword Indices of each Level
+     *
+     * @param splitFlags - The Split Flags, Depth First
+     * @param codebooks  - The Codewords of each Level
+     * @param indices    - The Codeword Index of each Block of each Level
+     * @param planes     - The Number of Planes in each Codeword
+     * @param width      - The Width of the Planes
+     * @param height     - The Height of the Planes
+     * @return int[][] - The Reconstructed Planes
+     */
+    public static int[][] reconstructPlanes(final boolean[] splitFlags, final ArrayList<int[][]> codebooks,
+                                            final ArrayList<int[]> indices, final int planes,
+                                            final int width, final int height)
+    {
+        // Get Root Block Size
+        final EVectorMode root = EVectorMode.QUADTREE.getLevelMode(0);
+
+        // Initialize Planes and Read Positions
+        final int[][] result = new int[planes][width * height];
+        final int[] next = new int[codebooks.size() + 1];
+
+        // Iterate over Root Blocks
+        for(int y = 0; y < height; y += root.getBlockHeight())
+        {
+            for(int x = 0; x < width; x += root.getBlockWidth())
+            {
+                writeBlock(splitFlags, codebooks, indices, result, width, height, x, y, 0, next);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * splitBlock - Decides whether a Block is Split, adding it
+     *              or its Sub-Blocks to the Vectors of their Level
+     *
+     * @param planes  - The Pixel Planes
+     * @param x       - The Left of the Block
+     * @param y       - The Top of the Block
+     * @param level   - The Level of the Block
+     * @param vectors - The Block Vectors of each Level
+     * @param flags   - The Split Flags, Depth First
+     */
+    private void splitBlock(final int[][] planes, final int x, final int y, final int level,
+                            final IntList[] vectors, final ArrayList<Boolean> flags)
+    {
+        // Get Block Size
+        final EVectorMode mode = _mode.getLevelMode(level);
+        final int[] block = getBlock(planes, _width, _height, x, y, mode);
+
+        // Check if the Smallest Level
+        if(level == _levels.length - 1)
+        {
+            vectors[level].add(block);
+            return;
+        }
+
+        // Split Busy Blocks
+        final boolean split = getVariance(block, _planes) > _splitThreshold;
+        flags.add(split);
+
+        if(!split)
+        {
+            vectors[level].add(block);
+            return;
+        }
+
+        // Iterate over Sub-Blocks
+        final EVectorMode child = _mode.getLevelMode(level + 1);
+        for(int dy = 0; dy < mode.getBlockHeight(); dy += child.getBlockHeight())
+        {
+            for(int dx = 0; dx < mode.getBlockWidth(); dx += child.getBlockWidth())
+            {
+                splitBlock(planes, x + dx, y + dy, level + 1, vectors, flags);
+            }
+        }
+    }
+
+    /**
+     * writeBlock - Writes a Block, or its Sub-Blocks if Split, into Planes
+     *
+     * @param splitFlags - The Split Flags, Depth First
+     * @param codebooks  - The Codewords of each Level
+     * @param indices    - The Codeword Index of each Block of each Level
+     * @param planes     - The Planes to Write
+     * @param width      - The Width of the Planes
+     * @param height     - The Height of the Planes
+     * @param x          - The Left of the Block
+     * @param y          - The Top of the Block
+     * @param level      - The Level of the Block
+     * @param next       - Next Index of each Level, then the Next Split Flag
+     */
+    private static void writeBlock(final boolean[] splitFlags, final ArrayList<int[][]> codebooks,
+                                   final ArrayList<int[]> indices, final int[][] planes, final int width,
+                                   final int height, final int x, final int y, final int level, final int[] next)
+    {
+        // Get Block Size
+        final int levelCount = codebooks.size();
+        final EVectorMode mode = EVectorMode.QUADTREE.getLevelMode(level);
+
+        // Check if the Block is Split
+        if(level < levelCount - 1 && splitFlags[next[levelCount]++])
+        {
+            // Iterate over Sub-Blocks
+            final EVectorMode child = EVectorMode.QUADTREE.getLevelMode(level + 1);
+            for(int dy = 0; dy < mode.getBlockHeight(); dy += child.getBlockHeight())
+            {
+                for(int dx = 0; dx < mode.getBlockWidth(); dx += child.getBlockWidth())
+                {
+                    writeBlock(splitFlags, codebooks, indices, planes, width, height, x + dx, y + dy, level + 1, next);
+                }
+            }
+            return;
+        }
+
+        // Write the Codeword of the Block
+        final int[] codeword = codebooks.get(level)[indices.get(level)[next[level]++]];
+        int count = 0;
+
+        // Iterate over Planes
+        for(final int[] plane : planes)
+        {
+            // Iterate over Pixels of Block, dropping Pixels past the Edge
+            for(int dy = 0; dy < mode.getBlockHeight(); ++dy)
+            {
+                for(int dx = 0; dx < mode.getBlockWidth(); ++dx)
+                {
+                    final int value = codeword[count++];
+
+                    if(y + dy < height && x + dx < width)
+                    {
+                        plane[(y + dy) * width + x + dx] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * getBlock - Gets the Vector of one Block of the Planes.
+     *            Blocks overhanging the edge repeat the edge pixels.
+     *
+     * @param planes - The Pixel Planes
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param x      - The Left of the Block
+     * @param y      - The Top of the Block
+     * @param mode   - The Block Size
+     * @return int[] - The Block Vector, Plane after Plane
+     */
+    private static int[] getBlock(final int[][] planes, final int width, final int height,
+                                  final int x, final int y, final EVectorMode mode)
+    {
+        // Initialize Vector
+        final int[] block = new int[mode.getDimension() * planes.length];
+        int count = 0;
+
+        // Iterate over Planes
+        for(final int[] plane : planes)
+        {
+            // Iterate over Pixels of Block
+            for(int dy = 0; dy < mode.getBlockHeight(); ++dy)
+            {
+                final int row = Math.min(y + dy, height - 1) * width;
+
+                for(int dx = 0; dx < mode.getBlockWidth(); ++dx)
+                {
+                    block[count++] = plane[row + Math.min(x + dx, width - 1)];
+                }
+            }
+        }
+
+        return block;
+    }
+
+    /**
+     * getVariance - Gets the Variance of the Pixels of a Block,
+     *               in its Busiest Plane
+     *
+     * @param block  - The Block Vector, one Plane after another
+     * @param planes - The Number of Planes in the Block
+     * @return double - The Largest Pixel Variance of any Plane
+     */
+    private static double getVariance(final int[] block, final int planes)
+    {
+        // Initialize Largest Variance
+        final int size = block.length / planes;
+        double variance = 0.0;
+
+        // Iterate over Planes
+        for(int p = 0; p < planes; ++p)
+        {
+            // Sum Pixels and Squared Pixels
+            long sum = 0;
+            long sumSquares = 0;
+            for(int i = p * size; i < (p + 1) * size; ++i)
+            {
+                sum += block[i];
+                sumSquares += block[i] * block[i];
+            }
+
+            final double mean = (double) sum / size;
+            variance = Math.max(variance, (double) sumSquares / size - mean * mean);
+        }
+
+        return variance;
+    }
+
+    /**
+     * getDistinctVectors - Picks up to n Distinct Vectors,
+     *                      Spread Evenly over the Input
+     *
+     * @param vectors   - The Vectors, one after another
+     * @param dimension - The Number of Values in each Vector
+     * @param n         - The Maximum Number of Vectors
+     * @return int[][] - The Distinct Vectors
+     */
+    private static int[][] getDistinctVectors(final int[] vectors, final int dimension, final int n)
+    {
+        // Initialize Distinct Vectors
+        final int count = vectors.length / dimension;
+        final HashSet<IntBuffer> seen = new HashSet<IntBuffer>();
+        final ArrayList<int[]> distinct = new ArrayList<int[]>(Math.min(n, count));
+
+        // Try Evenly Spaced Vectors first, then every Vector in Order
+        for(int i = 0; i < n + count && distinct.size() < n; ++i)
+        {
+            final int v = (i < n) ? (int) ((long) i * count / n) : i - n;
+            if(v >= count)
+            {
+                continue;
+            }
+
+            if(seen.add(IntBuffer.wrap(vectors, v * dimension, dimension).slice()))
+            {
+                final int[] vector = new int[dimension];
+                System.arraycopy(vectors, v * dimension, vector, 0, dimension);
+                distinct.add(vector);
+            }
+        }
+
+        return distinct.toArray(new int[0][]);
+    }
+
+    /**
+     * IntList - Growable Array of Block Vectors
+     */
+    private static class IntList
+    {
+        // Values and Number Used
+        int[] _values = new int[1024];
+        int _size;
+
+        /**
+         * add - Appends a Block Vector
+         *
+         * @param block - The Block Vector
+         */
+        void add(final int[] block)
+        {
+            // Grow by Doubling
+            if(_size + block.length > _values.length)
+            {
+                _values = Arrays.copyOf(_values, Math.max(_values.length * 2, _size + block.length));
+            }
+
+            System.arraycopy(block, 0, _values, _size, block.length);
+            _size += block.length;
+        }
+
+        /**
+         * toArray
+         *
+         * @return int[] - The Values
+         */
+        int[] toArray()
+        {
+            return Arrays.copyOf(_values, _size);
+        }
+    }
+}
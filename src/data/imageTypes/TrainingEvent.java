@@ -0,0 +1,186 @@
+package data.imageTypes;
+
+import enums.ETrainingPhase;
+
+/**
+ * TrainingEvent - Telemetry of one Step of Codebook Training
+ */
+public class TrainingEvent
+{
+    // Name of the Image, null if Unknown
+    private final String _image;
+
+    // Index of the Trained Codebook within the Image
+    private final int _channel;
+
+    // Training Step
+    private final ETrainingPhase _phase;
+    private final int _iteration;
+
+    // Quality of the Codebook after the Step
+    private final double _distortion;
+    private final int _emptyClusters;
+    private final int _reassignments;
+
+    // Total Error between Old and New Codewords
+    private final double _error;
+
+    // Nanoseconds spent in each Phase of the Step
+    private final long _verifyNanos;
+    private final long _updateNanos;
+    private final long _clusterMapNanos;
+
+    /**
+     * Constructor
+     *
+     * @param image           - The Name of the Image, null if Unknown
+     * @param channel         - The Index of the Codebook within the Image
+     * @param phase           - The Training Step
+     * @param iteration       - The Iteration of the Step, from 0
+     * @param distortion      - The Mean Squared Error per Pixel
+     * @param emptyClusters   - The Number of Empty Clusters
+     * @param reassignments   - The Number of Input Vectors that changed Codeword
+     * @param error           - The Total Error between Old and New Codewords
+     * @param verifyNanos     - Nanoseconds spent in verifyCodebook
+     * @param updateNanos     - Nanoseconds spent in updateCodebook
+     * @param clusterMapNanos - Nanoseconds spent in generateClusterMap
+     */
+    public TrainingEvent(final String image, final int channel, final ETrainingPhase phase, final int iteration,
+                         final double distortion, final int emptyClusters, final int reassignments, final double error,
+                         final long verifyNanos, final long updateNanos, final long clusterMapNanos)
+    {
+        _image = image;
+        _channel = channel;
+        _phase = phase;
+        _iteration = iteration;
+        _distortion = distortion;
+        _emptyClusters = emptyClusters;
+        _reassignments = reassignments;
+        _error = error;
+        _verifyNanos = verifyNanos;
+        _updateNanos = updateNanos;
+        _clusterMapNanos = clusterMapNanos;
+    }
+
+    /**
+     * withImage - Copies the Event for a Named Image
+     *
+     * @param image - The Name of the Image
+     * @return TrainingEvent - The Copied Event
+     */
+    public TrainingEvent withImage(final String image)
+    {
+        return new TrainingEvent(image, _channel, _phase, _iteration, _distortion, _emptyClusters, _reassignments,
+                                 _error, _verifyNanos, _updateNanos, _clusterMapNanos);
+    }
+
+    /**
+     * getImage
+     *
+     * @return String - The Name of the Image, null if Unknown
+     */
+    public String getImage()
+    {
+        return _image;
+    }
+
+    /**
+     * getChannel
+     *
+     * @return int - The Index of the Codebook within the Image
+     */
+    public int getChannel()
+    {
+        return _channel;
+    }
+
+    /**
+     * getPhase
+     *
+     * @return ETrainingPhase - The Training Step
+     */
+    public ETrainingPhase getPhase()
+    {
+        return _phase;
+    }
+
+    /**
+     * getIteration
+     *
+     * @return int - The Iteration of the Step, from 0
+     */
+    public int getIteration()
+    {
+        return _iteration;
+    }
+
+    /**
+     * getDistortion
+     *
+     * @return double - The Mean Squared Error per Pixel
+     */
+    public double getDistortion()
+    {
+        return _distortion;
+    }
+
+    /**
+     * getEmptyClusters
+     *
+     * @return int - The Number of Empty Clusters
+     */
+    public int getEmptyClusters()
+    {
+        return _emptyClusters;
+    }
+
+    /**
+     * getReassignments
+     *
+     * @return int - The Number of Input Vectors that changed Codeword
+     */
+    public int getReassignments()
+    {
+        return _reassignments;
+    }
+
+    /**
+     * getError
+     *
+     * @return double - The Total Error between Old and New Codewords
+     */
+    public double getError()
+    {
+        return _error;
+    }
+
+    /**
+     * getVerifyNanos
+     *
+     * @return long - Nanoseconds spent in verifyCodebook
+     */
+    public long getVerifyNanos()
+    {
+        return _verifyNanos;
+    }
+
+    /**
+     * getUpdateNanos
+     *
+     * @return long - Nanoseconds spent in updateCodebook
+     */
+    public long getUpdateNanos()
+    {
+        return _updateNanos;
+    }
+
+    /**
+     * getClusterMapNanos
+     *
+     * @return long - Nanoseconds spent in generateClusterMap
+     */
+    public long getClusterMapNanos()
+    {
+        return _clusterMapNanos;
+    }
+}
@@ -0,0 +1,941 @@
+package data.imageTypes;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.EVectorMode;
+import util.PlaneUtil;
+import util.VectorReservoir;
+
+/**
+ * VectorQuantizer - Trains a Codebook over the Block Vectors
+ *                   of one or more Pixel Planes
+ *
+ * Each block of the planes forms one vector holding the pixels
+ * of every plane, so a single plane gives plain per-channel
+ * quantization and several planes give joint quantization.
+ * Vectors, codewords and the cluster map are flat arrays.
+ *
+ * With a training sample set, the codebook is trained on a
+ * sample of at most that many input vectors, and every input
+ * vector is only visited again by quantizeImage.
+ *
+ * Each cluster map update after the first only searches the
+ * codebook for vectors whose codeword could have changed. Every
+ * vector keeps an upper bound on the distance to its codeword and
+ * a lower bound on the distance to any other codeword. Codeword
+ * moves loosen both bounds, and a vector whose upper bound stays
+ * below its lower bound keeps its codeword without a search.
+ * Searches run over the codebook sorted by codeword mean (see
+ * MeanSortedCodebook), rebuilt whenever a cluster map is made.
+ *
+ * In the HASHED search mode, searches only compare the codewords
+ * hashed to the vector's buckets (see HashedCodebook), for codebooks
+ * too large to search exactly. Approximate searches give no bounds,
+ * so every vector is searched in every update, keeping its codeword
+ * unless a closer one is found.
+ * measureSearchPenalty reports what the approximation costs.
+ */
+public class VectorQuantizer extends AbstractImage implements ITrainable, IChannelQuantizer
+{
+    // Number of Planes in each Vector
+    final int _planes;
+
+    // Number of Pixel Values in each Vector
+    final int _dimension;
+
+    // Input Vectors Trained on, one after another
+    int[] _vectors;
+    int _vectorCount;
+
+    // Every Input Vector when Training on a Sample, null otherwise
+    int[] _allVectors;
+
+    // Maximum Vectors Trained on, 0 for every Input Vector
+    int _sampleSize;
+
+    // How the Training Sample is Drawn
+    ESamplingMode _sampling = ESamplingMode.UNIFORM;
+
+    // Codewords, one after another
+    int[] _codebook;
+    int _codebookSize;
+
+    // Index of the Closest Codeword of each Input Vector
+    int[] _clusterMap;
+
+    // Indicator the Cluster Map matches the Codebook
+    boolean _clusterMapValid;
+
+    // Number of Input Vectors whose Codeword changed
+    // in the last Cluster Map Update
+    int _reassignments;
+
+    // Slack absorbing Rounding in the Distance Bounds
+    private static final double BOUND_SLACK = 1e-9;
+
+    // Upper Bound on the Distance of each Input Vector to its Codeword
+    double[] _upperBounds;
+
+    // Lower Bound on the Distance of each Input Vector to any other Codeword
+    double[] _lowerBounds;
+
+    // Distance each Codeword Moved since the last Cluster Map Update
+    double[] _shifts;
+
+    // Indicator the Bounds hold for the Cluster Map
+    boolean _boundsValid;
+
+    // Codebook Sorted by Codeword Mean for Searches
+    final MeanSortedCodebook _sortedCodebook;
+
+    // Number of Input Vectors whose Codebook Search was
+    // Skipped in the last Cluster Map Update
+    int _skippedSearches;
+
+    // How the Closest Codeword is Searched for
+    ESearchMode _searchMode = ESearchMode.EXACT;
+
+    // Codebook Hashed for Approximate Searches, null until Needed
+    HashedCodebook _hashedCodebook;
+
+    // Number of Hash Tables of Approximate Searches
+    int _hashTables = HashedCodebook.DEFAULT_TABLES;
+
+    /**
+     * SearchPenalty - Distortion and Time of Approximate Searches
+     *                 against Exact Searches over the same Codebook
+     */
+    public static class SearchPenalty
+    {
+        // Number of Vectors and of Pixel Values Searched for
+        public long _vectors;
+        public long _values;
+
+        // Squared Error of the Codewords found by each Search
+        public long _exactError;
+        public long _hashedError;
+
+        // Number of Vectors whose Hashed Codeword is Further than the Closest
+        public long _misses;
+
+        // Number of Codewords Compared by the Hashed Searches
+        public long _hashedCompared;
+
+        // Time Spent by each Search in Nanoseconds
+        public long _exactNanos;
+        public long _hashedNanos;
+
+        /**
+         * add - Adds the Totals of another Measurement
+         *
+         * @param other - The other Measurement
+         */
+        public void add(final SearchPenalty other)
+        {
+            _vectors += other._vectors;
+            _values += other._values;
+            _exactError += other._exactError;
+            _hashedError += other._hashedError;
+            _misses += other._misses;
+            _hashedCompared += other._hashedCompared;
+            _exactNanos += other._exactNanos;
+            _hashedNanos += other._hashedNanos;
+        }
+
+        /**
+         * getPenalty
+         *
+         * @return double - The Relative Increase of the Squared Error
+         *                  of Hashed over Exact Searches
+         */
+        public double getPenalty()
+        {
+            return (_exactError == 0) ? ((_hashedError == 0) ? 0.0 : Double.POSITIVE_INFINITY)
+                                      : (double) (_hashedError - _exactError) / _exactError;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param n      - The Number of Vectors
+     * @param mode   - How pixels should be grouped to form vectors
+     * @param planes - The Number of Planes in each Vector
+     */
+    public VectorQuantizer(final int width, final int height, final int n, final EVectorMode mode, final int planes)
+    {
+        super(width, height, n, mode);
+
+        // Initialize Vector Dimension
+        _planes = planes;
+        _dimension = mode.getDimension() * planes;
+
+        // Initialize the Codebook
+        _codebook = new int[n * _dimension];
+        _codebookSize = 0;
+        _shifts = new double[n];
+        _sortedCodebook = new MeanSortedCodebook(_dimension);
+    }
+
+    /**
+     * setTrainingSample - Trains on a Sample of the Input Vectors
+     *                     Generated next, Bounding Training Time and
+     *                     Memory by the Sample rather than the Image
+     *
+     * @param sampleSize - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling   - How the Sample is Drawn
+     */
+    @Override
+    public void setTrainingSample(final int sampleSize, final ESamplingMode sampling)
+    {
+        _sampleSize = sampleSize;
+        _sampling = sampling;
+    }
+
+    /**
+     * setSearchMode - Sets how the Closest Codeword is Searched for
+     *
+     * @param searchMode - How the Closest Codeword is Searched for
+     * @param hashTables - Number of Hash Tables in the HASHED Mode
+     */
+    @Override
+    public void setSearchMode(final ESearchMode searchMode, final int hashTables)
+    {
+        _searchMode = searchMode;
+        _hashTables = hashTables;
+        _hashedCodebook = null;
+        _boundsValid = false;
+    }
+
+    /**
+     * generateInputVectors - Generates the Input Vectors of the Planes
+     *
+     * @param planes - The Pixel Planes, each width*height in row order
+     */
+    @Override
+    public void generateInputVectors(final int[][] planes)
+    {
+        // Group Pixels into Block Vectors
+        generateInputVectors(PlaneUtil.getBlocks(planes, _width, _height, _mode));
+    }
+
+    /**
+     * generateInputVectors - Uses Vectors already Grouped into Blocks
+     *
+     * @param vectors - The Block Vectors, one after another
+     */
+    public void generateInputVectors(final int[] vectors)
+    {
+        // Draw the Training Sample, Keeping every Vector for Quantization
+        _vectors = (_sampleSize > 0) ? VectorReservoir.sample(vectors, _dimension, _sampleSize, _sampling,
+                                                              VectorReservoir.DEFAULT_SEED)
+                                     : vectors;
+        _allVectors = (_vectors != vectors) ? vectors : null;
+        _vectorCount = _vectors.length / _dimension;
+
+        // Initialize Cluster Map, no Vector is Mapped yet
+        _clusterMap = new int[_vectorCount];
+        Arrays.fill(_clusterMap, -1);
+        _clusterMapValid = false;
+
+        // Initialize Bounds, Set by the first Cluster Map Update
+        _upperBounds = new double[_vectorCount];
+        _lowerBounds = new double[_vectorCount];
+        _boundsValid = false;
+    }
+
+    /**
+     * generateCodebook - Generates the Initial Codewords
+     *                    along the Diagonal of the Vector Space
+     */
+    public void generateCodebook()
+    {
+        // Check if the Diagonal has too few Points for n Codewords
+        if(_n > PIX_DIM)
+        {
+            generateSeededCodebook();
+            return;
+        }
+
+        // Blocks in a particular Dimension
+        final int blockCount = PIX_DIM/_n;
+
+        // Keep adding until there are n codewords
+        for(int i = 0; i < _n; ++i)
+        {
+            for(int d = 0; d < _dimension; ++d)
+            {
+                _codebook[i * _dimension + d] = i * blockCount;
+            }
+        }
+        _codebookSize = _n;
+        _clusterMapValid = false;
+        _boundsValid = false;
+    }
+
+    /**
+     * generateSeededCodebook - Generates the Initial Codewords from
+     *                          Distinct Input Vectors Spread over Block Order
+     */
+    private void generateSeededCodebook()
+    {
+        // Vectors already Taken, as a Repeated Codeword would never Win a Vector
+        final HashSet<IntBuffer> taken = new HashSet<IntBuffer>();
+
+        // Take every (count/n)th Input Vector, or the next one not yet Taken
+        _codebookSize = 0;
+        for(int i = 0; i < _n; ++i)
+        {
+            int v = (int) ((long) i * _vectorCount / _n);
+            int tried = 0;
+            while(tried < _vectorCount
+                  && !taken.add(IntBuffer.wrap(_vectors, v * _dimension, _dimension).slice()))
+            {
+                v = (v + 1) % _vectorCount;
+                tried++;
+            }
+
+            // Stop once every Distinct Vector is Taken
+            if(tried == _vectorCount)
+            {
+                break;
+            }
+            System.arraycopy(_vectors, v * _dimension, _codebook, _codebookSize * _dimension, _dimension);
+            _codebookSize++;
+        }
+        _clusterMapValid = false;
+        _boundsValid = false;
+    }
+
+    /**
+     * generateCodebooks - Generates the Initial Codewords of the one Codebook
+     */
+    @Override
+    public void generateCodebooks()
+    {
+        generateCodebook();
+    }
+
+    /**
+     * getCodebookCount
+     *
+     * @return int - The Number of Codebooks, always one
+     */
+    @Override
+    public int getCodebookCount()
+    {
+        return 1;
+    }
+
+    /**
+     * setCodebooks - Starts Training from the Given Codewords of the one Codebook
+     *
+     * @param codebooks - The Initial Codewords, a single Entry
+     */
+    @Override
+    public void setCodebooks(final ArrayList<int[][]> codebooks)
+    {
+        setCodebook(codebooks.get(0));
+    }
+
+    /**
+     * getCodebooks - Gets the Codewords of the one Codebook
+     *
+     * @return ArrayList<int[][]> - The Codewords, a single Entry
+     */
+    @Override
+    public ArrayList<int[][]> getCodebooks()
+    {
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(1);
+        codebooks.add(getCodewords());
+        return codebooks;
+    }
+
+    /**
+     * getTrainables - Gets the one Codebook, which needs Training
+     *
+     * @return ArrayList<ITrainable> - This Quantizer
+     */
+    @Override
+    public ArrayList<ITrainable> getTrainables()
+    {
+        final ArrayList<ITrainable> trainables = new ArrayList<ITrainable>(1);
+        trainables.add(this);
+        return trainables;
+    }
+
+    /**
+     * setCodebook - Starts Training from Given Codewords
+     *               instead of the Diagonal of the Vector Space
+     *
+     * @param codewords - The Initial Codewords, at most n are used
+     */
+    public void setCodebook(final int[][] codewords)
+    {
+        // Copy Codewords into the Codebook
+        _codebookSize = Math.min(codewords.length, _n);
+        for(int i = 0; i < _codebookSize; ++i)
+        {
+            System.arraycopy(codewords[i], 0, _codebook, i * _dimension, _dimension);
+        }
+        _clusterMapValid = false;
+        _boundsValid = false;
+    }
+
+    /**
+     * verifyCodebook - Moves every Codeword without Input Vectors
+     *                  in its Cluster towards the Midpoint
+     *
+     * @return boolean - TRUE if no Codeword had to be moved
+     */
+    @Override
+    public boolean verifyCodebook()
+    {
+        // Indicator of Successful Codebook Generation
+        boolean isSuccessful = true;
+
+        // Generate Cluster Mapping
+        // between Input Vectors and Codewords
+        generateClusterMap();
+
+        // Get Number of Input Vectors in each Cluster
+        final int[] clusterSizes = getClusterSizes();
+
+        // Iterate over Codebook
+        for(int i = 0; i < _codebookSize; ++i)
+        {
+            // Check if there are no Input Vectors in Cluster
+            if(clusterSizes[i] == 0)
+            {
+                // Update Codeword Position, Recording how far it Moved
+                long moved = 0;
+                for(int d = 0; d < _dimension; ++d)
+                {
+                    final int position = updatePixelPosition(_codebook[i * _dimension + d]);
+                    final int diff = position - _codebook[i * _dimension + d];
+                    moved += diff * diff;
+                    _codebook[i * _dimension + d] = position;
+                }
+                _shifts[i] += Math.sqrt(moved);
+
+                // Will need to reverify codebook
+                // as Codebook has been updated
+                isSuccessful = false;
+                _clusterMapValid = false;
+            }
+        }
+
+        return isSuccessful;
+    }
+
+    /**
+     * updateCodebook - Moves each Codeword to the Centroid of its
+     *                  Cluster, dropping Codewords with empty Clusters
+     *
+     * @return double - The Total Error between Old and New Codewords
+     */
+    @Override
+    public double updateCodebook()
+    {
+        // Update the Cluster Mapping
+        generateClusterMap();
+
+        // Initialize Accumulations
+        final long[] sums = new long[_codebookSize * _dimension];
+        final int[] clusterSizes = new int[_codebookSize];
+
+        // Iterate over Input Vectors
+        for(int v = 0; v < _vectorCount; ++v)
+        {
+            final int cluster = _clusterMap[v];
+            clusterSizes[cluster]++;
+
+            for(int d = 0; d < _dimension; ++d)
+            {
+                sums[cluster * _dimension + d] += _vectors[v * _dimension + d];
+            }
+        }
+
+        // Initialize Error Accumulator
+        double error = 0.0;
+        int newSize = 0;
+
+        // New Index of each Codeword once Empty Clusters are Dropped
+        final int[] newIndices = new int[_codebookSize];
+
+        // Iterate over each codeword
+        for(int i = 0; i < _codebookSize; ++i)
+        {
+            // Get Number of Cluster Vectors
+            final int m = clusterSizes[i];
+
+            // Ensure Cluster has Vectors
+            if(m != 0)
+            {
+                long moved = 0;
+                for(int d = 0; d < _dimension; ++d)
+                {
+                    // Get New Codeword Value
+                    final int value = (int) (sums[i * _dimension + d] / m);
+
+                    // Get Error between old Codeword and new Codeword
+                    final int diff = value - _codebook[i * _dimension + d];
+                    moved += diff * diff;
+
+                    _codebook[newSize * _dimension + d] = value;
+                }
+                error += moved;
+
+                // Record how far the Codeword Moved at its New Index
+                _shifts[newSize] = _shifts[i] + Math.sqrt(moved);
+                newIndices[i] = newSize++;
+            }
+        }
+
+        // Update Codebook with Latest Codewords
+        _codebookSize = newSize;
+        _clusterMapValid = false;
+
+        // Keep Mapping each Input Vector to its Moved Codeword
+        for(int v = 0; v < _vectorCount; ++v)
+        {
+            _clusterMap[v] = newIndices[_clusterMap[v]];
+        }
+
+        return error;
+    }
+
+    /**
+     * generateClusterMap - Maps the Closest Codeword to each Input Vector,
+     *                      Searching the Codebook only for Vectors whose
+     *                      Codeword could have Changed since the last Update
+     */
+    @Override
+    public void generateClusterMap()
+    {
+        // Approximate Searches cannot Skip Vectors by their Bounds,
+        // so a Cluster Map still matching the Codebook is Kept
+        if(ESearchMode.HASHED.equals(_searchMode) && _clusterMapValid)
+        {
+            return;
+        }
+
+        // Initialize Reassignment and Skip Counts
+        _reassignments = 0;
+        _skippedSearches = 0;
+
+        // Sort or Hash the Codebook for Searches
+        buildSearch();
+
+        // Get the Largest Codeword Moves, any other Codeword of a
+        // Vector came at most the Largest Move other than its own closer
+        int largestIndex = -1;
+        double largest = 0.0;
+        double secondLargest = 0.0;
+        for(int i = 0; i < _codebookSize; ++i)
+        {
+            if(_shifts[i] > largest)
+            {
+                secondLargest = largest;
+                largest = _shifts[i];
+                largestIndex = i;
+            }
+            else if(_shifts[i] > secondLargest)
+            {
+                secondLargest = _shifts[i];
+            }
+        }
+
+        // Iterate over each Vector
+        for(int v = 0; v < _vectorCount; ++v)
+        {
+            final int assigned = _clusterMap[v];
+
+            // Check if the Bounds show the Codeword cannot have Changed
+            if(_boundsValid)
+            {
+                // Loosen the Bounds by the Codeword Moves
+                _upperBounds[v] += _shifts[assigned];
+                _lowerBounds[v] -= (assigned == largestIndex) ? secondLargest : largest;
+                if(_upperBounds[v] < _lowerBounds[v] - BOUND_SLACK)
+                {
+                    _skippedSearches++;
+                    continue;
+                }
+
+                // Tighten the Upper Bound to the Exact Distance
+                _upperBounds[v] = Math.sqrt(getDistance(_vectors, v * _dimension, assigned));
+                if(_upperBounds[v] < _lowerBounds[v] - BOUND_SLACK)
+                {
+                    _skippedSearches++;
+                    continue;
+                }
+            }
+
+            // Search the Codebook, Resetting the Bounds
+            final int closest = searchCodebook(v);
+
+            // Check if Codeword has Changed
+            if(closest != assigned)
+            {
+                _clusterMap[v] = closest;
+                _reassignments++;
+            }
+        }
+
+        // Bounds now hold for the Codebook as it is, unless Searches were Approximate
+        Arrays.fill(_shifts, 0.0);
+        _boundsValid = ESearchMode.EXACT.equals(_searchMode);
+        _clusterMapValid = true;
+    }
+
+    /**
+     * getDistortion - Gets the Mean Squared Error between each
+     *                 Input Vector and its Mapped Codeword
+     *
+     * @return double - The Mean Squared Error per Pixel
+     */
+    @Override
+    public double getDistortion()
+    {
+        // Initialize Error Accumulator
+        long error = 0;
+
+        // Iterate over Input Vectors
+        for(int v = 0; v < _vectorCount; ++v)
+        {
+            final int base = _clusterMap[v] * _dimension;
+
+            for(int d = 0; d < _dimension; ++d)
+            {
+                final int diff = _vectors[v * _dimension + d] - _codebook[base + d];
+                error += diff * diff;
+            }
+        }
+
+        return (_vectorCount == 0) ? 0.0 : (double) error / ((long) _vectorCount * _dimension);
+    }
+
+    /**
+     * getEmptyClusterCount - Gets the Number of Codewords
+     *                        without Input Vectors in their Cluster
+     *
+     * @return int - The Number of Empty Clusters
+     */
+    @Override
+    public int getEmptyClusterCount()
+    {
+        // Initialize Empty Cluster Count
+        int emptyClusters = 0;
+
+        // Iterate over Cluster Sizes
+        for(final int size : getClusterSizes())
+        {
+            if(size == 0)
+            {
+                emptyClusters++;
+            }
+        }
+
+        return emptyClusters;
+    }
+
+    /**
+     * getReassignmentCount - Gets the Number of Input Vectors whose
+     *                        Codeword changed in the last Cluster Map Update
+     *
+     * @return int - The Number of Reassigned Input Vectors
+     */
+    @Override
+    public int getReassignmentCount()
+    {
+        return _reassignments;
+    }
+
+    /**
+     * getSkippedSearchCount - Gets the Number of Input Vectors whose Codebook
+     *                         Search was Skipped in the last Cluster Map Update
+     *
+     * @return int - The Number of Vectors Kept without a Search
+     */
+    public int getSkippedSearchCount()
+    {
+        return _skippedSearches;
+    }
+
+    /**
+     * quantizeImage - Gets the Codeword Index of each Input Vector
+     *
+     * @return int[] - The Codeword Indices in Block Order
+     */
+    public int[] quantizeImage()
+    {
+        // Check if Trained on a Sample
+        if(_allVectors != null)
+        {
+            // Map every Input Vector, not only the Sampled ones
+            buildSearch();
+            final int[] indices = new int[_allVectors.length / _dimension];
+            for(int v = 0; v < indices.length; ++v)
+            {
+                indices[v] = getClosestCodeword(_allVectors, v * _dimension);
+            }
+
+            return indices;
+        }
+
+        // Ensure Cluster Map matches the Codebook
+        if(!_clusterMapValid)
+        {
+            generateClusterMap();
+        }
+
+        return _clusterMap.clone();
+    }
+
+    /**
+     * quantizeImage - Adds the Codebook and Codeword Indices to an Image
+     *
+     * @param compressedImage - The Compressed Image to Add the Channel to
+     */
+    @Override
+    public void quantizeImage(final CompressedImage compressedImage)
+    {
+        compressedImage.addChannel(getCodewords(), quantizeImage());
+    }
+
+    /**
+     * measureSearchPenalty - Quantizes every Input Vector with both Exact and
+     *                        Hashed Searches over the Current Codebook
+     *
+     * @return SearchPenalty - The Distortion and Time of each Search
+     */
+    @Override
+    public SearchPenalty measureSearchPenalty()
+    {
+        final int[] vectors = getInputVectors();
+        final int count = vectors.length / _dimension;
+        final SearchPenalty penalty = new SearchPenalty();
+        penalty._vectors = count;
+        penalty._values = vectors.length;
+
+        // Search Exactly
+        long start = System.nanoTime();
+        _sortedCodebook.build(_codebook, _codebookSize);
+        final long[] closest = new long[count];
+        for(int v = 0; v < count; ++v)
+        {
+            _sortedCodebook.search(vectors, v * _dimension, false);
+            closest[v] = _sortedCodebook.getClosestDistance();
+            penalty._exactError += closest[v];
+        }
+        penalty._exactNanos = System.nanoTime() - start;
+
+        // Search by Hash
+        start = System.nanoTime();
+        final HashedCodebook hashedCodebook = getHashedCodebook();
+        hashedCodebook.build(_codebook, _codebookSize);
+        for(int v = 0; v < count; ++v)
+        {
+            hashedCodebook.search(vectors, v * _dimension);
+            if(hashedCodebook.getClosestDistance() > closest[v])
+            {
+                penalty._misses++;
+            }
+            penalty._hashedError += hashedCodebook.getClosestDistance();
+        }
+        penalty._hashedNanos = System.nanoTime() - start;
+        penalty._hashedCompared = hashedCodebook.getComparedCount();
+
+        return penalty;
+    }
+
+    /**
+     * getCodewords - Gets the Pixel Values of each Codeword
+     *
+     * @return int[][] - The Codewords in Codebook Order
+     */
+    public int[][] getCodewords()
+    {
+        // Initialize Codewords
+        final int[][] codewords = new int[_codebookSize][_dimension];
+
+        // Iterate over Codebook
+        for(int i = 0; i < _codebookSize; ++i)
+        {
+            System.arraycopy(_codebook, i * _dimension, codewords[i], 0, _dimension);
+        }
+
+        return codewords;
+    }
+
+    /**
+     * getInputVectors
+     *
+     * @return int[] - The Input Vectors, one after another
+     */
+    public int[] getInputVectors()
+    {
+        return (_allVectors != null) ? _allVectors : _vectors;
+    }
+
+    /**
+     * getDimension
+     *
+     * @return int - The Number of Pixel Values in each Vector
+     */
+    public int getDimension()
+    {
+        return _dimension;
+    }
+
+    /**
+     * reconstructPlanes - Reconstructs Planes from Codeword Indices
+     *
+     * @param codebook - The Codewords
+     * @param indices  - The Codeword Index of each Block
+     * @param planes   - The Number of Planes in each Codeword
+     * @param width    - The Width of the Planes
+     * @param height   - The Height of the Planes
+     * @param mode     - How pixels were grouped to form vectors
+     * @return int[][] - The Reconstructed Planes
+     */
+    public static int[][] reconstructPlanes(final int[][] codebook, final int[] indices, final int planes,
+                                            final int width, final int height, final EVectorMode mode)
+    {
+        // Get Vector Dimension
+        final int dimension = mode.getDimension() * planes;
+
+        // Look up the Codeword of each Block
+        final int[] vectors = new int[indices.length * dimension];
+        for(int i = 0; i < indices.length; ++i)
+        {
+            System.arraycopy(codebook[indices[i]], 0, vectors, i * dimension, dimension);
+        }
+
+        // Write Blocks into Planes
+        final int[][] result = new int[planes][width * height];
+        PlaneUtil.setBlocks(vectors, result, width, height, mode);
+
+        return result;
+    }
+
+    /**
+     * getClosestCodeword - Gets the Index of the Closest Codeword
+     *
+     * @param vectors - Array holding the Input Vector
+     * @param offset  - Offset of the Input Vector in the Array
+     * @return int - The Index of the Closest Codeword
+     */
+    private int getClosestCodeword(final int[] vectors, final int offset)
+    {
+        return ESearchMode.HASHED.equals(_searchMode) ? _hashedCodebook.search(vectors, offset)
+                                                      : _sortedCodebook.search(vectors, offset, false);
+    }
+
+    /**
+     * searchCodebook - Gets the Index of the Closest Codeword to an Input
+     *                  Vector, Setting its Bounds to the Distances of the
+     *                  Closest and Second Closest Codewords
+     *
+     * @param v - The Index of the Input Vector
+     * @return int - The Index of the Closest Codeword
+     */
+    private int searchCodebook(final int v)
+    {
+        // Check if Approximate, which gives no Bounds
+        if(ESearchMode.HASHED.equals(_searchMode))
+        {
+            // Keep the Current Codeword unless a Closer one is Found,
+            // so the Distortion still only Falls and Training Converges
+            final int found = _hashedCodebook.search(_vectors, v * _dimension);
+            final int assigned = _clusterMap[v];
+            return (assigned >= 0 && assigned < _codebookSize
+                    && getDistance(_vectors, v * _dimension, assigned) <= _hashedCodebook.getClosestDistance()) ? assigned : found;
+        }
+
+        final int closest = _sortedCodebook.search(_vectors, v * _dimension, true);
+
+        // Set Bounds, no other Codeword Bounds a single Codeword
+        final long secondDist = _sortedCodebook.getSecondDistance();
+        _upperBounds[v] = Math.sqrt(_sortedCodebook.getClosestDistance());
+        _lowerBounds[v] = (secondDist == Long.MAX_VALUE) ? Double.POSITIVE_INFINITY : Math.sqrt(secondDist);
+
+        return closest;
+    }
+
+    /**
+     * buildSearch - Sorts or Hashes the Codebook for the Searches of the Search Mode
+     */
+    private void buildSearch()
+    {
+        if(ESearchMode.HASHED.equals(_searchMode))
+        {
+            getHashedCodebook().build(_codebook, _codebookSize);
+        }
+        else
+        {
+            _sortedCodebook.build(_codebook, _codebookSize);
+        }
+    }
+
+    /**
+     * getHashedCodebook - Gets the Hashed Codebook, Creating it if Needed
+     *
+     * @return HashedCodebook - The Hashed Codebook
+     */
+    private HashedCodebook getHashedCodebook()
+    {
+        if(_hashedCodebook == null)
+        {
+            _hashedCodebook = new HashedCodebook(_dimension, _hashTables);
+        }
+
+        return _hashedCodebook;
+    }
+
+    /**
+     * getDistance - Gets the Squared Distance between a Vector and a Codeword
+     *
+     * @param vectors  - Array holding the Vector
+     * @param offset   - Offset of the Vector in the Array
+     * @param codeword - The Index of the Codeword
+     * @return long - The Squared Distance
+     */
+    private long getDistance(final int[] vectors, final int offset, final int codeword)
+    {
+        final int base = codeword * _dimension;
+        long dist = 0;
+        for(int d = 0; d < _dimension; ++d)
+        {
+            final int diff = _codebook[base + d] - vectors[offset + d];
+            dist += diff * diff;
+        }
+
+        return dist;
+    }
+
+    /**
+     * getClusterSizes - Gets the Number of Input Vectors in each Cluster
+     *
+     * @return int[] - The Cluster Sizes in Codebook Order
+     */
+    private int[] getClusterSizes()
+    {
+        final int[] clusterSizes = new int[_codebookSize];
+
+        for(int v = 0; v < _vectorCount; ++v)
+        {
+            clusterSizes[_clusterMap[v]]++;
+        }
+
+        return clusterSizes;
+    }
+}
@@ -41,4 +41,14 @@ public class Vector
    {
       return _pixel2;
    }
+
+   /**
+    * getPixels - Gets the Pixel Values of the Vector
+    *
+    * @return int[] - The Pixel Values in Row Order
+    */
+   public int[] getPixels()
+   {
+      return new int[]{_pixel1, _pixel2};
+   }
 }
\ No newline at end of file
@@ -67,4 +67,27 @@ public class Vector2by2
    {
       return _pixel4;
    }
+
+   /**
+    * getPixels - Gets the Pixel Values of the Vector
+    *
+    * @return int[] - The Pixel Values in Row Order
+    */
+   public int[] getPixels()
+   {
+      return new int[]{_pixel1, _pixel2, _pixel3, _pixel4};
+   }
+
+   /**
+    * getPixels - Copies the Pixel Values of the Vector into an Array
+    *
+    * @param pixels - Array Receiving the Pixel Values in Row Order
+    */
+   public void getPixels(final int[] pixels)
+   {
+      pixels[0] = _pixel1;
+      pixels[1] = _pixel2;
+      pixels[2] = _pixel3;
+      pixels[3] = _pixel4;
+   }
 }
\ No newline at end of file
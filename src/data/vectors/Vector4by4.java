@@ -202,4 +202,42 @@ public class Vector4by4
    {
       return _pixel16;
    }
+
+   /**
+    * getPixels - Gets the Pixel Values of the Vector
+    *
+    * @return int[] - The Pixel Values in Row Order
+    */
+   public int[] getPixels()
+   {
+      return new int[]{_pixel1,  _pixel2,  _pixel3,  _pixel4,
+                       _pixel5,  _pixel6,  _pixel7,  _pixel8,
+                       _pixel9,  _pixel10, _pixel11, _pixel12,
+                       _pixel13, _pixel14, _pixel15, _pixel16};
+   }
+
+   /**
+    * getPixels - Copies the Pixel Values of the Vector into an Array
+    *
+    * @param pixels - Array Receiving the Pixel Values in Row Order
+    */
+   public void getPixels(final int[] pixels)
+   {
+      pixels[0] = _pixel1;
+      pixels[1] = _pixel2;
+      pixels[2] = _pixel3;
+      pixels[3] = _pixel4;
+      pixels[4] = _pixel5;
+      pixels[5] = _pixel6;
+      pixels[6] = _pixel7;
+      pixels[7] = _pixel8;
+      pixels[8] = _pixel9;
+      pixels[9] = _pixel10;
+      pixels[10] = _pixel11;
+      pixels[11] = _pixel12;
+      pixels[12] = _pixel13;
+      pixels[13] = _pixel14;
+      pixels[14] = _pixel15;
+      pixels[15] = _pixel16;
+   }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package enums;
+
+/**
+ * EColorMode - Enumeration detailing how the channels
+ *              of an image are quantized
+ */
+public enum EColorMode
+{
+   GRAYSCALE,  // Single channel image
+   RGB,        // Red, Green and Blue each quantized with their own codebook
+   JOINT_RGB,  // Red, Green and Blue of a block quantized as one vector
+   YCBCR_420,  // YCbCr with chroma halved horizontally and vertically
+   YCBCR_422;  // YCbCr with chroma halved horizontally
+
+   /**
+    * getMode - Gets the Enumerated Value of the Color Mode
+    *
+    * @param mode        - The input from Command Line
+    * @return EColorMode - The enumerated value
+    */
+   public static EColorMode getMode(final int mode)
+   {
+      // Initialize Return Color Mode
+      final EColorMode colorMode;
+
+      switch(mode)
+      {
+         case 2:
+            colorMode = JOINT_RGB;
+            break;
+
+         case 3:
+            colorMode = YCBCR_420;
+            break;
+
+         case 4:
+            colorMode = YCBCR_422;
+            break;
+
+         default:
+            colorMode = RGB;
+            break;
+      }
+
+      return colorMode;
+   }
+
+   /**
+    * isYCbCr - Checks if the Image is converted to YCbCr
+    *
+    * @return boolean - TRUE if quantized as Luma and Chroma Planes
+    */
+   public boolean isYCbCr()
+   {
+      return (YCBCR_420 == this) || (YCBCR_422 == this);
+   }
+
+   /**
+    * getChromaFactorX - Gets the Horizontal Subsampling of the Chroma Planes
+    *
+    * @return int - Image Pixels per Chroma Pixel Horizontally
+    */
+   public int getChromaFactorX()
+   {
+      return isYCbCr() ? 2 : 1;
+   }
+
+   /**
+    * getChromaFactorY - Gets the Vertical Subsampling of the Chroma Planes
+    *
+    * @return int - Image Pixels per Chroma Pixel Vertically
+    */
+   public int getChromaFactorY()
+   {
+      return (YCBCR_420 == this) ? 2 : 1;
+   }
+}
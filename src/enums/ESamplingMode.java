@@ -0,0 +1,10 @@
+package enums;
+
+/**
+ * ESamplingMode - How the Training Sample of a Codebook is Drawn from its Input Vectors
+ */
+public enum ESamplingMode
+{
+   UNIFORM,     // Every Input Vector is equally likely to be Sampled
+   STRATIFIED;  // One Vector is Sampled from each equal Run of Blocks, covering the whole Image
+}
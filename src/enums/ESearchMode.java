@@ -0,0 +1,10 @@
+package enums;
+
+/**
+ * ESearchMode - How the Closest Codeword to a Vector is Searched for
+ */
+public enum ESearchMode
+{
+   EXACT,   // Every Codeword that could be Closest is Compared, in Mean Order
+   HASHED;  // Only Codewords Hashed to the Vector's Buckets by Random Projections are Compared
+}
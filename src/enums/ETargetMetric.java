@@ -0,0 +1,10 @@
+package enums;
+
+/**
+ * ETargetMetric - What an Automatic Codebook Search has to Meet
+ */
+public enum ETargetMetric
+{
+   PSNR,     // Cheapest Configuration at or above a Peak Signal to Noise Ratio (dB)
+   BITRATE;  // Best Quality Configuration at or below a Bits per Pixel
+}
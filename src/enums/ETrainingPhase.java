@@ -0,0 +1,10 @@
+package enums;
+
+/**
+ * ETrainingPhase - Step of Codebook Training reported to a Training Listener
+ */
+public enum ETrainingPhase
+{
+   VERIFY,  // Empty Clusters are Detected and their Codewords Moved
+   UPDATE;  // Codewords Move to their Centroids and the Cluster Map is Rebuilt
+}
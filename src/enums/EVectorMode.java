@@ -6,9 +6,15 @@ package enums;
  */
 public enum EVectorMode
 {
-   SIDE_BY_SIDE, // Suggests two side by side pixels to form a vector
-   TWO_BY_TWO,   // Suggests a 2x2 block of pixels to form a vector
-   FOUR_BY_FOUR; // Suggests a 4x4 block of pixels to form a vector
+   SIDE_BY_SIDE,   // Suggests two side by side pixels to form a vector
+   TWO_BY_TWO,     // Suggests a 2x2 block of pixels to form a vector
+   FOUR_BY_FOUR,   // Suggests a 4x4 block of pixels to form a vector
+   EIGHT_BY_EIGHT, // Suggests an 8x8 block of pixels to form a vector
+   QUADTREE,       // Suggests 8x8 blocks split down to 4x4, 2x2 and side by side where busy
+   LATTICE;        // Suggests a 2x2 block of pixels snapped to the D4 lattice, without training
+
+   // Block Modes of each Quadtree Level, Largest First
+   private static final EVectorMode[] QUADTREE_LEVELS = { EIGHT_BY_EIGHT, FOUR_BY_FOUR, TWO_BY_TWO, SIDE_BY_SIDE };
 
    /**
     * getMode - Gets the Enumerated Value of the Vector Mode
@@ -36,6 +42,18 @@ public enum EVectorMode
             vectorMode = FOUR_BY_FOUR;
             break;
 
+         case 4:
+            vectorMode = EIGHT_BY_EIGHT;
+            break;
+
+         case 5:
+            vectorMode = QUADTREE;
+            break;
+
+         case 6:
+            vectorMode = LATTICE;
+            break;
+
          default:
             vectorMode = SIDE_BY_SIDE;
             break;
@@ -43,5 +61,138 @@ public enum EVectorMode
       
       return vectorMode;
    }
-}
 
+   /**
+    * getDimension - Gets the Number of Pixels grouped
+    *                into a single Vector by this Mode
+    *
+    * @return int - The Vector Dimension
+    */
+   public int getDimension()
+   {
+      // Initialize Dimension
+      final int dimension;
+
+      switch(this)
+      {
+         case TWO_BY_TWO:
+         case LATTICE:
+            dimension = 4;
+            break;
+
+         case FOUR_BY_FOUR:
+            dimension = 16;
+            break;
+
+         case EIGHT_BY_EIGHT:
+         case QUADTREE:
+            dimension = 64;
+            break;
+
+         default:
+            dimension = 2;
+            break;
+      }
+
+      return dimension;
+   }
+
+   /**
+    * getBlockWidth - Gets the Width in Pixels of the
+    *                 Block grouped into a single Vector
+    *
+    * @return int - The Block Width
+    */
+   public int getBlockWidth()
+   {
+      // Initialize Block Width
+      final int blockWidth;
+
+      switch(this)
+      {
+         case FOUR_BY_FOUR:
+            blockWidth = 4;
+            break;
+
+         case EIGHT_BY_EIGHT:
+         case QUADTREE:
+            blockWidth = 8;
+            break;
+
+         default:
+            blockWidth = 2;
+            break;
+      }
+
+      return blockWidth;
+   }
+
+   /**
+    * getBlockHeight - Gets the Height in Pixels of the
+    *                  Block grouped into a single Vector
+    *
+    * @return int - The Block Height
+    */
+   public int getBlockHeight()
+   {
+      // Initialize Block Height
+      final int blockHeight;
+
+      switch(this)
+      {
+         case TWO_BY_TWO:
+         case LATTICE:
+            blockHeight = 2;
+            break;
+
+         case FOUR_BY_FOUR:
+            blockHeight = 4;
+            break;
+
+         case EIGHT_BY_EIGHT:
+         case QUADTREE:
+            blockHeight = 8;
+            break;
+
+         default:
+            blockHeight = 1;
+            break;
+      }
+
+      return blockHeight;
+   }
+
+   /**
+    * getLevelCount - Gets the Number of Block Sizes
+    *                 an Image is Coded with in this Mode
+    *
+    * @return int - 1, or the Number of Quadtree Levels
+    */
+   public int getLevelCount()
+   {
+      return (QUADTREE == this) ? QUADTREE_LEVELS.length : 1;
+   }
+
+   /**
+    * getLevelMode - Gets the Block Mode of a Level,
+    *                each with its own Codebook
+    *
+    * @param level - The Level, 0 is the Largest Block
+    * @return EVectorMode - The Block Mode of the Level
+    */
+   public EVectorMode getLevelMode(final int level)
+   {
+      return (QUADTREE == this) ? QUADTREE_LEVELS[level] : this;
+   }
+
+   /**
+    * hasVectorClass - Checks if the Vector Classes of the
+    *                  Grayscale Engine represent this Mode
+    *
+    * @return boolean - TRUE for Side by Side, 2x2 and 4x4
+    */
+   public boolean hasVectorClass()
+   {
+      return SIDE_BY_SIDE == this || TWO_BY_TWO == this || FOUR_BY_FOUR == this;
+   }
+}
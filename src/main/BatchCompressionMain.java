@@ -0,0 +1,366 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import data.imageTypes.ConvergencePolicies;
+import data.imageTypes.HashedCodebook;
+import data.imageTypes.IConvergencePolicy;
+import data.imageTypes.ITrainingListener;
+import data.imageTypes.VectorQuantizer;
+import enums.EColorMode;
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.ETargetMetric;
+import enums.EVectorMode;
+import util.CodebookCache;
+import util.CodebookUtil;
+import util.CompressedImageUtil;
+import util.ConsoleTrainingListener;
+import util.CsvTrainingListener;
+
+/**
+ * BatchCompressionMain
+ *
+ * Headless counterpart of CompressionMain. Compresses every
+ * raw/rgb image of an input directory concurrently and writes
+ * the compressed images to an output directory, without
+ * opening a display.
+ *
+ * Per-iteration training telemetry is enabled with
+ * -Dvq.trainingLog=console or -Dvq.trainingLog=file.csv
+ *
+ * Training of each codebook stops once its codewords move less
+ * than 1.0, or earlier with any of -Dvq.maxIterations=N,
+ * -Dvq.timeBudgetMs=N, -Dvq.minImprovement=fraction and
+ * -Dvq.stopWhenStable=true (no vector changed codeword)
+ *
+ * numVectors may instead be psnr=dB or bpp=bits, in which case
+ * the codebook size and mode are searched per image for the
+ * cheapest configuration meeting that target
+ *
+ * The mean MSE, PSNR and SSIM of the compressed images are
+ * printed with -Dvq.metrics=true
+ *
+ * Mode 5 (quadtree) splits blocks whose pixel variance exceeds
+ * -Dvq.splitThreshold=N (default 100)
+ *
+ * Mode 6 (lattice) snaps each 2x2 block once to the nearest point
+ * of a box of the D4 lattice holding at most numVectors points,
+ * without training or searching. -Dvq.latticeFit=true instead fits
+ * the lattice step to the blocks over a few passes, keeping the
+ * numVectors most used points, for a lower distortion
+ *
+ * -Dvq.pyramidLevels=N trains each codebook on images halved
+ * N times first, then runs -Dvq.refinementIterations=N (default 3)
+ * iterations at full resolution
+ *
+ * -Dvq.trainingSample=N trains each codebook on a sample of at
+ * most N of its vectors, drawn uniformly, or one from each equal
+ * run of blocks with -Dvq.sampling=stratified. Every vector is
+ * still quantized.
+ *
+ * -Dvq.cacheDir=dir keeps trained codebooks on disk, so images
+ * compressed again with the same parameters skip training. The
+ * cache is bounded by -Dvq.cacheMaxMB=N (default 256).
+ *
+ * -Dvq.codebook=file quantizes every image with codebooks trained
+ * over a corpus by CorpusTrainingMain instead of training each
+ * image. The mode and color mode are then taken from the file.
+ *
+ * -Dvq.search=hashed searches codebooks approximately, comparing
+ * only the codewords hashed to the same buckets in each of
+ * -Dvq.hashTables=N (default 8) tables, for codebooks of many
+ * thousands of codewords. With -Dvq.metrics=true, every image is
+ * also searched exactly and the distortion penalty is printed.
+ */
+public class BatchCompressionMain
+{
+   // Image Extensions
+   private static final String RAW = "raw";
+   private static final String RGB = "rgb";
+
+   // Default Width/Height of the Images
+   private static final int WIDTH = 352;
+   private static final int HEIGHT = 288;
+
+   // Bytes per Megabyte
+   private static final double MEGABYTE = 1024.0 * 1024.0;
+
+   // System Property Selecting the Training Telemetry Sink
+   private static final String TRAINING_LOG = "vq.trainingLog";
+   private static final String CONSOLE = "console";
+
+   // System Properties Bounding Codebook Training
+   private static final String MAX_ITERATIONS = "vq.maxIterations";
+   private static final String TIME_BUDGET_MS = "vq.timeBudgetMs";
+   private static final String MIN_IMPROVEMENT = "vq.minImprovement";
+   private static final String STOP_WHEN_STABLE = "vq.stopWhenStable";
+
+   // Prefixes of a Search Target given instead of numVectors
+   private static final String PSNR_TARGET = "psnr=";
+   private static final String BITRATE_TARGET = "bpp=";
+
+   // System Property Enabling Quality Metrics
+   private static final String METRICS = "vq.metrics";
+
+   // System Property Setting the Quadtree Split Threshold
+   private static final String SPLIT_THRESHOLD = "vq.splitThreshold";
+
+   // System Properties Enabling Pyramid Training
+   private static final String PYRAMID_LEVELS = "vq.pyramidLevels";
+   private static final String REFINEMENT_ITERATIONS = "vq.refinementIterations";
+
+   // System Properties Enabling Training on a Sample
+   private static final String TRAINING_SAMPLE = "vq.trainingSample";
+   private static final String SAMPLING = "vq.sampling";
+
+   // System Properties Enabling the Codebook Cache
+   private static final String CACHE_DIR = "vq.cacheDir";
+   private static final String CACHE_MAX_MB = "vq.cacheMaxMB";
+
+   // System Property Selecting Pretrained Codebooks
+   private static final String CODEBOOK = "vq.codebook";
+
+   // System Properties Selecting the Codeword Search
+   private static final String SEARCH = "vq.search";
+   private static final String HASH_TABLES = "vq.hashTables";
+
+   // System Property Fitting the Lattice Step
+   private static final String LATTICE_FIT = "vq.latticeFit";
+
+   // Usage Statement
+   private static final String USAGE = "Usage: ./BatchCompressionMain inputDir outputDir numVectors|psnr=dB|bpp=bits mode threads [width height [colorMode]]";
+
+   /**
+    * main
+    *
+    * @param args
+    */
+   public static void main(String[] args)
+   {
+      // Never load a Display
+      System.setProperty("java.awt.headless", "true");
+
+      // Ensure the Program has 5, 7 or 8 arguments passed
+      if(args.length != 5 && args.length != 7 && args.length != 8)
+      {
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+
+      try
+      {
+         // Read parameters from command line
+         final File inputDir = new File(args[0]);
+         final File outputDir = new File(args[1]);
+         final String vectors = args[2];
+         final boolean isTarget = vectors.startsWith(PSNR_TARGET) || vectors.startsWith(BITRATE_TARGET);
+         final int numVectors = isTarget ? 0 : Integer.parseInt(vectors);
+         final EVectorMode mode = EVectorMode.getMode(Integer.parseInt(args[3]));
+         final int threads = Integer.parseInt(args[4]);
+         final int width = (args.length >= 7) ? Integer.parseInt(args[5]) : WIDTH;
+         final int height = (args.length >= 7) ? Integer.parseInt(args[6]) : HEIGHT;
+         final EColorMode colorMode = (args.length == 8) ? EColorMode.getMode(Integer.parseInt(args[7])) : EColorMode.RGB;
+
+         // Ensure the Codebooks fit the Compressed Files
+         if(numVectors > CompressedImageUtil.MAX_CODEBOOK_SIZE)
+         {
+            System.out.println("At most " + CompressedImageUtil.MAX_CODEBOOK_SIZE + " vectors fit a compressed file, not "
+                               + numVectors);
+            System.exit(1);
+         }
+
+         // Ensure Output Directory Exists
+         if(!outputDir.isDirectory() && !outputDir.mkdirs())
+         {
+            System.out.println("Unable to create output directory " + outputDir);
+            System.exit(1);
+         }
+
+         // Get Images to Compress
+         final File[] files = inputDir.listFiles((dir, name) -> name.endsWith("." + RAW) || name.endsWith("." + RGB));
+         if(files == null)
+         {
+            System.out.println("Unable to read input directory " + inputDir);
+            System.exit(1);
+         }
+         Arrays.sort(files);
+
+         // Compress the Images
+         final boolean success = compressImages(files, outputDir, numVectors, mode, colorMode, threads, width, height,
+                                                isTarget ? vectors : null);
+
+         System.exit(success ? 0 : 1);
+      }
+      catch(Exception e)
+      {
+         // Print Stack Trace
+         e.printStackTrace();
+
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+   }
+
+   /**
+    * compressImages - Compresses Images through an Encoder Pipeline
+    *                  and Prints the Achieved Throughput
+    *
+    * @param files      - The Images to Compress
+    * @param outputDir  - Directory for the Compressed Images
+    * @param numVectors - The number of Vectors for quantization
+    * @param mode       - How pixels should be grouped to form vectors
+    * @param colorMode  - How the channels of color images should be quantized
+    * @param threads    - The Number of Encoder Threads
+    * @param width      - The Width of the Images
+    * @param height     - The Height of the Images
+    * @param target     - psnr=dB or bpp=bits to Search each Image, null to use numVectors and mode
+    * @return boolean - TRUE if every Image was Compressed
+    * @throws InterruptedException
+    * @throws IOException
+    */
+   private static boolean compressImages(final File[] files, final File outputDir, final int numVectors,
+                                         final EVectorMode mode, final EColorMode colorMode, final int threads,
+                                         final int width, final int height, final String target)
+      throws InterruptedException, IOException
+   {
+      // Read Pretrained Codebooks, which Fix the Modes
+      final CodebookUtil.Codebooks codebooks = (System.getProperty(CODEBOOK) == null) ? null
+                                               : CodebookUtil.readCodebooks(new File(System.getProperty(CODEBOOK)));
+
+      // Initialize Pipeline, keeping a couple of Images queued per Encoder
+      final EncoderPipeline pipeline = (codebooks == null)
+                                       ? new EncoderPipeline(numVectors, mode, colorMode, width, height, threads, 2 * threads)
+                                       : new EncoderPipeline(codebooks.getSize(), codebooks._mode, codebooks._colorMode,
+                                                             width, height, threads, 2 * threads);
+      pipeline.setPretrainedCodebooks(codebooks);
+
+      // Initialize Training Telemetry
+      final String trainingLog = System.getProperty(TRAINING_LOG);
+      final CsvTrainingListener csvListener = (trainingLog == null || CONSOLE.equals(trainingLog))
+                                              ? null : new CsvTrainingListener(new File(trainingLog));
+      final ITrainingListener listener = (csvListener != null) ? csvListener
+                                         : (trainingLog != null) ? new ConsoleTrainingListener() : null;
+      pipeline.setTrainingListener(listener);
+      pipeline.setConvergencePolicy(getConvergencePolicy());
+      pipeline.setMeasureQuality(Boolean.getBoolean(METRICS));
+      if(System.getProperty(SPLIT_THRESHOLD) != null)
+      {
+         pipeline.setSplitThreshold(Double.parseDouble(System.getProperty(SPLIT_THRESHOLD)));
+      }
+      pipeline.setPyramid(Integer.getInteger(PYRAMID_LEVELS, 0),
+                          Integer.getInteger(REFINEMENT_ITERATIONS, ImageCompressor.DEFAULT_REFINEMENT_ITERATIONS));
+      pipeline.setTrainingSample(Integer.getInteger(TRAINING_SAMPLE, 0),
+                                 ESamplingMode.valueOf(System.getProperty(SAMPLING, ESamplingMode.UNIFORM.name()).toUpperCase()));
+      final ESearchMode searchMode = ESearchMode.valueOf(System.getProperty(SEARCH, ESearchMode.EXACT.name()).toUpperCase());
+      pipeline.setSearchMode(searchMode, Integer.getInteger(HASH_TABLES, HashedCodebook.DEFAULT_TABLES),
+                             Boolean.getBoolean(METRICS) && ESearchMode.HASHED.equals(searchMode));
+      pipeline.setLatticeFitted(Boolean.getBoolean(LATTICE_FIT));
+
+      // Initialize Codebook Cache
+      final CodebookCache cache = (System.getProperty(CACHE_DIR) == null) ? null
+                                  : new CodebookCache(new File(System.getProperty(CACHE_DIR)),
+                                                      (System.getProperty(CACHE_MAX_MB) == null)
+                                                      ? CodebookCache.DEFAULT_MAX_BYTES
+                                                      : (long) (Double.parseDouble(System.getProperty(CACHE_MAX_MB)) * MEGABYTE));
+      pipeline.setCodebookCache(cache);
+
+      // Initialize Search Target
+      if(target != null)
+      {
+         final boolean isPSNR = target.startsWith(PSNR_TARGET);
+         pipeline.setSearchTarget(isPSNR ? ETargetMetric.PSNR : ETargetMetric.BITRATE,
+                                  Double.parseDouble(target.substring(isPSNR ? PSNR_TARGET.length() : BITRATE_TARGET.length())));
+      }
+
+      // Run the Pipeline
+      final EncoderPipeline.Result result;
+      try
+      {
+         result = pipeline.run(files, outputDir);
+      }
+      finally
+      {
+         if(csvListener != null)
+         {
+            csvListener.close();
+         }
+      }
+
+      // Get Elapsed Seconds
+      final double seconds = Math.max(result._elapsedNanos / 1e9, 1e-9);
+
+      // Print Throughput
+      System.out.println(String.format("Compressed %d/%d images (%.2f MB -> %.2f MB) in %.3f s on %d threads: %.2f images/s, %.2f MB/s",
+                                       result._compressed, files.length, result._bytesRead / MEGABYTE,
+                                       result._bytesWritten / MEGABYTE, seconds, threads,
+                                       result._compressed / seconds, (result._bytesRead / MEGABYTE) / seconds));
+
+      // Print Cache Use
+      if(cache != null)
+      {
+         System.out.println(String.format("Codebook cache: %d hits, %d misses", cache.getHits(), cache.getMisses()));
+      }
+
+      // Print Mean Quality
+      if(result._measured > 0)
+      {
+         System.out.println(String.format("Mean quality of %d images: MSE %.2f, PSNR %.2f dB, SSIM %.4f", result._measured,
+                                          result._totalMSE / result._measured, result._totalPSNR / result._measured,
+                                          result._totalSSIM / result._measured));
+      }
+
+      // Print Distortion Penalty of Hashed Searches
+      final VectorQuantizer.SearchPenalty penalty = result._searchPenalty;
+      if(penalty._vectors > 0)
+      {
+         System.out.println(String.format("Hashed search: MSE %.2f against %.2f exact (%+.2f%%), %.1f%% of vectors missed the closest codeword",
+                                          (double) penalty._hashedError / penalty._values,
+                                          (double) penalty._exactError / penalty._values, 100.0 * penalty.getPenalty(),
+                                          100.0 * penalty._misses / penalty._vectors));
+         System.out.println(String.format("Hashed search: %.1f codewords compared per vector, %.3f s against %.3f s exact",
+                                          (double) penalty._hashedCompared / penalty._vectors,
+                                          penalty._hashedNanos / 1e9, penalty._exactNanos / 1e9));
+      }
+
+      return result._failed == 0;
+   }
+
+   /**
+    * getConvergencePolicy - Builds the Convergence Policy from System Properties
+    *
+    * @return IConvergencePolicy - The Policy
+    */
+   private static IConvergencePolicy getConvergencePolicy()
+   {
+      // Always Stop once the Codewords Settle
+      final ArrayList<IConvergencePolicy> policies = new ArrayList<IConvergencePolicy>();
+      policies.add(ConvergencePolicies.defaultPolicy());
+
+      // Add each Requested Bound
+      if(System.getProperty(MAX_ITERATIONS) != null)
+      {
+         policies.add(ConvergencePolicies.maxIterations(Integer.getInteger(MAX_ITERATIONS)));
+      }
+      if(System.getProperty(TIME_BUDGET_MS) != null)
+      {
+         policies.add(ConvergencePolicies.timeBudget(Long.getLong(TIME_BUDGET_MS), TimeUnit.MILLISECONDS));
+      }
+      if(System.getProperty(MIN_IMPROVEMENT) != null)
+      {
+         policies.add(ConvergencePolicies.relativeImprovement(Double.parseDouble(System.getProperty(MIN_IMPROVEMENT))));
+      }
+      if(Boolean.getBoolean(STOP_WHEN_STABLE))
+      {
+         policies.add(ConvergencePolicies.noReassignments());
+      }
+
+      return ConvergencePolicies.anyOf(policies.toArray(new IConvergencePolicy[0]));
+   }
+}
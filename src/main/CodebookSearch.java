@@ -0,0 +1,268 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+import data.imageTypes.AbstractImage;
+import data.imageTypes.CompressedImage;
+import enums.EColorMode;
+import enums.ETargetMetric;
+import enums.EVectorMode;
+import util.CompressedImageUtil;
+import util.ImageMetrics;
+
+/**
+ * CodebookSearch - Picks the Codebook Size and Vector Mode
+ *                  that meets a Target PSNR or Bitrate
+ *
+ * For each vector mode, codebook sizes are tried in doubling
+ * steps. Each candidate starts from the previous candidate's
+ * trained codebook with every codeword split in two, rather
+ * than from the diagonal (quadtree levels are seeded from
+ * their own blocks each time, and the lattice is snapped
+ * without codewords to start from). A mode stops growing once a larger
+ * codebook can no longer be cheaper (PSNR target met) or can
+ * no longer fit (bitrate target exceeded).
+ */
+public class CodebookSearch
+{
+    // Smallest/Largest Codebook Size Tried
+    private static final int MIN_N = 2;
+    private static final int MAX_N = 256;
+
+    // Vector Modes Tried, each over every Codebook Size
+    private static final EVectorMode[] MODES = { EVectorMode.SIDE_BY_SIDE, EVectorMode.TWO_BY_TWO,
+                                                 EVectorMode.FOUR_BY_FOUR, EVectorMode.EIGHT_BY_EIGHT,
+                                                 EVectorMode.QUADTREE, EVectorMode.LATTICE };
+
+    // Compressor Training each Candidate
+    private final ImageCompressor _compressor;
+
+    // Measures the Quality of each Candidate
+    private final ImageMetrics _metrics = new ImageMetrics();
+
+    /**
+     * Result - A Candidate Configuration and its Cost
+     */
+    public static class Result
+    {
+        // Configuration
+        public int _n;
+        public EVectorMode _mode;
+
+        // Quality and Size of the Compressed Image
+        public double _psnr;
+        public double _bitsPerPixel;
+        public CompressedImage _compressedImage;
+
+        // Indicator the Target was Met
+        public boolean _meetsTarget;
+
+        // Number of Candidates Trained during the Search
+        public int _candidates;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param compressor - Compressor Training each Candidate
+     */
+    public CodebookSearch(final ImageCompressor compressor)
+    {
+        _compressor = compressor;
+    }
+
+    /**
+     * search - Finds the Cheapest Configuration meeting a Target
+     *
+     * @param image     - The image to apply compression
+     * @param colorMode - How the channels should be quantized
+     * @param metric    - What the Target Measures
+     * @param target    - PSNR in dB, or Bits per Pixel
+     * @return Result - The Best Configuration meeting the Target,
+     *                  or the Closest one if none Meets it
+     */
+    public Result search(final BufferedImage image, final EColorMode colorMode, final ETargetMetric metric, final double target)
+    {
+        // Initialize Best Candidates
+        Result best = null;
+        Result closest = null;
+        int candidates = 0;
+
+        // Iterate over Vector Modes
+        for(final EVectorMode mode : MODES)
+        {
+            ArrayList<int[][]> codebooks = null;
+
+            // Iterate over Codebook Sizes
+            for(int n = MIN_N; n <= MAX_N; n *= 2)
+            {
+                // Train Candidate from the Split Codebooks of the last Candidate
+                final CompressedImage compressedImage = _compressor.compressPlanarImage(image, n, mode, colorMode, codebooks);
+                final Result result = evaluate(image, compressedImage, n, mode);
+                candidates++;
+
+                // Check if Candidate Meets the Target
+                result._meetsTarget = (ETargetMetric.PSNR.equals(metric)) ? result._psnr >= target
+                                                                           : result._bitsPerPixel <= target;
+
+                if(result._meetsTarget)
+                {
+                    if(best == null || isBetter(metric, result, best))
+                    {
+                        best = result;
+                    }
+                }
+                else if(closest == null || isCloser(metric, result, closest))
+                {
+                    closest = result;
+                }
+
+                // Larger Codebooks cost more Bits for more Quality
+                if(ETargetMetric.PSNR.equals(metric) == result._meetsTarget)
+                {
+                    break;
+                }
+
+                // Quadtree Levels Seed from their own Blocks instead,
+                // and the Lattice is Snapped to without Training
+                codebooks = (mode.getLevelCount() > 1 || EVectorMode.LATTICE.equals(mode)) ? null
+                                                                                            : splitCodebooks(compressedImage);
+            }
+        }
+
+        // Fall back to the Closest Candidate
+        final Result result = (best != null) ? best : closest;
+        result._candidates = candidates;
+
+        return result;
+    }
+
+    /**
+     * evaluate - Measures the Quality and Size of a Candidate
+     *
+     * @param image           - The Original Image
+     * @param compressedImage - The Candidate
+     * @param n               - The Codebook Size
+     * @param mode            - How pixels were grouped to form vectors
+     * @return Result - The Measured Candidate
+     */
+    private Result evaluate(final BufferedImage image, final CompressedImage compressedImage, final int n,
+                            final EVectorMode mode)
+    {
+        final Result result = new Result();
+        result._n = n;
+        result._mode = mode;
+        result._compressedImage = compressedImage;
+        result._psnr = _metrics.getPSNR(image, compressedImage.getReconstructedImage());
+        result._bitsPerPixel = getBitsPerPixel(compressedImage);
+
+        return result;
+    }
+
+    /**
+     * getBitsPerPixel - Gets the Codebook and Index Bits per Image Pixel
+     *
+     * @param compressedImage - The Compressed Image
+     * @return double - The Bits per Pixel
+     */
+    public static double getBitsPerPixel(final CompressedImage compressedImage)
+    {
+        // Initialize Bit Count
+        long bits = 0;
+
+        // Iterate over Channels
+        for(int c = 0; c < compressedImage.getChannelCount(); ++c)
+        {
+            // Count Split Flags
+            if(compressedImage.getSplitFlags(c) != null)
+            {
+                bits += compressedImage.getSplitFlags(c).length;
+            }
+
+            // Iterate over Levels
+            for(int l = 0; l < compressedImage.getLevelCount(); ++l)
+            {
+                final int size = compressedImage.getCodebook(c, l).length;
+
+                bits += (long) size * compressedImage.getDimension(l) * Byte.SIZE;
+                bits += (long) compressedImage.getIndices(c, l).length * CompressedImageUtil.getIndexBits(size);
+            }
+        }
+
+        return (double) bits / ((long) compressedImage.getWidth() * compressedImage.getHeight());
+    }
+
+    /**
+     * splitCodebooks - Doubles each Codebook by Splitting every Codeword
+     *                  into itself and a Copy Offset by CW_OFFSET
+     *
+     * @param compressedImage - The Trained Candidate
+     * @return ArrayList<int[][]> - The Split Codebook of each Channel
+     */
+    private static ArrayList<int[][]> splitCodebooks(final CompressedImage compressedImage)
+    {
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(compressedImage.getChannelCount());
+
+        // Iterate over Channels
+        for(int c = 0; c < compressedImage.getChannelCount(); ++c)
+        {
+            final int[][] codebook = compressedImage.getCodebook(c);
+            final int[][] split = new int[codebook.length * 2][];
+
+            // Iterate over Codewords
+            for(int i = 0; i < codebook.length; ++i)
+            {
+                split[2 * i] = codebook[i].clone();
+                split[2 * i + 1] = new int[codebook[i].length];
+
+                for(int d = 0; d < codebook[i].length; ++d)
+                {
+                    final int p = codebook[i][d];
+                    split[2 * i + 1][d] = (p + AbstractImage.CW_OFFSET <= 255) ? p + AbstractImage.CW_OFFSET
+                                                                                : p - AbstractImage.CW_OFFSET;
+                }
+            }
+            codebooks.add(split);
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * isBetter - Compares two Candidates that both Meet the Target
+     *
+     * @param metric    - What the Target Measures
+     * @param candidate - The New Candidate
+     * @param best      - The Best Candidate so far
+     * @return boolean - TRUE if the New Candidate is Better
+     */
+    private static boolean isBetter(final ETargetMetric metric, final Result candidate, final Result best)
+    {
+        if(ETargetMetric.PSNR.equals(metric))
+        {
+            return candidate._bitsPerPixel < best._bitsPerPixel
+                   || (candidate._bitsPerPixel == best._bitsPerPixel && candidate._psnr > best._psnr);
+        }
+
+        return candidate._psnr > best._psnr;
+    }
+
+    /**
+     * isCloser - Compares two Candidates that both Miss the Target
+     *
+     * @param metric    - What the Target Measures
+     * @param candidate - The New Candidate
+     * @param closest   - The Closest Candidate so far
+     * @return boolean - TRUE if the New Candidate is Closer
+     */
+    private static boolean isCloser(final ETargetMetric metric, final Result candidate, final Result closest)
+    {
+        if(ETargetMetric.PSNR.equals(metric))
+        {
+            return candidate._psnr > closest._psnr;
+        }
+
+        return candidate._bitsPerPixel < closest._bitsPerPixel;
+    }
+}
@@ -1,6 +1,7 @@
 package main;
 import java.awt.image.BufferedImage;
 
+import enums.EColorMode;
 import enums.EVectorMode;
 import util.ImageUtil;
 
@@ -35,11 +36,11 @@ public class CompressionMain
       // Initialize is Image Color/GrayScale Indicator
       boolean isRgb = false;
 
-      // Ensure the Program has 3 arguments passed
-      if(args.length < 3 || args.length >= 4)
+      // Ensure the Program has 3 or 4 arguments passed
+      if(args.length < 3 || args.length >= 5)
       {
          // Print Usage Statement and End Program
-         System.out.println("Usage: ./CompressionMain Image numVectors mode");
+         System.out.println("Usage: ./CompressionMain Image numVectors mode [colorMode]");
          System.exit(1);
       }
       else
@@ -58,6 +59,9 @@ public class CompressionMain
             final int m = Integer.parseInt(modeStr);
             final EVectorMode mode = EVectorMode.getMode(m);
 
+            // Get Color Mode
+            final EColorMode colorMode = (args.length == 4) ? EColorMode.getMode(Integer.parseInt(args[3])) : EColorMode.RGB;
+
             // Split String at File Extension
             String[] parts = imageName.split("\\.");
 
@@ -93,7 +97,7 @@ public class CompressionMain
             }
 
             // Show the Images
-            ren.showImages(image, numVectors, mode, isRgb);
+            ren.showImages(image, numVectors, mode, isRgb ? colorMode : EColorMode.GRAYSCALE);
          }
          catch(Exception e)
          {
@@ -101,7 +105,7 @@ public class CompressionMain
             e.printStackTrace();
 
             // Print Usage Statement and End Program
-            System.out.println("Usage: ./CompressionMain Image numVectors mode");
+            System.out.println("Usage: ./CompressionMain Image numVectors mode [colorMode]");
             System.exit(1);
          }
       }
@@ -0,0 +1,174 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import data.imageTypes.HashedCodebook;
+import enums.EColorMode;
+import enums.ESearchMode;
+import enums.EVectorMode;
+import util.CodebookUtil;
+import util.ImageUtil;
+
+/**
+ * CorpusTrainingMain
+ *
+ * Trains one universal codebook per channel over the images
+ * of a directory and writes it to a codebook file. Grayscale
+ * codebooks are trained over the raw images, color ones over
+ * the rgb images. Images are loaded one at a time and only
+ * their vectors are kept.
+ *
+ * The file is used with -Dvq.codebook=file of
+ * BatchCompressionMain, which then skips per-image training.
+ *
+ * -Dvq.search=hashed and -Dvq.hashTables=N search the codebooks
+ * approximately while training, as in BatchCompressionMain, for
+ * codebooks of many thousands of codewords.
+ */
+public class CorpusTrainingMain
+{
+   // Image Extensions
+   private static final String RAW = "raw";
+   private static final String RGB = "rgb";
+
+   // Default Width/Height of the Images
+   private static final int WIDTH = 352;
+   private static final int HEIGHT = 288;
+
+   // System Properties Selecting the Codeword Search
+   private static final String SEARCH = "vq.search";
+   private static final String HASH_TABLES = "vq.hashTables";
+
+   // Usage Statement
+   private static final String USAGE = "Usage: ./CorpusTrainingMain inputDir codebookFile numVectors mode [width height [colorMode]]";
+
+   /**
+    * main
+    *
+    * @param args
+    */
+   public static void main(String[] args)
+   {
+      // Never load a Display
+      System.setProperty("java.awt.headless", "true");
+
+      // Ensure the Program has 4, 6 or 7 arguments passed
+      if(args.length != 4 && args.length != 6 && args.length != 7)
+      {
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+
+      try
+      {
+         // Read parameters from command line
+         final File inputDir = new File(args[0]);
+         final File codebookFile = new File(args[1]);
+         final int numVectors = Integer.parseInt(args[2]);
+         final EVectorMode mode = EVectorMode.getMode(Integer.parseInt(args[3]));
+         final int width = (args.length >= 6) ? Integer.parseInt(args[4]) : WIDTH;
+         final int height = (args.length >= 6) ? Integer.parseInt(args[5]) : HEIGHT;
+         final EColorMode colorMode = (args.length == 7) ? EColorMode.getMode(Integer.parseInt(args[6])) : EColorMode.RGB;
+
+         // Get Corpus Images of the Color Mode
+         final String extension = EColorMode.GRAYSCALE.equals(colorMode) ? RAW : RGB;
+         final File[] files = inputDir.listFiles((dir, name) -> name.endsWith("." + extension));
+         if(files == null || files.length == 0)
+         {
+            System.out.println("No " + extension + " images in " + inputDir);
+            System.exit(1);
+         }
+         Arrays.sort(files);
+
+         // Train the Universal Codebooks
+         final long start = System.nanoTime();
+         final ImageCompressor compressor = new ImageCompressor();
+         compressor.setSearchMode(ESearchMode.valueOf(System.getProperty(SEARCH, ESearchMode.EXACT.name()).toUpperCase()),
+                                  Integer.getInteger(HASH_TABLES, HashedCodebook.DEFAULT_TABLES));
+         final CodebookUtil.Codebooks codebooks = compressor.trainUniversalCodebooks(() -> loadImages(files, width, height),
+                                                                                     numVectors, mode, colorMode);
+         final double seconds = (System.nanoTime() - start) / 1e9;
+
+         // Write the Codebook File
+         final long bytes = CodebookUtil.writeCodebooks(codebooks, codebookFile);
+         System.out.println(String.format("Trained %d %s codebooks of %d codewords over %d images in %.3f s, wrote %d bytes to %s",
+                                          codebooks._codebooks.size(), mode, codebooks.getSize(), files.length,
+                                          seconds, bytes, codebookFile));
+
+         System.exit(0);
+      }
+      catch(Exception e)
+      {
+         // Print Stack Trace
+         e.printStackTrace();
+
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+   }
+
+   /**
+    * loadImages - Iterates over Images, Loading each only when Reached
+    *
+    * @param files  - The Image Files
+    * @param width  - The Width of the Images
+    * @param height - The Height of the Images
+    * @return Iterator<BufferedImage> - The Images, throwing UncheckedIOException for an Unreadable one
+    */
+   private static Iterator<BufferedImage> loadImages(final File[] files, final int width, final int height)
+   {
+      return new Iterator<BufferedImage>()
+      {
+         // Index of the Next Image
+         private int _next;
+
+         @Override
+         public boolean hasNext()
+         {
+            return _next < files.length;
+         }
+
+         @Override
+         public BufferedImage next()
+         {
+            if(!hasNext())
+            {
+               throw new NoSuchElementException();
+            }
+
+            try
+            {
+               return loadImage(files[_next++], width, height);
+            }
+            catch(IOException e)
+            {
+               // An Unreadable Image Ends Training, as its Vectors cannot be Skipped Silently
+               throw new UncheckedIOException(e);
+            }
+         }
+      };
+   }
+
+   /**
+    * loadImage - Loads one Image by its Extension
+    *
+    * @param file   - The Image File
+    * @param width  - The Width of the Image
+    * @param height - The Height of the Image
+    * @return BufferedImage - The Image
+    * @throws IOException if the File cannot be Read
+    */
+   private static BufferedImage loadImage(final File file, final int width, final int height) throws IOException
+   {
+      return file.getName().endsWith("." + RGB) ? ImageUtil.convertRGBImage(file.getPath(), width, height)
+                                                : ImageUtil.convertRawImage(file.getPath(), width, height);
+   }
+}
@@ -0,0 +1,605 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import data.imageTypes.CompressedImage;
+import data.imageTypes.ConvergencePolicies;
+import data.imageTypes.HashedCodebook;
+import data.imageTypes.IConvergencePolicy;
+import data.imageTypes.ITrainingListener;
+import data.imageTypes.QuadtreeQuantizer;
+import data.imageTypes.VectorQuantizer;
+import enums.EColorMode;
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.ETargetMetric;
+import enums.EVectorMode;
+import util.CodebookCache;
+import util.CodebookUtil;
+import util.CompressedImageUtil;
+import util.ImageMetrics;
+import util.ImageUtil;
+
+/**
+ * EncoderPipeline - Staged Batch Encoder
+ *
+ * A reader stage loads raw/rgb images, a pool of encoder
+ * stages trains and quantizes them, and a writer stage emits
+ * the compressed images. Stages are connected by bounded
+ * queues, so disk I/O overlaps encoding and at most a fixed
+ * number of images are held in memory at once.
+ */
+public class EncoderPipeline
+{
+    // Image Extensions
+    private static final String RGB = "rgb";
+
+    // Job signalling the End of the Input
+    private static final Job END = new Job(null);
+
+    // Compression Parameters
+    private final int _n;
+    private final EVectorMode _mode;
+    private final EColorMode _colorMode;
+
+    // Width/Height of the Images
+    private final int _width;
+    private final int _height;
+
+    // Number of Encoder Stages
+    private final int _encoders;
+
+    // Capacity of each Queue between Stages
+    private final int _queueCapacity;
+
+    // Receiver of Training Telemetry, null if None
+    private ITrainingListener _listener;
+
+    // Decides when Codebook Training Stops
+    private IConvergencePolicy _policy = ConvergencePolicies.defaultPolicy();
+
+    // Target the Codebook Size and Mode are Searched for, null to use n and mode
+    private ETargetMetric _targetMetric;
+    private double _target;
+
+    // Indicator the Quality of each Compressed Image is Measured
+    private boolean _measureQuality;
+
+    // Pixel Variance above which a Block is Split in the Quadtree Mode
+    private double _splitThreshold = QuadtreeQuantizer.DEFAULT_SPLIT_THRESHOLD;
+
+    // Pyramid Levels and Full Resolution Iterations, 0 Levels for None
+    private int _pyramidLevels;
+    private int _refinementIterations = ImageCompressor.DEFAULT_REFINEMENT_ITERATIONS;
+
+    // Cache of Trained Codebooks shared by the Encoders, null if None
+    private CodebookCache _cache;
+
+    // Maximum Vectors each Codebook is Trained on, 0 for every Input Vector
+    private int _sampleSize;
+    private ESamplingMode _sampling = ESamplingMode.UNIFORM;
+
+    // Codebooks every Image is Quantized with, null to Train each Image
+    private CodebookUtil.Codebooks _pretrained;
+
+    // How each Codebook is Searched for the Closest Codeword
+    private ESearchMode _searchMode = ESearchMode.EXACT;
+    private int _hashTables = HashedCodebook.DEFAULT_TABLES;
+
+    // Indicator Hashed Searches are Measured against Exact ones
+    private boolean _measureSearchPenalty;
+
+    // Indicator the Lattice Step is Fitted over several Passes
+    private boolean _latticeFitted;
+
+    /**
+     * Job - An Image travelling through the Pipeline
+     */
+    private static class Job
+    {
+        // Source Image File
+        final File _file;
+
+        // Loaded Image
+        BufferedImage _image;
+        boolean _isRGB;
+
+        // Compressed Image
+        CompressedImage _compressedImage;
+
+        // Quality of the Compressed Image, null if not Measured
+        ImageMetrics.Result _quality;
+
+        // Failure in any Stage, including Errors such as running out of Memory
+        Throwable _error;
+
+        /**
+         * Constructor
+         *
+         * @param file - The Source Image File
+         */
+        Job(final File file)
+        {
+            _file = file;
+        }
+    }
+
+    /**
+     * Result - Totals of a Pipeline Run
+     */
+    public static class Result
+    {
+        // Number of Images Compressed/Failed
+        public int _compressed;
+        public int _failed;
+
+        // Bytes Read/Written
+        public long _bytesRead;
+        public long _bytesWritten;
+
+        // Sums of the Quality of each Measured Image
+        public int _measured;
+        public double _totalMSE;
+        public double _totalPSNR;
+        public double _totalSSIM;
+
+        // Totals of Hashed against Exact Searches of each Measured Image
+        public final VectorQuantizer.SearchPenalty _searchPenalty = new VectorQuantizer.SearchPenalty();
+
+        // Elapsed Time in Nanoseconds
+        public long _elapsedNanos;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param n             - The number of Vectors for quantization
+     * @param mode          - How pixels should be grouped to form vectors
+     * @param colorMode     - How the channels of color images should be quantized
+     * @param width         - The Width of the Images
+     * @param height        - The Height of the Images
+     * @param encoders      - The Number of Encoder Stages
+     * @param queueCapacity - The Capacity of each Queue between Stages
+     */
+    public EncoderPipeline(final int n, final EVectorMode mode, final EColorMode colorMode, final int width, final int height,
+                           final int encoders, final int queueCapacity)
+    {
+        _n = n;
+        _mode = mode;
+        _colorMode = colorMode;
+        _width = width;
+        _height = height;
+        _encoders = Math.max(1, encoders);
+        _queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * setTrainingListener - Sets the Receiver of Training Telemetry,
+     *                       Events are tagged with the Image File Name
+     *
+     * @param listener - The Listener, null to stop reporting
+     */
+    public void setTrainingListener(final ITrainingListener listener)
+    {
+        _listener = listener;
+    }
+
+    /**
+     * setConvergencePolicy - Sets when Codebook Training Stops
+     *
+     * @param policy - The Policy
+     */
+    public void setConvergencePolicy(final IConvergencePolicy policy)
+    {
+        _policy = policy;
+    }
+
+    /**
+     * setSearchTarget - Searches each Image for the Cheapest Codebook
+     *                   Size and Vector Mode meeting a Target
+     *                   instead of using the Configured Ones
+     *
+     * @param metric - What the Target Measures, null to stop searching
+     * @param target - PSNR in dB, or Bits per Pixel
+     */
+    public void setSearchTarget(final ETargetMetric metric, final double target)
+    {
+        _targetMetric = metric;
+        _target = target;
+    }
+
+    /**
+     * setMeasureQuality - Measures the MSE, PSNR and SSIM of each
+     *                     Compressed Image against its Source
+     *
+     * @param measureQuality - TRUE to Measure each Image
+     */
+    public void setMeasureQuality(final boolean measureQuality)
+    {
+        _measureQuality = measureQuality;
+    }
+
+    /**
+     * setSplitThreshold - Sets the Pixel Variance above which
+     *                     a Block is Split in the Quadtree Mode
+     *
+     * @param splitThreshold - The Variance
+     */
+    public void setSplitThreshold(final double splitThreshold)
+    {
+        _splitThreshold = splitThreshold;
+    }
+
+    /**
+     * setPyramid - Trains each Codebook on Downscaled Copies of
+     *              the Image first, see ImageCompressor.setPyramid
+     *
+     * @param levels               - Number of Halved Resolutions, 0 for None
+     * @param refinementIterations - Lloyd Iterations at Full Resolution
+     */
+    public void setPyramid(final int levels, final int refinementIterations)
+    {
+        _pyramidLevels = levels;
+        _refinementIterations = refinementIterations;
+    }
+
+    /**
+     * setTrainingSample - Trains each Codebook on a Sample of its
+     *                     Input Vectors, see ImageCompressor.setTrainingSample
+     *
+     * @param sampleSize - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling   - How the Sample is Drawn
+     */
+    public void setTrainingSample(final int sampleSize, final ESamplingMode sampling)
+    {
+        _sampleSize = sampleSize;
+        _sampling = sampling;
+    }
+
+    /**
+     * setCodebookCache - Sets the Cache of Trained Codebooks shared by the Encoders
+     *
+     * @param cache - The Cache, null to always Train
+     */
+    public void setCodebookCache(final CodebookCache cache)
+    {
+        _cache = cache;
+    }
+
+    /**
+     * setPretrainedCodebooks - Quantizes every Image with Codebooks
+     *                          Trained over a Corpus instead of
+     *                          Training each Image
+     *
+     * @param codebooks - The Codebooks, null to Train each Image
+     */
+    public void setPretrainedCodebooks(final CodebookUtil.Codebooks codebooks)
+    {
+        _pretrained = codebooks;
+    }
+
+    /**
+     * setSearchMode - Sets how each Codebook is Searched for the
+     *                 Closest Codeword, see ImageCompressor.setSearchMode
+     *
+     * @param searchMode           - How the Closest Codeword is Searched for
+     * @param hashTables           - Number of Hash Tables in the HASHED Mode
+     * @param measureSearchPenalty - TRUE to Measure Hashed against Exact
+     *                               Searches over each Image's Codebooks
+     */
+    public void setSearchMode(final ESearchMode searchMode, final int hashTables, final boolean measureSearchPenalty)
+    {
+        _searchMode = searchMode;
+        _hashTables = hashTables;
+        _measureSearchPenalty = measureSearchPenalty;
+    }
+
+    /**
+     * setLatticeFitted - Sets whether the LATTICE Mode Fits its Step,
+     *                    see ImageCompressor.setLatticeFitted
+     *
+     * @param latticeFitted - TRUE for the Fitted Variant
+     */
+    public void setLatticeFitted(final boolean latticeFitted)
+    {
+        _latticeFitted = latticeFitted;
+    }
+
+    /**
+     * run - Compresses Images through the Pipeline
+     *
+     * @param files     - The Images to Compress
+     * @param outputDir - Directory for the Compressed Images
+     * @return Result - The Totals of the Run
+     * @throws InterruptedException
+     */
+    public Result run(final File[] files, final File outputDir) throws InterruptedException
+    {
+        // Initialize Queues between Stages
+        final BlockingQueue<Job> loaded = new ArrayBlockingQueue<Job>(_queueCapacity);
+        final BlockingQueue<Job> encoded = new ArrayBlockingQueue<Job>(_queueCapacity);
+
+        // Initialize Result
+        final Result result = new Result();
+        final long start = System.nanoTime();
+
+        // Channel Training Threads, Shared by every Encoder and Sized like the Encoder Stages
+        final ExecutorService executor = Executors.newFixedThreadPool(_encoders, task ->
+        {
+            final Thread thread = new Thread(task, "vq-trainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Reader Stage
+        final Thread reader = new Thread(() -> readImages(files, loaded), "vq-reader");
+
+        // Encoder Stages
+        final Thread[] encoders = new Thread[_encoders];
+        for(int i = 0; i < _encoders; ++i)
+        {
+            encoders[i] = new Thread(() -> encodeImages(loaded, encoded, executor), "vq-encoder-" + i);
+        }
+
+        // Writer Stage
+        final Thread writer = new Thread(() -> writeImages(encoded, outputDir, result), "vq-writer");
+
+        // Start Stages
+        reader.start();
+        for(final Thread encoder : encoders)
+        {
+            encoder.start();
+        }
+        writer.start();
+
+        // Wait for the Writer to Drain the Pipeline
+        try
+        {
+            writer.join();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        result._elapsedNanos = System.nanoTime() - start;
+
+        return result;
+    }
+
+    /**
+     * readImages - Reader Stage, Loads each Image
+     *
+     * @param files  - The Images to Load
+     * @param loaded - Queue of Loaded Images
+     */
+    private void readImages(final File[] files, final BlockingQueue<Job> loaded)
+    {
+        try
+        {
+            // Iterate over Images
+            for(final File file : files)
+            {
+                final Job job = new Job(file);
+
+                try
+                {
+                    // Load the Image
+                    job._isRGB = file.getName().endsWith("." + RGB);
+                    job._image = job._isRGB ? ImageUtil.convertRGBImage(file.getPath(), _width, _height)
+                                            : ImageUtil.convertRawImage(file.getPath(), _width, _height);
+                }
+                catch(Throwable e)
+                {
+                    job._error = e;
+                }
+
+                // Blocks while the Encoders are Behind
+                loaded.put(job);
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            // Signal End of Input to each Encoder, even if this Stage Failed
+            signalEnd(loaded, _encoders);
+        }
+    }
+
+    /**
+     * encodeImages - Encoder Stage, Trains and Quantizes each Image
+     *
+     * @param loaded   - Queue of Loaded Images
+     * @param encoded  - Queue of Compressed Images
+     * @param executor - Executor for Concurrent Channel Training
+     */
+    private void encodeImages(final BlockingQueue<Job> loaded, final BlockingQueue<Job> encoded, final ExecutorService executor)
+    {
+        try
+        {
+            encodeJobs(loaded, encoded, executor);
+        }
+        finally
+        {
+            // Signal this Encoder is Done, even if it Failed
+            signalEnd(encoded, 1);
+        }
+    }
+
+    /**
+     * encodeJobs - Trains and Quantizes each Image until the End of Input
+     *
+     * @param loaded   - Queue of Loaded Images
+     * @param encoded  - Queue of Compressed Images
+     * @param executor - Executor for Concurrent Channel Training
+     */
+    private void encodeJobs(final BlockingQueue<Job> loaded, final BlockingQueue<Job> encoded, final ExecutorService executor)
+    {
+        // Initialize Compressor
+        final ImageCompressor compressor = new ImageCompressor(executor);
+        compressor.setConvergencePolicy(_policy);
+        compressor.setSplitThreshold(_splitThreshold);
+        compressor.setPyramid(_pyramidLevels, _refinementIterations);
+        compressor.setTrainingSample(_sampleSize, _sampling);
+        compressor.setCodebookCache(_cache);
+        compressor.setPretrainedCodebooks(_pretrained);
+        compressor.setSearchMode(_searchMode, _hashTables);
+        compressor.setMeasureSearchPenalty(_measureSearchPenalty);
+        compressor.setLatticeFitted(_latticeFitted);
+        final CodebookSearch search = new CodebookSearch(compressor);
+        final ImageMetrics metrics = new ImageMetrics();
+
+        try
+        {
+            Job job;
+            while((job = loaded.take()) != END)
+            {
+                if(job._error == null)
+                {
+                    try
+                    {
+                        // Tag Training Telemetry with the Image
+                        final String name = job._file.getName();
+                        compressor.setTrainingListener((_listener == null) ? null
+                                                       : event -> _listener.onTrainingStep(event.withImage(name)));
+
+                        // Compress the Image
+                        final EColorMode colorMode = job._isRGB ? _colorMode : EColorMode.GRAYSCALE;
+                        job._compressedImage = (_targetMetric != null)
+                                               ? search.search(job._image, colorMode, _targetMetric, _target)._compressedImage
+                                               : compressor.compressImage(job._image, _n, _mode, colorMode);
+
+                        // Measure the Compressed Image
+                        if(_measureQuality)
+                        {
+                            job._quality = metrics.measure(job._image, job._compressedImage.getReconstructedImage());
+                        }
+                    }
+                    catch(Throwable e)
+                    {
+                        job._error = e;
+                    }
+                }
+
+                // Release the Source Image
+                job._image = null;
+
+                // Blocks while the Writer is Behind
+                encoded.put(job);
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * writeImages - Writer Stage, Writes each Compressed Image
+     *
+     * @param encoded   - Queue of Compressed Images
+     * @param outputDir - Directory for the Compressed Images
+     * @param result    - The Totals of the Run
+     */
+    private void writeImages(final BlockingQueue<Job> encoded, final File outputDir, final Result result)
+    {
+        try
+        {
+            // Wait until every Encoder is Done
+            int running = _encoders;
+            while(running > 0)
+            {
+                final Job job = encoded.take();
+                if(job == END)
+                {
+                    running--;
+                    continue;
+                }
+
+                if(job._error == null)
+                {
+                    try
+                    {
+                        // Write the Compressed Image
+                        final File output = new File(outputDir, job._file.getName() + "." + CompressedImageUtil.EXTENSION);
+                        result._bytesWritten += CompressedImageUtil.writeCompressedImage(job._compressedImage, output);
+                    }
+                    catch(Throwable e)
+                    {
+                        job._error = e;
+                    }
+                }
+
+                // Update Totals
+                if(job._error == null)
+                {
+                    result._compressed++;
+                    result._bytesRead += job._file.length();
+
+                    if(job._quality != null)
+                    {
+                        result._measured++;
+                        result._totalMSE += job._quality._mse;
+                        result._totalPSNR += job._quality._psnr;
+                        result._totalSSIM += job._quality._ssim;
+                    }
+
+                    if(job._compressedImage.getSearchPenalty() != null)
+                    {
+                        result._searchPenalty.add(job._compressedImage.getSearchPenalty());
+                    }
+                }
+                else
+                {
+                    result._failed++;
+                    System.out.println("Failed to compress " + job._file.getName() + ": " + job._error);
+                }
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * signalEnd - Puts End Markers on a Queue, Waiting through
+     *             Interrupts so the next Stage is never left Blocked
+     *
+     * @param queue - The Queue of the next Stage
+     * @param count - The Number of End Markers
+     */
+    private static void signalEnd(final BlockingQueue<Job> queue, final int count)
+    {
+        boolean interrupted = false;
+        for(int i = 0; i < count; ++i)
+        {
+            // Retry the Marker until it is Queued
+            while(true)
+            {
+                try
+                {
+                    queue.put(END);
+                    break;
+                }
+                catch(InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+
+        // Restore the Interrupt
+        if(interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,893 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import data.imageTypes.ColorImage;
+import data.imageTypes.CompressedImage;
+import data.imageTypes.ConvergencePolicies;
+import data.imageTypes.ConvergenceState;
+import data.imageTypes.GrayscaleImage;
+import data.imageTypes.HashedCodebook;
+import data.imageTypes.IConvergencePolicy;
+import data.imageTypes.ITrainable;
+import data.imageTypes.ITrainingListener;
+import data.imageTypes.QuadtreeQuantizer;
+import data.imageTypes.TrainingEvent;
+import data.imageTypes.VectorQuantizer;
+import enums.EColor;
+import enums.EColorMode;
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.ETrainingPhase;
+import enums.EVectorMode;
+import util.CodebookCache;
+import util.CodebookUtil;
+import util.CompressedImageUtil;
+import util.PlaneUtil;
+import util.jfr.LloydIterationEvent;
+import util.jfr.QuantizeEvent;
+import util.jfr.ReconstructEvent;
+import util.jfr.VectorExtractionEvent;
+
+/**
+ * ImageCompressor - Applies Vector Quantization to an Image
+ *                   without requiring a Display
+ */
+public class ImageCompressor
+{
+    // Default Lloyd Iterations at Full Resolution after Pyramid Training
+    public static final int DEFAULT_REFINEMENT_ITERATIONS = 3;
+
+    // Input Vectors needed per Codeword for a Pyramid Level to be Trained
+    private static final int MIN_VECTORS_PER_CODEWORD = 4;
+
+    // Most Rounds Moving Empty Codewords, whose Clusters the Update then Drops
+    private static final int MAX_VERIFY_ROUNDS = 64;
+
+    // Executor for Concurrent Channel Training
+    private final ExecutorService _executor;
+
+    // Receiver of Training Telemetry, null if None
+    private ITrainingListener _listener;
+
+    // Decides when Codebook Training Stops
+    private IConvergencePolicy _policy = ConvergencePolicies.defaultPolicy();
+
+    // Pixel Variance above which a Block is Split in the Quadtree Mode
+    private double _splitThreshold = QuadtreeQuantizer.DEFAULT_SPLIT_THRESHOLD;
+
+    // Number of Halved Resolutions Trained before the Full Image, 0 for None
+    private int _pyramidLevels;
+
+    // Lloyd Iterations at Full Resolution after Pyramid Training
+    private int _refinementIterations = DEFAULT_REFINEMENT_ITERATIONS;
+
+    // Cache of Trained Codebooks, null if None
+    private CodebookCache _cache;
+
+    // Maximum Vectors each Codebook is Trained on, 0 for every Input Vector
+    private int _sampleSize;
+
+    // How the Training Sample is Drawn
+    private ESamplingMode _sampling = ESamplingMode.UNIFORM;
+
+    // Codebooks every Image is Quantized with instead of Training, null if None
+    private CodebookUtil.Codebooks _pretrained;
+
+    // How each Codebook is Searched for the Closest Codeword
+    private ESearchMode _searchMode = ESearchMode.EXACT;
+    private int _hashTables = HashedCodebook.DEFAULT_TABLES;
+
+    // Indicator Hashed Searches are Measured against Exact ones
+    private boolean _measureSearchPenalty;
+
+    // Indicator the Lattice Step is Fitted over several Passes
+    private boolean _latticeFitted;
+
+    /**
+     * Constructor
+     */
+    public ImageCompressor()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor - Executor for Concurrent Channel Training
+     */
+    public ImageCompressor(final ExecutorService executor)
+    {
+        // Initialize Executor
+        _executor = executor;
+    }
+
+    /**
+     * setTrainingListener - Sets the Receiver of Training Telemetry.
+     *                       Set before compressing, not during.
+     *
+     * @param listener - The Listener, null to stop reporting
+     */
+    public void setTrainingListener(final ITrainingListener listener)
+    {
+        _listener = listener;
+    }
+
+    /**
+     * setConvergencePolicy - Sets when Codebook Training Stops,
+     *                        for the Grayscale Codebook and every Color Channel alike.
+     *                        Set before compressing, not during.
+     *
+     * @param policy - The Policy
+     */
+    public void setConvergencePolicy(final IConvergencePolicy policy)
+    {
+        _policy = policy;
+    }
+
+    /**
+     * setSplitThreshold - Sets the Pixel Variance above which a Block
+     *                     is Split in the Quadtree Mode. Higher values
+     *                     code more of the Image with large Blocks.
+     *
+     * @param splitThreshold - The Variance
+     */
+    public void setSplitThreshold(final double splitThreshold)
+    {
+        _splitThreshold = splitThreshold;
+    }
+
+    /**
+     * setPyramid - Trains Codebooks on Downscaled Copies of the Image first,
+     *              Coarsest first, each Level Starting from the Codebooks
+     *              of the Level below, and only Refines them at Full Resolution.
+     *              Set before compressing, not during.
+     *
+     * @param levels               - Number of Halved Resolutions, 0 to Train at Full Resolution only
+     * @param refinementIterations - Lloyd Iterations at Full Resolution
+     */
+    public void setPyramid(final int levels, final int refinementIterations)
+    {
+        _pyramidLevels = levels;
+        _refinementIterations = refinementIterations;
+    }
+
+    /**
+     * setCodebookCache - Sets the Cache of Trained Codebooks. Images
+     *                    found in the Cache are Quantized without Training,
+     *                    others are Trained and Added to the Cache.
+     *                    Set before compressing, not during.
+     *
+     * @param cache - The Cache, null to always Train
+     */
+    public void setCodebookCache(final CodebookCache cache)
+    {
+        _cache = cache;
+    }
+
+    /**
+     * setTrainingSample - Trains each Codebook on a Sample of at most a Number
+     *                     of its Input Vectors, so Training Time and Memory are
+     *                     Bounded by the Sample rather than the Image. Every
+     *                     Input Vector is still Quantized.
+     *                     Set before compressing, not during.
+     *
+     * @param sampleSize - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling   - How the Sample is Drawn
+     */
+    public void setTrainingSample(final int sampleSize, final ESamplingMode sampling)
+    {
+        _sampleSize = sampleSize;
+        _sampling = sampling;
+    }
+
+    /**
+     * setPretrainedCodebooks - Sets Codebooks, such as a Universal Codebook
+     *                          trained over a Corpus, that every Image is
+     *                          Quantized with instead of Training its own.
+     *                          Set before compressing, not during.
+     *
+     * @param codebooks - The Codebooks, null to Train each Image
+     */
+    public void setPretrainedCodebooks(final CodebookUtil.Codebooks codebooks)
+    {
+        _pretrained = codebooks;
+    }
+
+    /**
+     * setSearchMode - Sets how each Codebook is Searched for the Closest
+     *                 Codeword, while Training and Quantizing. HASHED
+     *                 Searches are Approximate, for very large Codebooks.
+     *                 Set before compressing, not during.
+     *
+     * @param searchMode - How the Closest Codeword is Searched for
+     * @param hashTables - Number of Hash Tables in the HASHED Mode
+     */
+    public void setSearchMode(final ESearchMode searchMode, final int hashTables)
+    {
+        _searchMode = searchMode;
+        _hashTables = hashTables;
+    }
+
+    /**
+     * setLatticeFitted - Sets whether the LATTICE Mode Fits its Step over at
+     *                    most LatticeQuantizer.MAX_FIT_PASSES Passes, for a
+     *                    lower Distortion, instead of Snapping each Block once
+     *
+     * @param latticeFitted - TRUE for the Fitted Variant
+     */
+    public void setLatticeFitted(final boolean latticeFitted)
+    {
+        _latticeFitted = latticeFitted;
+    }
+
+    /**
+     * setMeasureSearchPenalty - Quantizes each Image again with both Exact and
+     *                           Hashed Searches over its Final Codebooks, and
+     *                           Sets the Distortion and Time of each on the
+     *                           Compressed Image. Set before compressing, not during.
+     *
+     * @param measureSearchPenalty - TRUE to Measure each Image
+     */
+    public void setMeasureSearchPenalty(final boolean measureSearchPenalty)
+    {
+        _measureSearchPenalty = measureSearchPenalty;
+    }
+
+    /**
+     * compressImage - Compresses a Grayscale or Color Image
+     *
+     * @param image - The image to apply compression
+     * @param n     - The number of Vectors for quantization
+     * @param mode  - How pixels should be grouped to form vectors
+     * @param isRGB - TRUE is a Color Image, FALSE is a Grayscale Image
+     * @return CompressedImage - The Compressed Image
+     */
+    public CompressedImage compressImage(final BufferedImage image, final int n, final EVectorMode mode, final boolean isRGB)
+    {
+        return compressImage(image, n, mode, isRGB ? EColorMode.RGB : EColorMode.GRAYSCALE);
+    }
+
+    /**
+     * compressImage - Compresses a Grayscale or Color Image
+     *
+     * @param image     - The image to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @return CompressedImage - The Compressed Image
+     */
+    public CompressedImage compressImage(final BufferedImage image, final int n, final EVectorMode mode, final EColorMode colorMode)
+    {
+        // Ensure the Codebooks fit the Compressed File
+        CompressedImageUtil.checkCodebookSize((_pretrained != null) ? _pretrained.getSize() : n);
+
+        // Initialize Compressed Image
+        final CompressedImage compressedImage;
+
+        // Check if Quantized with Pretrained Codebooks
+        if(_pretrained != null)
+        {
+            // Ensure the Codebooks Quantize the Image's Modes
+            if(!_pretrained._mode.equals(mode) || !_pretrained._colorMode.equals(colorMode))
+            {
+                throw new IllegalArgumentException("Pretrained codebooks are for " + _pretrained._mode + "/"
+                                                   + _pretrained._colorMode + ", not " + mode + "/" + colorMode);
+            }
+
+            // Quantize against the Pretrained Codebooks without Training
+            compressedImage = compressPlanarImage(image, _pretrained.getSize(), mode, colorMode, _pretrained._codebooks, null);
+        }
+        // Train every Color Mode, Grayscale included, through the Planar Quantizers
+        else
+        {
+            compressedImage = compressPlanarImage(image, n, mode, colorMode, null);
+        }
+
+        return compressedImage;
+    }
+
+    /**
+     * compressFrame - Compresses a Frame of a Sequence, Starting Training from
+     *                 the Codebooks of the Previous Frame, which then only
+     *                 need the Refinement Iterations set by setPyramid
+     *
+     * @param image     - The Frame to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @param previous  - The Previous Compressed Frame, null to Train from Scratch
+     * @return CompressedImage - The Compressed Frame
+     */
+    public CompressedImage compressFrame(final BufferedImage image, final int n, final EVectorMode mode,
+                                         final EColorMode colorMode, final CompressedImage previous)
+    {
+        // Train from Scratch without a Compatible Previous Frame
+        if(previous == null || _pretrained != null || !mode.equals(previous.getMode())
+           || !colorMode.equals(previous.getColorMode()))
+        {
+            return compressImage(image, n, mode, colorMode);
+        }
+
+        // Refine the Previous Frame's Codebooks
+        return compressPlanarImage(image, n, mode, colorMode, getCodebooks(previous),
+                                   ConvergencePolicies.anyOf(_policy, ConvergencePolicies.maxIterations(_refinementIterations)));
+    }
+
+    /**
+     * compressGrayscaleImage - Compresses a Grayscale Image with the Legacy
+     *                          Grayscale Engine, compressImage uses the Planar Quantizers
+     *
+     * @param image - The image to apply compression
+     * @param n     - The number of Vectors for quantization
+     * @param mode  - How pixels should be grouped to form vectors
+     * @return CompressedImage - The Compressed Image
+     */
+    public CompressedImage compressGrayscaleImage(final BufferedImage image, final int n, final EVectorMode mode)
+    {
+        // Create new Grayscale Image
+        GrayscaleImage grayImage = new GrayscaleImage(image.getWidth(), image.getHeight(), n, mode);
+
+        // Generate Input Vectors
+        final VectorExtractionEvent extraction = new VectorExtractionEvent();
+        extraction.begin();
+        grayImage.generateInputVectors(image);
+        extraction.complete(image.getWidth(), image.getHeight(), mode, EColorMode.GRAYSCALE, n);
+
+        // Generate Initial Codebook Values
+        grayImage.generateCodebook();
+
+        // Train the Codebook
+        final int iterations = trainCodebook(grayImage, 0, image.getWidth(), image.getHeight(), n, mode, EColorMode.GRAYSCALE, _policy);
+
+        // Quantize Image
+        final QuantizeEvent quantize = new QuantizeEvent();
+        quantize.begin();
+        final ArrayList<Integer> indexes = grayImage.quantizeImage();
+        quantize.setIterations(iterations);
+        quantize.complete(image.getWidth(), image.getHeight(), mode, EColorMode.GRAYSCALE, n);
+
+        // Initialize Compressed Image
+        final CompressedImage compressedImage = new CompressedImage(image.getWidth(), image.getHeight(), mode, EColorMode.GRAYSCALE);
+        compressedImage.addChannel(grayImage.getCodewords(), indexes);
+
+        // Reconstruct Image
+        final ReconstructEvent reconstruct = new ReconstructEvent();
+        reconstruct.begin();
+        compressedImage.setReconstructedImage(grayImage.reconstructImage(indexes));
+        reconstruct.complete(image.getWidth(), image.getHeight(), mode, EColorMode.GRAYSCALE, n);
+
+        return compressedImage;
+    }
+
+    /**
+     * compressColorImage - Compresses the Color Image,
+     *                      training each Codebook concurrently
+     *
+     * @param image     - The image to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @return CompressedImage - The Compressed Image
+     */
+    public CompressedImage compressColorImage(final BufferedImage image, final int n, final EVectorMode mode, final EColorMode colorMode)
+    {
+        return compressPlanarImage(image, n, mode, colorMode, null);
+    }
+
+    /**
+     * compressPlanarImage - Compresses an Image of any Color Mode through the
+     *                       Planar Quantizers, training each Codebook concurrently
+     *
+     * @param image     - The image to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @param codebooks - Initial Codewords of each Channel, null to Generate them
+     * @return CompressedImage - The Compressed Image
+     * @throws UncheckedIOException if the Trained Codebooks cannot be Cached
+     */
+    public CompressedImage compressPlanarImage(final BufferedImage image, final int n, final EVectorMode mode,
+                                               final EColorMode colorMode, final ArrayList<int[][]> codebooks)
+    {
+        // Only Codebooks Trained from Scratch are Cached
+        final CodebookCache cache = (codebooks == null) ? _cache : null;
+        if(cache == null)
+        {
+            return trainPlanarImage(image, n, mode, colorMode, codebooks);
+        }
+
+        // Check if the Codebooks are Cached
+        final String key = CodebookCache.getKey(image, n, mode, colorMode, _splitThreshold, _pyramidLevels,
+                                                _refinementIterations, _sampleSize, _sampling, _searchMode,
+                                                _hashTables, _latticeFitted);
+        final ArrayList<int[][]> cached = cache.get(key);
+        if(cached != null)
+        {
+            // Quantize against the Cached Codebooks without Training
+            return compressPlanarImage(image, n, mode, colorMode, cached, null);
+        }
+
+        // Train and Cache the Codebooks
+        final CompressedImage compressedImage = trainPlanarImage(image, n, mode, colorMode, null);
+        try
+        {
+            cache.put(key, getCodebooks(compressedImage));
+        }
+        catch(IOException e)
+        {
+            // Fail the Image, so the Caller Reports the Unwritable Cache
+            throw new UncheckedIOException("Unable to cache codebooks: " + e.getMessage(), e);
+        }
+
+        return compressedImage;
+    }
+
+    /**
+     * trainUniversalCodebooks - Trains one Codebook per Channel over the
+     *                           Input Vectors of every Image of a Corpus
+     *
+     * @param images    - The Corpus, each Image is Loaded as it is Iterated
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @return CodebookUtil.Codebooks - The Universal Codebooks
+     */
+    public CodebookUtil.Codebooks trainUniversalCodebooks(final Iterable<BufferedImage> images, final int n,
+                                                          final EVectorMode mode, final EColorMode colorMode)
+    {
+        // Quadtree Levels depend on each Image
+        if(mode.getLevelCount() > 1 || EVectorMode.LATTICE.equals(mode))
+        {
+            throw new IllegalArgumentException("Universal codebooks are not supported in the " + mode + " mode");
+        }
+
+        // Initialize the Shared Training Set of each Channel
+        int[][] vectors = null;
+        int[] sizes = null;
+        int width = 0;
+        int height = 0;
+
+        // Iterate over Images, only their Input Vectors are Kept
+        for(final BufferedImage image : images)
+        {
+            // Generate Input Vectors
+            final ColorImage colorImage = new ColorImage(image.getWidth(), image.getHeight(), n, mode, colorMode);
+            final VectorExtractionEvent extraction = new VectorExtractionEvent();
+            extraction.begin();
+            colorImage.generateInputVectors(image);
+            extraction.complete(image.getWidth(), image.getHeight(), mode, colorMode, n);
+            width = image.getWidth();
+            height = image.getHeight();
+
+            // Append to the Training Set of each Channel
+            final ArrayList<int[]> channelVectors = colorImage.getInputVectors();
+            if(vectors == null)
+            {
+                vectors = new int[channelVectors.size()][0];
+                sizes = new int[channelVectors.size()];
+            }
+            for(int c = 0; c < vectors.length; ++c)
+            {
+                final int[] add = channelVectors.get(c);
+                if(sizes[c] + add.length > vectors[c].length)
+                {
+                    vectors[c] = Arrays.copyOf(vectors[c], Math.max(2 * vectors[c].length, sizes[c] + add.length));
+                }
+                System.arraycopy(add, 0, vectors[c], sizes[c], add.length);
+                sizes[c] += add.length;
+            }
+        }
+        if(vectors == null)
+        {
+            throw new IllegalArgumentException("No images to train universal codebooks on");
+        }
+        for(int c = 0; c < vectors.length; ++c)
+        {
+            vectors[c] = Arrays.copyOf(vectors[c], sizes[c]);
+        }
+
+        // Initialize Universal Codebooks
+        final CodebookUtil.Codebooks codebooks = new CodebookUtil.Codebooks();
+        codebooks._mode = mode;
+        codebooks._colorMode = colorMode;
+        codebooks._codebooks = trainCodebooks(vectors, width, height, n, mode, colorMode);
+
+        return codebooks;
+    }
+
+    /**
+     * trainCodebooks - Trains one Codebook per Channel over Block
+     *                  Vectors Gathered outside of any one Image
+     *
+     * @param vectors   - The Block Vectors of each Channel, one after another,
+     *                    Released as each Quantizer takes them
+     * @param width     - The Width Reported to Training Telemetry
+     * @param height    - The Height Reported to Training Telemetry
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels are grouped to form vectors
+     * @param colorMode - How the channels are quantized
+     * @return ArrayList<int[][]> - The Codewords of each Channel
+     */
+    public ArrayList<int[][]> trainCodebooks(final int[][] vectors, final int width, final int height, final int n,
+                                             final EVectorMode mode, final EColorMode colorMode)
+    {
+        // Ensure the Mode has Codebooks to Train
+        if(EVectorMode.LATTICE.equals(mode))
+        {
+            throw new IllegalArgumentException("The LATTICE mode has no codebooks to train");
+        }
+
+        // Initialize a Quantizer per Channel over its Training Set
+        final int planes = EColorMode.JOINT_RGB.equals(colorMode) ? EColor.values().length : 1;
+        final ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final VectorQuantizer[] quantizers = new VectorQuantizer[vectors.length];
+        for(int c = 0; c < vectors.length; ++c)
+        {
+            quantizers[c] = new VectorQuantizer(width, height, n, mode, planes);
+            quantizers[c].setTrainingSample(_sampleSize, _sampling);
+            quantizers[c].setSearchMode(_searchMode, _hashTables);
+            quantizers[c].generateInputVectors(vectors[c]);
+            quantizers[c].generateCodebook();
+            vectors[c] = null;
+
+            final ITrainable codebook = quantizers[c];
+            final int channel = c;
+            tasks.add(() -> { trainCodebook(codebook, channel, width, height, n, mode, colorMode, _policy); return null; });
+        }
+
+        // Train the Codebooks Concurrently
+        invokeAll(tasks);
+
+        // Get the Codewords of each Channel
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(quantizers.length);
+        for(final VectorQuantizer quantizer : quantizers)
+        {
+            codebooks.add(quantizer.getCodewords());
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * trainPlanarImage - Trains the Codebooks of an Image, through a
+     *                    Pyramid if Enabled, and Quantizes the Image
+     *
+     * @param image     - The image to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @param codebooks - Initial Codewords of each Channel, null to Generate them
+     * @return CompressedImage - The Compressed Image
+     */
+    private CompressedImage trainPlanarImage(final BufferedImage image, final int n, final EVectorMode mode,
+                                             final EColorMode colorMode, final ArrayList<int[][]> codebooks)
+    {
+        // Check if Codebooks are Trained through a Pyramid first, Lattice Codebooks are not Trained
+        if(codebooks == null && _pyramidLevels > 0 && !EVectorMode.LATTICE.equals(mode))
+        {
+            final ArrayList<int[][]> pyramidCodebooks = trainPyramid(image, n, mode, colorMode);
+
+            // Only Refine the Pyramid Codebooks at Full Resolution
+            if(pyramidCodebooks != null)
+            {
+                return compressPlanarImage(image, n, mode, colorMode, pyramidCodebooks,
+                                           ConvergencePolicies.anyOf(_policy, ConvergencePolicies.maxIterations(_refinementIterations)));
+            }
+        }
+
+        return compressPlanarImage(image, n, mode, colorMode, codebooks, _policy);
+    }
+
+    /**
+     * trainPyramid - Trains Codebooks on Downscaled Copies of an Image,
+     *                Coarsest first, each Starting from the Codebooks
+     *                of the Level below
+     *
+     * @param image     - The Full Resolution Image
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @return ArrayList<int[][]> - The Codewords of each Channel, null if
+     *                              every Level is too Small to Train
+     */
+    private ArrayList<int[][]> trainPyramid(final BufferedImage image, final int n, final EVectorMode mode,
+                                            final EColorMode colorMode)
+    {
+        // Initialize Codebooks, Generated at the Coarsest Level
+        ArrayList<int[][]> codebooks = null;
+        final int channels = EColorMode.GRAYSCALE.equals(colorMode) ? 1 : 3;
+
+        // Iterate over Levels, Coarsest first
+        for(int level = _pyramidLevels; level > 0; --level)
+        {
+            // Skip Levels with too few Input Vectors to Populate the Codebook
+            final int factor = 1 << level;
+            final int width = (image.getWidth() + factor - 1) / factor;
+            final int height = (image.getHeight() + factor - 1) / factor;
+            if(PlaneUtil.getBlockCount(width, height, mode) < MIN_VECTORS_PER_CODEWORD * n)
+            {
+                continue;
+            }
+
+            // Train the Level, only its Codebooks Seed the next Level so it is not Quantized
+            final BufferedImage scaledImage = PlaneUtil.downscaleImage(image, channels, factor);
+            final ColorImage trained = trainColorImage(scaledImage, n, mode, colorMode, codebooks, _policy,
+                                                       new AtomicInteger());
+
+            // Keep the Codebook of every Channel and Level
+            codebooks = trained.getCodebooks();
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * getCodebooks - Gets the Codebook of every Channel and Level
+     *
+     * @param compressedImage - The Compressed Image
+     * @return ArrayList<int[][]> - The Codebooks, Level by Level within each Channel
+     */
+    private static ArrayList<int[][]> getCodebooks(final CompressedImage compressedImage)
+    {
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>();
+
+        // Iterate over Channels and Levels
+        for(int c = 0; c < compressedImage.getChannelCount(); ++c)
+        {
+            for(int l = 0; l < compressedImage.getLevelCount(); ++l)
+            {
+                codebooks.add(compressedImage.getCodebook(c, l));
+            }
+        }
+
+        return codebooks;
+    }
+
+    /**
+     * compressPlanarImage - Compresses an Image through the Planar Quantizers
+     *
+     * @param image     - The image to apply compression
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels should be quantized
+     * @param codebooks - Initial Codewords of each Channel, null to Generate them
+     * @param policy    - Decides when Training of each Codebook Stops,
+     *                    null to Quantize with the Given Codewords untrained
+     * @return CompressedImage - The Compressed Image
+     */
+    private CompressedImage compressPlanarImage(final BufferedImage image, final int n, final EVectorMode mode,
+                                                final EColorMode colorMode, final ArrayList<int[][]> codebooks,
+                                                final IConvergencePolicy policy)
+    {
+        // Train the Codebooks
+        final AtomicInteger iterations = new AtomicInteger();
+        final ColorImage colorImage = trainColorImage(image, n, mode, colorMode, codebooks, policy, iterations);
+
+        // Quantize Image
+        final QuantizeEvent quantize = new QuantizeEvent();
+        quantize.begin();
+        final CompressedImage compressedImage = colorImage.quantizeImage();
+        quantize.setIterations(iterations.get());
+        quantize.complete(image.getWidth(), image.getHeight(), mode, colorMode, n);
+
+        // Measure Hashed against Exact Searches
+        if(_measureSearchPenalty)
+        {
+            compressedImage.setSearchPenalty(colorImage.measureSearchPenalty());
+        }
+
+        // Reconstruct Image
+        compressedImage.setReconstructedImage(compressedImage.decodeImage());
+
+        return compressedImage;
+    }
+
+    /**
+     * trainColorImage - Trains the Codebooks of an Image through the
+     *                   Planar Quantizers without Quantizing it
+     *
+     * @param image      - The image to train on
+     * @param n          - The number of Vectors for quantization
+     * @param mode       - How pixels should be grouped to form vectors
+     * @param colorMode  - How the channels should be quantized
+     * @param codebooks  - Initial Codewords of each Channel, null to Generate them
+     * @param policy     - Decides when Training of each Codebook Stops,
+     *                     null to Keep the Given Codewords untrained
+     * @param iterations - Accumulates the Number of Lloyd Iterations run
+     * @return ColorImage - The Trained Image, Ready to Quantize
+     */
+    private ColorImage trainColorImage(final BufferedImage image, final int n, final EVectorMode mode,
+                                       final EColorMode colorMode, final ArrayList<int[][]> codebooks,
+                                       final IConvergencePolicy policy, final AtomicInteger iterations)
+    {
+        // Create new Color Image
+        ColorImage colorImage = new ColorImage(image.getWidth(), image.getHeight(), n, mode, colorMode);
+        colorImage.setSplitThreshold(_splitThreshold);
+        colorImage.setTrainingSample(_sampleSize, _sampling);
+        colorImage.setSearchMode(_searchMode, _hashTables);
+        colorImage.setLatticeFitted(_latticeFitted);
+
+        // Generate Input Vectors
+        final VectorExtractionEvent extraction = new VectorExtractionEvent();
+        extraction.begin();
+        colorImage.generateInputVectors(image);
+        extraction.complete(image.getWidth(), image.getHeight(), mode, colorMode, n);
+
+        // Generate Codebook, or Start from the Given Codewords
+        if(codebooks == null)
+        {
+            colorImage.generateCodebooks();
+        }
+        else
+        {
+            colorImage.setCodebooks(codebooks);
+        }
+
+        // Initialize a Training Task per Codebook
+        final ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final ArrayList<ITrainable> trainables = colorImage.getTrainables();
+        for(int c = 0; c < trainables.size() && policy != null; ++c)
+        {
+            final ITrainable codebook = trainables.get(c);
+            final int channel = c;
+            tasks.add(() -> { iterations.addAndGet(trainCodebook(codebook, channel, image.getWidth(), image.getHeight(), n, mode, colorMode, policy)); return null; });
+        }
+
+        // Train the Codebooks Concurrently
+        invokeAll(tasks);
+
+        return colorImage;
+    }
+
+    /**
+     * trainCodebook - Trains a Codebook until every Cluster
+     *                 is populated and the Convergence Policy Stops
+     *
+     * @param codebook  - The Codebook to Train
+     * @param channel   - The Index of the Codebook within the Image
+     * @param width     - The Width of the Image the Codebook belongs to
+     * @param height    - The Height of the Image the Codebook belongs to
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels are grouped to form vectors
+     * @param colorMode - How the channels are quantized
+     * @param policy    - Decides when Training Stops
+     * @return int - The Number of Lloyd Iterations run
+     */
+    private int trainCodebook(final ITrainable codebook, final int channel, final int width, final int height,
+                              final int n, final EVectorMode mode, final EColorMode colorMode,
+                              final IConvergencePolicy policy)
+    {
+        // Get Listener once, Distortion is only Measured if Needed
+        final ITrainingListener listener = _listener;
+        final boolean measureDistortion = (listener != null) || policy.usesDistortion();
+        final long trainingStart = System.nanoTime();
+
+        // Codebook Generated Indicator
+        boolean codebookGenerated = false;
+        int iteration = 0;
+
+        // Generate Codebook until All Clusters
+        // have at least one input vector in Cluster
+        while(!codebookGenerated)
+        {
+            final LloydIterationEvent event = new LloydIterationEvent();
+            event.begin();
+
+            final long start = System.nanoTime();
+            codebookGenerated = codebook.verifyCodebook();
+            final long verified = System.nanoTime();
+
+            // Record Step
+            if(event.isEnabled())
+            {
+                event.setStep(channel, ETrainingPhase.VERIFY, iteration, 0.0);
+            }
+            event.complete(width, height, mode, colorMode, n);
+
+            // Report Step
+            if(listener != null)
+            {
+                listener.onTrainingStep(new TrainingEvent(null, channel, ETrainingPhase.VERIFY, iteration,
+                                                          codebook.getDistortion(), codebook.getEmptyClusterCount(),
+                                                          codebook.getReassignmentCount(), 0.0, verified - start, 0, 0));
+            }
+
+            // Check if the Rounds or Budget are Spent, Empty Clusters are then Dropped by the Update
+            final ConvergenceState state = new ConvergenceState(ETrainingPhase.VERIFY, iteration, verified - trainingStart,
+                                                                0.0, Double.NaN, Double.NaN,
+                                                                codebook.getReassignmentCount());
+            if(!codebookGenerated && (iteration + 1 >= MAX_VERIFY_ROUNDS || policy.shouldStop(state)))
+            {
+                break;
+            }
+            iteration++;
+        }
+
+        // Initialize Convergence Indicator
+        boolean converged = false;
+        double distortion = measureDistortion ? codebook.getDistortion() : Double.NaN;
+        iteration = 0;
+
+        // Converge Codebook Vectors
+        while(!converged)
+        {
+            final LloydIterationEvent event = new LloydIterationEvent();
+            event.begin();
+
+            // Converge Codewords in Codebook
+            final long start = System.nanoTime();
+            final double error = codebook.updateCodebook();
+            final long updated = System.nanoTime();
+
+            // Update Cluster Map with Latest Codebook
+            codebook.generateClusterMap();
+            final long mapped = System.nanoTime();
+
+            // Measure Distortion
+            final double previousDistortion = distortion;
+            distortion = measureDistortion ? codebook.getDistortion() : Double.NaN;
+
+            // Record Step
+            if(event.isEnabled())
+            {
+                event.setStep(channel, ETrainingPhase.UPDATE, iteration, error);
+            }
+            event.complete(width, height, mode, colorMode, n);
+
+            // Report Step
+            if(listener != null)
+            {
+                listener.onTrainingStep(new TrainingEvent(null, channel, ETrainingPhase.UPDATE, iteration,
+                                                          distortion, codebook.getEmptyClusterCount(),
+                                                          codebook.getReassignmentCount(), error,
+                                                          0, updated - start, mapped - updated));
+            }
+
+            // Check if Training should Stop
+            converged = policy.shouldStop(new ConvergenceState(ETrainingPhase.UPDATE, iteration, mapped - trainingStart,
+                                                               error, distortion, previousDistortion,
+                                                               codebook.getReassignmentCount()));
+            iteration++;
+        }
+
+        return iteration;
+    }
+
+    /**
+     * invokeAll - Runs Tasks on the Executor and Waits for them
+     *
+     * @param tasks - The Tasks to Run
+     */
+    private void invokeAll(final ArrayList<Callable<Void>> tasks)
+    {
+        try
+        {
+            // Wait for every Task, surfacing the first Failure
+            for(final Future<Void> future : _executor.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while training", e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Failed to train codebook", e.getCause());
+        }
+    }
+}
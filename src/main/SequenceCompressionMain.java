@@ -0,0 +1,153 @@
+package main;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.DirectoryFrameSource;
+import util.IFrameSource;
+import util.ImageMetrics;
+import util.SequenceWriter;
+import util.StreamFrameSource;
+
+/**
+ * SequenceCompressionMain
+ *
+ * Compresses the frames of one sequence into a single file. The
+ * input is either a directory, whose rgb images (or, without any,
+ * raw images) are the frames in name order, or a stream of
+ * concatenated frames: a file, a named pipe, or - for standard
+ * input. Streamed frames are rgb unless the input ends in .raw or
+ * -Dvq.frameFormat=raw is given. Grayscale frames are always
+ * quantized as grayscale.
+ *
+ * Each frame's codebooks start from the previous frame's and are
+ * refined for -Dvq.refinementIterations=N (default 3) iterations.
+ * A frame is trained from scratch every -Dvq.keyFrameInterval=N
+ * frames (default 0, only the first).
+ *
+ * -Dvq.codebookDelta=true writes each codebook as the codewords
+ * that changed since the previous frame
+ *
+ * -Dvq.indexDifferencing=true writes each block whose index is
+ * unchanged since the previous frame as part of a skip run
+ *
+ * The mean MSE, PSNR and SSIM of the frames are printed with
+ * -Dvq.metrics=true
+ */
+public class SequenceCompressionMain
+{
+   // Raw Frame Extension
+   private static final String RAW = "raw";
+
+   // Default Width/Height of the Frames
+   private static final int WIDTH = 352;
+   private static final int HEIGHT = 288;
+
+   // System Properties Configuring the Sequence
+   private static final String REFINEMENT_ITERATIONS = "vq.refinementIterations";
+   private static final String KEY_FRAME_INTERVAL = "vq.keyFrameInterval";
+   private static final String CODEBOOK_DELTA = "vq.codebookDelta";
+   private static final String INDEX_DIFFERENCING = "vq.indexDifferencing";
+   private static final String METRICS = "vq.metrics";
+   private static final String FRAME_FORMAT = "vq.frameFormat";
+
+   // Frames Read ahead of the Encoder
+   private static final int FRAME_QUEUE = 2;
+
+   // Usage Statement
+   private static final String USAGE = "Usage: ./SequenceCompressionMain inputDir|inputFile|- outputFile numVectors mode [width height [colorMode]]";
+
+   /**
+    * main
+    *
+    * @param args
+    */
+   public static void main(String[] args)
+   {
+      // Never load a Display
+      System.setProperty("java.awt.headless", "true");
+
+      // Ensure the Program has 4, 6 or 7 arguments passed
+      if(args.length != 4 && args.length != 6 && args.length != 7)
+      {
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+
+      try
+      {
+         // Read parameters from command line
+         final String input = args[0];
+         final File outputFile = new File(args[1]);
+         final int numVectors = Integer.parseInt(args[2]);
+         final EVectorMode mode = EVectorMode.getMode(Integer.parseInt(args[3]));
+         final int width = (args.length >= 6) ? Integer.parseInt(args[4]) : WIDTH;
+         final int height = (args.length >= 6) ? Integer.parseInt(args[5]) : HEIGHT;
+         final EColorMode rgbColorMode = (args.length == 7) ? EColorMode.getMode(Integer.parseInt(args[6])) : EColorMode.RGB;
+
+         // Open the Frame Source
+         final boolean isRawStream = input.endsWith("." + RAW) || RAW.equals(System.getProperty(FRAME_FORMAT));
+         try(IFrameSource source = new File(input).isDirectory() ? new DirectoryFrameSource(new File(input), width, height)
+                                                                 : StreamFrameSource.open(input, width, height, !isRawStream))
+         {
+            final EColorMode colorMode = source.isRGB() ? rgbColorMode : EColorMode.GRAYSCALE;
+
+            // Initialize Compressor, Refining each Warm Started Frame
+            final ImageCompressor compressor = new ImageCompressor();
+            compressor.setPyramid(0, Integer.getInteger(REFINEMENT_ITERATIONS, ImageCompressor.DEFAULT_REFINEMENT_ITERATIONS));
+
+            // Initialize Sequence
+            final long start = System.nanoTime();
+            final SequenceEncoder encoder;
+            final long blocks;
+            final long skippedBlocks;
+            try(SequenceWriter writer = new SequenceWriter(new FileOutputStream(outputFile), width, height, mode, colorMode))
+            {
+               writer.setCodebookDelta(Boolean.getBoolean(CODEBOOK_DELTA));
+               writer.setIndexDifferencing(Boolean.getBoolean(INDEX_DIFFERENCING));
+               encoder = new SequenceEncoder(compressor, numVectors, mode, colorMode, writer);
+               encoder.setKeyFrameInterval(Integer.getInteger(KEY_FRAME_INTERVAL, 0));
+               encoder.setMeasureQuality(Boolean.getBoolean(METRICS));
+
+               // Encode Frames as the Source Supplies them
+               encoder.encode(source, FRAME_QUEUE);
+
+               blocks = writer.getBlockCount();
+               skippedBlocks = writer.getSkippedBlockCount();
+            }
+
+            // Print Throughput
+            final int frames = encoder.getFrameCount();
+            final double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+            System.out.println(String.format("Compressed %d frames into %d bytes in %.3f s: %.2f frames/s",
+                                             frames, outputFile.length(), seconds, frames / seconds));
+            if(skippedBlocks > 0)
+            {
+               System.out.println(String.format("Skipped %d of %d blocks (%.1f%%)", skippedBlocks, blocks,
+                                                100.0 * skippedBlocks / blocks));
+            }
+
+            // Print Mean Quality
+            final ImageMetrics.Result quality = encoder.getMeanQuality();
+            if(quality != null)
+            {
+               System.out.println(String.format("Mean quality of %d frames: %s", frames, quality));
+            }
+         }
+
+         System.exit(0);
+      }
+      catch(Exception e)
+      {
+         // Print Stack Trace
+         e.printStackTrace();
+
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+   }
+}
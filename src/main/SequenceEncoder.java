@@ -0,0 +1,261 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import data.imageTypes.CompressedImage;
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.IFrameSource;
+import util.ImageMetrics;
+import util.SequenceWriter;
+
+/**
+ * SequenceEncoder - Compresses the Frames of a Sequence in Order
+ *
+ * Adjacent frames barely change, so each frame's codebooks start
+ * from the previous frame's and are only refined, instead of being
+ * trained from the diagonal seed. Key frames, trained from scratch,
+ * bound how far the codebooks can drift.
+ *
+ * encode pulls frames from a frame source on a reader thread
+ * into a bounded queue, so the source is only read as fast as
+ * frames are encoded.
+ */
+public class SequenceEncoder
+{
+    // Frame signalling the End of the Input
+    private static final Frame END = new Frame(null, null);
+
+    // Compressor of every Frame
+    private final ImageCompressor _compressor;
+
+    // Compression Parameters
+    private final int _n;
+    private final EVectorMode _mode;
+    private final EColorMode _colorMode;
+
+    // Receiver of the Compressed Frames
+    private final SequenceWriter _writer;
+
+    // Frames between Key Frames, 0 for only the First
+    private int _keyFrameInterval;
+
+    // Previous Compressed Frame, null before the First
+    private CompressedImage _previous;
+
+    // Number of Frames Encoded
+    private int _frames;
+
+    // Measures each Frame, null if not Measured
+    private ImageMetrics _metrics;
+
+    // Sums of the Quality of each Frame
+    private final ImageMetrics.Result _totalQuality = new ImageMetrics.Result();
+
+    /**
+     * Frame - A Frame, or the Failure to Read it, travelling to the Encoder
+     */
+    private static class Frame
+    {
+        // Loaded Frame
+        final BufferedImage _image;
+
+        // Failure to Read the Frame
+        final IOException _error;
+
+        /**
+         * Constructor
+         *
+         * @param image - The Loaded Frame
+         * @param error - The Failure to Read the Frame
+         */
+        Frame(final BufferedImage image, final IOException error)
+        {
+            _image = image;
+            _error = error;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param compressor - The Compressor of every Frame, its Refinement
+     *                     Iterations bound the Training of non-Key Frames
+     * @param n          - The number of Vectors for quantization
+     * @param mode       - How pixels should be grouped to form vectors
+     * @param colorMode  - How the channels should be quantized
+     * @param writer     - Receiver of the Compressed Frames
+     */
+    public SequenceEncoder(final ImageCompressor compressor, final int n, final EVectorMode mode,
+                           final EColorMode colorMode, final SequenceWriter writer)
+    {
+        _compressor = compressor;
+        _n = n;
+        _mode = mode;
+        _colorMode = colorMode;
+        _writer = writer;
+    }
+
+    /**
+     * setKeyFrameInterval - Sets how often a Frame is Trained from Scratch
+     *
+     * @param keyFrameInterval - Frames between Key Frames, 0 for only the First
+     */
+    public void setKeyFrameInterval(final int keyFrameInterval)
+    {
+        _keyFrameInterval = keyFrameInterval;
+    }
+
+    /**
+     * setMeasureQuality - Measures the MSE, PSNR and SSIM of each Frame
+     *
+     * @param measureQuality - TRUE to Measure each Frame
+     */
+    public void setMeasureQuality(final boolean measureQuality)
+    {
+        _metrics = measureQuality ? new ImageMetrics() : null;
+        _totalQuality._ssim = 0;
+    }
+
+    /**
+     * encode - Compresses and Writes every Frame of a Source
+     *
+     * @param source        - The Frame Source
+     * @param queueCapacity - The Number of Frames Read ahead of the Encoder
+     * @return int - The Number of Frames Encoded
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public int encode(final IFrameSource source, final int queueCapacity) throws IOException, InterruptedException
+    {
+        // Initialize Queue, Blocking the Reader while the Encoder is Behind
+        final BlockingQueue<Frame> frames = new ArrayBlockingQueue<Frame>(Math.max(1, queueCapacity));
+
+        // Reader Stage
+        final Thread reader = new Thread(() -> readFrames(source, frames), "vq-frame-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        // Encode Frames in Order
+        final int start = _frames;
+        try
+        {
+            Frame frame;
+            while((frame = frames.take()) != END)
+            {
+                if(frame._error != null)
+                {
+                    throw frame._error;
+                }
+                encodeFrame(frame._image);
+            }
+        }
+        finally
+        {
+            // Stop the Reader if Encoding Failed
+            reader.interrupt();
+        }
+
+        return _frames - start;
+    }
+
+    /**
+     * encodeFrame - Compresses and Writes the next Frame
+     *
+     * @param frame - The Frame
+     * @return CompressedImage - The Compressed Frame
+     * @throws IOException
+     */
+    public CompressedImage encodeFrame(final BufferedImage frame) throws IOException
+    {
+        // Check if Key Frame
+        final boolean keyFrame = _frames == 0 || (_keyFrameInterval > 0 && _frames % _keyFrameInterval == 0);
+
+        // Compress the Frame, Warm Started unless a Key Frame
+        final CompressedImage compressedFrame = _compressor.compressFrame(frame, _n, _mode, _colorMode,
+                                                                          keyFrame ? null : _previous);
+
+        // Write the Frame
+        _writer.writeFrame(compressedFrame);
+
+        // Measure the Frame
+        if(_metrics != null)
+        {
+            final ImageMetrics.Result quality = _metrics.measure(frame, compressedFrame.getReconstructedImage());
+            _totalQuality._mse += quality._mse;
+            _totalQuality._psnr += quality._psnr;
+            _totalQuality._ssim += quality._ssim;
+        }
+
+        _previous = compressedFrame;
+        _frames++;
+
+        return compressedFrame;
+    }
+
+    /**
+     * getFrameCount
+     *
+     * @return int - The Number of Frames Encoded
+     */
+    public int getFrameCount()
+    {
+        return _frames;
+    }
+
+    /**
+     * getMeanQuality
+     *
+     * @return ImageMetrics.Result - The Mean Quality of the Frames, null if not Measured
+     */
+    public ImageMetrics.Result getMeanQuality()
+    {
+        if(_metrics == null || _frames == 0)
+        {
+            return null;
+        }
+
+        final ImageMetrics.Result mean = new ImageMetrics.Result();
+        mean._mse = _totalQuality._mse / _frames;
+        mean._psnr = _totalQuality._psnr / _frames;
+        mean._ssim = _totalQuality._ssim / _frames;
+
+        return mean;
+    }
+
+    /**
+     * readFrames - Reader Stage, Reads each Frame of a Source
+     *
+     * @param source - The Frame Source
+     * @param frames - Queue of Read Frames
+     */
+    private static void readFrames(final IFrameSource source, final BlockingQueue<Frame> frames)
+    {
+        try
+        {
+            try
+            {
+                // Blocks while the Encoder is Behind
+                BufferedImage image;
+                while((image = source.nextFrame()) != null)
+                {
+                    frames.put(new Frame(image, null));
+                }
+            }
+            catch(IOException e)
+            {
+                frames.put(new Frame(null, e));
+            }
+
+            // Signal End of Input
+            frames.put(END);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
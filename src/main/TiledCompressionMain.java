@@ -0,0 +1,109 @@
+package main;
+
+import java.io.File;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * TiledCompressionMain
+ *
+ * Compresses a raw or rgb image too large to hold in memory. The
+ * image file is memory mapped a strip of -Dvq.stripRows=N rows
+ * (default 64) at a time. The codebooks are trained on a random
+ * sample of -Dvq.sampleSize=N vectors per channel (default 65536)
+ * drawn from every strip, then every strip is quantized and its
+ * indices streamed to the output.
+ *
+ * With -d, decodes a compressed file back into a raw (grayscale)
+ * or rgb (color) file.
+ */
+public class TiledCompressionMain
+{
+   // Raw Image Extension
+   private static final String RAW = "raw";
+
+   // System Properties Configuring the Compression
+   private static final String STRIP_ROWS = "vq.stripRows";
+   private static final String SAMPLE_SIZE = "vq.sampleSize";
+
+   // Decode Flag
+   private static final String DECODE = "-d";
+
+   // Usage Statement
+   private static final String USAGE = "Usage: ./TiledCompressionMain inputFile outputFile numVectors mode width height [colorMode]\n"
+                                       + "       ./TiledCompressionMain -d inputFile outputFile";
+
+   /**
+    * main
+    *
+    * @param args
+    */
+   public static void main(String[] args)
+   {
+      // Never load a Display
+      System.setProperty("java.awt.headless", "true");
+
+      // Ensure the Program has 3, 6 or 7 arguments passed
+      final boolean decode = args.length == 3 && DECODE.equals(args[0]);
+      if(!decode && args.length != 6 && args.length != 7)
+      {
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+
+      try
+      {
+         final long start = System.nanoTime();
+
+         // Check Decode
+         if(decode)
+         {
+            final File outputFile = new File(args[2]);
+            TiledImageCompressor.decompress(new File(args[1]), outputFile);
+            System.out.println(String.format("Decoded %d bytes in %.3f s", outputFile.length(),
+                                             (System.nanoTime() - start) / 1e9));
+            System.exit(0);
+         }
+
+         // Read parameters from command line
+         final File inputFile = new File(args[0]);
+         final File outputFile = new File(args[1]);
+         final int numVectors = Integer.parseInt(args[2]);
+         final EVectorMode mode = EVectorMode.getMode(Integer.parseInt(args[3]));
+         final int width = Integer.parseInt(args[4]);
+         final int height = Integer.parseInt(args[5]);
+         final EColorMode colorMode = (args.length == 7) ? EColorMode.getMode(Integer.parseInt(args[6])) : EColorMode.RGB;
+         final boolean isRGB = !inputFile.getName().endsWith("." + RAW);
+
+         // Initialize Compressor
+         final TiledImageCompressor compressor = new TiledImageCompressor(new ImageCompressor());
+         compressor.setStripRows(Integer.getInteger(STRIP_ROWS, TiledImageCompressor.DEFAULT_STRIP_ROWS));
+         compressor.setSampleSize(Integer.getInteger(SAMPLE_SIZE, TiledImageCompressor.DEFAULT_SAMPLE_SIZE));
+
+         // Compress the Image
+         final TiledImageCompressor.Result result = compressor.compress(inputFile, width, height, isRGB, numVectors,
+                                                                        mode, colorMode, outputFile);
+
+         // Print Totals
+         System.out.println(String.format("Compressed %dx%d in %d strips into %d bytes in %.3f s",
+                                          width, height, result._strips, result._bytesWritten,
+                                          (System.nanoTime() - start) / 1e9));
+         System.out.println(String.format("Trained on %d of %d vectors per channel in %.3f s, quantized in %.3f s",
+                                          result._sampled, result._vectors, result._trainingNanos / 1e9,
+                                          result._quantizeNanos / 1e9));
+
+         System.exit(0);
+      }
+      catch(Exception e)
+      {
+         // Print Stack Trace
+         e.printStackTrace();
+
+         // Print Usage Statement and End Program
+         System.out.println(USAGE);
+         System.exit(1);
+      }
+   }
+}
@@ -0,0 +1,391 @@
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import data.imageTypes.VectorQuantizer;
+import enums.EColorMode;
+import enums.EVectorMode;
+import util.CodebookUtil;
+import util.CompressedImageUtil;
+import util.PlaneUtil;
+import util.VectorReservoir;
+
+/**
+ * TiledImageCompressor - Compresses raw/rgb Images larger than the Heap
+ *
+ * The image file is memory mapped one horizontal strip at a time,
+ * so only a strip of pixels and its vectors are ever on the heap.
+ * A first pass offers every block vector to a bounded reservoir
+ * sample, on which the codebooks are trained. A second pass
+ * quantizes each strip against the codebooks and streams its
+ * indices to the output. Peak memory depends on the image width
+ * and the sample size, not on the image height.
+ *
+ * Only the fixed, trained block modes are supported, with the
+ * grayscale, RGB or joint RGB color modes, as their blocks never
+ * cross a strip.
+ *
+ * File Layout:
+ *   int   magic ("VQT1")
+ *   int   width, int height
+ *   byte  vector mode, byte color mode
+ *   int   strip rows, a multiple of the block height
+ *   codebooks as in CodebookUtil, one per channel
+ *   per strip, top to bottom:
+ *     per channel:
+ *       int   index count
+ *       indices of the strip's blocks packed at ceil(log2(codebook size)) bits each
+ */
+public class TiledImageCompressor
+{
+    // Tiled File Extension
+    public static final String EXTENSION = "vqt";
+
+    // Default Rows per Strip
+    public static final int DEFAULT_STRIP_ROWS = 64;
+
+    // Default Number of Vectors Sampled per Channel for Training
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    // File Magic Number
+    private static final int MAGIC = 0x56515431;
+
+    // Trainer of the Codebooks
+    private final ImageCompressor _compressor;
+
+    // Rows per Strip
+    private int _stripRows = DEFAULT_STRIP_ROWS;
+
+    // Number of Vectors Sampled per Channel
+    private int _sampleSize = DEFAULT_SAMPLE_SIZE;
+
+    /**
+     * Result - Totals of a Tiled Compression
+     */
+    public static class Result
+    {
+        // Number of Strips
+        public int _strips;
+
+        // Number of Block Vectors per Channel, and of those Sampled
+        public long _vectors;
+        public int _sampled;
+
+        // Bytes Written
+        public long _bytesWritten;
+
+        // Time spent Sampling and Training, and Quantizing, in Nanoseconds
+        public long _trainingNanos;
+        public long _quantizeNanos;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param compressor - Trainer of the Codebooks, whose Convergence Policy
+     *                     and Training Listener apply
+     */
+    public TiledImageCompressor(final ImageCompressor compressor)
+    {
+        _compressor = compressor;
+    }
+
+    /**
+     * setStripRows - Sets the Rows Mapped at once, Rounded up
+     *                to a Multiple of the Block Height
+     *
+     * @param stripRows - The Rows per Strip
+     */
+    public void setStripRows(final int stripRows)
+    {
+        _stripRows = Math.max(1, stripRows);
+    }
+
+    /**
+     * setSampleSize - Sets the Number of Vectors the Codebooks
+     *                 of each Channel are Trained on
+     *
+     * @param sampleSize - The Vectors per Channel
+     */
+    public void setSampleSize(final int sampleSize)
+    {
+        _sampleSize = Math.max(1, sampleSize);
+    }
+
+    /**
+     * compress - Compresses a raw/rgb Image File Strip by Strip
+     *
+     * @param input     - The raw (W x H) or rgb (W x H x 3, Plane by Plane) Image File
+     * @param width     - The Width of the Image
+     * @param height    - The Height of the Image
+     * @param isRGB     - TRUE for an rgb File, FALSE for a raw File
+     * @param n         - The number of Vectors for quantization
+     * @param mode      - How pixels should be grouped to form vectors
+     * @param colorMode - How the channels of a color image should be quantized
+     * @param output    - The Compressed File to Write
+     * @return Result - The Totals of the Compression
+     * @throws IOException
+     */
+    public Result compress(final File input, final int width, final int height, final boolean isRGB, final int n,
+                           final EVectorMode mode, final EColorMode colorMode, final File output) throws IOException
+    {
+        // Ensure Blocks never Cross a Strip and the Codebooks are Trained
+        final EColorMode imageColorMode = isRGB ? colorMode : EColorMode.GRAYSCALE;
+        if(mode.getLevelCount() > 1 || imageColorMode.isYCbCr() || EVectorMode.LATTICE.equals(mode))
+        {
+            throw new IllegalArgumentException("Tiled compression does not support " + mode + "/" + imageColorMode);
+        }
+
+        // Get Strip Layout and Channels
+        final int stripRows = getStripRows(mode);
+        final int[][] channelPlanes = getChannelPlanes(imageColorMode);
+        final Result result = new Result();
+
+        try(FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ))
+        {
+            // Ensure the File holds the whole Image
+            final long planeSize = (long) width * height;
+            if(channel.size() < planeSize * (isRGB ? 3 : 1))
+            {
+                throw new IOException("Image file " + input + " is smaller than " + width + "x" + height);
+            }
+
+            // Sample the Block Vectors of every Strip
+            final long trainingStart = System.nanoTime();
+            final VectorReservoir[] reservoirs = new VectorReservoir[channelPlanes.length];
+            for(int c = 0; c < reservoirs.length; ++c)
+            {
+                reservoirs[c] = new VectorReservoir(_sampleSize, mode.getDimension() * channelPlanes[c].length,
+                                                    VectorReservoir.DEFAULT_SEED + c);
+            }
+            for(int y = 0; y < height; y += stripRows)
+            {
+                final int rows = Math.min(stripRows, height - y);
+                final int[][] planes = readStrip(channel, planeSize, isRGB ? 3 : 1, width, y, rows);
+                for(int c = 0; c < channelPlanes.length; ++c)
+                {
+                    reservoirs[c].offer(PlaneUtil.getBlocks(getPlanes(planes, channelPlanes[c]), width, rows, mode));
+                }
+                result._strips++;
+            }
+
+            // Train the Codebooks on the Samples
+            final int[][] samples = new int[reservoirs.length][];
+            for(int c = 0; c < reservoirs.length; ++c)
+            {
+                samples[c] = reservoirs[c].getVectors();
+            }
+            result._vectors = reservoirs[0].getSeenCount();
+            result._sampled = samples[0].length / reservoirs[0].getDimension();
+            final ArrayList<int[][]> codebooks = _compressor.trainCodebooks(samples, width, height, n, mode, imageColorMode);
+            result._trainingNanos = System.nanoTime() - trainingStart;
+
+            // Initialize a Quantizer per Channel over its Trained Codebook
+            final long quantizeStart = System.nanoTime();
+            final VectorQuantizer[] quantizers = new VectorQuantizer[channelPlanes.length];
+            for(int c = 0; c < quantizers.length; ++c)
+            {
+                quantizers[c] = new VectorQuantizer(width, stripRows, n, mode, channelPlanes[c].length);
+                quantizers[c].setCodebook(codebooks.get(c));
+            }
+
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output))))
+            {
+                // Write Header and Codebooks
+                out.writeInt(MAGIC);
+                out.writeInt(width);
+                out.writeInt(height);
+                out.writeByte(mode.ordinal());
+                out.writeByte(imageColorMode.ordinal());
+                out.writeInt(stripRows);
+                CodebookUtil.writeCodebooks(out, codebooks);
+
+                // Quantize each Strip, Streaming its Indices
+                for(int y = 0; y < height; y += stripRows)
+                {
+                    final int rows = Math.min(stripRows, height - y);
+                    final int[][] planes = readStrip(channel, planeSize, isRGB ? 3 : 1, width, y, rows);
+                    for(int c = 0; c < channelPlanes.length; ++c)
+                    {
+                        quantizers[c].generateInputVectors(PlaneUtil.getBlocks(getPlanes(planes, channelPlanes[c]), width, rows, mode));
+                        CompressedImageUtil.writeIndices(out, quantizers[c].quantizeImage(),
+                                                         CompressedImageUtil.getIndexBits(codebooks.get(c).length));
+                    }
+                }
+
+                out.flush();
+                result._bytesWritten = out.size();
+            }
+            result._quantizeNanos = System.nanoTime() - quantizeStart;
+        }
+
+        return result;
+    }
+
+    /**
+     * decompress - Decodes a Tiled File Strip by Strip into a raw/rgb Image File
+     *
+     * @param input  - The Compressed File
+     * @param output - The raw (Grayscale) or rgb (Color, Plane by Plane) File to Write
+     * @throws IOException
+     */
+    public static void decompress(final File input, final File output) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(input)));
+            FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            // Read Header and Codebooks
+            if(in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a tiled compressed image: " + input);
+            }
+            final int width = in.readInt();
+            final int height = in.readInt();
+            final EVectorMode mode = EVectorMode.values()[in.readUnsignedByte()];
+            final EColorMode colorMode = EColorMode.values()[in.readUnsignedByte()];
+            final int stripRows = in.readInt();
+            final ArrayList<int[][]> codebooks = CodebookUtil.readCodebooks(in);
+            final int[][] channelPlanes = getChannelPlanes(colorMode);
+            final long planeSize = (long) width * height;
+
+            // Decode each Strip into its Rows of every Plane
+            for(int y = 0; y < height; y += stripRows)
+            {
+                final int rows = Math.min(stripRows, height - y);
+                for(int c = 0; c < channelPlanes.length; ++c)
+                {
+                    final int[][] codebook = codebooks.get(c);
+                    final int[] indices = CompressedImageUtil.readIndices(in, CompressedImageUtil.getIndexBits(codebook.length));
+                    final int[][] planes = VectorQuantizer.reconstructPlanes(codebook, indices, channelPlanes[c].length,
+                                                                             width, rows, mode);
+                    for(int p = 0; p < planes.length; ++p)
+                    {
+                        writeRows(channel, planes[p], channelPlanes[c][p] * planeSize + (long) y * width);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * getStripRows - Gets the Rows per Strip, Rounded up
+     *                to a Multiple of the Block Height
+     *
+     * @param mode - How pixels are grouped to form vectors
+     * @return int - The Rows per Strip
+     */
+    private int getStripRows(final EVectorMode mode)
+    {
+        final int blockHeight = mode.getBlockHeight();
+
+        return ((_stripRows + blockHeight - 1) / blockHeight) * blockHeight;
+    }
+
+    /**
+     * getChannelPlanes - Gets the Image Planes Quantized by each Channel
+     *
+     * @param colorMode - How the channels are quantized
+     * @return int[][] - The Plane Indices of each Channel
+     */
+    private static int[][] getChannelPlanes(final EColorMode colorMode)
+    {
+        switch(colorMode)
+        {
+            case GRAYSCALE:
+                return new int[][] {{0}};
+
+            case JOINT_RGB:
+                return new int[][] {{0, 1, 2}};
+
+            default:
+                return new int[][] {{0}, {1}, {2}};
+        }
+    }
+
+    /**
+     * getPlanes - Selects Planes of a Strip
+     *
+     * @param planes  - Every Plane of the Strip
+     * @param indices - The Indices of the Planes to Select
+     * @return int[][] - The Selected Planes
+     */
+    private static int[][] getPlanes(final int[][] planes, final int[] indices)
+    {
+        final int[][] selected = new int[indices.length][];
+        for(int i = 0; i < indices.length; ++i)
+        {
+            selected[i] = planes[indices[i]];
+        }
+
+        return selected;
+    }
+
+    /**
+     * readStrip - Maps the Rows of a Strip of every Plane and Reads them
+     *
+     * @param channel   - The Image File
+     * @param planeSize - The Bytes per Plane
+     * @param planes    - The Number of Planes in the File
+     * @param width     - The Width of the Image
+     * @param y         - The First Row of the Strip
+     * @param rows      - The Rows in the Strip
+     * @return int[][] - The Pixels of the Strip of each Plane
+     * @throws IOException
+     */
+    private static int[][] readStrip(final FileChannel channel, final long planeSize, final int planes, final int width,
+                                     final int y, final int rows) throws IOException
+    {
+        final int[][] strip = new int[planes][width * rows];
+
+        // Iterate over Planes
+        for(int p = 0; p < planes; ++p)
+        {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, p * planeSize + (long) y * width,
+                                                        (long) width * rows);
+            for(int i = 0; i < strip[p].length; ++i)
+            {
+                strip[p][i] = buffer.get(i) & 0xff;
+            }
+        }
+
+        return strip;
+    }
+
+    /**
+     * writeRows - Writes Decoded Rows of a Plane at their Offset in the Image File
+     *
+     * @param channel  - The Image File
+     * @param plane    - The Pixels of the Rows
+     * @param position - The Offset of the First Row
+     * @throws IOException
+     */
+    private static void writeRows(final FileChannel channel, final int[] plane, final long position) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(plane.length);
+        for(final int pixel : plane)
+        {
+            buffer.put((byte) PlaneUtil.clamp(pixel));
+        }
+        buffer.flip();
+
+        // Write until the whole Buffer is Out
+        long offset = position;
+        while(buffer.hasRemaining())
+        {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
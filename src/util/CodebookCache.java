@@ -0,0 +1,309 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import enums.EColorMode;
+import enums.ESamplingMode;
+import enums.ESearchMode;
+import enums.EVectorMode;
+
+/**
+ * CodebookCache - Keeps Trained Codebooks on Disk, keyed by
+ *                 a Hash of the Pixels and the Compression Parameters
+ *
+ * The key holds every parameter that changes the trained codebooks,
+ * except the convergence policy, which is code rather than a value.
+ * A cache directory should therefore serve a single policy.
+ *
+ * Each entry is one file written to a temporary name and then
+ * moved into place, so a reader never sees a partial entry. Reading
+ * an entry touches its modification time, and once the entries
+ * exceed the size bound the least recently used are deleted.
+ *
+ * Entry Layout:
+ *   int   magic ("VQCB")
+ *   codebooks as in CodebookUtil
+ */
+public class CodebookCache
+{
+    // Cache Entry Extension
+    public static final String EXTENSION = "vqcb";
+
+    // Default Size Bound of the Cache in Bytes
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    // Entry Magic Number
+    private static final int MAGIC = 0x56514342;
+
+    // Directory holding the Entries
+    private final File _directory;
+
+    // Size Bound of the Cache in Bytes
+    private final long _maxBytes;
+
+    // Number of Lookups that Found/Missed an Entry
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param directory - Directory holding the Entries, Created if Missing
+     * @param maxBytes  - Size Bound of the Cache in Bytes
+     * @throws IOException
+     */
+    public CodebookCache(final File directory, final long maxBytes) throws IOException
+    {
+        // Ensure Directory Exists
+        if(!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create codebook cache directory " + directory);
+        }
+
+        _directory = directory;
+        _maxBytes = maxBytes;
+    }
+
+    /**
+     * getKey - Gets the Cache Key of an Image and its Compression Parameters
+     *
+     * @param image          - The Image
+     * @param n              - The number of Vectors for quantization
+     * @param mode           - How pixels are grouped to form vectors
+     * @param colorMode      - How the channels are quantized
+     * @param splitThreshold - The Quadtree Split Threshold, only part of the Key in the Quadtree Mode
+     * @param pyramidLevels  - Number of Halved Resolutions Trained first, 0 for None
+     * @param refinement     - Lloyd Iterations at Full Resolution, only part of the Key with Pyramid Levels
+     * @param sampleSize     - Maximum Vectors Trained on, 0 for every Input Vector
+     * @param sampling       - How the Training Sample is Drawn, only part of the Key with a Sample Size
+     * @param searchMode     - How each Codebook is Searched for the Closest Codeword
+     * @param hashTables     - Number of Hash Tables, only part of the Key in the HASHED Search Mode
+     * @param latticeFitted  - TRUE for the Fitted Lattice, only part of the Key in the Lattice Mode
+     * @return String - The Key, usable as a File Name
+     */
+    public static String getKey(final BufferedImage image, final int n, final EVectorMode mode,
+                                final EColorMode colorMode, final double splitThreshold, final int pyramidLevels,
+                                final int refinement, final int sampleSize, final ESamplingMode sampling,
+                                final ESearchMode searchMode, final int hashTables, final boolean latticeFitted)
+    {
+        // Read every Sample at once, as Stored, so Gray Values are not Color Converted
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int bands = image.getRaster().getNumBands();
+        final int[] samples = image.getRaster().getPixels(0, 0, width, height, (int[]) null);
+
+        // Hash the Dimensions and Samples
+        final ByteBuffer buffer = ByteBuffer.allocate((samples.length + 3) * Integer.BYTES);
+        buffer.putInt(width).putInt(height).putInt(bands);
+        buffer.asIntBuffer().put(samples);
+
+        final StringBuilder builder = new StringBuilder();
+        for(final byte b : getDigest().digest(buffer.array()))
+        {
+            builder.append(String.format("%02x", b));
+        }
+
+        // Append the Parameters
+        builder.append('-').append(n).append('-').append(mode).append('-').append(colorMode);
+        if(EVectorMode.QUADTREE.equals(mode))
+        {
+            builder.append('-').append(splitThreshold);
+        }
+        if(EVectorMode.LATTICE.equals(mode) && latticeFitted)
+        {
+            builder.append("-FITTED");
+        }
+
+        // Append the Training Parameters that differ from Full Training
+        if(pyramidLevels > 0)
+        {
+            builder.append("-P").append(pyramidLevels).append('x').append(refinement);
+        }
+        if(sampleSize > 0)
+        {
+            builder.append("-S").append(sampleSize).append(sampling);
+        }
+        if(!ESearchMode.EXACT.equals(searchMode))
+        {
+            builder.append('-').append(searchMode).append(hashTables);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * get - Gets the Codebooks of an Entry
+     *
+     * @param key - The Cache Key
+     * @return ArrayList<int[][]> - The Codebooks, null if not Cached
+     */
+    public ArrayList<int[][]> get(final String key)
+    {
+        final File file = getFile(key);
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            // Read Header
+            if(in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a codebook cache entry: " + file);
+            }
+
+            // Read Codebooks
+            final ArrayList<int[][]> codebooks = CodebookUtil.readCodebooks(in);
+
+            // Mark as Recently Used
+            file.setLastModified(System.currentTimeMillis());
+            _hits.incrementAndGet();
+
+            return codebooks;
+        }
+        catch(IOException e)
+        {
+            // Missing or Unreadable Entries are Misses, Unreadable ones are Dropped
+            if(file.exists())
+            {
+                file.delete();
+            }
+            _misses.incrementAndGet();
+
+            return null;
+        }
+    }
+
+    /**
+     * put - Stores the Codebooks of an Entry, then Evicts the
+     *       Least Recently Used Entries beyond the Size Bound
+     *
+     * @param key       - The Cache Key
+     * @param codebooks - The Codebooks
+     * @throws IOException
+     */
+    public void put(final String key, final ArrayList<int[][]> codebooks) throws IOException
+    {
+        // Write to a Temporary File beside the Entry
+        final File temp = File.createTempFile(key, ".tmp", _directory);
+        try
+        {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))
+            {
+                out.writeInt(MAGIC);
+                CodebookUtil.writeCodebooks(out, codebooks);
+            }
+
+            // Move the Entry into Place
+            try
+            {
+                Files.move(temp.toPath(), getFile(key).toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException e)
+            {
+                Files.move(temp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            temp.delete();
+        }
+
+        evict();
+    }
+
+    /**
+     * getHits
+     *
+     * @return long - The Number of Lookups that Found an Entry
+     */
+    public long getHits()
+    {
+        return _hits.get();
+    }
+
+    /**
+     * getMisses
+     *
+     * @return long - The Number of Lookups that Missed
+     */
+    public long getMisses()
+    {
+        return _misses.get();
+    }
+
+    /**
+     * evict - Deletes the Least Recently Used Entries
+     *         until the Cache fits its Size Bound
+     */
+    private synchronized void evict()
+    {
+        // Get Entries
+        final File[] files = _directory.listFiles((dir, name) -> name.endsWith("." + EXTENSION));
+        if(files == null)
+        {
+            return;
+        }
+
+        // Sum Sizes
+        long total = 0;
+        for(final File file : files)
+        {
+            total += file.length();
+        }
+
+        // Delete Oldest first
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for(int i = 0; i < files.length && total > _maxBytes; ++i)
+        {
+            final long size = files[i].length();
+            if(files[i].delete())
+            {
+                total -= size;
+            }
+        }
+    }
+
+    /**
+     * getFile - Gets the File of an Entry
+     *
+     * @param key - The Cache Key
+     * @return File - The Entry File
+     */
+    private File getFile(final String key)
+    {
+        return new File(_directory, key + "." + EXTENSION);
+    }
+
+    /**
+     * getDigest - Gets the Hash used for Cache Keys
+     *
+     * @return MessageDigest - A SHA-256 Digest
+     */
+    private static MessageDigest getDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * CodebookUtil - Reads and Writes Trained Codebooks
+ *
+ * File Layout:
+ *   int   magic ("VQCU")
+ *   byte  vector mode, byte color mode
+ *   int   codebook count
+ *   per codebook (channel by channel, level by level):
+ *     int   codebook size, int codeword dimension
+ *     codebook size * dimension unsigned pixel bytes
+ */
+public class CodebookUtil
+{
+    // Codebook File Extension
+    public static final String EXTENSION = "vqcu";
+
+    // File Magic Number
+    private static final int MAGIC = 0x56514355;
+
+    /**
+     * Codebooks - Trained Codebooks and the Modes they Quantize
+     */
+    public static class Codebooks
+    {
+        // How pixels are grouped to form vectors
+        public EVectorMode _mode;
+
+        // How the channels are quantized
+        public EColorMode _colorMode;
+
+        // Codebook of each Channel, Level by Level in the Quadtree Mode
+        public ArrayList<int[][]> _codebooks;
+
+        /**
+         * getSize - Gets the Number of Codewords of the Largest Codebook
+         *
+         * @return int - The Codebook Size
+         */
+        public int getSize()
+        {
+            int size = 0;
+            for(final int[][] codebook : _codebooks)
+            {
+                size = Math.max(size, codebook.length);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * writeCodebooks - Writes Trained Codebooks to a File
+     *
+     * @param codebooks - The Codebooks
+     * @param file      - The File to Write
+     * @return long - The Number of Bytes Written
+     * @throws IOException
+     */
+    public static long writeCodebooks(final Codebooks codebooks, final File file) throws IOException
+    {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+        {
+            // Write Header
+            out.writeInt(MAGIC);
+            out.writeByte(codebooks._mode.ordinal());
+            out.writeByte(codebooks._colorMode.ordinal());
+
+            // Write Codebooks
+            writeCodebooks(out, codebooks._codebooks);
+
+            out.flush();
+            return out.size();
+        }
+    }
+
+    /**
+     * readCodebooks - Reads Trained Codebooks from a File
+     *
+     * @param file - The File to Read
+     * @return Codebooks - The Codebooks
+     * @throws IOException
+     */
+    public static Codebooks readCodebooks(final File file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            // Read Header
+            if(in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a codebook file: " + file);
+            }
+
+            final Codebooks codebooks = new Codebooks();
+            codebooks._mode = EVectorMode.values()[in.readUnsignedByte()];
+            codebooks._colorMode = EColorMode.values()[in.readUnsignedByte()];
+
+            // Read Codebooks
+            codebooks._codebooks = readCodebooks(in);
+
+            return codebooks;
+        }
+    }
+
+    /**
+     * writeCodebooks - Writes a Codebook Count followed by each Codebook
+     *
+     * @param out       - The Output Stream
+     * @param codebooks - The Codebooks
+     * @throws IOException
+     */
+    public static void writeCodebooks(final DataOutputStream out, final ArrayList<int[][]> codebooks) throws IOException
+    {
+        out.writeInt(codebooks.size());
+
+        // Iterate over Codebooks
+        for(final int[][] codebook : codebooks)
+        {
+            out.writeInt(codebook.length);
+            out.writeInt((codebook.length == 0) ? 0 : codebook[0].length);
+            for(final int[] codeword : codebook)
+            {
+                for(final int value : codeword)
+                {
+                    out.writeByte(PlaneUtil.clamp(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * readCodebooks - Reads a Codebook Count followed by each Codebook
+     *
+     * @param in - The Input Stream
+     * @return ArrayList<int[][]> - The Codebooks
+     * @throws IOException
+     */
+    public static ArrayList<int[][]> readCodebooks(final DataInputStream in) throws IOException
+    {
+        // Iterate over Codebooks
+        final int count = in.readInt();
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(count);
+        for(int c = 0; c < count; ++c)
+        {
+            final int[][] codebook = new int[in.readInt()][in.readInt()];
+            for(final int[] codeword : codebook)
+            {
+                for(int i = 0; i < codeword.length; ++i)
+                {
+                    codeword[i] = in.readUnsignedByte();
+                }
+            }
+            codebooks.add(codebook);
+        }
+
+        return codebooks;
+    }
+}
@@ -0,0 +1,343 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import data.imageTypes.CompressedImage;
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * CompressedImageUtil - Reads and Writes Compressed Images
+ *
+ * File Layout:
+ *   int   magic ("VQC1")
+ *   int   width, int height
+ *   byte  vector mode, byte color mode, byte channel count
+ *   per channel:
+ *     in the quadtree mode only:
+ *       int   split flag count
+ *       split flags packed at 1 bit each
+ *     per level (a single level unless in the quadtree mode):
+ *       short codebook size (unsigned, at most 65535), byte codeword dimension
+ *       codebook size * dimension unsigned pixel bytes
+ *       int   index count
+ *       indices packed at ceil(log2(codebook size)) bits each
+ */
+public class CompressedImageUtil
+{
+    // Compressed File Extension
+    public static final String EXTENSION = "vq";
+
+    // File Magic Number
+    private static final int MAGIC = 0x56514331;
+
+    // Most Codewords a Codebook Size Field can hold
+    public static final int MAX_CODEBOOK_SIZE = 0xffff;
+
+    /**
+     * writeCompressedImage - Writes a Compressed Image to a File
+     *
+     * @param image - The Compressed Image
+     * @param file  - The File to Write
+     * @return long - The Number of Bytes Written
+     * @throws IOException
+     */
+    public static long writeCompressedImage(final CompressedImage image, final File file) throws IOException
+    {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+        {
+            // Write Header
+            out.writeInt(MAGIC);
+            out.writeInt(image.getWidth());
+            out.writeInt(image.getHeight());
+            out.writeByte(image.getMode().ordinal());
+            out.writeByte(image.getColorMode().ordinal());
+            out.writeByte(image.getChannelCount());
+
+            // Iterate over Channels
+            for(int c = 0; c < image.getChannelCount(); ++c)
+            {
+                // Write Split Flags
+                if(image.getLevelCount() > 1)
+                {
+                    writeFlags(out, image.getSplitFlags(c));
+                }
+
+                // Iterate over Levels
+                for(int l = 0; l < image.getLevelCount(); ++l)
+                {
+                    final int[][] codebook = image.getCodebook(c, l);
+                    final int dimension = image.getDimension(l);
+
+                    // Write Codebook, whose Size must fit its Field
+                    checkCodebookSize(codebook.length);
+                    out.writeShort(codebook.length);
+                    out.writeByte(dimension);
+                    writeCodebook(out, codebook, dimension);
+
+                    // Write Packed Indices
+                    writeIndices(out, image.getIndices(c, l), getIndexBits(codebook.length));
+                }
+            }
+
+            out.flush();
+            return out.size();
+        }
+    }
+
+    /**
+     * readCompressedImage - Reads a Compressed Image from a File
+     *
+     * @param file - The File to Read
+     * @return CompressedImage - The Compressed Image
+     * @throws IOException
+     */
+    public static CompressedImage readCompressedImage(final File file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            // Read Header
+            if(in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a compressed image: " + file);
+            }
+            final int width = in.readInt();
+            final int height = in.readInt();
+            final EVectorMode mode = EVectorMode.values()[in.readUnsignedByte()];
+            final EColorMode colorMode = EColorMode.values()[in.readUnsignedByte()];
+            final int channels = in.readUnsignedByte();
+
+            // Initialize Compressed Image
+            final CompressedImage image = new CompressedImage(width, height, mode, colorMode);
+
+            // Iterate over Channels
+            for(int c = 0; c < channels; ++c)
+            {
+                // Read Split Flags
+                final boolean[] splitFlags = (image.getLevelCount() > 1) ? readFlags(in) : null;
+
+                // Iterate over Levels
+                final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(image.getLevelCount());
+                final ArrayList<int[]> indices = new ArrayList<int[]>(image.getLevelCount());
+                for(int l = 0; l < image.getLevelCount(); ++l)
+                {
+                    // Read Codebook
+                    final int size = in.readUnsignedShort();
+                    final int dimension = in.readUnsignedByte();
+                    if(dimension != image.getDimension(l))
+                    {
+                        throw new IOException("Unexpected codeword dimension " + dimension + " in " + file);
+                    }
+                    codebooks.add(readCodebook(in, size, dimension));
+
+                    // Read Packed Indices
+                    indices.add(readIndices(in, getIndexBits(size)));
+                }
+
+                // Add the Channel
+                if(splitFlags != null)
+                {
+                    image.addChannel(codebooks, indices, splitFlags);
+                }
+                else
+                {
+                    image.addChannel(codebooks.get(0), indices.get(0));
+                }
+            }
+
+            return image;
+        }
+    }
+
+    /**
+     * getIndexBits - Gets the Number of Bits needed
+     *                to address every Codeword
+     *
+     * @param codebookSize - The Number of Codewords
+     * @return int - The Bits per Index
+     */
+    public static int getIndexBits(final int codebookSize)
+    {
+        // Initialize Bits
+        int bits = 1;
+
+        while((1 << bits) < codebookSize)
+        {
+            bits++;
+        }
+
+        return bits;
+    }
+
+    /**
+     * writeFlags - Writes Flags Packed at 1 Bit each
+     *
+     * @param out   - The Output Stream
+     * @param flags - The Flags to Write
+     * @throws IOException
+     */
+    static void writeFlags(final DataOutputStream out, final boolean[] flags) throws IOException
+    {
+        final int[] bits = new int[flags.length];
+        for(int i = 0; i < bits.length; ++i)
+        {
+            bits[i] = flags[i] ? 1 : 0;
+        }
+        writeIndices(out, bits, 1);
+    }
+
+    /**
+     * readFlags - Reads Flags Packed at 1 Bit each
+     *
+     * @param in - The Input Stream
+     * @return boolean[] - The Flags
+     * @throws IOException
+     */
+    static boolean[] readFlags(final DataInputStream in) throws IOException
+    {
+        final int[] bits = readIndices(in, 1);
+        final boolean[] flags = new boolean[bits.length];
+        for(int i = 0; i < flags.length; ++i)
+        {
+            flags[i] = bits[i] != 0;
+        }
+
+        return flags;
+    }
+
+    /**
+     * writeCodebook - Writes the Codewords of a Codebook as Unsigned Pixel Bytes
+     *
+     * @param out       - The Output Stream
+     * @param codebook  - The Codebook
+     * @param dimension - The Codeword Dimension
+     * @throws IOException
+     */
+    static void writeCodebook(final DataOutputStream out, final int[][] codebook, final int dimension) throws IOException
+    {
+        for(final int[] codeword : codebook)
+        {
+            for(int i = 0; i < dimension; ++i)
+            {
+                out.writeByte(PlaneUtil.clamp(codeword[i]));
+            }
+        }
+    }
+
+    /**
+     * readCodebook - Reads the Codewords of a Codebook from Unsigned Pixel Bytes
+     *
+     * @param in        - The Input Stream
+     * @param size      - The Number of Codewords
+     * @param dimension - The Codeword Dimension
+     * @return int[][] - The Codebook
+     * @throws IOException
+     */
+    static int[][] readCodebook(final DataInputStream in, final int size, final int dimension) throws IOException
+    {
+        final int[][] codebook = new int[size][dimension];
+        for(final int[] codeword : codebook)
+        {
+            for(int i = 0; i < dimension; ++i)
+            {
+                codeword[i] = in.readUnsignedByte();
+            }
+        }
+
+        return codebook;
+    }
+
+    /**
+     * writeIndices - Writes Indices Packed at a Fixed Bit Width
+     *
+     * @param out     - The Output Stream
+     * @param indices - The Indices to Write
+     * @param bits    - The Bits per Index
+     * @throws IOException
+     */
+    public static void writeIndices(final DataOutputStream out, final int[] indices, final int bits) throws IOException
+    {
+        // Write Index Count
+        out.writeInt(indices.length);
+
+        // Initialize Bit Accumulator
+        long buffer = 0;
+        int bufferBits = 0;
+
+        // Iterate over Indices
+        for(final int index : indices)
+        {
+            buffer = (buffer << bits) | index;
+            bufferBits += bits;
+
+            // Flush Whole Bytes
+            while(bufferBits >= 8)
+            {
+                bufferBits -= 8;
+                out.writeByte((int) (buffer >>> bufferBits));
+            }
+        }
+
+        // Flush Remaining Bits
+        if(bufferBits > 0)
+        {
+            out.writeByte((int) (buffer << (8 - bufferBits)));
+        }
+    }
+
+    /**
+     * readIndices - Reads Indices Packed at a Fixed Bit Width
+     *
+     * @param in   - The Input Stream
+     * @param bits - The Bits per Index
+     * @return int[] - The Indices
+     * @throws IOException
+     */
+    public static int[] readIndices(final DataInputStream in, final int bits) throws IOException
+    {
+        // Read Index Count
+        final int[] indices = new int[in.readInt()];
+
+        // Initialize Bit Accumulator
+        final int mask = (1 << bits) - 1;
+        long buffer = 0;
+        int bufferBits = 0;
+
+        // Iterate over Indices
+        for(int i = 0; i < indices.length; ++i)
+        {
+            // Fill Whole Bytes
+            while(bufferBits < bits)
+            {
+                buffer = (buffer << 8) | in.readUnsignedByte();
+                bufferBits += 8;
+            }
+
+            bufferBits -= bits;
+            indices[i] = (int) (buffer >>> bufferBits) & mask;
+        }
+
+        return indices;
+    }
+
+    /**
+     * checkCodebookSize - Ensures a Codebook fits the Size Field of the File Formats
+     *
+     * @param size - The Number of Codewords
+     */
+    public static void checkCodebookSize(final int size)
+    {
+        if(size > MAX_CODEBOOK_SIZE)
+        {
+            throw new IllegalArgumentException("Codebooks hold at most " + MAX_CODEBOOK_SIZE + " codewords, not " + size);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package util;
+
+import java.io.PrintStream;
+
+import data.imageTypes.ITrainingListener;
+import data.imageTypes.TrainingEvent;
+
+/**
+ * ConsoleTrainingListener - Prints a Line per Training Step
+ */
+public class ConsoleTrainingListener implements ITrainingListener
+{
+    // Nanoseconds per Millisecond
+    private static final double MILLISECOND = 1e6;
+
+    // Stream to Print to
+    private final PrintStream _out;
+
+    /**
+     * Constructor
+     */
+    public ConsoleTrainingListener()
+    {
+        this(System.out);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param out - The Stream to Print to
+     */
+    public ConsoleTrainingListener(final PrintStream out)
+    {
+        _out = out;
+    }
+
+    /**
+     * onTrainingStep - Prints the Telemetry of a Training Step
+     *
+     * @param event - The Telemetry of the Step
+     */
+    @Override
+    public synchronized void onTrainingStep(final TrainingEvent event)
+    {
+        _out.println(String.format("%s[%d] %-6s #%-3d mse=%.2f empty=%d reassigned=%d error=%.1f verify=%.3fms update=%.3fms map=%.3fms",
+                                   (event.getImage() == null) ? "" : event.getImage(), event.getChannel(),
+                                   event.getPhase(), event.getIteration(), event.getDistortion(),
+                                   event.getEmptyClusters(), event.getReassignments(), event.getError(),
+                                   event.getVerifyNanos() / MILLISECOND, event.getUpdateNanos() / MILLISECOND,
+                                   event.getClusterMapNanos() / MILLISECOND));
+    }
+}
@@ -0,0 +1,60 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+import data.imageTypes.ITrainingListener;
+import data.imageTypes.TrainingEvent;
+
+/**
+ * CsvTrainingListener - Writes a CSV Row per Training Step
+ */
+public class CsvTrainingListener implements ITrainingListener, Closeable
+{
+    // Header Row
+    private static final String HEADER = "image,channel,phase,iteration,mse,emptyClusters,reassignments,error,verifyNanos,updateNanos,clusterMapNanos";
+
+    // Writer of the CSV File
+    private final PrintWriter _writer;
+
+    /**
+     * Constructor
+     *
+     * @param file - The CSV File to Write
+     * @throws IOException
+     */
+    public CsvTrainingListener(final File file) throws IOException
+    {
+        _writer = new PrintWriter(new BufferedWriter(new FileWriter(file)));
+        _writer.println(HEADER);
+    }
+
+    /**
+     * onTrainingStep - Writes the Telemetry of a Training Step
+     *
+     * @param event - The Telemetry of the Step
+     */
+    @Override
+    public synchronized void onTrainingStep(final TrainingEvent event)
+    {
+        _writer.println(String.format(Locale.ROOT, "%s,%d,%s,%d,%.4f,%d,%d,%.4f,%d,%d,%d",
+                                      (event.getImage() == null) ? "" : event.getImage(), event.getChannel(),
+                                      event.getPhase(), event.getIteration(), event.getDistortion(),
+                                      event.getEmptyClusters(), event.getReassignments(), event.getError(),
+                                      event.getVerifyNanos(), event.getUpdateNanos(), event.getClusterMapNanos()));
+    }
+
+    /**
+     * close - Flushes and Closes the CSV File
+     */
+    @Override
+    public synchronized void close()
+    {
+        _writer.close();
+    }
+}
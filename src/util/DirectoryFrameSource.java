@@ -0,0 +1,94 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * DirectoryFrameSource - Reads the raw/rgb Images of a Directory,
+ *                        in Name Order, as the Frames of a Sequence
+ *
+ * A directory holding any rgb images supplies those, otherwise
+ * it supplies its raw images.
+ */
+public class DirectoryFrameSource implements IFrameSource
+{
+    // Image Extensions
+    private static final String RAW = "raw";
+    private static final String RGB = "rgb";
+
+    // Frame Files in Name Order
+    private final File[] _files;
+
+    // Frame Width/Height
+    private final int _width;
+    private final int _height;
+
+    // Indicator the Frames are Color
+    private final boolean _isRGB;
+
+    // Index of the Next Frame
+    private int _next;
+
+    /**
+     * Constructor
+     *
+     * @param directory - The Directory of Frames
+     * @param width     - The Width of the Frames
+     * @param height    - The Height of the Frames
+     * @throws IOException
+     */
+    public DirectoryFrameSource(final File directory, final int width, final int height) throws IOException
+    {
+        // Prefer Color Frames
+        final File[] rgbFiles = directory.listFiles((dir, name) -> name.endsWith("." + RGB));
+        if(rgbFiles == null)
+        {
+            throw new IOException("Unable to read frame directory " + directory);
+        }
+        _isRGB = rgbFiles.length > 0;
+        _files = _isRGB ? rgbFiles : directory.listFiles((dir, name) -> name.endsWith("." + RAW));
+        Arrays.sort(_files);
+
+        _width = width;
+        _height = height;
+    }
+
+    /**
+     * nextFrame - Loads the next Frame
+     *
+     * @return BufferedImage - The Frame, null after the Last File
+     * @throws IOException if a File cannot be Read or does not hold exactly one Frame
+     */
+    @Override
+    public BufferedImage nextFrame() throws IOException
+    {
+        if(_next == _files.length)
+        {
+            return null;
+        }
+
+        final String path = _files[_next++].getPath();
+        return _isRGB ? ImageUtil.convertRGBImage(path, _width, _height) : ImageUtil.convertRawImage(path, _width, _height);
+    }
+
+    /**
+     * isRGB
+     *
+     * @return boolean - TRUE if the Frames are Color, FALSE if Grayscale
+     */
+    @Override
+    public boolean isRGB()
+    {
+        return _isRGB;
+    }
+
+    /**
+     * close - Nothing is Held Open between Frames
+     */
+    @Override
+    public void close()
+    {
+    }
+}
@@ -0,0 +1,29 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * IFrameSource - Supplies the Frames of a Sequence one at a time
+ *
+ * Frames are only read when asked for, so a slow consumer
+ * holds back the producer instead of buffering its frames.
+ */
+public interface IFrameSource extends Closeable
+{
+    /**
+     * nextFrame - Reads the next Frame
+     *
+     * @return BufferedImage - The Frame, a new Image each time, null at the End of the Sequence
+     * @throws IOException
+     */
+    BufferedImage nextFrame() throws IOException;
+
+    /**
+     * isRGB
+     *
+     * @return boolean - TRUE if the Frames are Color, FALSE if Grayscale
+     */
+    boolean isRGB();
+}
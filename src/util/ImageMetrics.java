@@ -0,0 +1,357 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * ImageMetrics - Measures how closely a Reconstruction
+ *                matches its Original Image
+ *
+ * Pixels are read straight from the backing arrays of the
+ * rasters (8-bit gray or packed RGB), so no per-pixel getRGB
+ * conversion is paid. The image is split into horizontal tiles
+ * which are measured concurrently and summed.
+ *
+ * SSIM is the mean over 8x8 windows placed every 4 pixels,
+ * each window using the mean, variance and covariance of its
+ * pixels, averaged over the channels.
+ */
+public class ImageMetrics
+{
+    // PSNR Reported for a Lossless Reconstruction
+    public static final double LOSSLESS_PSNR = 100.0;
+
+    // Maximum Pixel Value
+    private static final double MAX_PIXEL = 255.0;
+
+    // SSIM Window Size and Step between Windows
+    private static final int WINDOW = 8;
+    private static final int STEP = 4;
+
+    // SSIM Stabilizing Constants
+    private static final double C1 = (0.01 * MAX_PIXEL) * (0.01 * MAX_PIXEL);
+    private static final double C2 = (0.03 * MAX_PIXEL) * (0.03 * MAX_PIXEL);
+
+    // Rows per Tile, a Multiple of the Window Step
+    private static final int TILE_ROWS = 16 * STEP;
+
+    // Executor for Concurrent Tiles
+    private final ExecutorService _executor;
+
+    /**
+     * Result - The Quality of a Reconstruction
+     */
+    public static class Result
+    {
+        // Mean Squared Error per Sample
+        public double _mse;
+
+        // Peak Signal to Noise Ratio in dB
+        public double _psnr;
+
+        // Structural Similarity, 1.0 for Identical Images, NaN if not Measured
+        public double _ssim = Double.NaN;
+
+        @Override
+        public String toString()
+        {
+            return String.format("MSE %.2f, PSNR %.2f dB, SSIM %.4f", _mse, _psnr, _ssim);
+        }
+    }
+
+    /**
+     * Samples - The Pixels of an Image in its Backing Array
+     */
+    private static class Samples
+    {
+        // 8-bit Gray Pixels, null if Packed RGB
+        final byte[] _gray;
+
+        // Packed RGB Pixels, null if Gray
+        final int[] _rgb;
+
+        /**
+         * Constructor
+         *
+         * @param gray - 8-bit Gray Pixels, null if Packed RGB
+         * @param rgb  - Packed RGB Pixels, null if Gray
+         */
+        Samples(final byte[] gray, final int[] rgb)
+        {
+            _gray = gray;
+            _rgb = rgb;
+        }
+
+        /**
+         * get - Gets one Channel of a Pixel
+         *
+         * @param index   - The Pixel Index in Row Order
+         * @param channel - 0 for Gray or Red, 1 for Green, 2 for Blue
+         * @return int - The Sample Value
+         */
+        int get(final int index, final int channel)
+        {
+            return (_gray != null) ? (_gray[index] & 0xff) : ((_rgb[index] >> (16 - 8 * channel)) & 0xff);
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    public ImageMetrics()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor - Executor for Concurrent Tiles
+     */
+    public ImageMetrics(final ExecutorService executor)
+    {
+        // Initialize Executor
+        _executor = executor;
+    }
+
+    /**
+     * measure - Gets the MSE, PSNR and SSIM of a Reconstruction
+     *
+     * @param original      - The Original Image
+     * @param reconstructed - The Reconstructed Image, of the same Size
+     * @return Result - The Quality of the Reconstruction
+     */
+    public Result measure(final BufferedImage original, final BufferedImage reconstructed)
+    {
+        return measure(original, reconstructed, true);
+    }
+
+    /**
+     * getPSNR - Gets the PSNR of a Reconstruction, without paying for SSIM
+     *
+     * @param original      - The Original Image
+     * @param reconstructed - The Reconstructed Image, of the same Size
+     * @return double - The PSNR in dB
+     */
+    public double getPSNR(final BufferedImage original, final BufferedImage reconstructed)
+    {
+        return measure(original, reconstructed, false)._psnr;
+    }
+
+    /**
+     * measure - Gets the Quality of a Reconstruction
+     *
+     * @param original      - The Original Image
+     * @param reconstructed - The Reconstructed Image, of the same Size
+     * @param withSSIM      - TRUE to also Measure SSIM
+     * @return Result - The Quality of the Reconstruction
+     */
+    public Result measure(final BufferedImage original, final BufferedImage reconstructed, final boolean withSSIM)
+    {
+        // Get Dimensions
+        final int width = original.getWidth();
+        final int height = original.getHeight();
+        if(width != reconstructed.getWidth() || height != reconstructed.getHeight())
+        {
+            throw new IllegalArgumentException("Images differ in size: " + width + "x" + height + " and "
+                                               + reconstructed.getWidth() + "x" + reconstructed.getHeight());
+        }
+
+        // Compare Gray Rasters as Gray, anything else as Red, Green and Blue
+        final boolean gray = isGray(original) && isGray(reconstructed);
+        final int channels = gray ? 1 : 3;
+        final Samples a = getSamples(original, gray);
+        final Samples b = getSamples(reconstructed, gray);
+
+        // Get SSIM Window, shrunk for Images smaller than a Window
+        final int windowX = Math.min(WINDOW, width);
+        final int windowY = Math.min(WINDOW, height);
+
+        // Create a Task per Tile of Rows
+        final ArrayList<Callable<double[]>> tasks = new ArrayList<Callable<double[]>>();
+        for(int y = 0; y < height; y += TILE_ROWS)
+        {
+            final int top = y;
+            final int bottom = Math.min(y + TILE_ROWS, height);
+            tasks.add(() -> measureTile(a, b, channels, width, height, top, bottom, withSSIM, windowX, windowY));
+        }
+
+        // Sum the Tiles
+        double error = 0;
+        double ssim = 0;
+        double windows = 0;
+        try
+        {
+            for(final Future<double[]> future : _executor.invokeAll(tasks))
+            {
+                final double[] tile = future.get();
+                error += tile[0];
+                ssim += tile[1];
+                windows += tile[2];
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while measuring image quality", e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Failed to measure image quality", e.getCause());
+        }
+
+        // Initialize Result
+        final Result result = new Result();
+        result._mse = error / ((double) width * height * channels);
+        result._psnr = (result._mse == 0.0) ? LOSSLESS_PSNR : 10.0 * Math.log10(MAX_PIXEL * MAX_PIXEL / result._mse);
+        if(withSSIM)
+        {
+            result._ssim = ssim / windows;
+        }
+
+        return result;
+    }
+
+    /**
+     * measureTile - Sums the Squared Error of the Rows of a Tile
+     *               and the SSIM of the Windows starting in them
+     *
+     * @param a        - The Original Pixels
+     * @param b        - The Reconstructed Pixels
+     * @param channels - The Channels per Pixel
+     * @param width    - The Width of the Images
+     * @param height   - The Height of the Images
+     * @param top      - The First Row of the Tile
+     * @param bottom   - The Row after the Tile
+     * @param withSSIM - TRUE to also Measure SSIM
+     * @param windowX  - The SSIM Window Width
+     * @param windowY  - The SSIM Window Height
+     * @return double[] - Squared Error, SSIM Sum and Window Count
+     */
+    private static double[] measureTile(final Samples a, final Samples b, final int channels, final int width,
+                                        final int height, final int top, final int bottom, final boolean withSSIM,
+                                        final int windowX, final int windowY)
+    {
+        // Sum Squared Error over the Rows of the Tile
+        long error = 0;
+        for(int i = top * width; i < bottom * width; ++i)
+        {
+            for(int c = 0; c < channels; ++c)
+            {
+                final int diff = a.get(i, c) - b.get(i, c);
+                error += diff * diff;
+            }
+        }
+
+        // Check if SSIM is Measured
+        double ssim = 0;
+        long windows = 0;
+        if(withSSIM)
+        {
+            final double n = (double) windowX * windowY;
+
+            // Iterate over Windows starting in the Tile
+            for(int y = top; y < bottom && y + windowY <= height; y += STEP)
+            {
+                for(int x = 0; x + windowX <= width; x += STEP)
+                {
+                    for(int c = 0; c < channels; ++c)
+                    {
+                        // Sum the Window Moments
+                        long sumA = 0, sumB = 0, sumAA = 0, sumBB = 0, sumAB = 0;
+                        for(int dy = 0; dy < windowY; ++dy)
+                        {
+                            final int row = (y + dy) * width + x;
+                            for(int dx = 0; dx < windowX; ++dx)
+                            {
+                                final int pa = a.get(row + dx, c);
+                                final int pb = b.get(row + dx, c);
+                                sumA += pa;
+                                sumB += pb;
+                                sumAA += pa * pa;
+                                sumBB += pb * pb;
+                                sumAB += pa * pb;
+                            }
+                        }
+
+                        // Get Means, Variances and Covariance
+                        final double meanA = sumA / n;
+                        final double meanB = sumB / n;
+                        final double varA = sumAA / n - meanA * meanA;
+                        final double varB = sumBB / n - meanB * meanB;
+                        final double cov = sumAB / n - meanA * meanB;
+
+                        ssim += ((2 * meanA * meanB + C1) * (2 * cov + C2))
+                                / ((meanA * meanA + meanB * meanB + C1) * (varA + varB + C2));
+                        windows++;
+                    }
+                }
+            }
+        }
+
+        return new double[] {error, ssim, windows};
+    }
+
+    /**
+     * isGray - Checks if an Image holds 8-bit Gray Pixels
+     *
+     * @param image - The Image
+     * @return boolean - TRUE if 8-bit Gray
+     */
+    private static boolean isGray(final BufferedImage image)
+    {
+        return image.getType() == BufferedImage.TYPE_BYTE_GRAY;
+    }
+
+    /**
+     * getSamples - Gets the Backing Array of an Image, copying it through
+     *              getRGB only if it is not Gray or Packed RGB
+     *
+     * @param image - The Image
+     * @param gray  - TRUE to read the Gray Raster
+     * @return Samples - The Pixels of the Image
+     */
+    private static Samples getSamples(final BufferedImage image, final boolean gray)
+    {
+        // Only Whole Rasters have the Pixels at the Start of their Array in Row Order
+        final WritableRaster raster = image.getRaster();
+        final boolean whole = raster.getParent() == null && raster.getSampleModelTranslateX() == 0
+                              && raster.getSampleModelTranslateY() == 0;
+
+        // Check if Gray Raster
+        if(gray && whole)
+        {
+            return new Samples(((DataBufferByte) raster.getDataBuffer()).getData(), null);
+        }
+
+        // Check if Packed RGB Raster
+        final int type = image.getType();
+        if(whole && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB))
+        {
+            return new Samples(null, ((DataBufferInt) raster.getDataBuffer()).getData());
+        }
+
+        // Copy any other Layout into Packed RGB
+        final int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        if(gray)
+        {
+            // Keep the Green Byte, as PlaneUtil reads Gray
+            final byte[] values = new byte[pixels.length];
+            for(int i = 0; i < pixels.length; ++i)
+            {
+                values[i] = (byte) (pixels[i] >> 8);
+            }
+            return new Samples(values, null);
+        }
+
+        return new Samples(null, pixels);
+    }
+}
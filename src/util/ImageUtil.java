@@ -1,10 +1,13 @@
 package util;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+
+import util.jfr.ImageLoadEvent;
 
 public class ImageUtil
 {
@@ -13,64 +16,34 @@ public class ImageUtil
      *
      * @param filePath
      * @return BufferedImage
+     * @throws IOException if the File cannot be Read or does not hold exactly one Image
      */
     public static BufferedImage convertRawImage(final String filePath, final int width, final int height)
+        throws IOException
     {
+        // Begin Flight Recorder Event
+        final ImageLoadEvent event = new ImageLoadEvent();
+        event.begin();
+
         // Initialize Raw Image
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
 
         // Initialize File
         File file = new File(filePath);
 
-        // Initialize Pixel Buffer (GrayScale)
-        int[] buffer = new int[width * height];
-
-        try
-        {
-            // Initialize 
-            int reader = 0;
-            int count = 0;
-
-            // Create File Reader
-            final InputStream inputStream = new FileInputStream(file);
+        // Read Pixel Buffer (GrayScale)
+        final byte[] buffer = readImageBytes(file, width, height, width * height);
 
-            // Read until End of File
-            while((reader = inputStream.read()) != -1)
-            {
-                buffer[count] = reader;
-                count++;
-            }
+        // Copy the Gray Bytes straight into the Raster, as setRGB would
+        // Convert them to Linear Gray and getRGB Convert them back
+        System.arraycopy(buffer, 0, ((DataBufferByte) image.getRaster().getDataBuffer()).getData(), 0, buffer.length);
 
-            // Reset Counter to 0;
-            count = 0;
-
-            // Iterate over Y Values
-            for(int y = 0; y < height; y++)
-            {
-                // Iterate over X Values
-                for(int x = 0; x < width; x++)
-                {
-                    // Get Pixel Value from Buffer
-                    int pixVal = buffer[count];
-
-                    // Get the Grayscale Byte Value
-                    byte gray = (byte) pixVal;
-
-                    // Convert to Pixel Value
-                    int pix = 0xff000000 | ((gray & 0xff) << 8);
-
-                    // Set Pixel in Buffered Image
-                    image.setRGB(x, y, pix);
-
-                    // Increment Count
-                    count++;
-                }
-            }
-        }
-        catch(IOException e)
+        // Commit Flight Recorder Event
+        if(event.isEnabled())
         {
-            e.printStackTrace();
+            event.setFile(filePath, file.length());
         }
+        event.complete(width, height, null, null, 0);
 
         return image;
     }
@@ -80,69 +53,90 @@ public class ImageUtil
      *
      * @param filePath
      * @return BufferedImage
+     * @throws IOException if the File cannot be Read or does not hold exactly one Image
      */
     public static BufferedImage convertRGBImage(final String filePath, final int width, final int height)
+        throws IOException
     {
+        // Begin Flight Recorder Event
+        final ImageLoadEvent event = new ImageLoadEvent();
+        event.begin();
+
         // Initialize Raw Image
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
         // Initialize File
         File file = new File(filePath);
 
-        // Initialize Pixel Buffer (RGB)
-        int[] buffer = new int[width * height * 3];
+        // Read Pixel Buffer (RGB)
+        final byte[] buffer = readImageBytes(file, width, height, width * height * 3);
 
-        try
+        // Initialize Counter
+        int count = 0;
+
+        // Iterate over Y Values
+        for(int y = 0; y < height; y++)
         {
-            // Initialize 
-            int reader = 0;
-            int count = 0;
+            // Iterate over X Values
+            for(int x = 0; x < width; x++)
+            {
+                // Get the Byte Value of each Plane
+                byte r = buffer[count];
+                byte g = buffer[count+(height*width)];
+                byte b = buffer[count+(2*height*width)];
 
-            // Create File Reader
-            final InputStream inputStream = new FileInputStream(file);
+                // Convert to Pixel Value
+                final int pix = 0xff000000 | ((r & 0xff) << 16) | ((g & 0xff) << 8) | (b & 0xff);
 
-            // Read until End of File
-            while((reader = inputStream.read()) != -1)
-            {
-                buffer[count] = reader;
+                // Set Pixel in Buffered Image
+                image.setRGB(x, y, pix);
+
+                // Increment Count
                 count++;
             }
+        }
+
+        // Commit Flight Recorder Event
+        if(event.isEnabled())
+        {
+            event.setFile(filePath, file.length());
+        }
+        event.complete(width, height, null, null, 0);
 
-            // Reset Counter to 0;
-            count = 0;
+        return image;
+    }
 
-            // Iterate over Y Values
-            for(int y = 0; y < height; y++)
-            {
-                // Iterate over X Values
-                for(int x = 0; x < width; x++)
-                {
-                    // Get Pixel Value from Buffer
-                    int redVal = buffer[count];
-                    int greenVal = buffer[count+(height*width)];
-                    int blueVal = buffer[count+(2*height*width)];
-
-                    // Get the Grayscale Byte Value
-                    byte r = (byte) redVal;
-                    byte g = (byte) greenVal;
-                    byte b = (byte) blueVal;
-
-                    // Convert to Pixel Value
-                    final int pix = 0xff000000 | ((r & 0xff) << 16) | ((g & 0xff) << 8) | (b & 0xff);
-
-                    // Set Pixel in Buffered Image
-                    image.setRGB(x, y, pix);
-
-                    // Increment Count
-                    count++;
-                }
-            }
+    /**
+     * readImageBytes - Reads every Byte of an Image File
+     *
+     * @param file   - The Image File
+     * @param width  - The Width of the Image
+     * @param height - The Height of the Image
+     * @param length - The Number of Bytes the Image holds
+     * @return byte[] - The Bytes of the File
+     * @throws IOException if the File cannot be Read or is not exactly length Bytes
+     */
+    private static byte[] readImageBytes(final File file, final int width, final int height, final int length)
+        throws IOException
+    {
+        // Ensure the File holds exactly one Image, a Missing File has no Length
+        if(!file.isFile())
+        {
+            throw new IOException("Image " + file.getName() + " does not exist");
         }
-        catch(IOException e)
+        if(file.length() != length)
         {
-            e.printStackTrace();
+            throw new IOException("Image " + file.getName() + " holds " + file.length() + " bytes, expected "
+                                  + length + " for " + width + "x" + height);
         }
 
-        return image;
+        // Read the whole File
+        final byte[] buffer = new byte[length];
+        try(final DataInputStream inputStream = new DataInputStream(new FileInputStream(file)))
+        {
+            inputStream.readFully(buffer);
+        }
+
+        return buffer;
     }
 }
@@ -0,0 +1,384 @@
+package util;
+
+import java.awt.image.BufferedImage;
+
+import enums.EVectorMode;
+
+/**
+ * PlaneUtil - Converts between Images, Pixel Planes and Block Vectors
+ *
+ * A plane holds one channel of an image as width*height
+ * pixel values in row order. Block vectors are laid out
+ * block by block in row order; within a block each plane
+ * contributes its pixels in row order, one plane after another.
+ */
+public class PlaneUtil
+{
+    /**
+     * getPlanes - Splits an Image into its Pixel Planes
+     *
+     * @param image    - The Image to Split
+     * @param channels - 1 for a Grayscale Image, 3 for Red, Green and Blue
+     * @return int[][] - The Pixel Planes
+     */
+    public static int[][] getPlanes(final BufferedImage image, final int channels)
+    {
+        // Get Dimensions
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+
+        // Read the Gray Values as Stored, getRGB would Convert them from Linear Gray
+        if(channels == 1 && image.getRaster().getNumBands() == 1)
+        {
+            return new int[][] { image.getRaster().getSamples(0, 0, width, height, 0, (int[]) null) };
+        }
+
+        // Read every Pixel at once
+        final int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        // Initialize Planes
+        final int[][] planes = new int[channels][width * height];
+
+        // Iterate over Pixels
+        for(int i = 0; i < pixels.length; ++i)
+        {
+            if(channels == 1)
+            {
+                // Grayscale Value of a Color Image is held in the Green Byte
+                planes[0][i] = (pixels[i] >> 8) & 0xff;
+            }
+            else
+            {
+                planes[0][i] = (pixels[i] >> 16) & 0xff;
+                planes[1][i] = (pixels[i] >> 8) & 0xff;
+                planes[2][i] = pixels[i] & 0xff;
+            }
+        }
+
+        return planes;
+    }
+
+    /**
+     * toImage - Joins Red, Green and Blue Planes into an Image
+     *
+     * @param planes - The Red, Green and Blue Planes
+     * @param width  - The Width of the Image
+     * @param height - The Height of the Image
+     * @return BufferedImage - The Image
+     */
+    public static BufferedImage toImage(final int[][] planes, final int width, final int height)
+    {
+        // Initialize Pixels
+        final int[] pixels = new int[width * height];
+
+        // Iterate over Pixels
+        for(int i = 0; i < pixels.length; ++i)
+        {
+            pixels[i] = 0xff000000 | (clamp(planes[0][i]) << 16) | (clamp(planes[1][i]) << 8) | clamp(planes[2][i]);
+        }
+
+        // Write every Pixel at once
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+
+        return image;
+    }
+
+    /**
+     * toGrayImage - Converts a Plane into a Grayscale Image
+     *
+     * @param plane  - The Grayscale Plane
+     * @param width  - The Width of the Image
+     * @param height - The Height of the Image
+     * @return BufferedImage - The Image
+     */
+    public static BufferedImage toGrayImage(final int[] plane, final int width, final int height)
+    {
+        // Initialize Gray Values
+        final int[] samples = new int[width * height];
+
+        // Iterate over Pixels
+        for(int i = 0; i < samples.length; ++i)
+        {
+            samples[i] = clamp(plane[i]);
+        }
+
+        // Write the Gray Values straight into the Raster, so that
+        // getPlanes reads back the same Values without Color Conversion
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        image.getRaster().setSamples(0, 0, width, height, 0, samples);
+
+        return image;
+    }
+
+    /**
+     * downscaleImage - Shrinks an Image by Averaging each
+     *                  factor x factor Block of Pixels
+     *
+     * @param image    - The Image to Shrink
+     * @param channels - 1 for a Grayscale Image, 3 for Red, Green and Blue
+     * @param factor   - Pixels Averaged in each Direction
+     * @return BufferedImage - The Shrunk Image
+     */
+    public static BufferedImage downscaleImage(final BufferedImage image, final int channels, final int factor)
+    {
+        // Get Dimensions
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int scaledWidth = (width + factor - 1) / factor;
+        final int scaledHeight = (height + factor - 1) / factor;
+
+        // Average each Plane
+        final int[][] planes = getPlanes(image, channels);
+        for(int c = 0; c < channels; ++c)
+        {
+            planes[c] = downsample(planes[c], width, height, factor, factor);
+        }
+
+        return (channels == 1) ? toGrayImage(planes[0], scaledWidth, scaledHeight)
+                               : toImage(planes, scaledWidth, scaledHeight);
+    }
+
+    /**
+     * toYCbCr - Converts Red, Green and Blue Planes to
+     *           Luma and Chroma Planes (JPEG YCbCr)
+     *
+     * @param rgb - The Red, Green and Blue Planes
+     * @return int[][] - The Y, Cb and Cr Planes
+     */
+    public static int[][] toYCbCr(final int[][] rgb)
+    {
+        // Initialize Planes
+        final int size = rgb[0].length;
+        final int[][] ycc = new int[3][size];
+
+        // Iterate over Pixels
+        for(int i = 0; i < size; ++i)
+        {
+            final int r = rgb[0][i];
+            final int g = rgb[1][i];
+            final int b = rgb[2][i];
+
+            ycc[0][i] = clamp((int) Math.round(0.299 * r + 0.587 * g + 0.114 * b));
+            ycc[1][i] = clamp((int) Math.round(128 - 0.168736 * r - 0.331264 * g + 0.5 * b));
+            ycc[2][i] = clamp((int) Math.round(128 + 0.5 * r - 0.418688 * g - 0.081312 * b));
+        }
+
+        return ycc;
+    }
+
+    /**
+     * toRGB - Converts Luma and Chroma Planes (JPEG YCbCr)
+     *         to Red, Green and Blue Planes
+     *
+     * @param ycc - The Y, Cb and Cr Planes
+     * @return int[][] - The Red, Green and Blue Planes
+     */
+    public static int[][] toRGB(final int[][] ycc)
+    {
+        // Initialize Planes
+        final int size = ycc[0].length;
+        final int[][] rgb = new int[3][size];
+
+        // Iterate over Pixels
+        for(int i = 0; i < size; ++i)
+        {
+            final int y = ycc[0][i];
+            final int cb = ycc[1][i] - 128;
+            final int cr = ycc[2][i] - 128;
+
+            rgb[0][i] = clamp((int) Math.round(y + 1.402 * cr));
+            rgb[1][i] = clamp((int) Math.round(y - 0.344136 * cb - 0.714136 * cr));
+            rgb[2][i] = clamp((int) Math.round(y + 1.772 * cb));
+        }
+
+        return rgb;
+    }
+
+    /**
+     * downsample - Averages each factorX x factorY Block of a Plane
+     *
+     * @param plane   - The Full Resolution Plane
+     * @param width   - The Width of the Plane
+     * @param height  - The Height of the Plane
+     * @param factorX - Pixels Averaged Horizontally
+     * @param factorY - Pixels Averaged Vertically
+     * @return int[] - The Subsampled Plane
+     */
+    public static int[] downsample(final int[] plane, final int width, final int height, final int factorX, final int factorY)
+    {
+        // Get Subsampled Dimensions
+        final int subWidth = (width + factorX - 1) / factorX;
+        final int subHeight = (height + factorY - 1) / factorY;
+        final int[] result = new int[subWidth * subHeight];
+
+        // Iterate over Subsampled Pixels
+        for(int sy = 0; sy < subHeight; ++sy)
+        {
+            for(int sx = 0; sx < subWidth; ++sx)
+            {
+                // Average the Pixels inside the Image
+                int sum = 0;
+                int count = 0;
+                for(int y = sy * factorY; y < Math.min((sy + 1) * factorY, height); ++y)
+                {
+                    for(int x = sx * factorX; x < Math.min((sx + 1) * factorX, width); ++x)
+                    {
+                        sum += plane[y * width + x];
+                        count++;
+                    }
+                }
+
+                result[sy * subWidth + sx] = (sum + count / 2) / count;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * upsample - Expands a Subsampled Plane to Full Resolution
+     *            by Repeating each Pixel
+     *
+     * @param plane   - The Subsampled Plane
+     * @param width   - The Width of the Full Resolution Plane
+     * @param height  - The Height of the Full Resolution Plane
+     * @param factorX - Horizontal Subsampling Factor
+     * @param factorY - Vertical Subsampling Factor
+     * @return int[] - The Full Resolution Plane
+     */
+    public static int[] upsample(final int[] plane, final int width, final int height, final int factorX, final int factorY)
+    {
+        // Get Subsampled Width
+        final int subWidth = (width + factorX - 1) / factorX;
+        final int[] result = new int[width * height];
+
+        // Iterate over Full Resolution Pixels
+        for(int y = 0; y < height; ++y)
+        {
+            final int row = (y / factorY) * subWidth;
+
+            for(int x = 0; x < width; ++x)
+            {
+                result[y * width + x] = plane[row + x / factorX];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * getBlockCount - Gets the Number of Blocks covering a Plane
+     *
+     * @param width  - The Width of the Plane
+     * @param height - The Height of the Plane
+     * @param mode   - How pixels are grouped to form vectors
+     * @return int - The Number of Blocks
+     */
+    public static int getBlockCount(final int width, final int height, final EVectorMode mode)
+    {
+        final int blocksX = (width + mode.getBlockWidth() - 1) / mode.getBlockWidth();
+        final int blocksY = (height + mode.getBlockHeight() - 1) / mode.getBlockHeight();
+
+        return blocksX * blocksY;
+    }
+
+    /**
+     * getBlocks - Groups the Pixels of Planes into Block Vectors.
+     *             Blocks overhanging the edge repeat the edge pixels.
+     *
+     * @param planes - The Pixel Planes
+     * @param width  - The Width of the Planes
+     * @param height - The Height of the Planes
+     * @param mode   - How pixels are grouped to form vectors
+     * @return int[] - The Block Vectors, one after another
+     */
+    public static int[] getBlocks(final int[][] planes, final int width, final int height, final EVectorMode mode)
+    {
+        // Get Block Dimensions
+        final int blockWidth = mode.getBlockWidth();
+        final int blockHeight = mode.getBlockHeight();
+
+        // Initialize Vectors
+        final int[] vectors = new int[getBlockCount(width, height, mode) * mode.getDimension() * planes.length];
+        int count = 0;
+
+        // Iterate over Blocks
+        for(int y = 0; y < height; y += blockHeight)
+        {
+            for(int x = 0; x < width; x += blockWidth)
+            {
+                // Iterate over Planes
+                for(final int[] plane : planes)
+                {
+                    // Iterate over Pixels of Block
+                    for(int dy = 0; dy < blockHeight; ++dy)
+                    {
+                        final int row = Math.min(y + dy, height - 1) * width;
+
+                        for(int dx = 0; dx < blockWidth; ++dx)
+                        {
+                            vectors[count++] = plane[row + Math.min(x + dx, width - 1)];
+                        }
+                    }
+                }
+            }
+        }
+
+        return vectors;
+    }
+
+    /**
+     * setBlocks - Writes Block Vectors back into Planes.
+     *             Pixels overhanging the edge are dropped.
+     *
+     * @param vectors - The Block Vectors, one after another
+     * @param planes  - The Pixel Planes to Write
+     * @param width   - The Width of the Planes
+     * @param height  - The Height of the Planes
+     * @param mode    - How pixels are grouped to form vectors
+     */
+    public static void setBlocks(final int[] vectors, final int[][] planes, final int width, final int height, final EVectorMode mode)
+    {
+        // Get Block Dimensions
+        final int blockWidth = mode.getBlockWidth();
+        final int blockHeight = mode.getBlockHeight();
+        int count = 0;
+
+        // Iterate over Blocks
+        for(int y = 0; y < height; y += blockHeight)
+        {
+            for(int x = 0; x < width; x += blockWidth)
+            {
+                // Iterate over Planes
+                for(final int[] plane : planes)
+                {
+                    // Iterate over Pixels of Block
+                    for(int dy = 0; dy < blockHeight; ++dy)
+                    {
+                        for(int dx = 0; dx < blockWidth; ++dx)
+                        {
+                            final int value = vectors[count++];
+
+                            if(y + dy < height && x + dx < width)
+                            {
+                                plane[(y + dy) * width + x + dx] = value;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * clamp - Clamps a Pixel Value to a Single Byte
+     *
+     * @param pixel - The Pixel Value
+     * @return int - The Clamped Pixel Value
+     */
+    public static int clamp(final int pixel)
+    {
+        return Math.max(0, Math.min(255, pixel));
+    }
+}
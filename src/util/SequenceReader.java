@@ -0,0 +1,523 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import data.imageTypes.CompressedImage;
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * SequenceReader - Reads the Compressed Frames of a Sequence
+ *                  written by a SequenceWriter
+ *
+ * decodeFrame keeps one Decoded Image for the whole Sequence and
+ * only redraws the Blocks whose Index or Codeword changed since the
+ * Previous Frame. That needs Blocks of one Size which map straight
+ * onto the Pixels, so Quadtree and YCbCr Frames are Decoded whole.
+ */
+public class SequenceReader implements Closeable
+{
+    // Input Stream
+    private final DataInputStream _in;
+
+    // Frame Width/Height
+    private final int _width;
+    private final int _height;
+
+    // Vector/Color Mode of every Frame
+    private final EVectorMode _mode;
+    private final EColorMode _colorMode;
+
+    // Codebooks and Indices of the Previous Frame, Level by Level within each Channel
+    private ArrayList<int[][]> _previous;
+    private ArrayList<int[]> _previousIndices;
+
+    // Split Flags of the Previous Frame in the Quadtree Mode, by Channel
+    private ArrayList<boolean[]> _previousFlags;
+
+    // Blocks of the Last Frame Read whose Pixels Changed, Level by Level within each Channel
+    private ArrayList<boolean[]> _changedBlocks;
+
+    // Decoded Image, Updated in Place by decodeFrame
+    private BufferedImage _image;
+
+    // Number of Blocks Decoded, and of those Redrawn
+    private long _blocks;
+    private long _redrawnBlocks;
+
+    /**
+     * Constructor, Reads the Stream Header
+     *
+     * @param in - The Input Stream
+     * @throws IOException
+     */
+    public SequenceReader(final InputStream in) throws IOException
+    {
+        _in = new DataInputStream(new BufferedInputStream(in));
+
+        // Read Header
+        if(_in.readInt() != SequenceWriter.MAGIC)
+        {
+            throw new IOException("Not a compressed sequence");
+        }
+        _width = _in.readInt();
+        _height = _in.readInt();
+        _mode = EVectorMode.values()[_in.readUnsignedByte()];
+        _colorMode = EColorMode.values()[_in.readUnsignedByte()];
+    }
+
+    /**
+     * getWidth
+     *
+     * @return int - The Width of the Frames
+     */
+    public int getWidth()
+    {
+        return _width;
+    }
+
+    /**
+     * getHeight
+     *
+     * @return int - The Height of the Frames
+     */
+    public int getHeight()
+    {
+        return _height;
+    }
+
+    /**
+     * getMode
+     *
+     * @return EVectorMode - How pixels were grouped to form vectors
+     */
+    public EVectorMode getMode()
+    {
+        return _mode;
+    }
+
+    /**
+     * getColorMode
+     *
+     * @return EColorMode - How the channels were quantized
+     */
+    public EColorMode getColorMode()
+    {
+        return _colorMode;
+    }
+
+    /**
+     * readFrame - Reads the next Frame
+     *
+     * @return CompressedImage - The Compressed Frame, null at the End of the Sequence
+     * @throws IOException
+     */
+    public CompressedImage readFrame() throws IOException
+    {
+        // Check for the End of the Sequence
+        final int channels = _in.read();
+        if(channels < 0)
+        {
+            return null;
+        }
+
+        // Initialize Compressed Frame
+        final CompressedImage image = new CompressedImage(_width, _height, _mode, _colorMode);
+        final ArrayList<int[][]> frameCodebooks = new ArrayList<int[][]>();
+        final ArrayList<int[]> frameIndices = new ArrayList<int[]>();
+        final ArrayList<boolean[]> frameFlags = new ArrayList<boolean[]>();
+        final ArrayList<boolean[]> changedBlocks = new ArrayList<boolean[]>();
+
+        // Iterate over Channels
+        for(int c = 0; c < channels; ++c)
+        {
+            // Read Split Flags
+            final boolean[] splitFlags = (image.getLevelCount() > 1) ? CompressedImageUtil.readFlags(_in) : null;
+            frameFlags.add(splitFlags);
+
+            // Blocks only keep their Position if the Tree is Unchanged
+            final boolean sameTree = (splitFlags == null)
+                                     || (_previousFlags != null && c < _previousFlags.size()
+                                         && Arrays.equals(splitFlags, _previousFlags.get(c)));
+
+            // Iterate over Levels
+            final ArrayList<int[][]> codebooks = new ArrayList<int[][]>(image.getLevelCount());
+            final ArrayList<int[]> indices = new ArrayList<int[]>(image.getLevelCount());
+            for(int l = 0; l < image.getLevelCount(); ++l)
+            {
+                // Read Codebook
+                final int size = _in.readUnsignedShort();
+                final int dimension = _in.readUnsignedByte();
+                if(dimension != image.getDimension(l))
+                {
+                    throw new IOException("Unexpected codeword dimension " + dimension);
+                }
+                final int[][] previous = (_previous != null && frameCodebooks.size() < _previous.size())
+                                         ? _previous.get(frameCodebooks.size()) : null;
+                final int[] previousIndices = (_previousIndices != null && sameTree && frameCodebooks.size() < _previousIndices.size())
+                                              ? _previousIndices.get(frameCodebooks.size()) : null;
+                final int coding = _in.readUnsignedByte();
+                final int[][] codebook;
+                if(coding == SequenceWriter.DELTA_CODEBOOK)
+                {
+                    if(previous == null || previous.length != size)
+                    {
+                        throw new IOException("Codebook delta without a matching previous codebook");
+                    }
+                    codebook = readCodebookDelta(previous, dimension);
+                }
+                else if(coding == SequenceWriter.RAW_CODEBOOK)
+                {
+                    codebook = CompressedImageUtil.readCodebook(_in, size, dimension);
+                }
+                else
+                {
+                    throw new IOException("Unknown codebook coding " + coding);
+                }
+                codebooks.add(codebook);
+                frameCodebooks.add(codebook);
+
+                // Read Indices
+                final int indexCoding = _in.readUnsignedByte();
+                final int[] levelIndices;
+                if(indexCoding == SequenceWriter.SKIP_RUN_INDICES)
+                {
+                    if(previousIndices == null)
+                    {
+                        throw new IOException("Skip runs without matching previous indices");
+                    }
+                    levelIndices = readSkipRuns(previousIndices, CompressedImageUtil.getIndexBits(size));
+                }
+                else if(indexCoding == SequenceWriter.PACKED_INDICES)
+                {
+                    levelIndices = CompressedImageUtil.readIndices(_in, CompressedImageUtil.getIndexBits(size));
+                }
+                else
+                {
+                    throw new IOException("Unknown index coding " + indexCoding);
+                }
+                indices.add(levelIndices);
+                frameIndices.add(levelIndices);
+
+                // Flag Blocks whose Index or Codeword Changed
+                changedBlocks.add(getChangedBlocks(codebook, levelIndices, previous, previousIndices, dimension));
+            }
+
+            // Add the Channel
+            if(splitFlags != null)
+            {
+                image.addChannel(codebooks, indices, splitFlags);
+            }
+            else
+            {
+                image.addChannel(codebooks.get(0), indices.get(0));
+            }
+        }
+
+        // Keep Codebooks, Indices and Split Flags for the next Frame
+        _previous = frameCodebooks;
+        _previousIndices = frameIndices;
+        _previousFlags = frameFlags;
+        _changedBlocks = changedBlocks;
+
+        return image;
+    }
+
+    /**
+     * decodeFrame - Reads the next Frame and Updates the Decoded Image,
+     *               Redrawing only the Blocks that Changed
+     *
+     * @return BufferedImage - The Decoded Image, the same Instance for every
+     *                         Frame that can be Updated in Place, null at the
+     *                         End of the Sequence
+     * @throws IOException
+     */
+    public BufferedImage decodeFrame() throws IOException
+    {
+        // Read the next Frame
+        final CompressedImage frame = readFrame();
+        if(frame == null)
+        {
+            return null;
+        }
+
+        // Decode the First Frame, and any Frame not Drawable in Place, Whole
+        final boolean drawable = frame.getLevelCount() == 1 && !_colorMode.isYCbCr();
+        if(_image == null || !drawable)
+        {
+            _image = frame.decodeImage();
+            for(final boolean[] changed : _changedBlocks)
+            {
+                _blocks += changed.length;
+                _redrawnBlocks += changed.length;
+            }
+
+            return _image;
+        }
+
+        // Redraw Changed Blocks of each Channel
+        for(int c = 0; c < frame.getChannelCount(); ++c)
+        {
+            final boolean[] changed = _changedBlocks.get(c);
+            final int[][] codebook = frame.getCodebook(c);
+            final int[] indices = frame.getIndices(c);
+            for(int i = 0; i < indices.length; ++i)
+            {
+                if(changed[i])
+                {
+                    drawBlock(codebook[indices[i]], c, frame.getChannelPlanes(), i);
+                    _redrawnBlocks++;
+                }
+            }
+            _blocks += indices.length;
+        }
+
+        return _image;
+    }
+
+    /**
+     * getBlockCount
+     *
+     * @return long - The Number of Blocks Decoded by decodeFrame
+     */
+    public long getBlockCount()
+    {
+        return _blocks;
+    }
+
+    /**
+     * getRedrawnBlockCount
+     *
+     * @return long - The Number of Blocks decodeFrame Redrew
+     */
+    public long getRedrawnBlockCount()
+    {
+        return _redrawnBlocks;
+    }
+
+    /**
+     * close - Closes the Stream
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException
+    {
+        _in.close();
+    }
+
+    /**
+     * readCodebookDelta - Reads a Codebook written as the Codewords
+     *                     that differ from the Previous Frame's
+     *
+     * @param previous  - The Previous Frame's Codebook
+     * @param dimension - The Codeword Dimension
+     * @return int[][] - The Codebook
+     * @throws IOException
+     */
+    private int[][] readCodebookDelta(final int[][] previous, final int dimension) throws IOException
+    {
+        // Read Changed Codeword Flags
+        final boolean[] changed = CompressedImageUtil.readFlags(_in);
+        if(changed.length != previous.length)
+        {
+            throw new IOException("Codebook delta of " + changed.length + " codewords, expected " + previous.length);
+        }
+
+        // Apply the Differences of Changed Codewords
+        final int[][] codebook = new int[previous.length][];
+        for(int k = 0; k < codebook.length; ++k)
+        {
+            codebook[k] = previous[k].clone();
+            if(changed[k])
+            {
+                for(int i = 0; i < dimension; ++i)
+                {
+                    codebook[k][i] = (PlaneUtil.clamp(previous[k][i]) + _in.readUnsignedByte()) & 0xff;
+                }
+            }
+        }
+
+        return codebook;
+    }
+
+    /**
+     * readSkipRuns - Reads Indices written as Skip and Literal Runs
+     *
+     * @param previousIndices - The Indices of the Previous Frame
+     * @param bits            - The Bits per Index
+     * @return int[] - The Indices
+     * @throws IOException
+     */
+    private int[] readSkipRuns(final int[] previousIndices, final int bits) throws IOException
+    {
+        // Read Index Count
+        final int count = _in.readInt();
+        if(count != previousIndices.length)
+        {
+            throw new IOException("Skip runs over " + count + " blocks, expected " + previousIndices.length);
+        }
+
+        // Read Runs, Marking Literal Blocks
+        final boolean[] literal = new boolean[count];
+        int i = 0;
+        while(i < count)
+        {
+            i += readVarint();
+            final int literalRun = readVarint();
+            if(i + literalRun > count)
+            {
+                throw new IOException("Skip runs overrun " + count + " blocks");
+            }
+            Arrays.fill(literal, i, i + literalRun, true);
+            i += literalRun;
+        }
+
+        // Fill Literal Blocks from the Packed Literals, the Rest from the Previous Frame
+        final int[] literals = CompressedImageUtil.readIndices(_in, bits);
+        final int[] indices = new int[count];
+        int next = 0;
+        for(i = 0; i < count; ++i)
+        {
+            if(literal[i])
+            {
+                if(next == literals.length)
+                {
+                    throw new IOException("Too few literal indices in skip runs");
+                }
+                indices[i] = literals[next++];
+            }
+            else
+            {
+                indices[i] = previousIndices[i];
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * readVarint - Reads an Unsigned Value written 7 Bits at a time
+     *
+     * @return int - The Value
+     * @throws IOException
+     */
+    private int readVarint() throws IOException
+    {
+        int value = 0;
+        for(int shift = 0; shift < Integer.SIZE; shift += 7)
+        {
+            final int b = _in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * getChangedBlocks - Flags the Blocks whose Pixels differ from the
+     *                    Previous Frame, because their Index or the
+     *                    Codeword it Selects Changed
+     *
+     * @param codebook        - The Codebook of this Frame
+     * @param indices         - The Indices of this Frame
+     * @param previous        - The Previous Frame's Codebook, null if None
+     * @param previousIndices - The Previous Frame's Indices, null if None
+     * @param dimension       - The Codeword Dimension
+     * @return boolean[] - TRUE for each Changed Block
+     */
+    private static boolean[] getChangedBlocks(final int[][] codebook, final int[] indices, final int[][] previous,
+                                              final int[] previousIndices, final int dimension)
+    {
+        final boolean[] changed = new boolean[indices.length];
+
+        // Every Block Changed without Comparable Blocks
+        if(previous == null || previousIndices == null || previousIndices.length != indices.length)
+        {
+            Arrays.fill(changed, true);
+            return changed;
+        }
+
+        // Flag Changed Codewords
+        final boolean[] changedCodewords = new boolean[codebook.length];
+        for(int k = 0; k < codebook.length; ++k)
+        {
+            changedCodewords[k] = k >= previous.length;
+            for(int i = 0; i < dimension && !changedCodewords[k]; ++i)
+            {
+                changedCodewords[k] = PlaneUtil.clamp(codebook[k][i]) != PlaneUtil.clamp(previous[k][i]);
+            }
+        }
+
+        // Flag Blocks
+        for(int i = 0; i < indices.length; ++i)
+        {
+            changed[i] = indices[i] != previousIndices[i] || changedCodewords[indices[i]];
+        }
+
+        return changed;
+    }
+
+    /**
+     * drawBlock - Writes a Codeword into the Decoded Image
+     *
+     * @param codeword - The Codeword, Plane by Plane
+     * @param channel  - The Channel Index, the Plane of a Planar RGB Image
+     * @param planes   - The Planes per Codeword, 3 for Joint RGB
+     * @param block    - The Block Index in Row Order
+     */
+    private void drawBlock(final int[] codeword, final int channel, final int planes, final int block)
+    {
+        // Get Block Position
+        final int blockWidth = _mode.getBlockWidth();
+        final int blockHeight = _mode.getBlockHeight();
+        final int blocksX = (_width + blockWidth - 1) / blockWidth;
+        final int x0 = (block % blocksX) * blockWidth;
+        final int y0 = (block / blocksX) * blockHeight;
+        final int size = blockWidth * blockHeight;
+
+        // Check if Grayscale Image, whose Raster holds the Gray Values as by PlaneUtil.toGrayImage
+        if(_image.getType() == BufferedImage.TYPE_BYTE_GRAY)
+        {
+            final WritableRaster raster = _image.getRaster();
+            for(int dy = 0; dy < blockHeight && y0 + dy < _height; ++dy)
+            {
+                for(int dx = 0; dx < blockWidth && x0 + dx < _width; ++dx)
+                {
+                    raster.setSample(x0 + dx, y0 + dy, 0, PlaneUtil.clamp(codeword[dy * blockWidth + dx]));
+                }
+            }
+            return;
+        }
+
+        // Replace the Byte of each Plane in the Packed RGB Pixels
+        final int[] pixels = ((DataBufferInt) _image.getRaster().getDataBuffer()).getData();
+        for(int p = 0; p < planes; ++p)
+        {
+            final int shift = 16 - 8 * (channel + p);
+            final int mask = ~(0xff << shift);
+            for(int dy = 0; dy < blockHeight && y0 + dy < _height; ++dy)
+            {
+                for(int dx = 0; dx < blockWidth && x0 + dx < _width; ++dx)
+                {
+                    final int index = (y0 + dy) * _width + x0 + dx;
+                    final int value = PlaneUtil.clamp(codeword[p * size + dy * blockWidth + dx]);
+                    pixels[index] = (pixels[index] & mask) | (value << shift);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import data.imageTypes.CompressedImage;
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * SequenceWriter - Writes the Compressed Frames of a Sequence to one Stream
+ *
+ * Stream Layout:
+ *   int   magic ("VQS1")
+ *   int   width, int height
+ *   byte  vector mode, byte color mode
+ *   per frame:
+ *     byte  channel count
+ *     per channel, as in CompressedImageUtil except that each codebook
+ *     size and dimension is followed by a byte coding:
+ *       0 (raw): codebook size * dimension unsigned pixel bytes
+ *       1 (delta): against the codebook of the same channel and level
+ *                  in the previous frame, which has the same size:
+ *         int   codeword count
+ *         changed codeword flags packed at 1 bit each
+ *         per changed codeword, dimension bytes of (codeword - previous) mod 256
+ *     and each index count is preceded by a byte coding:
+ *       0 (packed): indices packed as in CompressedImageUtil
+ *       1 (skip runs): against the indices of the same channel and level
+ *                      in the previous frame, which has as many blocks
+ *                      and the same split flags:
+ *         int   index count
+ *         alternating skip and literal run lengths as unsigned varints,
+ *         starting with a skip run, until they cover the index count
+ *         literal indices packed as in CompressedImageUtil
+ *
+ * A skipped block keeps the index it had in the previous frame, so a
+ * decoder only redraws it if that codeword changed.
+ */
+public class SequenceWriter implements Closeable
+{
+    // Sequence File Extension
+    public static final String EXTENSION = "vqs";
+
+    // Stream Magic Number
+    static final int MAGIC = 0x56515331;
+
+    // Codebook Codings
+    static final int RAW_CODEBOOK = 0;
+    static final int DELTA_CODEBOOK = 1;
+
+    // Index Codings
+    static final int PACKED_INDICES = 0;
+    static final int SKIP_RUN_INDICES = 1;
+
+    // Output Stream
+    private final DataOutputStream _out;
+
+    // Frame Width/Height
+    private final int _width;
+    private final int _height;
+
+    // Vector/Color Mode of every Frame
+    private final EVectorMode _mode;
+    private final EColorMode _colorMode;
+
+    // Indicator Codebooks are Written as Deltas against the Previous Frame
+    private boolean _codebookDelta;
+
+    // Indicator Indices are Written as Skip Runs against the Previous Frame
+    private boolean _indexDifferencing;
+
+    // Codebooks and Indices of the Previous Frame, Level by Level within each Channel
+    private ArrayList<int[][]> _previous;
+    private ArrayList<int[]> _previousIndices;
+
+    // Split Flags of the Previous Frame in the Quadtree Mode, by Channel
+    private ArrayList<boolean[]> _previousFlags;
+
+    // Number of Blocks Written, and of those Skipped
+    private long _blocks;
+    private long _skippedBlocks;
+
+    // Number of Frames Written
+    private int _frames;
+
+    /**
+     * Constructor, Writes the Stream Header
+     *
+     * @param out       - The Output Stream
+     * @param width     - The Width of the Frames
+     * @param height    - The Height of the Frames
+     * @param mode      - How pixels are grouped to form vectors
+     * @param colorMode - How the channels are quantized
+     * @throws IOException
+     */
+    public SequenceWriter(final OutputStream out, final int width, final int height, final EVectorMode mode,
+                          final EColorMode colorMode) throws IOException
+    {
+        _out = new DataOutputStream(new BufferedOutputStream(out));
+        _width = width;
+        _height = height;
+        _mode = mode;
+        _colorMode = colorMode;
+
+        // Write Header
+        _out.writeInt(MAGIC);
+        _out.writeInt(width);
+        _out.writeInt(height);
+        _out.writeByte(mode.ordinal());
+        _out.writeByte(colorMode.ordinal());
+    }
+
+    /**
+     * setCodebookDelta - Writes each Codebook as the Codewords that
+     *                    Changed since the Previous Frame, when it has
+     *                    as many Codewords as the Previous Frame's
+     *
+     * @param codebookDelta - TRUE to Write Deltas
+     */
+    public void setCodebookDelta(final boolean codebookDelta)
+    {
+        _codebookDelta = codebookDelta;
+    }
+
+    /**
+     * setIndexDifferencing - Writes the Indices of each Block as Runs of
+     *                        Blocks whose Index is Unchanged since the
+     *                        Previous Frame and Runs of New Indices,
+     *                        when that is Smaller than Packing them
+     *
+     * @param indexDifferencing - TRUE to Write Skip Runs
+     */
+    public void setIndexDifferencing(final boolean indexDifferencing)
+    {
+        _indexDifferencing = indexDifferencing;
+    }
+
+    /**
+     * writeFrame - Writes the next Frame
+     *
+     * @param image - The Compressed Frame
+     * @throws IOException
+     */
+    public void writeFrame(final CompressedImage image) throws IOException
+    {
+        // Ensure the Frame matches the Sequence
+        if(image.getWidth() != _width || image.getHeight() != _height || !_mode.equals(image.getMode())
+           || !_colorMode.equals(image.getColorMode()))
+        {
+            throw new IllegalArgumentException("Frame " + _frames + " does not match the " + _width + "x" + _height + " "
+                                               + _mode + "/" + _colorMode + " sequence");
+        }
+
+        // Initialize Codebooks, Indices and Split Flags of this Frame
+        final ArrayList<int[][]> codebooks = new ArrayList<int[][]>();
+        final ArrayList<int[]> frameIndices = new ArrayList<int[]>();
+        final ArrayList<boolean[]> frameFlags = new ArrayList<boolean[]>();
+        _out.writeByte(image.getChannelCount());
+
+        // Iterate over Channels
+        for(int c = 0; c < image.getChannelCount(); ++c)
+        {
+            // Write Split Flags
+            final boolean[] splitFlags = image.getSplitFlags(c);
+            if(image.getLevelCount() > 1)
+            {
+                CompressedImageUtil.writeFlags(_out, splitFlags);
+            }
+            frameFlags.add(splitFlags);
+
+            // Blocks only keep their Position if the Tree is Unchanged
+            final boolean sameTree = (splitFlags == null)
+                                     || (_previousFlags != null && c < _previousFlags.size()
+                                         && Arrays.equals(splitFlags, _previousFlags.get(c)));
+
+            // Iterate over Levels
+            for(int l = 0; l < image.getLevelCount(); ++l)
+            {
+                final int[][] codebook = image.getCodebook(c, l);
+                final int dimension = image.getDimension(l);
+                final int[][] previous = (_previous != null && codebooks.size() < _previous.size())
+                                         ? _previous.get(codebooks.size()) : null;
+                final int[] previousIndices = (_previousIndices != null && sameTree && codebooks.size() < _previousIndices.size())
+                                              ? _previousIndices.get(codebooks.size()) : null;
+                final int[] indices = image.getIndices(c, l);
+                codebooks.add(codebook);
+                frameIndices.add(indices);
+
+                // Write Codebook, whose Size must fit its Field
+                CompressedImageUtil.checkCodebookSize(codebook.length);
+                _out.writeShort(codebook.length);
+                _out.writeByte(dimension);
+                if(_codebookDelta && previous != null && previous.length == codebook.length)
+                {
+                    _out.writeByte(DELTA_CODEBOOK);
+                    writeCodebookDelta(codebook, previous, dimension);
+                }
+                else
+                {
+                    _out.writeByte(RAW_CODEBOOK);
+                    CompressedImageUtil.writeCodebook(_out, codebook, dimension);
+                }
+
+                // Write Indices as Skip Runs if Smaller, else Packed
+                final int bits = CompressedImageUtil.getIndexBits(codebook.length);
+                final byte[] skipRuns = (_indexDifferencing && previousIndices != null && previousIndices.length == indices.length)
+                                        ? getSkipRuns(indices, previousIndices, bits) : null;
+                if(skipRuns != null && skipRuns.length < getPackedSize(indices.length, bits))
+                {
+                    _out.writeByte(SKIP_RUN_INDICES);
+                    _out.write(skipRuns);
+                    _skippedBlocks += getSkippedCount(indices, previousIndices);
+                }
+                else
+                {
+                    _out.writeByte(PACKED_INDICES);
+                    CompressedImageUtil.writeIndices(_out, indices, bits);
+                }
+                _blocks += indices.length;
+            }
+        }
+
+        // Keep Codebooks, Indices and Split Flags for the next Frame
+        _previous = codebooks;
+        _previousIndices = frameIndices;
+        _previousFlags = frameFlags;
+        _frames++;
+    }
+
+    /**
+     * getFrameCount
+     *
+     * @return int - The Number of Frames Written
+     */
+    public int getFrameCount()
+    {
+        return _frames;
+    }
+
+    /**
+     * getBlockCount
+     *
+     * @return long - The Number of Blocks Written
+     */
+    public long getBlockCount()
+    {
+        return _blocks;
+    }
+
+    /**
+     * getSkippedBlockCount
+     *
+     * @return long - The Number of Blocks Written as Skipped
+     */
+    public long getSkippedBlockCount()
+    {
+        return _skippedBlocks;
+    }
+
+    /**
+     * size
+     *
+     * @return long - The Number of Bytes Written so far
+     */
+    public long size()
+    {
+        return _out.size();
+    }
+
+    /**
+     * close - Flushes and Closes the Stream
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException
+    {
+        _out.close();
+    }
+
+    /**
+     * writeCodebookDelta - Writes the Codewords that differ from
+     *                      the Previous Frame's, as Differences
+     *
+     * @param codebook  - The Codebook
+     * @param previous  - The Previous Frame's Codebook, of the same Size
+     * @param dimension - The Codeword Dimension
+     * @throws IOException
+     */
+    private void writeCodebookDelta(final int[][] codebook, final int[][] previous, final int dimension) throws IOException
+    {
+        // Flag Changed Codewords
+        final boolean[] changed = new boolean[codebook.length];
+        for(int k = 0; k < codebook.length; ++k)
+        {
+            for(int i = 0; i < dimension && !changed[k]; ++i)
+            {
+                changed[k] = PlaneUtil.clamp(codebook[k][i]) != PlaneUtil.clamp(previous[k][i]);
+            }
+        }
+        CompressedImageUtil.writeFlags(_out, changed);
+
+        // Write Differences of Changed Codewords, Wrapped to a Byte
+        for(int k = 0; k < codebook.length; ++k)
+        {
+            if(changed[k])
+            {
+                for(int i = 0; i < dimension; ++i)
+                {
+                    _out.writeByte(PlaneUtil.clamp(codebook[k][i]) - PlaneUtil.clamp(previous[k][i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * getSkipRuns - Codes Indices as Runs of Blocks Unchanged since the
+     *               Previous Frame and Runs of New Indices
+     *
+     * @param indices         - The Indices of this Frame
+     * @param previousIndices - The Indices of the Previous Frame, as many
+     * @param bits            - The Bits per Index
+     * @return byte[] - The Skip Run Coding, starting with the Index Count
+     * @throws IOException
+     */
+    private byte[] getSkipRuns(final int[] indices, final int[] previousIndices, final int bits) throws IOException
+    {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(indices.length);
+
+        // Alternate Skip and Literal Runs
+        final int[] literals = new int[indices.length];
+        int literalCount = 0;
+        int i = 0;
+        while(i < indices.length)
+        {
+            // Skip Run
+            final int skipStart = i;
+            while(i < indices.length && indices[i] == previousIndices[i])
+            {
+                i++;
+            }
+            writeVarint(out, i - skipStart);
+
+            // Literal Run
+            final int literalStart = i;
+            while(i < indices.length && indices[i] != previousIndices[i])
+            {
+                literals[literalCount++] = indices[i++];
+            }
+            writeVarint(out, i - literalStart);
+        }
+
+        // Pack the Literal Indices
+        CompressedImageUtil.writeIndices(out, Arrays.copyOf(literals, literalCount), bits);
+
+        return buffer.toByteArray();
+    }
+
+    /**
+     * getSkippedCount - Counts the Blocks whose Index is Unchanged
+     *
+     * @param indices         - The Indices of this Frame
+     * @param previousIndices - The Indices of the Previous Frame, as many
+     * @return int - The Number of Unchanged Indices
+     */
+    private static int getSkippedCount(final int[] indices, final int[] previousIndices)
+    {
+        int skipped = 0;
+        for(int i = 0; i < indices.length; ++i)
+        {
+            if(indices[i] == previousIndices[i])
+            {
+                skipped++;
+            }
+        }
+
+        return skipped;
+    }
+
+    /**
+     * getPackedSize - Gets the Bytes Written for Packed Indices
+     *
+     * @param count - The Number of Indices
+     * @param bits  - The Bits per Index
+     * @return long - The Bytes, including the Index Count
+     */
+    private static long getPackedSize(final int count, final int bits)
+    {
+        return Integer.BYTES + ((long) count * bits + 7) / 8;
+    }
+
+    /**
+     * writeVarint - Writes an Unsigned Value 7 Bits at a time,
+     *               Low Bits first, the High Bit marking More
+     *
+     * @param out   - The Output Stream
+     * @param value - The Value, not Negative
+     * @throws IOException
+     */
+    static void writeVarint(final DataOutputStream out, int value) throws IOException
+    {
+        while(value >= 0x80)
+        {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,174 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import util.jfr.ImageLoadEvent;
+
+/**
+ * StreamFrameSource - Reads Frames from a Continuous Stream of
+ *                     Concatenated raw (W x H) or rgb (W x H x 3,
+ *                     plane by plane) Frames, such as a File, a
+ *                     Pipe or Standard Input
+ *
+ * Every frame is read into one reusable direct buffer, so the
+ * only allocation per frame is the image handed to the consumer.
+ * Frames are converted as ImageUtil converts raw/rgb files.
+ */
+public class StreamFrameSource implements IFrameSource
+{
+    // Name Reading from Standard Input
+    public static final String STDIN = "-";
+
+    // Input Channel
+    private final ReadableByteChannel _channel;
+
+    // Name of the Input, for Flight Recorder Events
+    private final String _name;
+
+    // Frame Width/Height
+    private final int _width;
+    private final int _height;
+
+    // Indicator the Frames are Color
+    private final boolean _isRGB;
+
+    // Reusable Buffer holding one Frame
+    private final ByteBuffer _buffer;
+
+    // Number of Frames Read
+    private long _frames;
+
+    /**
+     * Constructor
+     *
+     * @param channel - The Input Channel
+     * @param name    - The Name of the Input
+     * @param width   - The Width of the Frames
+     * @param height  - The Height of the Frames
+     * @param isRGB   - TRUE for rgb Frames, FALSE for raw Frames
+     */
+    public StreamFrameSource(final ReadableByteChannel channel, final String name, final int width, final int height,
+                             final boolean isRGB)
+    {
+        _channel = channel;
+        _name = name;
+        _width = width;
+        _height = height;
+        _isRGB = isRGB;
+        _buffer = ByteBuffer.allocateDirect(width * height * (isRGB ? 3 : 1));
+    }
+
+    /**
+     * open - Opens a File, a Named Pipe, or Standard Input as a Frame Source
+     *
+     * @param path   - The Path, or "-" for Standard Input
+     * @param width  - The Width of the Frames
+     * @param height - The Height of the Frames
+     * @param isRGB  - TRUE for rgb Frames, FALSE for raw Frames
+     * @return StreamFrameSource - The Frame Source
+     * @throws IOException
+     */
+    public static StreamFrameSource open(final String path, final int width, final int height, final boolean isRGB)
+        throws IOException
+    {
+        final ReadableByteChannel channel = STDIN.equals(path) ? Channels.newChannel(new FileInputStream(FileDescriptor.in))
+                                                               : FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+
+        return new StreamFrameSource(channel, path, width, height, isRGB);
+    }
+
+    /**
+     * nextFrame - Reads the next Frame
+     *
+     * @return BufferedImage - The Frame, null at the End of the Stream
+     * @throws IOException if the Stream Ends within a Frame
+     */
+    @Override
+    public BufferedImage nextFrame() throws IOException
+    {
+        // Begin Flight Recorder Event
+        final ImageLoadEvent event = new ImageLoadEvent();
+        event.begin();
+
+        // Fill the Buffer, Blocking until a whole Frame Arrived
+        _buffer.clear();
+        while(_buffer.hasRemaining())
+        {
+            if(_channel.read(_buffer) < 0)
+            {
+                // Check if the Stream Ended between Frames
+                if(_buffer.position() == 0)
+                {
+                    return null;
+                }
+                throw new IOException("Stream " + _name + " ended within frame " + _frames + " after "
+                                      + _buffer.position() + " of " + _buffer.capacity() + " bytes");
+            }
+        }
+        _buffer.flip();
+
+        // Convert the Frame
+        final int size = _width * _height;
+        final BufferedImage image;
+        if(_isRGB)
+        {
+            // Pack the Red, Green and Blue Planes straight into the Raster
+            image = new BufferedImage(_width, _height, BufferedImage.TYPE_INT_RGB);
+            final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            for(int i = 0; i < size; ++i)
+            {
+                pixels[i] = 0xff000000 | ((_buffer.get(i) & 0xff) << 16) | ((_buffer.get(size + i) & 0xff) << 8)
+                            | (_buffer.get(2 * size + i) & 0xff);
+            }
+        }
+        else
+        {
+            // Copy the Gray Bytes straight into the Raster, as ImageUtil does
+            image = new BufferedImage(_width, _height, BufferedImage.TYPE_BYTE_GRAY);
+            _buffer.get(0, ((DataBufferByte) image.getRaster().getDataBuffer()).getData(), 0, size);
+        }
+
+        // Commit Flight Recorder Event
+        if(event.isEnabled())
+        {
+            event.setFile(_name + "#" + _frames, _buffer.capacity());
+        }
+        event.complete(_width, _height, null, null, 0);
+        _frames++;
+
+        return image;
+    }
+
+    /**
+     * isRGB
+     *
+     * @return boolean - TRUE if the Frames are Color, FALSE if Grayscale
+     */
+    @Override
+    public boolean isRGB()
+    {
+        return _isRGB;
+    }
+
+    /**
+     * close - Closes the Input Channel
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException
+    {
+        _channel.close();
+    }
+}
@@ -0,0 +1,159 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import enums.ESamplingMode;
+
+/**
+ * VectorReservoir - Keeps a Uniform Random Sample of at most a
+ *                   fixed Number of the Vectors Offered to it
+ *
+ * Each offered vector replaces a random kept vector with the
+ * probability that keeps every vector seen so far equally likely
+ * to be in the sample (reservoir sampling), so the sample never
+ * grows past its capacity however many vectors are offered.
+ *
+ * sample draws a sample from vectors already in memory, either
+ * uniformly through a reservoir or stratified over block order.
+ */
+public class VectorReservoir
+{
+    // Default Seed, so Repeated Runs Sample the same Vectors
+    public static final long DEFAULT_SEED = 0x5eed;
+
+    // Number of Pixel Values in each Vector
+    private final int _dimension;
+
+    // Maximum Number of Vectors Kept
+    private final int _capacity;
+
+    // Kept Vectors, one after another
+    private final int[] _vectors;
+
+    // Number of Vectors Offered so far
+    private long _seen;
+
+    // Source of Replacement Positions
+    private final Random _random;
+
+    /**
+     * Constructor
+     *
+     * @param capacity  - Maximum Number of Vectors Kept
+     * @param dimension - Number of Pixel Values in each Vector
+     * @param seed      - Seed of the Replacement Positions
+     */
+    public VectorReservoir(final int capacity, final int dimension, final long seed)
+    {
+        _capacity = capacity;
+        _dimension = dimension;
+        _vectors = new int[capacity * dimension];
+        _random = new Random(seed);
+    }
+
+    /**
+     * offer - Offers every Vector of an Array to the Sample
+     *
+     * @param vectors - Vectors, one after another
+     */
+    public void offer(final int[] vectors)
+    {
+        // Iterate over Vectors
+        for(int offset = 0; offset + _dimension <= vectors.length; offset += _dimension)
+        {
+            // Fill the Reservoir first, then Replace with Probability capacity/seen
+            final long slot = (_seen < _capacity) ? _seen : nextLong(_seen + 1);
+            if(slot < _capacity)
+            {
+                System.arraycopy(vectors, offset, _vectors, (int) slot * _dimension, _dimension);
+            }
+            _seen++;
+        }
+    }
+
+    /**
+     * sample - Draws a Sample of at most a Number of Vectors from an Array
+     *
+     * @param vectors   - Vectors, one after another
+     * @param dimension - Number of Pixel Values in each Vector
+     * @param capacity  - Maximum Number of Vectors Sampled
+     * @param sampling  - How the Sample is Drawn
+     * @param seed      - Seed of the Sampled Positions
+     * @return int[] - The Sampled Vectors, one after another, the
+     *                 Array itself if it holds no more than capacity
+     */
+    public static int[] sample(final int[] vectors, final int dimension, final int capacity,
+                               final ESamplingMode sampling, final long seed)
+    {
+        // Ensure there are more Vectors than the Sample holds
+        final int count = vectors.length / dimension;
+        if(count <= capacity)
+        {
+            return vectors;
+        }
+
+        // Check if Uniform Sampling
+        if(ESamplingMode.UNIFORM.equals(sampling))
+        {
+            final VectorReservoir reservoir = new VectorReservoir(capacity, dimension, seed);
+            reservoir.offer(vectors);
+            return reservoir.getVectors();
+        }
+
+        // Split the Vectors into capacity equal Strata, in Block Order
+        // so every Region of the Image is Sampled, and pick one from each
+        final Random random = new Random(seed);
+        final int[] sample = new int[capacity * dimension];
+        for(int s = 0; s < capacity; ++s)
+        {
+            final int start = (int) ((long) s * count / capacity);
+            final int end = (int) ((long) (s + 1) * count / capacity);
+            final int v = start + random.nextInt(end - start);
+            System.arraycopy(vectors, v * dimension, sample, s * dimension, dimension);
+        }
+
+        return sample;
+    }
+
+    /**
+     * getVectors - Gets the Sampled Vectors
+     *
+     * @return int[] - A Copy of the Kept Vectors, one after another
+     */
+    public int[] getVectors()
+    {
+        return Arrays.copyOf(_vectors, (int) Math.min(_seen, _capacity) * _dimension);
+    }
+
+    /**
+     * getDimension
+     *
+     * @return int - The Number of Pixel Values in each Vector
+     */
+    public int getDimension()
+    {
+        return _dimension;
+    }
+
+    /**
+     * getSeenCount
+     *
+     * @return long - The Number of Vectors Offered so far
+     */
+    public long getSeenCount()
+    {
+        return _seen;
+    }
+
+    /**
+     * nextLong - Gets a Uniform Random Position
+     *
+     * @param bound - The Exclusive Upper Bound
+     * @return long - A Position in [0, bound)
+     */
+    private long nextLong(final long bound)
+    {
+        return (bound <= Integer.MAX_VALUE) ? _random.nextInt((int) bound) : Math.floorMod(_random.nextLong(), bound);
+    }
+}
@@ -0,0 +1,61 @@
+package util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import enums.EColorMode;
+import enums.EVectorMode;
+
+/**
+ * CompressionEvent - Base of the Flight Recorder Events emitted
+ *                    around each Phase of Encoding and Decoding
+ *
+ * Fields are only filled in once the event is known to be
+ * recorded, so events cost a timestamp when JFR is off and
+ * no stack trace when it is on.
+ */
+@Category("Compression")
+@StackTrace(false)
+public abstract class CompressionEvent extends Event
+{
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Vector Mode")
+    String mode;
+
+    @Label("Color Mode")
+    String colorMode;
+
+    @Label("Codebook Size")
+    int k;
+
+    /**
+     * complete - Ends the Event and Commits it if Recorded
+     *
+     * @param width     - The Width of the Image
+     * @param height    - The Height of the Image
+     * @param mode      - How pixels are grouped to form vectors, null if not known
+     * @param colorMode - How the channels are quantized, null if not known
+     * @param k         - The Number of Codewords, 0 if not known
+     */
+    public void complete(final int width, final int height, final EVectorMode mode, final EColorMode colorMode, final int k)
+    {
+        end();
+
+        if(shouldCommit())
+        {
+            this.width = width;
+            this.height = height;
+            this.mode = (mode == null) ? null : mode.name();
+            this.colorMode = (colorMode == null) ? null : colorMode.name();
+            this.k = k;
+            commit();
+        }
+    }
+}
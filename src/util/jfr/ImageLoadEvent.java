@@ -0,0 +1,32 @@
+package util.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ImageLoadEvent - Reading a raw/rgb File into an Image
+ */
+@Name("compression.ImageLoad")
+@Label("Image Load")
+public class ImageLoadEvent extends CompressionEvent
+{
+    @Label("Path")
+    String path;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytes;
+
+    /**
+     * setFile - Sets the File being Loaded
+     *
+     * @param path  - The Path of the File
+     * @param bytes - The Number of Bytes Read
+     */
+    public void setFile(final String path, final long bytes)
+    {
+        this.path = path;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,42 @@
+package util.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import enums.ETrainingPhase;
+
+/**
+ * LloydIterationEvent - One Step of Codebook Training
+ */
+@Name("compression.LloydIteration")
+@Label("Lloyd Iteration")
+public class LloydIterationEvent extends CompressionEvent
+{
+    @Label("Channel")
+    int channel;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Codeword Error")
+    double error;
+
+    /**
+     * setStep - Sets the Training Step, only worth calling if the Event is Enabled
+     *
+     * @param channel   - The Index of the Codebook within the Image
+     * @param phase     - The Training Step
+     * @param iteration - The Iteration of the Step, from 0
+     * @param error     - The Total Error between Old and New Codewords
+     */
+    public void setStep(final int channel, final ETrainingPhase phase, final int iteration, final double error)
+    {
+        this.channel = channel;
+        this.phase = phase.name();
+        this.iteration = iteration;
+        this.error = error;
+    }
+}
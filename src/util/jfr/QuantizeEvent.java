@@ -0,0 +1,25 @@
+package util.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * QuantizeEvent - Mapping every Input Vector to its Codeword Index
+ */
+@Name("compression.Quantize")
+@Label("Quantize")
+public class QuantizeEvent extends CompressionEvent
+{
+    @Label("Iterations")
+    int iterations;
+
+    /**
+     * setIterations - Sets the Lloyd Iterations run before Quantizing
+     *
+     * @param iterations - The Total Lloyd Iterations over all Codebooks
+     */
+    public void setIterations(final int iterations)
+    {
+        this.iterations = iterations;
+    }
+}
@@ -0,0 +1,13 @@
+package util.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ReconstructEvent - Rebuilding an Image from its Codebooks and Indices
+ */
+@Name("compression.Reconstruct")
+@Label("Reconstruct")
+public class ReconstructEvent extends CompressionEvent
+{
+}
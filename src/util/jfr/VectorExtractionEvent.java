@@ -0,0 +1,13 @@
+package util.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * VectorExtractionEvent - Grouping the Pixels of an Image into Input Vectors
+ */
+@Name("compression.VectorExtraction")
+@Label("Vector Extraction")
+public class VectorExtractionEvent extends CompressionEvent
+{
+}